@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.resource.FileSystemResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Changelog parsing time for a registry with many history tables.
+ *
+ * parseChangeLog uses the shared DdmParameters snapshot, parseChangeLogWithPerChangeReload re-reads
+ * parameters.xml four times per change the way every change constructor used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DdmParametersBenchmark {
+
+    private static final String CHANGELOG_FILE_NAME = "changelog.xml";
+
+    @Param("5000")
+    private int changes;
+
+    private File directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ddm-parameters-benchmark").toFile();
+        try (PrintWriter writer = new PrintWriter(new File(directory, CHANGELOG_FILE_NAME), StandardCharsets.UTF_8.name())) {
+            writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            writer.println("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"");
+            writer.println("        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+            writer.println("        xmlns:ext=\"http://www.liquibase.org/xml/ns/dbchangelog-ext\"");
+            writer.println("        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog "
+                + "http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-4.2.xsd\">");
+            for (int i = 0; i < changes / 2; i++) {
+                writer.println("    <changeSet author=\"benchmark\" id=\"table_" + i + "\">");
+                writer.println("        <createTable tableName=\"table_" + i + "\" ext:historyFlag=\"true\">");
+                writer.println("            <column name=\"id\" type=\"UUID\"><constraints primaryKey=\"true\"/></column>");
+                writer.println("            <column name=\"name\" type=\"TEXT\"/>");
+                writer.println("        </createTable>");
+                writer.println("        <addColumn tableName=\"table_" + i + "\" ext:historyFlag=\"true\">");
+                writer.println("            <column name=\"code\" type=\"TEXT\"/>");
+                writer.println("        </addColumn>");
+                writer.println("    </changeSet>");
+            }
+            writer.println("</databaseChangeLog>");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(directory, CHANGELOG_FILE_NAME).delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public DatabaseChangeLog parseChangeLog() throws Exception {
+        return parse();
+    }
+
+    @Benchmark
+    public void parseChangeLogWithPerChangeReload(Blackhole blackhole) throws Exception {
+        DatabaseChangeLog changeLog = parse();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            for (Change change : changeSet.getChanges()) {
+                for (int i = 0; i < 4; i++) {
+                    blackhole.consume(DdmParameters.reload());
+                }
+                blackhole.consume(change);
+            }
+        }
+    }
+
+    private DatabaseChangeLog parse() throws Exception {
+        return new XMLChangeLogSAXParser().parse(CHANGELOG_FILE_NAME, new ChangeLogParameters(),
+            new FileSystemResourceAccessor(directory));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmArchiveAffectableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.core.MockDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * isChangeFirst for every addColumn of a large changelog, half of which has already been executed.
+ *
+ * isChangeFirst includes the one pass over the changelog, isChangeFirstLinearScan walks the
+ * changelog up to every change the way the keeper used to, leaving out its isSameAs fallback scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DdmRanChangeSetsKeeperBenchmark {
+
+    @Param("10000")
+    private int changeSets;
+
+    @Param("2000")
+    private int archiveAffectableChanges;
+
+    @Param("400")
+    private int tables;
+
+    private RanDatabase database;
+    private List<DdmAddColumnChange> changes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new RanDatabase();
+        changes = new ArrayList<>();
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("changelog.xml");
+        int step = changeSets / archiveAffectableChanges;
+
+        for (int i = 0; i < changeSets; i++) {
+            ChangeSet changeSet = new ChangeSet("changeSet_" + i, "benchmark", false, false,
+                "changelog.xml", null, null, changeLog);
+            if (i % step == 0) {
+                DdmAddColumnChange change = new DdmAddColumnChange();
+                change.setTableName("table_" + (i / step) % tables);
+                changeSet.addChange(change);
+                changes.add(change);
+            } else {
+                DdmCreateTableChange change = new DdmCreateTableChange();
+                change.setTableName("other_table_" + i);
+                changeSet.addChange(change);
+            }
+            changeLog.addChangeSet(changeSet);
+            if (i < changeSets / 2) {
+                database.ranChangeSets.add(new RanChangeSet(changeSet));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidate() {
+        DdmRanChangeSetsKeeper.invalidate(database);
+    }
+
+    @Benchmark
+    public void isChangeFirst(Blackhole blackhole) {
+        for (DdmAddColumnChange change : changes) {
+            blackhole.consume(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+        }
+    }
+
+    @Benchmark
+    public void isChangeFirstLinearScan(Blackhole blackhole) {
+        Map<String, RanChangeSet> ranChangeSets = database.getRanChangeSetList().stream()
+            .collect(Collectors.toMap(RanChangeSet::toString, Function.identity()));
+        for (DdmAddColumnChange change : changes) {
+            blackhole.consume(isChangeFirstLinearScan(ranChangeSets, change));
+        }
+    }
+
+    private static boolean isChangeFirstLinearScan(Map<String, RanChangeSet> ranChangeSets, DdmArchiveAffectableChange change) {
+        for (ChangeSet xmlChangeSet : change.getChangeSet().getChangeLog().getChangeSets()) {
+            if (xmlChangeSet.equals(change.getChangeSet())) {
+                for (Change c : xmlChangeSet.getChanges()) {
+                    if (c == change) {
+                        break;
+                    }
+                    if (isTheSameTableModifyingChange(c, change)) {
+                        return false;
+                    }
+                }
+                break;
+            }
+            if (ranChangeSets.containsKey(xmlChangeSet.toString(false))) {
+                continue;
+            }
+            for (Change c : xmlChangeSet.getChanges()) {
+                if (isTheSameTableModifyingChange(c, change)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTheSameTableModifyingChange(Change c, DdmArchiveAffectableChange change) {
+        return c instanceof DdmArchiveAffectableChange
+            && ((DdmArchiveAffectableChange) c).getTableName().equals(change.getTableName());
+    }
+
+    private static class RanDatabase extends MockDatabase {
+
+        private final List<RanChangeSet> ranChangeSets = new ArrayList<>();
+
+        @Override
+        public List<RanChangeSet> getRanChangeSetList() {
+            return ranChangeSets;
+        }
+    }
+}
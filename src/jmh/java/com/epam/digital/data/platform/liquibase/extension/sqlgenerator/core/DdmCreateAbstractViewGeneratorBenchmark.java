@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmConditionConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmCteConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmFunctionConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.core.AbstractSqlGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SQL of a search condition with a CTE, joined tables with many columns, aggregate functions and
+ * a deep condition tree, generated by the current and by the legacy generator.
+ *
+ * The setup fails unless both generators produce the same SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DdmCreateAbstractViewGeneratorBenchmark {
+
+    private static final String[] OPERATORS = {
+        DdmConstants.OPERATOR_EQ, DdmConstants.OPERATOR_NE, DdmConstants.OPERATOR_GT, DdmConstants.OPERATOR_GE,
+        DdmConstants.OPERATOR_LT, DdmConstants.OPERATOR_LE, DdmConstants.OPERATOR_IN, DdmConstants.OPERATOR_NOT_IN,
+        DdmConstants.OPERATOR_IS_NULL, DdmConstants.OPERATOR_SIMILAR, DdmConstants.OPERATOR_LIKE
+    };
+
+    @Param("5")
+    private int tables;
+
+    @Param("100")
+    private int columns;
+
+    @Param("6")
+    private int conditionDepth;
+
+    private DdmCreateAbstractViewStatement statement;
+    private DdmCreateAbstractViewGenerator generator;
+    private LegacyDdmCreateAbstractViewGenerator legacyGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new DdmCreateAbstractViewGenerator();
+        legacyGenerator = new LegacyDdmCreateAbstractViewGenerator();
+
+        statement = new DdmCreateAbstractViewStatement("benchmark");
+        statement.setIndexing(true);
+
+        DdmCteConfig cte = new DdmCteConfig();
+        cte.setName("cte_0");
+        DdmTableConfig cteTable = createTable("cte_table", "ct");
+        cte.addTable(cteTable);
+        cte.setConditions(createConditions("ct", conditionDepth));
+        statement.getCtes().add(cte);
+
+        for (int i = 0; i < tables; i++) {
+            DdmTableConfig table = createTable("table_" + i, "t" + i);
+            statement.addTable(table);
+            // the join columns are declared as indexed, since the legacy generator plans no join indexes
+            statement.getIndexedColumns().put(table.getName(), Collections.singletonList(Arrays.asList("column_0", "column_1")));
+            if (i > 0) {
+                DdmJoinConfig join = new DdmJoinConfig();
+                join.setType("left");
+                join.setLeftAlias("t" + (i - 1));
+                join.setRightAlias("t" + i);
+                join.addLeftColumn("column_0");
+                join.addRightColumn("column_0");
+                join.addLeftColumn("column_1");
+                join.addRightColumn("column_1");
+                join.setConditions(createConditions("t" + i, 1));
+                statement.addJoin(join);
+            }
+        }
+        statement.setConditions(createConditions("t0", conditionDepth));
+
+        String sql = generate(generator);
+        String legacySql = generate(legacyGenerator);
+        if (!sql.equals(legacySql)) {
+            throw new IllegalStateException("Generated SQL differs from the legacy generator:\n" + sql + "\n" + legacySql);
+        }
+    }
+
+    @Benchmark
+    public String generateSql() {
+        return generate(generator);
+    }
+
+    @Benchmark
+    public String generateSqlLegacy() {
+        return generate(legacyGenerator);
+    }
+
+    private String generate(AbstractSqlGenerator<DdmCreateAbstractViewStatement> sqlGenerator) {
+        statement.getTables().forEach(table -> table.setUsedInSQLClause(false));
+        statement.getCtes().forEach(cte -> cte.getTables().forEach(table -> table.setUsedInSQLClause(false)));
+        Sql[] sqls = sqlGenerator.generateSql(statement, new MockDatabase(), null);
+        return sqls[0].toSql();
+    }
+
+    private DdmTableConfig createTable(String name, String alias) {
+        DdmTableConfig table = new DdmTableConfig(name);
+        table.setAlias(alias);
+        for (int i = 0; i < columns; i++) {
+            DdmColumnConfig column = new DdmColumnConfig();
+            column.setName("column_" + i);
+            column.setType("text");
+            if (i % 3 == 0) {
+                column.setAlias(alias + "_column_" + i);
+            }
+            if (i % 10 == 0) {
+                column.setSorting(i % 20 == 0 ? "asc" : "desc");
+            }
+            if (i % 7 == 0) {
+                column.setSearchType(i % 14 == 0 ? DdmConstants.ATTRIBUTE_STARTS_WITH : DdmConstants.ATTRIBUTE_EQUAL);
+            }
+            table.addColumn(column);
+        }
+        for (int i = 1; i < columns; i += 5) {
+            DdmFunctionConfig function = new DdmFunctionConfig();
+            function.setName(i % 2 == 0 ? "count" : "sum");
+            function.setTableAlias(alias);
+            function.setColumnName("column_" + i);
+            function.setAlias(alias + "_aggregate_" + i);
+            table.addFunction(function);
+        }
+        return table;
+    }
+
+    private List<DdmConditionConfig> createConditions(String tableAlias, int depth) {
+        List<DdmConditionConfig> conditions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DdmConditionConfig condition = new DdmConditionConfig();
+            condition.setTableAlias(tableAlias);
+            condition.setColumnName("column_" + (depth * 3 + i));
+            condition.setOperator(OPERATORS[(depth + i) % OPERATORS.length]);
+            condition.setValue(DdmConstants.OPERATOR_IS_NULL.equals(condition.getOperator()) ? "true" : "'value_" + i + "'");
+            if (i > 0) {
+                condition.setLogicOperator(i % 2 == 0 ? "or" : "and");
+            }
+            if (depth > 1 && i == 0) {
+                condition.setConditions(createConditions(tableAlias, depth - 1));
+            }
+            conditions.add(condition);
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateMany2ManyStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Delete of unreferenced rows of the reference table of a many to many relation, checked by the
+ * row-level and by the statement-level integrity triggers, against PostgreSQL.
+ *
+ * The database is given by the BENCHMARK_JDBC_URL, BENCHMARK_JDBC_USER and BENCHMARK_JDBC_PASSWORD
+ * environment variables; the benchmark works in its own schema, which it drops afterwards. Each
+ * delete is rolled back. The row-level check runs a stand-in of the platform
+ * f_trg_check_m2m_integrity, which probes the reference keys array once per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DdmCreateMany2ManyIntegrityBenchmark {
+
+    private static final String SCHEMA = "m2m_integrity_benchmark";
+
+    private static final String ROW_CHECK_FUNCTION = "CREATE FUNCTION f_trg_check_m2m_integrity() RETURNS trigger AS $$\n" +
+        "DECLARE\n" +
+        "    referenced boolean;\n" +
+        "BEGIN\n" +
+        "    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I m WHERE m.%I @> ARRAY[($1).%I])', TG_ARGV[1], TG_ARGV[2], TG_ARGV[0])\n" +
+        "        INTO referenced USING OLD;\n" +
+        "    IF referenced THEN\n" +
+        "        RAISE EXCEPTION 'Key of % is still referenced by %.%', TG_TABLE_NAME, TG_ARGV[1], TG_ARGV[2];\n" +
+        "    END IF;\n" +
+        "    IF TG_OP = 'DELETE' THEN\n" +
+        "        RETURN OLD;\n" +
+        "    END IF;\n" +
+        "    RETURN NEW;\n" +
+        "END $$ LANGUAGE plpgsql;";
+
+    @Param({"row", "statement"})
+    private String integrityCheck;
+
+    @Param("100000")
+    private int deletedRows;
+
+    @Param("100000")
+    private int mainRows;
+
+    @Param("4")
+    private int keysPerRow;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCHMARK_JDBC_URL is not set");
+        }
+        connection = DriverManager.getConnection(url, System.getenv("BENCHMARK_JDBC_USER"),
+            System.getenv("BENCHMARK_JDBC_PASSWORD"));
+
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("SET search_path TO " + SCHEMA);
+        execute(ROW_CHECK_FUNCTION);
+        execute("CREATE TABLE reference_table (ref_id bigint PRIMARY KEY)");
+        execute("CREATE TABLE main_table (id bigint PRIMARY KEY, ref_ids bigint[])");
+        // keys up to deletedRows are deleted, the main table references only the keys above them
+        execute("INSERT INTO reference_table SELECT generate_series(1, " + 2 * deletedRows + ")");
+        execute("INSERT INTO main_table SELECT i, ARRAY(SELECT " + (deletedRows + 1) + " + (i * 7919 + j) % " + deletedRows +
+            " FROM generate_series(1, " + keysPerRow + ") j) FROM generate_series(1, " + mainRows + ") i");
+
+        DdmCreateMany2ManyStatement statement = new DdmCreateMany2ManyStatement();
+        statement.setMainTableName("main_table");
+        statement.setMainTableKeyField("id");
+        statement.setReferenceTableName("reference_table");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("ref_ids");
+        statement.setStatementIntegrityCheck("statement".equals(integrityCheck));
+        for (Sql sql : new DdmCreateMany2ManyGenerator().generateSql(statement, new MockDatabase(), null)) {
+            execute(sql.toSql());
+        }
+        execute("ANALYZE");
+
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.setAutoCommit(true);
+            execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int delete() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate("DELETE FROM reference_table WHERE ref_id <= " + deletedRows);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
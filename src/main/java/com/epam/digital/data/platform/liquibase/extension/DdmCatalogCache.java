@@ -0,0 +1,378 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmMakeObjectChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmPartialUpdateChange;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import liquibase.Scope;
+import liquibase.change.AbstractSQLChange;
+import liquibase.change.Change;
+import liquibase.change.ChangeFactory;
+import liquibase.change.ChangeParameterMetaData;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
+
+/**
+ * Catalog lookups of one update, loaded for all tables referenced by the ChangeLog in a few
+ * set-based queries instead of one probe per object: table snapshots of partial updates and of
+ * history tables archived by addColumn, columns of makeObject tables and the tables of the archive
+ * schema.
+ *
+ * A table is served from memory only to changes that run before the first change of the update
+ * that alters it, since the loaded state describes the database before the update. Later changes,
+ * changes that are not part of the ChangeLog and all changes that follow a raw SQL or custom
+ * change fall back to probing the database, which callers do when a lookup returns null or
+ * {@link #containsTable} returns false.
+ *
+ * The cache is kept per root ChangeLog and Database, i.e. for one update, and is used only with a
+ * JDBC connection. It can be turned off with {@link DdmConfiguration#CATALOG_CACHE}.
+ */
+public class DdmCatalogCache {
+
+    private static final String ARCHIVE_SCHEMA = "archive";
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmCatalogCache>> caches = new WeakHashMap<>();
+
+    private final WeakReference<Database> database;
+    private final int changeSetCount;
+
+    private final Map<Change, Integer> positions = new IdentityHashMap<>();
+    private final Map<ChangeSet, Integer> changeSetEnds = new IdentityHashMap<>();
+    private final Map<String, Integer> alteredAt = new HashMap<>();
+    private int unknownAlteredAt = Integer.MAX_VALUE;
+    private int archiveAlteredAt = Integer.MAX_VALUE;
+
+    private final Map<String, Table> tables = new HashMap<>();
+    private Set<String> columns;
+    private List<String> archiveTables;
+
+    private DdmCatalogCache(DatabaseChangeLog rootChangeLog, Database database) {
+        this.database = new WeakReference<>(database);
+        this.changeSetCount = rootChangeLog.getChangeSets().size();
+
+        String historySuffix = DdmParameters.getInstance().getHistoryTableSuffix();
+        Set<String> columnTables = new LinkedHashSet<>();
+        Map<String, Table> examples = new HashMap<>();
+
+        for (ChangeSet changeSet : rootChangeLog.getChangeSets()) {
+            if (isSkipped(database, changeSet)) {
+                continue;
+            }
+            for (Change change : changeSet.getChanges()) {
+                int position = positions.size();
+                positions.put(change, position);
+
+                Collection<String> alteredTables = getAlteredTables(change);
+                if (alteredTables == null) {
+                    unknownAlteredAt = Math.min(unknownAlteredAt, position);
+                } else {
+                    for (String table : alteredTables) {
+                        alteredAt.putIfAbsent(table.toLowerCase(Locale.ROOT), position);
+                        alteredAt.putIfAbsent((table + historySuffix).toLowerCase(Locale.ROOT), position);
+                    }
+                }
+
+                if (change instanceof DdmAddColumnChange
+                    && Boolean.TRUE.equals(((DdmAddColumnChange) change).getHistoryFlag())) {
+                    DdmAddColumnChange addColumn = (DdmAddColumnChange) change;
+                    archiveAlteredAt = Math.min(archiveAlteredAt, position);
+                    Table example = new Table(addColumn.getCatalogName(), addColumn.getSchemaName(),
+                        addColumn.getTableName() + historySuffix);
+                    examples.putIfAbsent(key(example), example);
+                } else if (change instanceof DdmPartialUpdateChange) {
+                    for (DdmTableConfig table : ((DdmPartialUpdateChange) change).getTables()) {
+                        Table example = new Table(null, table.getSchemaName(), table.getName());
+                        examples.putIfAbsent(key(example), example);
+                    }
+                } else if (change instanceof DdmMakeObjectChange) {
+                    archiveAlteredAt = Math.min(archiveAlteredAt, position);
+                    ((DdmMakeObjectChange) change).getTables().forEach(table -> columnTables.add(table.getName()));
+                }
+            }
+            changeSetEnds.put(changeSet, positions.size());
+        }
+
+        loadTables(database, examples);
+        loadColumns(database, columnTables);
+        loadArchiveTables(database);
+    }
+
+    /**
+     * Returns the cache of the update the ChangeSet belongs to, or null if lookups cannot be cached.
+     */
+    public static DdmCatalogCache getInstance(Database database, ChangeSet changeSet) {
+        if (!Boolean.TRUE.equals(DdmConfiguration.CATALOG_CACHE.getCurrentValue())
+            || !(database.getConnection() instanceof JdbcConnection)
+            || changeSet == null || changeSet.getChangeLog() == null) {
+            return null;
+        }
+
+        DatabaseChangeLog rootChangeLog = changeSet.getChangeLog().getRootChangeLog();
+        synchronized (caches) {
+            SoftReference<DdmCatalogCache> reference = caches.get(rootChangeLog);
+            DdmCatalogCache cache = reference == null ? null : reference.get();
+            if (cache == null || cache.isStale(rootChangeLog, database)) {
+                cache = new DdmCatalogCache(rootChangeLog, database);
+                caches.put(rootChangeLog, new SoftReference<>(cache));
+            }
+            return cache;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (caches) {
+            caches.remove(rootChangeLog);
+        }
+    }
+
+    /**
+     * Returns true if the snapshot of the example table can be served to the change by
+     * {@link #getTable(Table)}.
+     */
+    public boolean containsTable(Change change, Table example) {
+        return tables.containsKey(key(example)) && isCurrent(getPosition(change), example.getName());
+    }
+
+    /**
+     * Same as {@link #containsTable(Change, Table)} for lookups that know only the ChangeSet.
+     */
+    public boolean containsTable(ChangeSet changeSet, Table example) {
+        return tables.containsKey(key(example)) && isCurrent(getPosition(changeSet), example.getName());
+    }
+
+    /**
+     * Returns the snapshot of the example table or null if the table does not exist.
+     */
+    public Table getTable(Table example) {
+        return tables.get(key(example));
+    }
+
+    /**
+     * Returns whether a column exists in a table of any schema, or null if it is not known.
+     */
+    public Boolean columnExists(Change change, String table, String column) {
+        if (columns == null || !isCurrent(getPosition(change), table)) {
+            return null;
+        }
+        return columns.contains(table + "." + column);
+    }
+
+    /**
+     * Returns the number of tables of the archive schema whose names match the LIKE pattern, or null
+     * if it is not known.
+     */
+    public Integer countArchiveTables(Change change, String likePattern) {
+        int position = getPosition(change);
+        if (archiveTables == null || position > archiveAlteredAt || !isCurrent(position, null)) {
+            return null;
+        }
+        Pattern pattern = toRegex(likePattern);
+        return (int) archiveTables.stream().filter(table -> pattern.matcher(table).matches()).count();
+    }
+
+    /**
+     * Returns whether a table exists in the archive schema, or null if it is not known.
+     */
+    public Boolean archiveTableExists(Change change, String table) {
+        int position = getPosition(change);
+        if (archiveTables == null || position > archiveAlteredAt || !isCurrent(position, null)) {
+            return null;
+        }
+        return archiveTables.contains(table.toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isCurrent(int position, String table) {
+        if (position == Integer.MAX_VALUE || position > unknownAlteredAt) {
+            return false;
+        }
+        Integer altered = table == null ? null : alteredAt.get(table.toLowerCase(Locale.ROOT));
+        return altered == null || position <= altered;
+    }
+
+    /**
+     * Position of the change in the update. Changes that are not part of the ChangeLog, e.g. built
+     * by another change, are placed after the last change of their ChangeSet.
+     */
+    private int getPosition(Change change) {
+        Integer position = positions.get(change);
+        return position == null ? getPosition(change.getChangeSet()) : position;
+    }
+
+    private int getPosition(ChangeSet changeSet) {
+        Integer position = changeSet == null ? null : changeSetEnds.get(changeSet);
+        return position == null ? Integer.MAX_VALUE : position;
+    }
+
+    private boolean isStale(DatabaseChangeLog rootChangeLog, Database database) {
+        return this.database.get() != database || rootChangeLog.getChangeSets().size() != changeSetCount;
+    }
+
+    private static boolean isSkipped(Database database, ChangeSet changeSet) {
+        try {
+            return DdmRanChangeSetsKeeper.shouldSkip(database, changeSet);
+        } catch (RuntimeException e) {
+            return changeSet.isIgnore();
+        }
+    }
+
+    /**
+     * Returns the tables the change alters, or null if they cannot be told from the change.
+     */
+    private static Collection<String> getAlteredTables(Change change) {
+        if (change instanceof AbstractSQLChange || change instanceof CustomChangeWrapper) {
+            return null;
+        }
+        if (change instanceof DdmMakeObjectChange) {
+            return ((DdmMakeObjectChange) change).getTables().stream()
+                .map(DdmTableConfig::getName).collect(Collectors.toList());
+        }
+
+        List<String> result = new ArrayList<>();
+        Map<String, ChangeParameterMetaData> parameters =
+            Scope.getCurrentScope().getSingleton(ChangeFactory.class).getChangeMetaData(change).getParameters();
+        for (ChangeParameterMetaData parameter : parameters.values()) {
+            if (parameter.getParameterName().toLowerCase(Locale.ROOT).endsWith("tablename")) {
+                Object value = parameter.getCurrentValue(change);
+                if (value instanceof String) {
+                    result.add((String) value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void loadTables(Database database, Map<String, Table> examples) {
+        if (examples.isEmpty()) {
+            return;
+        }
+        try {
+            DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(
+                examples.values().toArray(new DatabaseObject[0]), database, new SnapshotControl(database));
+            examples.forEach((key, example) -> tables.put(key, snapshot.get(example)));
+        } catch (LiquibaseException | RuntimeException e) {
+            tables.clear();
+            Scope.getCurrentScope().getLog(database.getClass()).info("Cannot create snapshot of tables", e);
+        }
+    }
+
+    private void loadColumns(Database database, Set<String> columnTables) {
+        if (columnTables.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT table_name, column_name FROM information_schema.columns WHERE table_name IN ("
+            + columnTables.stream().map(DdmCatalogCache::quote).collect(Collectors.joining(", ")) + ");";
+
+        Set<String> result = new HashSet<>();
+        if (query(database, sql, resultSet -> result.add(resultSet.getString(1) + "." + resultSet.getString(2)))) {
+            columns = result;
+        }
+    }
+
+    private void loadArchiveTables(Database database) {
+        String sql = "SELECT tablename FROM pg_catalog.pg_tables WHERE schemaname=" + quote(ARCHIVE_SCHEMA) + ";";
+
+        List<String> result = new ArrayList<>();
+        if (query(database, sql, resultSet -> result.add(resultSet.getString(1)))) {
+            archiveTables = result;
+        }
+    }
+
+    private static boolean query(Database database, String sql, RowHandler handler) {
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = ((JdbcConnection) database.getConnection()).createStatement(
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            resultSet = statement.executeQuery(sql);
+            while (resultSet.next()) {
+                handler.handle(resultSet);
+            }
+            return true;
+        } catch (SQLException | DatabaseException e) {
+            Scope.getCurrentScope().getLog(database.getClass()).info("Cannot load catalog", e);
+            return false;
+        } finally {
+            JdbcUtils.close(resultSet, statement);
+        }
+    }
+
+    private static String key(Table example) {
+        String schemaName = example.getSchema() == null ? null : example.getSchema().getName();
+        String catalogName = example.getSchema() == null ? null : example.getSchema().getCatalogName();
+        return catalogName + "." + schemaName + "." + example.getName();
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * Translates a LIKE pattern with the default backslash escape to a regular expression.
+     */
+    static Pattern toRegex(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (c == '\\' && i + 1 < likePattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(likePattern.charAt(++i))));
+            } else if (c == '_') {
+                regex.append('.');
+            } else if (c == '%') {
+                regex.append(".*");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private interface RowHandler {
+
+        void handle(ResultSet resultSet) throws SQLException;
+    }
+}
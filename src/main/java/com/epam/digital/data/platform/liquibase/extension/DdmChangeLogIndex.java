@@ -0,0 +1,263 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.AddPrimaryKeyChange;
+import liquibase.change.core.AddUniqueConstraintChange;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+
+/**
+ * Lookup tables over the table changes of a root ChangeLog: createTable, addColumn and column
+ * changes by table name, column declarations by (table, column), and the primary key and indexed
+ * columns of each table. Indexed columns come from primary keys, unique constraints, foreign keys
+ * of history tables and createIndex changes.
+ *
+ * The index is built lazily on first use and rebuilt when change sets are added to the ChangeLog
+ * or when changes are appended to its last change set. Indexes are softly referenced because the
+ * indexed changes point back to their ChangeLog.
+ */
+public class DdmChangeLogIndex {
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmChangeLogIndex>> indexes = new WeakHashMap<>();
+
+    private final int changeSetCount;
+    private final ChangeSet lastChangeSet;
+    private final int lastChangeSetChangeCount;
+
+    private final Map<Change, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, List<DdmCreateTableChange>> createTableChanges = new HashMap<>();
+    private final Map<String, List<DdmAddColumnChange>> addColumnChanges = new HashMap<>();
+    private final Map<String, List<AddColumnChange>> columnChanges = new HashMap<>();
+    private final Map<DdmPair, ColumnConfig> columns = new HashMap<>();
+    private final Map<String, List<List<String>>> indexedColumns = new HashMap<>();
+    private final Map<String, List<String>> primaryKeys = new HashMap<>();
+
+    private DdmChangeLogIndex(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        changeSetCount = changeSets.size();
+        lastChangeSet = changeSets.isEmpty() ? null : changeSets.get(changeSets.size() - 1);
+        lastChangeSetChangeCount = lastChangeSet == null ? 0 : lastChangeSet.getChanges().size();
+
+        List<AddColumnChange> allColumnChanges = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                positions.put(change, positions.size());
+                if (change instanceof DdmCreateTableChange) {
+                    indexCreateTableChange((DdmCreateTableChange) change);
+                } else if (change instanceof AddColumnChange) {
+                    indexColumnChange((AddColumnChange) change);
+                    allColumnChanges.add((AddColumnChange) change);
+                } else if (change instanceof AddPrimaryKeyChange) {
+                    AddPrimaryKeyChange pkChange = (AddPrimaryKeyChange) change;
+                    addIndexedColumns(pkChange.getTableName(), splitColumnNames(pkChange.getColumnNames()));
+                    addPrimaryKey(pkChange.getTableName(), splitColumnNames(pkChange.getColumnNames()));
+                } else if (change instanceof AddUniqueConstraintChange) {
+                    AddUniqueConstraintChange ucChange = (AddUniqueConstraintChange) change;
+                    addIndexedColumns(ucChange.getTableName(), splitColumnNames(ucChange.getColumnNames()));
+                } else if (change instanceof CreateIndexChange) {
+                    CreateIndexChange indexChange = (CreateIndexChange) change;
+                    List<String> columnNames = new ArrayList<>();
+                    for (ColumnConfig column : indexChange.getColumns()) {
+                        if (column.getComputed() != null && column.getComputed()) {
+                            break;
+                        }
+                        columnNames.add(column.getName());
+                    }
+                    addIndexedColumns(indexChange.getTableName(), columnNames);
+                }
+            }
+        }
+
+        for (AddColumnChange change : allColumnChanges) {
+            for (AddColumnConfig column : change.getColumns()) {
+                columns.putIfAbsent(new DdmPair(change.getTableName(), column.getName()), column);
+            }
+        }
+    }
+
+    public static DdmChangeLogIndex getInstance(ChangeSet changeSet) {
+        return getInstance(changeSet.getChangeLog().getRootChangeLog());
+    }
+
+    public static DdmChangeLogIndex getInstance(DatabaseChangeLog rootChangeLog) {
+        synchronized (indexes) {
+            SoftReference<DdmChangeLogIndex> reference = indexes.get(rootChangeLog);
+            DdmChangeLogIndex index = reference == null ? null : reference.get();
+            if (index == null || index.isStale(rootChangeLog)) {
+                index = new DdmChangeLogIndex(rootChangeLog);
+                indexes.put(rootChangeLog, new SoftReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (indexes) {
+            indexes.remove(rootChangeLog);
+        }
+    }
+
+    private boolean isStale(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        if (changeSets.size() != changeSetCount) {
+            return true;
+        }
+        if (changeSets.isEmpty()) {
+            return false;
+        }
+        ChangeSet last = changeSets.get(changeSets.size() - 1);
+        return last != lastChangeSet || last.getChanges().size() != lastChangeSetChangeCount;
+    }
+
+    private void indexCreateTableChange(DdmCreateTableChange change) {
+        String tableName = change.getTableName();
+        if (tableName == null) {
+            return;
+        }
+        createTableChanges.computeIfAbsent(tableName, key -> new ArrayList<>()).add(change);
+        List<String> primaryKey = new ArrayList<>();
+        for (ColumnConfig column : change.getColumns()) {
+            columns.putIfAbsent(new DdmPair(tableName, column.getName()), column);
+            ConstraintsConfig constraints = column.getConstraints();
+            if (constraints == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(constraints.isPrimaryKey())) {
+                primaryKey.add(column.getName());
+            }
+            // history tables get an index for each foreign key
+            boolean foreignKey = constraints.getReferences() != null || constraints.getReferencedTableName() != null;
+            if (Boolean.TRUE.equals(constraints.isUnique())
+                || foreignKey && Boolean.TRUE.equals(change.getHistoryFlag())) {
+                addIndexedColumns(tableName, Collections.singletonList(column.getName()));
+            }
+        }
+        addIndexedColumns(tableName, primaryKey);
+        addPrimaryKey(tableName, primaryKey);
+    }
+
+    private void indexColumnChange(AddColumnChange change) {
+        String tableName = change.getTableName();
+        if (tableName == null) {
+            return;
+        }
+        columnChanges.computeIfAbsent(tableName, key -> new ArrayList<>()).add(change);
+        for (AddColumnConfig column : change.getColumns()) {
+            ConstraintsConfig constraints = column.getConstraints();
+            if (constraints != null
+                && (Boolean.TRUE.equals(constraints.isPrimaryKey()) || Boolean.TRUE.equals(constraints.isUnique()))) {
+                addIndexedColumns(tableName, Collections.singletonList(column.getName()));
+            }
+        }
+        if (change instanceof DdmAddColumnChange) {
+            addColumnChanges.computeIfAbsent(tableName, key -> new ArrayList<>())
+                .add((DdmAddColumnChange) change);
+        }
+    }
+
+    public List<DdmCreateTableChange> getCreateTableChanges(List<String> tableNames) {
+        return collect(createTableChanges, tableNames);
+    }
+
+    public List<DdmAddColumnChange> getAddColumnChanges(List<String> tableNames) {
+        return collect(addColumnChanges, tableNames);
+    }
+
+    public List<AddColumnChange> getColumnChanges(List<String> tableNames) {
+        return collect(columnChanges, tableNames);
+    }
+
+    public boolean tableExists(String tableName) {
+        return createTableChanges.containsKey(tableName);
+    }
+
+    /**
+     * Returns the first declaration of the column in createTable changes, or in addColumn changes
+     * if the table does not declare it.
+     */
+    public ColumnConfig getColumn(String tableName, String columnName) {
+        return columns.get(new DdmPair(tableName, columnName));
+    }
+
+    /**
+     * Returns the column lists of the indexes of the table known from the ChangeLog.
+     */
+    public List<List<String>> getIndexedColumns(String tableName) {
+        return indexedColumns.getOrDefault(tableName, Collections.emptyList());
+    }
+
+    /**
+     * Returns the primary key columns of the table known from the ChangeLog.
+     */
+    public List<String> getPrimaryKey(String tableName) {
+        return primaryKeys.getOrDefault(tableName, Collections.emptyList());
+    }
+
+    private void addPrimaryKey(String tableName, List<String> columnNames) {
+        if (tableName != null && !columnNames.isEmpty()) {
+            primaryKeys.putIfAbsent(tableName, columnNames);
+        }
+    }
+
+    private void addIndexedColumns(String tableName, List<String> columnNames) {
+        if (tableName != null && !columnNames.isEmpty()) {
+            indexedColumns.computeIfAbsent(tableName, key -> new ArrayList<>()).add(columnNames);
+        }
+    }
+
+    private static List<String> splitColumnNames(String columnNames) {
+        List<String> result = new ArrayList<>();
+        if (columnNames != null) {
+            for (String columnName : columnNames.split(",")) {
+                if (!columnName.trim().isEmpty()) {
+                    result.add(columnName.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    private <T extends Change> List<T> collect(Map<String, List<T>> changesByTable, List<String> tableNames) {
+        if (tableNames.size() == 1) {
+            return new ArrayList<>(changesByTable.getOrDefault(tableNames.get(0), Collections.emptyList()));
+        }
+        List<T> result = new ArrayList<>();
+        for (String tableName : tableNames) {
+            result.addAll(changesByTable.getOrDefault(tableName, Collections.emptyList()));
+        }
+        result.sort(Comparator.comparingInt(positions::get));
+        return result;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.executor.DdmProfilingExecutor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+
+/**
+ * Time and SQL statements of one run: validation time of the ChangeLog, and generateStatements
+ * time, number and total length of the SQL statements and their execution time per change, per
+ * change type and for the whole run.
+ *
+ * The profiler of a run is kept by the {@link DdmProfilingExecutor} of the Database, which
+ * Liquibase uses when {@link DdmConfiguration#PROFILING} is on, and is reset by DdmLockService
+ * whenever the ChangeLog lock is taken or released. Liquibase offers no hook around
+ * Change.validate, so validation is timed for the run as a whole: it starts when DdmLockService is
+ * initialized, which Liquibase does right before validating the ChangeLog, and ends when the first
+ * change set starts. Execution is attributed to changes by DdmProfilingChangeExecListener, the
+ * change exec listener that marks where each change starts and ends; generateStatements time is
+ * the time of the change that is not spent executing its statements.
+ */
+public class DdmChangeProfiler {
+
+    private static final String EXECUTOR_NAME = "jdbc";
+    private static final List<String> CSV_HEADER = Arrays.asList("level", "changeSet", "changeType", "changes",
+        "validateMs", "generateMs", "executeMs", "statements", "sqlSize");
+
+    private final Map<Change, ChangeProfile> profiles = new IdentityHashMap<>();
+    private final List<ChangeProfile> orderedProfiles = new ArrayList<>();
+    private ChangeProfile currentProfile;
+    private long validateStartNanos;
+    private boolean validating;
+    private long validateNanos;
+
+    /**
+     * Returns the profiler of the run on the Database, or null if profiling is off or the
+     * Database does not use the profiling executor, e.g. when SQL is written to output.
+     */
+    public static DdmChangeProfiler getInstance(Database database) {
+        if (!Boolean.TRUE.equals(DdmConfiguration.PROFILING.getCurrentValue()) || database == null) {
+            return null;
+        }
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class)
+            .getExecutor(EXECUTOR_NAME, database);
+        return executor instanceof DdmProfilingExecutor ? ((DdmProfilingExecutor) executor).getProfiler() : null;
+    }
+
+    /**
+     * Starts timing the validation of the ChangeLog. A later call restarts it, as only the last
+     * initialization of the lock service before the changes run precedes the validation.
+     */
+    public synchronized void startValidation() {
+        validateStartNanos = System.nanoTime();
+        validating = true;
+    }
+
+    /**
+     * Finishes timing the validation of the ChangeLog, if it is being timed.
+     */
+    public synchronized void finishValidation() {
+        if (validating) {
+            validateNanos += System.nanoTime() - validateStartNanos;
+            validating = false;
+        }
+    }
+
+    public synchronized void startChange(Change change, ChangeSet changeSet) {
+        finishValidation();
+        finishChange();
+        currentProfile = getProfile(change, changeSet);
+        currentProfile.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Finishes the change that is running, if any.
+     */
+    public synchronized void finishChange() {
+        if (currentProfile != null) {
+            long changeNanos = System.nanoTime() - currentProfile.startNanos;
+            currentProfile.generateNanos += Math.max(0, changeNanos - currentProfile.runExecuteNanos);
+            currentProfile.executeNanos += currentProfile.runExecuteNanos;
+            currentProfile.runExecuteNanos = 0;
+            currentProfile = null;
+        }
+    }
+
+    /**
+     * Records SQL statements sent to the database by the change that is running.
+     */
+    public synchronized void addSql(String[] sqls) {
+        if (currentProfile != null && sqls != null) {
+            for (String sql : sqls) {
+                currentProfile.statements++;
+                currentProfile.sqlSize += sql == null ? 0 : sql.length();
+            }
+        }
+    }
+
+    /**
+     * Records execution time of a statement of the change that is running.
+     */
+    public synchronized void addExecute(long nanos) {
+        if (currentProfile != null) {
+            currentProfile.runExecuteNanos += nanos;
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return orderedProfiles.isEmpty() && validateNanos == 0;
+    }
+
+    /**
+     * Drops the figures of the run, so that the next run on the Database starts from scratch and
+     * the changes of this one can be collected.
+     */
+    public synchronized void reset() {
+        profiles.clear();
+        orderedProfiles.clear();
+        currentProfile = null;
+        validating = false;
+        validateNanos = 0;
+    }
+
+    public synchronized List<ChangeProfile> getChangeProfiles() {
+        return new ArrayList<>(orderedProfiles);
+    }
+
+    /**
+     * Returns the totals of the run together with the validation time of the ChangeLog.
+     */
+    public synchronized ChangeProfile getRunProfile() {
+        ChangeProfile runProfile = new ChangeProfile(null, null, 0);
+        runProfile.validateNanos = validateNanos;
+        for (ChangeProfile profile : orderedProfiles) {
+            runProfile.add(profile);
+        }
+        return runProfile;
+    }
+
+    /**
+     * Returns the totals per change type, the most expensive change type first.
+     */
+    public synchronized List<ChangeProfile> getChangeTypeProfiles() {
+        Map<String, ChangeProfile> changeTypes = new LinkedHashMap<>();
+        for (ChangeProfile profile : orderedProfiles) {
+            changeTypes.computeIfAbsent(profile.getChangeType(), changeType -> new ChangeProfile(null, changeType, 0))
+                .add(profile);
+        }
+        return changeTypes.values().stream()
+            .sorted(Comparator.comparingLong(ChangeProfile::getTotalNanos).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the totals of the changes of the change set, or null if none of them was profiled.
+     */
+    public synchronized ChangeProfile getChangeSetProfile(ChangeSet changeSet) {
+        String changeSetId = changeSet.toString(false);
+        ChangeProfile changeSetProfile = new ChangeProfile(changeSetId, null, 0);
+        for (ChangeProfile profile : orderedProfiles) {
+            if (changeSetId.equals(profile.getChangeSet())) {
+                changeSetProfile.add(profile);
+            }
+        }
+        return changeSetProfile.getChanges() == 0 ? null : changeSetProfile;
+    }
+
+    public String toJson() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("run", getRunProfile().toMap());
+        report.put("changeTypes", getChangeTypeProfiles().stream().map(ChangeProfile::toMap)
+            .collect(Collectors.toList()));
+        report.put("changes", getChangeProfiles().stream().map(ChangeProfile::toMap).collect(Collectors.toList()));
+        return DdmUtils.convertObjectToString(report);
+    }
+
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder();
+        appendCsvRow(csv, CSV_HEADER);
+        appendCsvRow(csv, getRunProfile().toCsvRow("run"));
+        for (ChangeProfile profile : getChangeTypeProfiles()) {
+            appendCsvRow(csv, profile.toCsvRow("changeType"));
+        }
+        for (ChangeProfile profile : getChangeProfiles()) {
+            appendCsvRow(csv, profile.toCsvRow("change"));
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Writes the report to the file, as CSV if its name ends with .csv and as JSON otherwise.
+     * Failure to write the report is logged and does not fail the run.
+     */
+    public void writeReport(String path) {
+        String report = path.toLowerCase().endsWith(".csv") ? toCsv() : toJson();
+        try {
+            Files.write(Paths.get(path), report.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            Scope.getCurrentScope().getLog(DdmChangeProfiler.class).warning("Cannot write profiling report to " + path, e);
+        }
+    }
+
+    private ChangeProfile getProfile(Change change, ChangeSet changeSet) {
+        return profiles.computeIfAbsent(change, key -> {
+            ChangeProfile profile = new ChangeProfile(changeSet == null ? null : changeSet.toString(false),
+                change.getSerializedObjectName(), 1);
+            orderedProfiles.add(profile);
+            return profile;
+        });
+    }
+
+    private static void appendCsvRow(StringBuilder csv, List<String> values) {
+        csv.append(values.stream().map(DdmChangeProfiler::escapeCsv).collect(Collectors.joining(","))).append('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    /**
+     * Figures of one change, or totals of a change type, a change set or the run.
+     */
+    public static class ChangeProfile {
+
+        private final String changeSet;
+        private final String changeType;
+        private int changes;
+        private Long validateNanos;
+        private long generateNanos;
+        private long executeNanos;
+        private int statements;
+        private long sqlSize;
+        private long startNanos;
+        private long runExecuteNanos;
+
+        ChangeProfile(String changeSet, String changeType, int changes) {
+            this.changeSet = changeSet;
+            this.changeType = changeType;
+            this.changes = changes;
+        }
+
+        public String getChangeSet() {
+            return changeSet;
+        }
+
+        public String getChangeType() {
+            return changeType;
+        }
+
+        public int getChanges() {
+            return changes;
+        }
+
+        /**
+         * Returns the validation time of the ChangeLog for the run, and null for changes, change
+         * types and change sets, whose validation is not timed separately.
+         */
+        public Long getValidateNanos() {
+            return validateNanos;
+        }
+
+        public long getGenerateNanos() {
+            return generateNanos;
+        }
+
+        public long getExecuteNanos() {
+            return executeNanos;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getSqlSize() {
+            return sqlSize;
+        }
+
+        public long getTotalNanos() {
+            return (validateNanos == null ? 0 : validateNanos) + generateNanos + executeNanos;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            if (changeSet != null) {
+                map.put("changeSet", changeSet);
+            }
+            if (changeType != null) {
+                map.put("changeType", changeType);
+            }
+            map.put("changes", changes);
+            if (validateNanos != null) {
+                map.put("validateMs", toMillis(validateNanos));
+            }
+            map.put("generateMs", toMillis(generateNanos));
+            map.put("executeMs", toMillis(executeNanos));
+            map.put("statements", statements);
+            map.put("sqlSize", sqlSize);
+            return map;
+        }
+
+        private List<String> toCsvRow(String level) {
+            return Arrays.asList(level, changeSet, changeType, String.valueOf(changes),
+                validateNanos == null ? null : String.valueOf(toMillis(validateNanos)), String.valueOf(toMillis(generateNanos)),
+                String.valueOf(toMillis(executeNanos)), String.valueOf(statements), String.valueOf(sqlSize));
+        }
+
+        private void add(ChangeProfile profile) {
+            changes += profile.changes;
+            generateNanos += profile.generateNanos;
+            executeNanos += profile.executeNanos;
+            statements += profile.statements;
+            sqlSize += profile.sqlSize;
+        }
+    }
+}
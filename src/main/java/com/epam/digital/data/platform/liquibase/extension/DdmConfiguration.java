@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import liquibase.configuration.AutoloadedConfigurations;
+import liquibase.configuration.ConfigurationDefinition;
+
+/**
+ * Settings of the extension. Each value can be set as a Liquibase property, a system property
+ * or an environment variable, e.g. liquibase.ddm.metadataInsertChunkSize or
+ * LIQUIBASE_DDM_METADATA_INSERT_CHUNK_SIZE.
+ */
+public class DdmConfiguration implements AutoloadedConfigurations {
+
+    public static final ConfigurationDefinition<Integer> METADATA_INSERT_CHUNK_SIZE;
+    public static final ConfigurationDefinition<Boolean> PARALLEL_GENERATION;
+    public static final ConfigurationDefinition<Integer> PARALLEL_GENERATION_THREADS;
+    public static final ConfigurationDefinition<Boolean> CATALOG_CACHE;
+    public static final ConfigurationDefinition<Boolean> CONCURRENT_INDEXES;
+    public static final ConfigurationDefinition<Boolean> HASH_INDEXES;
+    public static final ConfigurationDefinition<Boolean> COVERING_INDEXES;
+    public static final ConfigurationDefinition<Boolean> INDEX_DEDUPLICATION;
+    public static final ConfigurationDefinition<Boolean> STRICT_COLOCATION;
+    public static final ConfigurationDefinition<Boolean> PROFILING;
+    public static final ConfigurationDefinition<String> PROFILING_REPORT;
+    public static final ConfigurationDefinition<Boolean> PROFILING_SUMMARY;
+
+    static {
+        ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase.ddm");
+
+        METADATA_INSERT_CHUNK_SIZE = builder.define("metadataInsertChunkSize", Integer.class)
+            .setDescription("Maximum number of rows in one multi-row INSERT into DDM metadata tables")
+            .setDefaultValue(500)
+            .build();
+
+        PARALLEL_GENERATION = builder.define("parallelGeneration", Boolean.class)
+            .setDescription("Generate SQL of stateless changes on a fork-join pool when SQL is written "
+                + "to output instead of being executed (updateSQL, offline database)")
+            .setDefaultValue(false)
+            .build();
+
+        PARALLEL_GENERATION_THREADS = builder.define("parallelGenerationThreads", Integer.class)
+            .setDescription("Number of threads used by parallel SQL generation, 0 means the number of processors")
+            .setDefaultValue(0)
+            .build();
+
+        CATALOG_CACHE = builder.define("catalogCache", Boolean.class)
+            .setDescription("Load the catalog objects probed by changes once per update instead of one query per object")
+            .setDefaultValue(true)
+            .build();
+
+        CONCURRENT_INDEXES = builder.define("concurrentIndexes", Boolean.class)
+            .setDescription("Build the indexes of search conditions, many-to-many relations and foreign keys with "
+                + "CREATE INDEX CONCURRENTLY in change sets with runInTransaction=\"false\"")
+            .setDefaultValue(false)
+            .build();
+
+        HASH_INDEXES = builder.define("hashIndexes", Boolean.class)
+            .setDescription("Index the columns of search conditions with searchType=\"equal\" with hash instead of btree")
+            .setDefaultValue(false)
+            .build();
+
+        COVERING_INDEXES = builder.define("coveringIndexes", Boolean.class)
+            .setDescription("Add the returned columns of a table to the INCLUDE list of its btree search condition indexes")
+            .setDefaultValue(false)
+            .build();
+
+        INDEX_DEDUPLICATION = builder.define("indexDeduplication", Boolean.class)
+            .setDescription("Skip search condition indexes equivalent to an index of an earlier search condition of the ChangeLog")
+            .setDefaultValue(true)
+            .build();
+
+        STRICT_COLOCATION = builder.define("strictColocation", Boolean.class)
+            .setDescription("Fail validation of search conditions whose joins of distributed tables are not co-located "
+                + "instead of warning about them")
+            .setDefaultValue(false)
+            .build();
+
+        PROFILING = builder.define("profiling", Boolean.class)
+            .setDescription("Record validation time of the run, and statement generation and execution time and the "
+                + "SQL statements of each change, execution is attributed to changes by DdmProfilingChangeExecListener")
+            .setDefaultValue(false)
+            .build();
+
+        PROFILING_REPORT = builder.define("profilingReport", String.class)
+            .setDescription("File the profiling report is written to at the end of the run, CSV if the file name "
+                + "ends with .csv, JSON otherwise")
+            .build();
+
+        PROFILING_SUMMARY = builder.define("profilingSummary", Boolean.class)
+            .setDescription("Store the profiling summary of each executed change set in the DDM metadata table")
+            .setDefaultValue(false)
+            .build();
+    }
+}
@@ -72,6 +72,7 @@ public class DdmConstants {
     public static final String ATTRIBUTE_WHERE = "where";
     public static final String ATTRIBUTE_LEFT = "left";
     public static final String ATTRIBUTE_RIGHT = "right";
+    public static final String ATTRIBUTE_ASC = "asc";
     public static final String ATTRIBUTE_DESC = "desc";
     public static final String ATTRIBUTE_ALL = "all";
     public static final String ATTRIBUTE_TRUE = "true";
@@ -113,6 +114,10 @@ public class DdmConstants {
     public static final String ATTRIBUTE_JWT_ATTRIBUTE = "jwtAttribute";
     public static final String ATTRIBUTE_CHECK_COLUMN = "checkColumn";
     public static final String ATTRIBUTE_CHECK_TABLE = "checkTable";
+    public static final String ATTRIBUTE_HISTORY_ARCHIVING = "historyArchiving";
+    public static final String ATTRIBUTE_HISTORY_ARCHIVING_ARCHIVE = "archive";
+    public static final String ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE = "inPlace";
+    public static final String ATTRIBUTE_HISTORY_PARTITIONING = "historyPartitioning";
 
     public static final String XML_TAG_HISTORY_FLAG = "ext:historyFlag";
     public static final String XML_TAG_TABLE_SUFFIX = "ext:tableSuffix";
@@ -128,10 +133,25 @@ public class DdmConstants {
     public static final String DISTRIBUTION_REFERENCE_PRIMARY = "referencePrimary";
     public static final String DISTRIBUTION_REFERENCE_HISTORY = "referenceHistory";
 
+    public static final String PARTITIONING_DAY = "day";
+    public static final String PARTITIONING_MONTH = "month";
+    public static final String PARTITIONING_YEAR = "year";
+    public static final String PARTITION_COLUMN = "ddm_created_at";
+    public static final int PARTITIONS_INITIAL = 3;
+
+    public static final String PAGINATION_KEYSET = "keyset";
+
+    public static final String M2M_STORAGE_VIEW = "view";
+    public static final String M2M_STORAGE_TABLE = "table";
+
+    public static final String M2M_INTEGRITY_CHECK_ROW = "row";
+    public static final String M2M_INTEGRITY_CHECK_STATEMENT = "statement";
+
     public static final String SUFFIX_ID = "_id";
     public static final String SUFFIX_VIEW = "_v";
     public static final String SUFFIX_RELATION = "_rel";
     public static final String SUFFIX_M2M = "_m2m";
+    public static final String SUFFIX_DEFAULT_PARTITION = "_default";
 
     public static final String PREFIX_INDEX = "ix_";
     public static final String PREFIX_UNIQUE_INDEX = "ui_";
@@ -168,6 +188,9 @@ public class DdmConstants {
     public static final String SEARCH_METADATA_CHANGE_TYPE_VALUE = "searchCondition";
     public static final String SEARCH_METADATA_ATTRIBUTE_NAME_LIMIT = "limit";
     public static final String SEARCH_METADATA_ATTRIBUTE_NAME_PAGINATION = "pagination";
+    public static final String SEARCH_METADATA_ATTRIBUTE_NAME_KEYSET_SORT_KEY = "keysetSortKey";
+    public static final String SEARCH_METADATA_ATTRIBUTE_NAME_MATERIALIZED = "materialized";
+    public static final String SEARCH_METADATA_ATTRIBUTE_NAME_REFRESH_SCHEDULE = "refreshSchedule";
     public static final String SEARCH_METADATA_NESTED_READ = "nestedRead";
 
     public static final String TYPE_METADATA_CHANGE_TYPE_VALUE = "type";
@@ -177,6 +200,11 @@ public class DdmConstants {
     public static final String VERSIONING_METADATA_CHANGE_NAME_VALUE = "registry_version";
     public static final String VERSIONING_METADATA_ATTRIBUTE_NAME_CURRENT = "current";
 
+    public static final String HISTORY_METADATA_CHANGE_TYPE_VALUE = "historyColumn";
+
+    public static final String PROFILE_METADATA_CHANGE_TYPE_VALUE = "changeSetProfile";
+    public static final String PROFILE_METADATA_ATTRIBUTE_NAME_SUMMARY = "summary";
+
     public static final String OPERATOR_EQ = "eq";            // equal
     public static final String OPERATOR_NE = "ne";            // not equal
     public static final String OPERATOR_GT = "gt";            // greater than
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDistributeTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmPlanDistributionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmReferenceTableChange;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+
+/**
+ * Changes of a root ChangeLog read by the {@link DdmDistributionPlanner}, in ChangeLog order, with
+ * the positions of the changes that declare the distribution of tables. The tables declared
+ * distributed at each declaration are computed once and shared by the changes up to the next one.
+ *
+ * The changes are collected on first use and again when change sets are added to the ChangeLog or
+ * when changes are appended to its last change set. They are softly referenced because the changes
+ * point back to their ChangeLog.
+ */
+public class DdmDistributionChanges {
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmDistributionChanges>> distributionChanges =
+        new WeakHashMap<>();
+
+    private final int changeSetCount;
+    private final ChangeSet lastChangeSet;
+    private final int lastChangeSetChangeCount;
+
+    private final Map<Change, Integer> positions = new IdentityHashMap<>();
+    private boolean distribution;
+    // changes read by the distribution planner by their positions
+    private final NavigableMap<Integer, Change> plannedChanges = new TreeMap<>();
+    private final NavigableSet<Integer> declarations = new TreeSet<>();
+    private final Map<Integer, Map<String, DdmDistributionPlanner.Table>> declaredTables = new HashMap<>();
+
+    private DdmDistributionChanges(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        changeSetCount = changeSets.size();
+        lastChangeSet = changeSets.isEmpty() ? null : changeSets.get(changeSets.size() - 1);
+        lastChangeSetChangeCount = lastChangeSet == null ? 0 : lastChangeSet.getChanges().size();
+
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                int position = positions.size();
+                positions.put(change, position);
+                if (DdmDistributionPlanner.isPlannedChange(change)) {
+                    plannedChanges.put(position, change);
+                }
+                if (DdmDistributionPlanner.isDistributionDeclaration(change)) {
+                    declarations.add(position);
+                }
+                if (change instanceof DdmDistributeTableChange || change instanceof DdmReferenceTableChange
+                    || change instanceof DdmPlanDistributionChange
+                    || change instanceof DdmCreateTableChange && ((DdmCreateTableChange) change).getDistribution() != null) {
+                    distribution = true;
+                }
+            }
+        }
+    }
+
+    public static DdmDistributionChanges getInstance(ChangeSet changeSet) {
+        return getInstance(changeSet.getChangeLog().getRootChangeLog());
+    }
+
+    public static DdmDistributionChanges getInstance(DatabaseChangeLog rootChangeLog) {
+        synchronized (distributionChanges) {
+            SoftReference<DdmDistributionChanges> reference = distributionChanges.get(rootChangeLog);
+            DdmDistributionChanges instance = reference == null ? null : reference.get();
+            if (instance == null || instance.isStale(rootChangeLog)) {
+                instance = new DdmDistributionChanges(rootChangeLog);
+                distributionChanges.put(rootChangeLog, new SoftReference<>(instance));
+            }
+            return instance;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (distributionChanges) {
+            distributionChanges.remove(rootChangeLog);
+        }
+    }
+
+    private boolean isStale(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        if (changeSets.size() != changeSetCount) {
+            return true;
+        }
+        if (changeSets.isEmpty()) {
+            return false;
+        }
+        ChangeSet last = changeSets.get(changeSets.size() - 1);
+        return last != lastChangeSet || last.getChanges().size() != lastChangeSetChangeCount;
+    }
+
+    /**
+     * Returns true if the ChangeLog distributes tables or makes them reference tables.
+     */
+    public boolean hasDistribution() {
+        return distribution;
+    }
+
+    /**
+     * Returns the distribution planner of the changes before the given change, of all changes if the
+     * change is not in the ChangeLog.
+     */
+    public DdmDistributionPlanner getDistributionPlanner(Change change) {
+        Integer position = positions.get(change);
+        DdmDistributionPlanner planner = new DdmDistributionPlanner();
+        (position == null ? plannedChanges : plannedChanges.headMap(position, false)).values()
+            .forEach(planner::addChange);
+        return planner;
+    }
+
+    /**
+     * Returns the tables declared distributed before the given change, see
+     * {@link DdmDistributionPlanner#getDeclaredTables()}.
+     */
+    public Map<String, DdmDistributionPlanner.Table> getDeclaredTables(Change change) {
+        Integer position = positions.get(change);
+        Integer declaration = position == null ? (declarations.isEmpty() ? null : declarations.last())
+            : declarations.lower(position);
+        if (declaration == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (declaredTables) {
+            return declaredTables.computeIfAbsent(declaration, key -> {
+                DdmDistributionPlanner planner = new DdmDistributionPlanner();
+                plannedChanges.headMap(key, true).values().forEach(planner::addChange);
+                return Collections.unmodifiableMap(planner.getDeclaredTables());
+            });
+        }
+    }
+}
@@ -0,0 +1,632 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAbstractViewChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateMany2ManyChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDistributeTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmPlanDistributionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmReferenceTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmUndistributeTableChange;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.AddColumnChange;
+import liquibase.change.core.AddForeignKeyConstraintChange;
+import liquibase.change.core.AddPrimaryKeyChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.util.StringUtil;
+
+/**
+ * Plans the Citus distribution of the tables of a ChangeLog from the foreign keys and the many to
+ * many relations declared in it.
+ *
+ * Tables are planned in the order of declaration:
+ * <ul>
+ *     <li>tables referenced by the keys arrays of many to many relations are reference tables,
+ *     since array elements cannot be co-located with the rows that hold them;</li>
+ *     <li>tables without foreign keys that are referenced by other tables, none of them by a column
+ *     of its primary key, are reference tables, as lookup tables usually are; a table referenced by
+ *     a primary key column, the tenant of a multi-tenant schema, is not;</li>
+ *     <li>a table with a foreign key by a column of its primary key to a table distributed by the
+ *     referenced key is distributed by the foreign key column and co-located with the group of that
+ *     table, since Citus requires the distribution column in the primary key;</li>
+ *     <li>any other table is distributed by the first column of its primary key and starts a
+ *     co-location group.</li>
+ * </ul>
+ * Tables that are distributed by hash without an explicit co-location are co-located by Citus with
+ * the other tables of the same distribution column type and shard count, so they share a group.
+ * A table that is referenced from another co-location group, has no co-located tables and whose
+ * own foreign keys all point to reference tables then becomes a reference table, so that the
+ * joins to it stay local to each shard. Distribution declared by createTable, distributeTable and
+ * referenceTable changes, and by earlier applied plans, is kept as is. Foreign keys and search
+ * condition joins between tables that are still not co-located are reported as warnings, since
+ * they turn into repartition queries or are rejected by Citus. History tables are not planned.
+ */
+public class DdmDistributionPlanner {
+
+    private static final String COLOCATE_WITH_DEFAULT = "default";
+    private static final String COLOCATE_WITH_NONE = "none";
+    private static final String DISTRIBUTION_TYPE_HASH = "hash";
+
+    private final Map<String, List<String>> primaryKeys = new LinkedHashMap<>();
+    private final List<ForeignKey> foreignKeys = new ArrayList<>();
+    private final List<DdmPair> many2ManyRelations = new ArrayList<>();
+    private final List<DdmAbstractViewChange> views = new ArrayList<>();
+    private final Map<String, Table> pinnedTables = new HashMap<>();
+    private final Map<DdmPair, String> columnTypes = new HashMap<>();
+
+    /**
+     * Returns the planner of the tables declared in the root ChangeLog of the change set before the
+     * given change, see {@link DdmDistributionChanges#getDistributionPlanner(Change)}.
+     */
+    public static DdmDistributionPlanner fromChangeLog(ChangeSet changeSet, Change lastChange) {
+        return DdmDistributionChanges.getInstance(changeSet).getDistributionPlanner(lastChange);
+    }
+
+    /**
+     * Returns true if the planner reads the change.
+     */
+    static boolean isPlannedChange(Change change) {
+        return change instanceof DdmCreateTableChange || change instanceof AddColumnChange
+            || change instanceof AddForeignKeyConstraintChange || change instanceof AddPrimaryKeyChange
+            || change instanceof DdmCreateMany2ManyChange || change instanceof DdmAbstractViewChange
+            || change instanceof DdmDistributeTableChange || change instanceof DdmReferenceTableChange
+            || change instanceof DdmUndistributeTableChange || change instanceof DdmPlanDistributionChange;
+    }
+
+    /**
+     * Returns true if the change declares the distribution of tables, so that the declared tables,
+     * see {@link #getDeclaredTables()}, change only at such changes.
+     */
+    static boolean isDistributionDeclaration(Change change) {
+        return change instanceof DdmCreateTableChange && ((DdmCreateTableChange) change).getDistribution() != null
+            || change instanceof DdmDistributeTableChange || change instanceof DdmReferenceTableChange
+            || change instanceof DdmUndistributeTableChange
+            || change instanceof DdmPlanDistributionChange && Boolean.TRUE.equals(((DdmPlanDistributionChange) change).getApply());
+    }
+
+    public void addChange(Change change) {
+        if (change instanceof DdmCreateTableChange) {
+            addCreateTableChange((DdmCreateTableChange) change);
+        } else if (change instanceof AddColumnChange) {
+            for (AddColumnConfig column : ((AddColumnChange) change).getColumns()) {
+                addColumnType(((AddColumnChange) change).getTableName(), column);
+                addForeignKey(((AddColumnChange) change).getTableName(), column);
+            }
+        } else if (change instanceof AddForeignKeyConstraintChange) {
+            AddForeignKeyConstraintChange fkChange = (AddForeignKeyConstraintChange) change;
+            List<String> columns = StringUtil.splitAndTrim(fkChange.getBaseColumnNames(), ",");
+            List<String> referencedColumns = StringUtil.splitAndTrim(fkChange.getReferencedColumnNames(), ",");
+            if (columns != null && columns.size() == 1) {
+                foreignKeys.add(new ForeignKey(fkChange.getBaseTableName(), columns.get(0), fkChange.getReferencedTableName(),
+                    referencedColumns == null || referencedColumns.isEmpty() ? null : referencedColumns.get(0)));
+            }
+        } else if (change instanceof AddPrimaryKeyChange) {
+            AddPrimaryKeyChange pkChange = (AddPrimaryKeyChange) change;
+            List<String> columns = StringUtil.splitAndTrim(pkChange.getColumnNames(), ",");
+            if (pkChange.getTableName() != null && columns != null && !columns.isEmpty()) {
+                primaryKeys.put(pkChange.getTableName(), columns);
+            }
+        } else if (change instanceof DdmCreateMany2ManyChange) {
+            DdmCreateMany2ManyChange m2mChange = (DdmCreateMany2ManyChange) change;
+            many2ManyRelations.add(new DdmPair(m2mChange.getMainTableName(), m2mChange.getReferenceTableName()));
+        } else if (change instanceof DdmAbstractViewChange) {
+            views.add((DdmAbstractViewChange) change);
+        } else if (change instanceof DdmDistributeTableChange) {
+            DdmDistributeTableChange distributeChange = (DdmDistributeTableChange) change;
+            if (isPrimaryScope(distributeChange.getScope()) && distributeChange.getTableName() != null) {
+                String defaultGroup = distributeChange.getDistributionType() == null
+                    || DISTRIBUTION_TYPE_HASH.equalsIgnoreCase(distributeChange.getDistributionType())
+                    ? getDefaultGroup(distributeChange.getTableName(), distributeChange.getDistributionColumn(),
+                    distributeChange.getShardCount()) : null;
+                pinnedTables.put(distributeChange.getTableName(), new Table(distributeChange.getTableName(),
+                    distributeChange.getDistributionColumn(), distributeChange.getColocateWith(), defaultGroup, true,
+                    "distributeTable"));
+            }
+        } else if (change instanceof DdmReferenceTableChange) {
+            DdmReferenceTableChange referenceChange = (DdmReferenceTableChange) change;
+            if (isPrimaryScope(referenceChange.getScope()) && referenceChange.getTableName() != null) {
+                pinnedTables.put(referenceChange.getTableName(), new Table(referenceChange.getTableName(), "referenceTable"));
+            }
+        } else if (change instanceof DdmUndistributeTableChange) {
+            pinnedTables.remove(((DdmUndistributeTableChange) change).getTableName());
+        } else if (change instanceof DdmPlanDistributionChange && Boolean.TRUE.equals(((DdmPlanDistributionChange) change).getApply())) {
+            for (Table table : plan()) {
+                pinnedTables.put(table.getTableName(), table.pin());
+            }
+        }
+    }
+
+    private static boolean isPrimaryScope(String scope) {
+        return StringUtil.isEmpty(scope) || DdmParameters.isAll(scope) || DdmParameters.isPrimary(scope);
+    }
+
+    private void addCreateTableChange(DdmCreateTableChange change) {
+        String tableName = change.getTableName();
+        if (tableName == null) {
+            return;
+        }
+        List<String> primaryKey = new ArrayList<>();
+        for (ColumnConfig column : change.getColumns()) {
+            if (column.getConstraints() != null && Boolean.TRUE.equals(column.getConstraints().isPrimaryKey())) {
+                primaryKey.add(column.getName());
+            }
+            addColumnType(tableName, column);
+            addForeignKey(tableName, column);
+        }
+        primaryKeys.put(tableName, primaryKey);
+
+        String distribution = change.getDistribution();
+        if (DdmConstants.DISTRIBUTION_DISTRIBUTE_ALL.equals(distribution)
+            || DdmConstants.DISTRIBUTION_DISTRIBUTE_PRIMARY.equals(distribution)) {
+            String distributionColumn = primaryKey.isEmpty() ? null : primaryKey.get(0);
+            pinnedTables.put(tableName, new Table(tableName, distributionColumn, null,
+                getDefaultGroup(tableName, distributionColumn, null), true, "createTable distribution"));
+        } else if (DdmConstants.DISTRIBUTION_REFERENCE_ALL.equals(distribution)
+            || DdmConstants.DISTRIBUTION_REFERENCE_PRIMARY.equals(distribution)) {
+            pinnedTables.put(tableName, new Table(tableName, "createTable distribution"));
+        }
+    }
+
+    private void addColumnType(String tableName, ColumnConfig column) {
+        if (tableName != null && column.getName() != null && column.getType() != null) {
+            columnTypes.put(new DdmPair(tableName, column.getName()), column.getType().trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Returns the group of the tables that Citus co-locates by default with a table distributed by
+     * hash of the column, the tables of the same distribution column type and shard count, null if
+     * the type of the column is not declared.
+     */
+    private String getDefaultGroup(String tableName, String columnName, Integer shardCount) {
+        String type = columnName == null ? null : columnTypes.get(new DdmPair(tableName, columnName));
+        return type == null ? null : "default(" + type + (shardCount == null ? "" : ", " + shardCount + " shards") + ")";
+    }
+
+    private void addForeignKey(String tableName, ColumnConfig column) {
+        ConstraintsConfig constraints = column.getConstraints();
+        if (tableName == null || constraints == null) {
+            return;
+        }
+        if (constraints.getReferencedTableName() != null) {
+            List<String> referencedColumns = StringUtil.splitAndTrim(constraints.getReferencedColumnNames(), ",");
+            foreignKeys.add(new ForeignKey(tableName, column.getName(), constraints.getReferencedTableName(),
+                referencedColumns == null || referencedColumns.isEmpty() ? null : referencedColumns.get(0)));
+        } else if (constraints.getReferences() != null) {
+            // table(column)
+            String references = constraints.getReferences().trim();
+            int bracket = references.indexOf('(');
+            String referencedTable = bracket < 0 ? references : references.substring(0, bracket).trim();
+            String referencedColumn = bracket < 0 ? null
+                : references.substring(bracket + 1, references.endsWith(")") ? references.length() - 1 : references.length()).trim();
+            foreignKeys.add(new ForeignKey(tableName, column.getName(), referencedTable,
+                StringUtil.isEmpty(referencedColumn) ? null : referencedColumn));
+        }
+    }
+
+    /**
+     * Returns the plans of the declared tables, reference tables first, then the tables that start
+     * co-location groups, then the co-located tables, each in the order of declaration.
+     */
+    public List<Table> plan() {
+        Map<String, Table> tables = new LinkedHashMap<>();
+        for (String tableName : primaryKeys.keySet()) {
+            if (pinnedTables.containsKey(tableName)) {
+                tables.put(tableName, pinnedTables.get(tableName));
+            }
+        }
+        for (DdmPair relation : many2ManyRelations) {
+            if (primaryKeys.containsKey(relation.getValue()) && !tables.containsKey(relation.getValue())) {
+                tables.put(relation.getValue(), new Table(relation.getValue(),
+                    "referenced by the keys array of many to many relation with " + relation.getKey()));
+            }
+        }
+
+        for (String tableName : primaryKeys.keySet()) {
+            if (!tables.containsKey(tableName) && isLookupTable(tableName)) {
+                tables.put(tableName, new Table(tableName, "lookup table"));
+            }
+        }
+
+        for (String tableName : primaryKeys.keySet()) {
+            if (tables.containsKey(tableName)) {
+                continue;
+            }
+            Table parent = null;
+            ForeignKey parentKey = null;
+            for (ForeignKey foreignKey : getForeignKeys(tableName)) {
+                Table referencedTable = tables.get(foreignKey.referencedTable);
+                if (referencedTable != null && isDistributedBy(referencedTable, foreignKey)
+                    && isPrimaryKeyColumn(tableName, foreignKey.column)) {
+                    parent = referencedTable;
+                    parentKey = foreignKey;
+                    break;
+                }
+            }
+            if (parent != null) {
+                tables.put(tableName, new Table(tableName, parentKey.column, getColocationTarget(parent), null, false,
+                    "foreign key " + parentKey.column + " to " + parent.getTableName()));
+            } else if (!primaryKeys.get(tableName).isEmpty()) {
+                String distributionColumn = primaryKeys.get(tableName).get(0);
+                tables.put(tableName, new Table(tableName, distributionColumn, null,
+                    getDefaultGroup(tableName, distributionColumn, null), false, "primary key"));
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (ForeignKey foreignKey : foreignKeys) {
+                Table table = tables.get(foreignKey.table);
+                Table referencedTable = tables.get(foreignKey.referencedTable);
+                if (table != null && referencedTable != null && canBecomeReference(referencedTable, tables)
+                    && !isColocated(table, foreignKey.column, referencedTable, foreignKey.referencedColumn, tables)) {
+                    tables.put(referencedTable.getTableName(), new Table(referencedTable.getTableName(),
+                        "referenced by " + table.getTableName() + " from another co-location group"));
+                    changed = true;
+                }
+            }
+        }
+
+        List<Table> declared = new ArrayList<>();
+        primaryKeys.keySet().stream().filter(tables::containsKey).map(tables::get).forEach(declared::add);
+        List<Table> result = new ArrayList<>();
+        declared.stream().filter(Table::isReference).forEach(result::add);
+        declared.stream().filter(table -> !table.isReference() && table.getColocateWith() == null).forEach(result::add);
+        declared.stream().filter(table -> !table.isReference() && table.getColocateWith() != null).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Returns the joins of the planned tables that are not co-located: foreign keys, many to many
+     * relations and joins of search conditions and analytics views.
+     */
+    public List<String> getWarnings(List<Table> plan) {
+        Map<String, Table> tables = new HashMap<>();
+        plan.forEach(table -> tables.put(table.getTableName(), table));
+        List<String> warnings = new ArrayList<>();
+
+        for (String tableName : primaryKeys.keySet()) {
+            if (!tables.containsKey(tableName)) {
+                warnings.add("Table " + tableName + " has no primary key and is not planned");
+            }
+        }
+        for (ForeignKey foreignKey : foreignKeys) {
+            Table table = tables.get(foreignKey.table);
+            Table referencedTable = tables.get(foreignKey.referencedTable);
+            if (table == null || referencedTable == null) {
+                continue;
+            }
+            if (table.isReference() && !referencedTable.isReference()) {
+                warnings.add("Reference table " + table.getTableName() + " has a foreign key " + foreignKey.column
+                    + " to distributed table " + referencedTable.getTableName());
+            } else if (!isColocated(table, foreignKey.column, referencedTable, foreignKey.referencedColumn, tables)) {
+                warnings.add("Foreign key " + table.getTableName() + "." + foreignKey.column + " to "
+                    + referencedTable.getTableName() + " is not co-located");
+            }
+        }
+        for (DdmPair relation : many2ManyRelations) {
+            Table referencedTable = tables.get(relation.getValue());
+            if (referencedTable != null && !referencedTable.isReference()) {
+                warnings.add("Many to many relation of " + relation.getKey() + " with distributed table "
+                    + relation.getValue() + " is not co-located");
+            }
+        }
+        for (DdmAbstractViewChange view : views) {
+            warnings.addAll(getJoinWarnings(view, tables));
+        }
+        return warnings;
+    }
+
+    /**
+     * Returns the joins of the view that are neither on the distribution columns of co-located
+     * tables nor involve a reference table. Tables missing from the given distribution are local
+     * tables, joins of CTEs are not checked.
+     */
+    public static List<String> getJoinWarnings(DdmAbstractViewChange view, Map<String, Table> tables) {
+        Map<String, String> aliases = new HashMap<>();
+        for (DdmTableConfig table : view.getTables()) {
+            aliases.put(table.getAliasOrName(), table.getName());
+        }
+        List<String> warnings = new ArrayList<>();
+        for (DdmJoinConfig join : view.getJoins()) {
+            String leftTable = aliases.get(join.getLeftAlias());
+            String rightTable = aliases.get(join.getRightAlias());
+            if (leftTable == null || rightTable == null) {
+                continue;
+            }
+            Table left = tables.get(leftTable);
+            Table right = tables.get(rightTable);
+            if (left == null && right == null || isColocated(left, right, join, tables)) {
+                continue;
+            }
+            String joinName = "Join of " + leftTable + " and " + rightTable + " in " + view.getName();
+            if (left == null || right == null) {
+                warnings.add(joinName + " joins distributed table " + (left == null ? rightTable : leftTable)
+                    + " with local table " + (left == null ? leftTable : rightTable));
+            } else {
+                warnings.add(joinName + " is not on the distribution columns of co-located tables");
+            }
+        }
+        return warnings;
+    }
+
+    /**
+     * Returns the distribution of the tables declared by the ChangeLog, by createTable,
+     * distributeTable and referenceTable changes and by applied plans.
+     */
+    public Map<String, Table> getDeclaredTables() {
+        return new HashMap<>(pinnedTables);
+    }
+
+    /**
+     * Returns the plan and the warnings as text, one line per table and per warning.
+     */
+    public String getReport() {
+        List<Table> plan = plan();
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("Distribution plan of ").append(plan.size()).append(" tables");
+        for (Table table : plan) {
+            buffer.append("\n  ").append(table);
+        }
+        List<String> warnings = getWarnings(plan);
+        if (!warnings.isEmpty()) {
+            buffer.append("\nWarnings");
+            warnings.forEach(warning -> buffer.append("\n  ").append(warning));
+        }
+        return buffer.toString();
+    }
+
+    private List<ForeignKey> getForeignKeys(String tableName) {
+        List<ForeignKey> result = new ArrayList<>();
+        for (ForeignKey foreignKey : foreignKeys) {
+            if (foreignKey.table.equals(tableName) && !foreignKey.referencedTable.equals(tableName)) {
+                result.add(foreignKey);
+            }
+        }
+        return result;
+    }
+
+    private boolean isLookupTable(String tableName) {
+        if (!getForeignKeys(tableName).isEmpty()) {
+            return false;
+        }
+        boolean referenced = false;
+        for (ForeignKey foreignKey : foreignKeys) {
+            if (foreignKey.referencedTable.equals(tableName) && !foreignKey.table.equals(tableName)) {
+                if (isPrimaryKeyColumn(foreignKey.table, foreignKey.column)) {
+                    return false;
+                }
+                referenced = true;
+            }
+        }
+        return referenced;
+    }
+
+    private boolean isPrimaryKeyColumn(String tableName, String columnName) {
+        List<String> primaryKey = primaryKeys.get(tableName);
+        return primaryKey != null && primaryKey.contains(columnName);
+    }
+
+    private boolean isDistributedBy(Table table, ForeignKey foreignKey) {
+        if (table.isReference()) {
+            return false;
+        }
+        String referencedColumn = foreignKey.referencedColumn != null ? foreignKey.referencedColumn
+            : getFirstPrimaryKeyColumn(foreignKey.referencedTable);
+        return referencedColumn != null && referencedColumn.equals(table.getDistributionColumn());
+    }
+
+    private String getFirstPrimaryKeyColumn(String tableName) {
+        List<String> primaryKey = primaryKeys.get(tableName);
+        return primaryKey == null || primaryKey.isEmpty() ? null : primaryKey.get(0);
+    }
+
+    /**
+     * Returns the table to co-locate with the given one by name, the table that starts its group.
+     */
+    private static String getColocationTarget(Table table) {
+        return table.getColocateWith() == null || COLOCATE_WITH_DEFAULT.equals(table.getColocateWith())
+            || COLOCATE_WITH_NONE.equals(table.getColocateWith()) ? table.getTableName() : table.getColocateWith();
+    }
+
+    /**
+     * Returns the co-location group of the table, following the tables it is co-located with by
+     * name to the group of the table that starts it.
+     */
+    private static String getGroup(Table table, Map<String, Table> tables) {
+        String group = table.getGroup();
+        Set<String> visited = new HashSet<>();
+        while (tables.containsKey(group) && visited.add(group)) {
+            Table groupTable = tables.get(group);
+            if (groupTable.isReference() || groupTable.getGroup().equals(group)) {
+                break;
+            }
+            group = groupTable.getGroup();
+        }
+        return group;
+    }
+
+    private boolean isColocated(Table table, String column, Table referencedTable, String referencedColumn,
+        Map<String, Table> tables) {
+        if (table.isReference() || referencedTable.isReference()) {
+            return referencedTable.isReference();
+        }
+        String key = referencedColumn != null ? referencedColumn : getFirstPrimaryKeyColumn(referencedTable.getTableName());
+        return getGroup(table, tables).equals(getGroup(referencedTable, tables))
+            && column.equals(table.getDistributionColumn()) && Objects.equals(referencedTable.getDistributionColumn(), key);
+    }
+
+    private static boolean isColocated(Table left, Table right, DdmJoinConfig join, Map<String, Table> tables) {
+        if (left == null || right == null) {
+            return left != null && left.isReference() || right != null && right.isReference();
+        }
+        if (left.isReference() || right.isReference()) {
+            return true;
+        }
+        if (!getGroup(left, tables).equals(getGroup(right, tables))) {
+            return false;
+        }
+        for (int i = 0; i < join.getLeftColumns().size() && i < join.getRightColumns().size(); i++) {
+            if (join.getLeftColumns().get(i).equals(left.getDistributionColumn())
+                && join.getRightColumns().get(i).equals(right.getDistributionColumn())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canBecomeReference(Table table, Map<String, Table> tables) {
+        if (table.isReference() || table.isPinned() || table.getColocateWith() != null) {
+            return false;
+        }
+        for (Table other : tables.values()) {
+            if (table.getTableName().equals(other.getColocateWith())) {
+                return false;
+            }
+        }
+        for (ForeignKey foreignKey : getForeignKeys(table.getTableName())) {
+            Table referencedTable = tables.get(foreignKey.referencedTable);
+            if (referencedTable != null && !referencedTable.isReference()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ForeignKey {
+
+        private final String table;
+        private final String column;
+        private final String referencedTable;
+        private final String referencedColumn;
+
+        ForeignKey(String table, String column, String referencedTable, String referencedColumn) {
+            this.table = table;
+            this.column = column;
+            this.referencedTable = referencedTable;
+            this.referencedColumn = referencedColumn;
+        }
+    }
+
+    /**
+     * Distribution of one table, either a reference table or a table distributed by a column and
+     * co-located with the table that starts its group.
+     */
+    public static class Table {
+
+        private final String tableName;
+        private final String distributionColumn;
+        private final String colocateWith;
+        private final String defaultGroup;
+        private final boolean reference;
+        private final boolean pinned;
+        private final String reason;
+
+        Table(String tableName, String reason) {
+            this(tableName, null, null, null, true, false, reason);
+        }
+
+        Table(String tableName, String distributionColumn, String colocateWith, String defaultGroup, boolean pinned,
+            String reason) {
+            this(tableName, distributionColumn, colocateWith, defaultGroup, false, pinned, reason);
+        }
+
+        private Table(String tableName, String distributionColumn, String colocateWith, String defaultGroup,
+            boolean reference, boolean pinned, String reason) {
+            this.tableName = tableName;
+            this.distributionColumn = distributionColumn;
+            this.colocateWith = colocateWith;
+            this.defaultGroup = defaultGroup;
+            this.reference = reference;
+            this.pinned = pinned;
+            this.reason = reason;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String getDistributionColumn() {
+            return distributionColumn;
+        }
+
+        /**
+         * Returns the table that starts the co-location group, null for the table that starts it.
+         */
+        public String getColocateWith() {
+            return colocateWith;
+        }
+
+        public boolean isReference() {
+            return reference;
+        }
+
+        /**
+         * Returns true if the distribution is declared by the ChangeLog rather than planned.
+         */
+        public boolean isPinned() {
+            return pinned;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns the co-location group of the table by its own declaration: the default group of its
+         * distribution column type and shard count, the table itself if that is unknown or with
+         * colocate_with none, or else the table it is co-located with.
+         */
+        String getGroup() {
+            if (COLOCATE_WITH_NONE.equals(colocateWith)) {
+                return tableName;
+            }
+            if (colocateWith == null || COLOCATE_WITH_DEFAULT.equals(colocateWith)) {
+                return defaultGroup == null ? tableName : defaultGroup;
+            }
+            return colocateWith;
+        }
+
+        Table pin() {
+            return new Table(tableName, distributionColumn, colocateWith, defaultGroup, reference, true, "planDistribution");
+        }
+
+        @Override
+        public String toString() {
+            String distribution = reference ? "reference table"
+                : "distributed by " + distributionColumn + (colocateWith == null ? "" : ", co-located with " + colocateWith);
+            return tableName + ": " + distribution + " (" + (pinned ? "declared by " : "") + reason + ")";
+        }
+    }
+}
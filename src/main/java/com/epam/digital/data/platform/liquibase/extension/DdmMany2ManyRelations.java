@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateMany2ManyChange;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+
+/**
+ * Many to many relations of a root ChangeLog: the first definition of each relation by main table
+ * and reference keys array, and the relations any definition of which keeps them in a junction
+ * table or checks their references by statement-level triggers.
+ *
+ * The relations are collected on first use and again when change sets are added to the ChangeLog
+ * or when changes are appended to its last change set. They are softly referenced because the
+ * changes point back to their ChangeLog.
+ */
+public class DdmMany2ManyRelations {
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmMany2ManyRelations>> relations = new WeakHashMap<>();
+
+    private final int changeSetCount;
+    private final ChangeSet lastChangeSet;
+    private final int lastChangeSetChangeCount;
+
+    private final Map<DdmPair, DdmCreateMany2ManyChange> many2ManyChanges = new HashMap<>();
+    private final Set<String> tableStorageRelations = new HashSet<>();
+    private final Set<String> statementIntegrityCheckRelations = new HashSet<>();
+
+    private DdmMany2ManyRelations(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        changeSetCount = changeSets.size();
+        lastChangeSet = changeSets.isEmpty() ? null : changeSets.get(changeSets.size() - 1);
+        lastChangeSetChangeCount = lastChangeSet == null ? 0 : lastChangeSet.getChanges().size();
+
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                if (!(change instanceof DdmCreateMany2ManyChange)) {
+                    continue;
+                }
+                DdmCreateMany2ManyChange m2mChange = (DdmCreateMany2ManyChange) change;
+                many2ManyChanges.putIfAbsent(
+                    new DdmPair(m2mChange.getMainTableName(), m2mChange.getReferenceKeysArray()), m2mChange);
+                if (m2mChange.isTableStorage()) {
+                    tableStorageRelations.add(m2mChange.getRelationName());
+                }
+                if (m2mChange.isStatementIntegrityCheck()) {
+                    statementIntegrityCheckRelations.add(m2mChange.getRelationName());
+                }
+            }
+        }
+    }
+
+    public static DdmMany2ManyRelations getInstance(ChangeSet changeSet) {
+        return getInstance(changeSet.getChangeLog().getRootChangeLog());
+    }
+
+    public static DdmMany2ManyRelations getInstance(DatabaseChangeLog rootChangeLog) {
+        synchronized (relations) {
+            SoftReference<DdmMany2ManyRelations> reference = relations.get(rootChangeLog);
+            DdmMany2ManyRelations instance = reference == null ? null : reference.get();
+            if (instance == null || instance.isStale(rootChangeLog)) {
+                instance = new DdmMany2ManyRelations(rootChangeLog);
+                relations.put(rootChangeLog, new SoftReference<>(instance));
+            }
+            return instance;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (relations) {
+            relations.remove(rootChangeLog);
+        }
+    }
+
+    private boolean isStale(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        if (changeSets.size() != changeSetCount) {
+            return true;
+        }
+        if (changeSets.isEmpty()) {
+            return false;
+        }
+        ChangeSet last = changeSets.get(changeSets.size() - 1);
+        return last != lastChangeSet || last.getChanges().size() != lastChangeSetChangeCount;
+    }
+
+    public DdmCreateMany2ManyChange getMany2ManyChange(String mainTableName, String referenceKeysArray) {
+        return many2ManyChanges.get(new DdmPair(mainTableName, referenceKeysArray));
+    }
+
+    /**
+     * Returns true if any definition of the many to many relation in the ChangeLog keeps it in a
+     * junction table.
+     */
+    public boolean hasTableStorage(String relationName) {
+        return tableStorageRelations.contains(relationName);
+    }
+
+    /**
+     * Returns true if any definition of the many to many relation in the ChangeLog checks its
+     * references by statement-level triggers.
+     */
+    public boolean hasStatementIntegrityCheck(String relationName) {
+        return statementIntegrityCheckRelations.contains(relationName);
+    }
+}
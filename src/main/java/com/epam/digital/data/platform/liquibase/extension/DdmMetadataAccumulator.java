@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchDeleteStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Collects rows for DDM metadata tables and turns them into one chunked multi-row INSERT per
+ * target table instead of a separate statement per row. Rows to delete are collected the same way
+ * and deleted before any row is inserted.
+ */
+public class DdmMetadataAccumulator {
+
+    private final int chunkSize;
+    private final Map<String, DdmBatchInsertStatement> statements = new LinkedHashMap<>();
+    private final Map<String, DdmBatchDeleteStatement> deleteStatements = new LinkedHashMap<>();
+
+    public DdmMetadataAccumulator() {
+        this(DdmConfiguration.METADATA_INSERT_CHUNK_SIZE.getCurrentValue());
+    }
+
+    public DdmMetadataAccumulator(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Adds a metadata row. Missing values are stored as the string 'null', as the metadata
+     * inserts have always done, while role permissions store SQL NULL for a missing column.
+     */
+    public void insertMetadata(String changeType, String changeName, String attributeName, String attributeValue) {
+        getStatement(DdmConstants.METADATA_TABLE,
+            DdmConstants.METADATA_CHANGE_TYPE,
+            DdmConstants.METADATA_CHANGE_NAME,
+            DdmConstants.METADATA_ATTRIBUTE_NAME,
+            DdmConstants.METADATA_ATTRIBUTE_VALUE)
+            .addRow(String.valueOf(changeType), String.valueOf(changeName), String.valueOf(attributeName),
+                String.valueOf(attributeValue));
+    }
+
+    public void insertRolePermission(String role, String table, String column, String operation, String objectType) {
+        getStatement(DdmConstants.ROLE_PERMISSION_TABLE,
+            DdmConstants.ROLE_PERMISSION_ROLE_NAME,
+            DdmConstants.ROLE_PERMISSION_OBJECT_NAME,
+            DdmConstants.ROLE_PERMISSION_COLUMN_NAME,
+            DdmConstants.ROLE_PERMISSION_OPERATION,
+            DdmConstants.ROLE_PERMISSION_OBJECT_TYPE)
+            .addRow(role, table, column, operation, objectType);
+    }
+
+    public void deleteRolePermission(String role, String table, String column, String operation, String objectType) {
+        deleteStatements.computeIfAbsent(DdmConstants.ROLE_PERMISSION_TABLE,
+            key -> new DdmBatchDeleteStatement(key, chunkSize,
+                DdmConstants.ROLE_PERMISSION_ROLE_NAME,
+                DdmConstants.ROLE_PERMISSION_OBJECT_NAME,
+                DdmConstants.ROLE_PERMISSION_COLUMN_NAME,
+                DdmConstants.ROLE_PERMISSION_OPERATION,
+                DdmConstants.ROLE_PERMISSION_OBJECT_TYPE))
+            .addRow(role, table, column, operation, objectType);
+    }
+
+    public boolean isEmpty() {
+        return statements.isEmpty() && deleteStatements.isEmpty();
+    }
+
+    public List<SqlStatement> getStatements() {
+        List<SqlStatement> result = new ArrayList<>(deleteStatements.values());
+        result.addAll(statements.values());
+        return result;
+    }
+
+    private DdmBatchInsertStatement getStatement(String tableName, String... columnNames) {
+        return statements.computeIfAbsent(tableName,
+            key -> new DdmBatchInsertStatement(tableName, chunkSize, columnNames));
+    }
+}
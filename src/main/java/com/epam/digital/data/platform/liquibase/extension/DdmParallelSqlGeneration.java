@@ -0,0 +1,218 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmStatelessChange;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmRenderedSqlStatement;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Opt-in parallel SQL generation for runs that write SQL to output instead of executing it
+ * (updateSQL, offline database).
+ *
+ * On the first request of a ChangeLog the statements of all {@link DdmStatelessChange}s of the
+ * ChangeSets that are going to run are generated, then validated and rendered to SQL on a
+ * fork-join pool. The changes are then served the rendered SQL as {@link DdmRenderedSqlStatement}s,
+ * which keep the end delimiters and affected database objects of the SQL, while Liquibase
+ * walks the ChangeLog in its usual order, so the output is the same as the one of sequential
+ * generation. Changes that fail, or whose statements are not supported, volatile or invalid, fall
+ * back to sequential generation.
+ *
+ * Enabled by {@link DdmConfiguration#PARALLEL_GENERATION}.
+ */
+public class DdmParallelSqlGeneration {
+
+    private static final Map<DatabaseChangeLog, SoftReference<Prefetch>> prefetches = new WeakHashMap<>();
+
+    private DdmParallelSqlGeneration() {
+    }
+
+    public static SqlStatement[] generateStatements(DdmStatelessChange change, Database database) {
+        ChangeSet changeSet = change.getChangeSet();
+        if (!Boolean.TRUE.equals(DdmConfiguration.PARALLEL_GENERATION.getCurrentValue())
+            || changeSet == null || changeSet.getChangeLog() == null || !DdmUtils.isOutputOnly(database)) {
+            return change.generateStatelessStatements(database);
+        }
+
+        SqlStatement[] statements = getPrefetch(changeSet.getChangeLog().getRootChangeLog(), database).get(change);
+        return statements == null ? change.generateStatelessStatements(database) : statements;
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (prefetches) {
+            prefetches.remove(rootChangeLog);
+        }
+    }
+
+    private static Prefetch getPrefetch(DatabaseChangeLog rootChangeLog, Database database) {
+        synchronized (prefetches) {
+            SoftReference<Prefetch> reference = prefetches.get(rootChangeLog);
+            Prefetch prefetch = reference == null ? null : reference.get();
+            if (prefetch == null || prefetch.isStale(rootChangeLog, database)) {
+                prefetch = new Prefetch(rootChangeLog, database);
+                prefetches.put(rootChangeLog, new SoftReference<>(prefetch));
+            }
+            return prefetch;
+        }
+    }
+
+    private static int getThreads() {
+        Integer threads = DdmConfiguration.PARALLEL_GENERATION_THREADS.getCurrentValue();
+        return threads == null || threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
+
+    /**
+     * Rendered statements of the stateless changes of one ChangeLog for one Database.
+     */
+    private static class Prefetch {
+
+        private final WeakReference<Database> database;
+        private final int changeSetCount;
+        private final Map<Change, SqlStatement[]> statements = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        Prefetch(DatabaseChangeLog rootChangeLog, Database database) {
+            this.database = new WeakReference<>(database);
+            this.changeSetCount = rootChangeLog.getChangeSets().size();
+
+            List<DdmStatelessChange> changes = new ArrayList<>();
+            try {
+                for (ChangeSet changeSet : rootChangeLog.getChangeSets()) {
+                    if (changeSet.isIgnore() || DdmRanChangeSetsKeeper.shouldSkip(database, changeSet)) {
+                        continue;
+                    }
+                    for (Change change : changeSet.getChanges()) {
+                        if (change instanceof DdmStatelessChange) {
+                            changes.add((DdmStatelessChange) change);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                Scope.getCurrentScope().getLog(DdmParallelSqlGeneration.class)
+                    .info("Cannot collect change sets for parallel SQL generation", e);
+                return;
+            }
+
+            if (!changes.isEmpty()) {
+                prefetch(changes, database);
+            }
+        }
+
+        private void prefetch(List<DdmStatelessChange> changes, Database database) {
+            // statements are built on this thread, since building them consults SqlGeneratorFactory,
+            // which caches generators in plain hash maps; the pool only validates and renders them
+            Map<DdmStatelessChange, SqlStatement[]> generated = new IdentityHashMap<>();
+            Set<Class<?>> warmedUp = new HashSet<>();
+            for (DdmStatelessChange change : changes) {
+                SqlStatement[] changeStatements;
+                try {
+                    changeStatements = change.generateStatelessStatements(database);
+                } catch (RuntimeException e) {
+                    // left to sequential generation, which reports the error in place
+                    continue;
+                }
+                generated.put(change, changeStatements);
+                for (SqlStatement statement : changeStatements) {
+                    if (warmedUp.add(statement.getClass())) {
+                        render(statement, database);
+                    }
+                }
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(getThreads());
+            try {
+                pool.submit(() -> changes.parallelStream().filter(generated::containsKey)
+                    .forEach(change -> statements.put(change, renderAll(generated.get(change), database))))
+                    .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                statements.clear();
+            } catch (ExecutionException e) {
+                Scope.getCurrentScope().getLog(DdmParallelSqlGeneration.class)
+                    .info("Cannot generate SQL in parallel", e.getCause());
+                statements.clear();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        /**
+         * Returns the statements rendered to SQL, or the given statements if any of them
+         * cannot be rendered ahead of execution.
+         */
+        private SqlStatement[] renderAll(SqlStatement[] changeStatements, Database database) {
+            List<SqlStatement> rendered = new ArrayList<>();
+            for (SqlStatement statement : changeStatements) {
+                Sql[] sqls = render(statement, database);
+                if (sqls == null) {
+                    return changeStatements;
+                }
+                rendered.add(new DdmRenderedSqlStatement(sqls));
+            }
+            return rendered.toArray(new SqlStatement[0]);
+        }
+
+        private Sql[] render(SqlStatement statement, Database database) {
+            try {
+                SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+                if (!factory.supports(statement, database)
+                    || factory.generateStatementsVolatile(statement, database)
+                    || factory.validate(statement, database).hasErrors()) {
+                    return null;
+                }
+                Sql[] sqls = factory.generateSql(statement, database);
+                if (sqls == null) {
+                    return null;
+                }
+                for (Sql sql : sqls) {
+                    if (sql == null || sql.toSql() == null || sql.toSql().isEmpty()) {
+                        return null;
+                    }
+                }
+                return sqls;
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        SqlStatement[] get(Change change) {
+            return statements.get(change);
+        }
+
+        boolean isStale(DatabaseChangeLog rootChangeLog, Database database) {
+            return this.database.get() != database || rootChangeLog.getChangeSets().size() != changeSetCount;
+        }
+    }
+}
@@ -29,26 +29,59 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-public class DdmParameters {
-    private String historyTableSuffix;
-    private String subjectTable;
-    private String subjectColumn;
-    private String subjectColumnType;
+/**
+ * Immutable snapshot of the settings declared in parameters.xml.
+ *
+ * The file is parsed once per class loader and the resulting instance is shared by all changes.
+ * Use {@link #reload()} to re-read the file explicitly.
+ */
+public final class DdmParameters {
+
+    private static volatile DdmParameters instance;
+
+    private final String historyTableSuffix;
+    private final String subjectTable;
+    private final String subjectColumn;
+    private final String subjectColumnType;
     private final List<DdmHistoryTableColumn> historyTableColumns;
     private final List<DdmHistoryTableColumn> dcmColumns;
 
     public enum Scope {ALL, PRIMARY, HISTORY}
 
-    public DdmParameters () {
-        historyTableColumns = new ArrayList<>();
-        dcmColumns = new ArrayList<>();
+    private DdmParameters(Element historyFlag) {
+        historyTableSuffix = readHistoryTableSuffix(historyFlag);
+        historyTableColumns = Collections.unmodifiableList(readHistoryTableColumns(historyFlag));
+        dcmColumns = Collections.unmodifiableList(readDcmColumns(historyFlag));
+
+        Element subjectTableElement = (Element) historyFlag.getElementsByTagName(DdmConstants.XML_TAG_SUBJECT_TABLE).item(0);
+        subjectTable = subjectTableElement.getAttribute(DdmConstants.ATTRIBUTE_NAME);
+        subjectColumn = subjectTableElement.getAttribute(DdmConstants.ATTRIBUTE_COLUMN);
+        subjectColumnType = subjectTableElement.getAttribute(DdmConstants.ATTRIBUTE_TYPE);
+    }
+
+    public static DdmParameters getInstance() {
+        DdmParameters result = instance;
+        if (result == null) {
+            synchronized (DdmParameters.class) {
+                result = instance;
+                if (result == null) {
+                    result = load();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
 
-        setHistoryTableSuffix();
-        setHistoryTableColumns();
-        setSubjects();
-        setDcmColumns();
+    public static DdmParameters reload() {
+        synchronized (DdmParameters.class) {
+            DdmParameters result = load();
+            instance = result;
+            return result;
+        }
     }
 
     public static boolean isAll(String scope) {
@@ -63,122 +96,93 @@ public class DdmParameters {
         return Scope.HISTORY.name().equalsIgnoreCase(scope);
     }
 
-    protected NodeList getHistoryFlagNodes() throws ParserConfigurationException, IOException, SAXException {
-        InputStream inputFile = this.getClass().getClassLoader().getResourceAsStream(DdmConstants.PARAMETERS_FILE_NAME);
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        dbFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        dbFactory.setFeature(DdmConstants.DISALLOW_DOCTYPE_DECLARATION, true);
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(inputFile);
-
-        return doc.getElementsByTagName(DdmConstants.XML_TAG_HISTORY_FLAG);
-    }
-
-    protected void setHistoryTableSuffix() {
-        try {
-            NodeList historyFlag = getHistoryFlagNodes();
-            NodeList tableSuffix = ((Element) historyFlag.item(0)).getElementsByTagName(DdmConstants.XML_TAG_TABLE_SUFFIX);
-            if (tableSuffix.item(0).getNodeType() == Node.ELEMENT_NODE) {
-                this.historyTableSuffix = ((Element) tableSuffix.item(0)).getAttribute(DdmConstants.ATTRIBUTE_NAME);
+    private static DdmParameters load() {
+        try (InputStream inputFile = DdmParameters.class.getClassLoader().getResourceAsStream(DdmConstants.PARAMETERS_FILE_NAME)) {
+            if (inputFile == null) {
+                throw new IllegalStateException("Cannot find " + DdmConstants.PARAMETERS_FILE_NAME);
             }
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            dbFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            dbFactory.setFeature(DdmConstants.DISALLOW_DOCTYPE_DECLARATION, true);
+            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+            Document doc = dBuilder.parse(inputFile);
+
+            NodeList historyFlag = doc.getElementsByTagName(DdmConstants.XML_TAG_HISTORY_FLAG);
+            return new DdmParameters((Element) historyFlag.item(0));
         } catch (ParserConfigurationException | IOException | SAXException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    public String getHistoryTableSuffix() {
-        return historyTableSuffix;
+    private static String readHistoryTableSuffix(Element historyFlag) {
+        NodeList tableSuffix = historyFlag.getElementsByTagName(DdmConstants.XML_TAG_TABLE_SUFFIX);
+        if (tableSuffix.item(0).getNodeType() == Node.ELEMENT_NODE) {
+            return ((Element) tableSuffix.item(0)).getAttribute(DdmConstants.ATTRIBUTE_NAME);
+        }
+        return null;
+    }
+
+    private static List<DdmHistoryTableColumn> readHistoryTableColumns(Element historyFlag) {
+        List<DdmHistoryTableColumn> result = new ArrayList<>();
+        NodeList allColumns = historyFlag.getElementsByTagName(DdmConstants.XML_TAG_COLUMNS);
+        NodeList columns = ((Element) allColumns.item(0)).getElementsByTagName(DdmConstants.XML_TAG_COLUMN);
+        for (int i = 0; i < columns.getLength(); i++) {
+            if (columns.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                Element column = (Element) columns.item(i);
+
+                DdmHistoryTableColumn historyTableColumn = new DdmHistoryTableColumn();
+                historyTableColumn.setName(column.getAttribute(DdmConstants.ATTRIBUTE_NAME));
+                historyTableColumn.setType(column.getAttribute(DdmConstants.ATTRIBUTE_TYPE));
+                historyTableColumn.setScope(column.getAttribute(DdmConstants.ATTRIBUTE_SCOPE));
+                historyTableColumn.setUniqueWithPrimaryKey(column.getAttribute(DdmConstants.ATTRIBUTE_UNIQUE_WITH_PRIMARY_KEY).equals(DdmConstants.ATTRIBUTE_TRUE));
+                historyTableColumn.setNullable(column.getAttribute(DdmConstants.ATTRIBUTE_NULLABLE).equals(DdmConstants.ATTRIBUTE_TRUE));
+                historyTableColumn.setDefaultValueComputed(column.getAttribute(DdmConstants.ATTRIBUTE_DEFAULT_VALUE_COMPUTED));
+
+                result.add(historyTableColumn);
+            }
+        }
+        return result;
     }
 
-    protected void setHistoryTableColumns() {
-        try {
-            NodeList historyFlag = getHistoryFlagNodes();
-            NodeList allColumns = ((Element) historyFlag.item(0)).getElementsByTagName(DdmConstants.XML_TAG_COLUMNS);
-            NodeList columns = ((Element) allColumns.item(0)).getElementsByTagName(DdmConstants.XML_TAG_COLUMN);
-            for (int i = 0; i < columns.getLength(); i++) {
-                if (columns.item(i).getNodeType() == Node.ELEMENT_NODE) {
-                    Element column = (Element) columns.item(i);
-
-                    DdmHistoryTableColumn historyTableColumn = new DdmHistoryTableColumn();
-                    historyTableColumn.setName(column.getAttribute(DdmConstants.ATTRIBUTE_NAME));
-                    historyTableColumn.setType(column.getAttribute(DdmConstants.ATTRIBUTE_TYPE));
-                    historyTableColumn.setScope(column.getAttribute(DdmConstants.ATTRIBUTE_SCOPE));
-                    historyTableColumn.setUniqueWithPrimaryKey(column.getAttribute(DdmConstants.ATTRIBUTE_UNIQUE_WITH_PRIMARY_KEY).equals(DdmConstants.ATTRIBUTE_TRUE));
-                    historyTableColumn.setNullable(column.getAttribute(DdmConstants.ATTRIBUTE_NULLABLE).equals(DdmConstants.ATTRIBUTE_TRUE));
-                    historyTableColumn.setDefaultValueComputed(column.getAttribute(DdmConstants.ATTRIBUTE_DEFAULT_VALUE_COMPUTED));
-
-                    historyTableColumns.add(historyTableColumn);
-                }
+    private static List<DdmHistoryTableColumn> readDcmColumns(Element historyFlag) {
+        List<DdmHistoryTableColumn> result = new ArrayList<>();
+        NodeList allColumns = historyFlag.getElementsByTagName(DdmConstants.XML_TAG_DCM_COLUMNS);
+        NodeList columns = ((Element) allColumns.item(0)).getElementsByTagName(DdmConstants.XML_TAG_COLUMN);
+        for (int i = 0; i < columns.getLength(); i++) {
+            if (columns.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                Element column = (Element) columns.item(i);
+
+                DdmHistoryTableColumn dcmColumn = new DdmHistoryTableColumn();
+                dcmColumn.setName(column.getAttribute(DdmConstants.ATTRIBUTE_NAME));
+                dcmColumn.setType(column.getAttribute(DdmConstants.ATTRIBUTE_TYPE));
+
+                result.add(dcmColumn);
             }
-        } catch (ParserConfigurationException | IOException | SAXException e) {
-            throw new IllegalStateException(e);
         }
+        return result;
     }
 
-    public List<DdmHistoryTableColumn> getHistoryTableColumns() {
-        return historyTableColumns;
+    public String getHistoryTableSuffix() {
+        return historyTableSuffix;
     }
 
-    public void setSubjects() {
-        try {
-            NodeList historyFlag = getHistoryFlagNodes();
-            NodeList subjectTableNode = ((Element) historyFlag.item(0)).getElementsByTagName(DdmConstants.XML_TAG_SUBJECT_TABLE);
-            if (subjectTableNode.item(0).getNodeType() == Node.ELEMENT_NODE) {
-                setSubjectTable(((Element) subjectTableNode.item(0)).getAttribute(DdmConstants.ATTRIBUTE_NAME));
-                setSubjectColumn(((Element) subjectTableNode.item(0)).getAttribute(DdmConstants.ATTRIBUTE_COLUMN));
-                setSubjectColumnType(((Element) subjectTableNode.item(0)).getAttribute(DdmConstants.ATTRIBUTE_TYPE));
-            }
-        } catch (ParserConfigurationException | IOException | SAXException e) {
-            throw new IllegalStateException(e);
-        }
+    public List<DdmHistoryTableColumn> getHistoryTableColumns() {
+        return historyTableColumns;
     }
 
     public String getSubjectTable() {
         return subjectTable;
     }
 
-    public void setSubjectTable(String subjectTable) {
-        this.subjectTable = subjectTable;
-    }
-
     public String getSubjectColumn() {
         return subjectColumn;
     }
 
-    public void setSubjectColumn(String subjectColumn) {
-        this.subjectColumn = subjectColumn;
-    }
-
     public String getSubjectColumnType() {
         return subjectColumnType;
     }
 
-    public void setSubjectColumnType(String subjectColumnType) {
-        this.subjectColumnType = subjectColumnType;
-    }
-
     public List<DdmHistoryTableColumn> getDcmColumns() {
         return dcmColumns;
     }
-
-    public void setDcmColumns() {
-        try {
-            NodeList historyFlag = getHistoryFlagNodes();
-            NodeList allColumns = ((Element) historyFlag.item(0)).getElementsByTagName(DdmConstants.XML_TAG_DCM_COLUMNS);
-            NodeList columns = ((Element) allColumns.item(0)).getElementsByTagName(DdmConstants.XML_TAG_COLUMN);
-            for (int i = 0; i < columns.getLength(); i++) {
-                if (columns.item(i).getNodeType() == Node.ELEMENT_NODE) {
-                    Element column = (Element) columns.item(i);
-
-                    DdmHistoryTableColumn dcmColumn = new DdmHistoryTableColumn();
-                    dcmColumn.setName(column.getAttribute(DdmConstants.ATTRIBUTE_NAME));
-                    dcmColumn.setType(column.getAttribute(DdmConstants.ATTRIBUTE_TYPE));
-
-                    dcmColumns.add(dcmColumn);
-                }
-            }
-        } catch (ParserConfigurationException | IOException | SAXException e) {
-            throw new IllegalStateException(e);
-        }
-    }
 }
@@ -17,13 +17,20 @@
 package com.epam.digital.data.platform.liquibase.extension;
 
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmArchiveAffectableChange;
-import java.util.Collections;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import liquibase.Scope;
 import liquibase.change.Change;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
@@ -32,74 +39,276 @@ import liquibase.exception.UnexpectedLiquibaseException;
 /**
  * This class stores a copy of information about previously executed ChangeSets and has methods 
  * for working with the current ChangeLog
+ *
+ * The copy is kept per Database instance and is reloaded when the Database is used with another
+ * root ChangeLog, i.e. by the next update. Runs against the same ChangeLog are separated by
+ * {@link #invalidate(Database)}, which the DdmLockService calls whenever the ChangeLog lock is taken
+ * or released.
  */
 public class DdmRanChangeSetsKeeper {
     
     private DdmRanChangeSetsKeeper() {
     }
 
-    private static Map<String, RanChangeSet> ranChangeSets;
+    private static final ConcurrentMap<DatabaseKey, RanChangeSets> ranChangeSets = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Database> collectedDatabases = new ReferenceQueue<>();
 
     public static boolean isChangeFirst(Database database, DdmArchiveAffectableChange change) {
-        Map<String, RanChangeSet> ranChangeSets = getRanChangeSets(database);
-        List<ChangeSet> xmlChangeSets = change.getChangeSet().getChangeLog().getChangeSets();
-
-        for (ChangeSet xmlChangeSet : xmlChangeSets) {
-            if (xmlChangeSet.equals(change.getChangeSet())) {
-                for(Change c : xmlChangeSet.getChanges()) {
-                    if(c.equals(change)) {
-                        break;
-                    }
-                    if (isTheSameTableModifyingChange(c, change)) {
-                        return false;
-                    }
-                }
-                break;
-            }
+        RanChangeSets ranChangeSets = getRanChangeSets(database, change.getChangeSet());
+        if (ranChangeSets.shouldSkip(change.getChangeSet())) {
+            return isChangeFirstInChangeSet(change);
+        }
+        return ranChangeSets.getFirstChanges(change.getChangeSet().getChangeLog()).isFirst(change);
+    }
 
-            if (shouldSkip(ranChangeSets, xmlChangeSet)) {
-                continue;
-            }
+    /**
+     * Returns true if the ChangeSet has already been executed and is not going to run again.
+     * A ChangeSet that does not belong to a ChangeLog is never skipped.
+     */
+    public static boolean shouldSkip(Database database, ChangeSet changeSet) {
+        if (changeSet == null || changeSet.getChangeLog() == null) {
+            return false;
+        }
+        return getRanChangeSets(database, changeSet).shouldSkip(changeSet);
+    }
 
-            for (Change c : xmlChangeSet.getChanges()) {
-                if (isTheSameTableModifyingChange(c, change)) {
-                    return false;
-                }
+    /**
+     * Returns true if the ChangeSet has been executed before, whether or not it is going to run
+     * again. A ChangeSet that does not belong to a ChangeLog has never run.
+     */
+    public static boolean hasRan(Database database, ChangeSet changeSet) {
+        if (changeSet == null || changeSet.getChangeLog() == null) {
+            return false;
+        }
+        return getRanChangeSets(database, changeSet).hasRan(changeSet);
+    }
+
+    /**
+     * Returns true if the database dependent validation of the change can be skipped, because its
+     * ChangeSet has already been executed and is not going to run again. Static validation still
+     * has to be done by the change. Skipped validations are counted per update, see
+     * {@link #getSkippedValidationCount(Database)}.
+     */
+    public static boolean shouldSkipValidation(Database database, Change change) {
+        ChangeSet changeSet = change.getChangeSet();
+        if (changeSet == null || changeSet.getChangeLog() == null) {
+            return false;
+        }
+        RanChangeSets changeSets;
+        try {
+            changeSets = getRanChangeSets(database, changeSet);
+        } catch (RuntimeException e) {
+            Scope.getCurrentScope().getLog(DdmRanChangeSetsKeeper.class)
+                .fine("Cannot read executed change sets, validating change set " + changeSet + " against the database", e);
+            return false;
+        }
+        if (!changeSets.shouldSkip(changeSet)) {
+            return false;
+        }
+        int skipped = changeSets.skippedValidations.incrementAndGet();
+        Scope.getCurrentScope().getLog(DdmRanChangeSetsKeeper.class)
+            .fine("Skipped database validation of executed change set " + changeSet + " (" + skipped + " so far)");
+        return true;
+    }
+
+    /**
+     * Returns the number of database dependent validations skipped by
+     * {@link #shouldSkipValidation(Database, Change)} since the executed ChangeSets of the database
+     * were last read.
+     */
+    public static int getSkippedValidationCount(Database database) {
+        RanChangeSets changeSets = ranChangeSets.get(new DatabaseKey(database));
+        return changeSets == null ? 0 : changeSets.skippedValidations.get();
+    }
+
+    private static boolean isChangeFirstInChangeSet(DdmArchiveAffectableChange change) {
+        for (Change c : change.getChangeSet().getChanges()) {
+            if (c == change) {
+                break;
+            }
+            if (isTheSameTableModifyingChange(c, change)) {
+                return false;
             }
         }
         return true;
     }
 
+    /**
+     * Drops the copy of executed ChangeSets of the database, so that it is read again on next use,
+     * and logs how many database dependent validations were skipped while it was used.
+     */
+    public static void invalidate(Database database) {
+        RanChangeSets changeSets = ranChangeSets.remove(new DatabaseKey(database));
+        int skipped = changeSets == null ? 0 : changeSets.skippedValidations.get();
+        if (skipped > 0) {
+            Scope.getCurrentScope().getLog(DdmRanChangeSetsKeeper.class)
+                .info("Skipped database validation of " + skipped + " changes of executed change sets");
+        }
+    }
+
+    /**
+     * Returns the root ChangeLog the executed ChangeSets of the database were last read for, or null
+     * if they have not been read since the last {@link #invalidate(Database)}.
+     */
+    public static DatabaseChangeLog getRootChangeLog(Database database) {
+        RanChangeSets changeSets = ranChangeSets.get(new DatabaseKey(database));
+        return changeSets == null ? null : changeSets.rootChangeLog;
+    }
+
     private static boolean isTheSameTableModifyingChange(Change c, DdmArchiveAffectableChange change) {
         return DdmArchiveAffectableChange.class.isAssignableFrom(c.getClass())
             && ((DdmArchiveAffectableChange) c).getTableName().equals(change.getTableName());
     }
 
-    private static Map<String, RanChangeSet> getRanChangeSets(Database database) {
-        if (ranChangeSets == null) {
+    private static RanChangeSets getRanChangeSets(Database database, ChangeSet changeSet) {
+        expungeCollectedDatabases();
+        DatabaseChangeLog rootChangeLog = changeSet.getChangeLog().getRootChangeLog();
+        return ranChangeSets.compute(new DatabaseKey(database, collectedDatabases),
+            (key, current) -> current != null && current.rootChangeLog == rootChangeLog
+                ? current : new RanChangeSets(database, rootChangeLog));
+    }
+
+    private static void expungeCollectedDatabases() {
+        Object key;
+        while ((key = collectedDatabases.poll()) != null) {
+            ranChangeSets.remove(key);
+        }
+    }
+
+    private static String key(String filePath, String id, String author) {
+        String path = DatabaseChangeLog.normalizePath(filePath);
+        return (path == null ? null : path.toLowerCase(Locale.ROOT)) + "::"
+            + (id == null ? null : id.toLowerCase(Locale.ROOT)) + "::"
+            + (author == null ? null : author.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Executed ChangeSets of one database indexed by (path, id, author) the same way
+     * {@link RanChangeSet#isSameAs(ChangeSet)} compares them.
+     */
+    private static class RanChangeSets {
+
+        private final DatabaseChangeLog rootChangeLog;
+        private final Map<String, RanChangeSet> ranChangeSets = new HashMap<>();
+        private final Map<DatabaseChangeLog, FirstChanges> firstChanges = new IdentityHashMap<>();
+        private final AtomicInteger skippedValidations = new AtomicInteger();
+
+        RanChangeSets(Database database, DatabaseChangeLog rootChangeLog) {
+            this.rootChangeLog = rootChangeLog;
             try {
-                ranChangeSets = Collections.unmodifiableMap(database.getRanChangeSetList().stream()
-                    .collect(Collectors.toMap(RanChangeSet::toString, Function.identity())));
+                for (RanChangeSet ranChangeSet : database.getRanChangeSetList()) {
+                    ranChangeSets.putIfAbsent(
+                        key(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor()), ranChangeSet);
+                }
             } catch (DatabaseException e) {
                 throw new UnexpectedLiquibaseException(e);
             }
         }
-        return ranChangeSets;
+
+        boolean hasRan(ChangeSet changeSet) {
+            return ranChangeSets.containsKey(key(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+        }
+
+        boolean shouldSkip(ChangeSet changeSet) {
+            RanChangeSet foundChangeSet = ranChangeSets.get(
+                key(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+            boolean shouldRun = (foundChangeSet == null || changeSet.shouldRunOnChange()
+                || changeSet.shouldAlwaysRun()) && !changeSet.isIgnore();
+
+            return !shouldRun;
+        }
+
+        synchronized FirstChanges getFirstChanges(DatabaseChangeLog changeLog) {
+            FirstChanges changes = firstChanges.get(changeLog);
+            if (changes == null || changes.isStale(changeLog)) {
+                changes = new FirstChanges(this, changeLog);
+                firstChanges.put(changeLog, changes);
+            }
+            return changes;
+        }
     }
 
-    private static boolean shouldSkip(Map<String, RanChangeSet> ranChangeSets, ChangeSet changeSet) {
-        RanChangeSet foundChangeSet = ranChangeSets.get(changeSet.toString(false));
-        if (foundChangeSet == null) {
-            for (RanChangeSet ranChangeSet : ranChangeSets.values()) {
-                if (ranChangeSet.isSameAs(changeSet)) {
-                    foundChangeSet = ranChangeSet;
-                    break;
+    /**
+     * The first archive affectable change of every table among the ChangeSets of a ChangeLog that
+     * are going to run.
+     */
+    private static class FirstChanges {
+
+        private final int changeSetCount;
+        private final ChangeSet lastChangeSet;
+        private final int lastChangeSetChangeCount;
+        private final Map<String, Change> firstChanges = new HashMap<>();
+
+        FirstChanges(RanChangeSets ranChangeSets, DatabaseChangeLog changeLog) {
+            List<ChangeSet> changeSets = changeLog.getChangeSets();
+            changeSetCount = changeSets.size();
+            lastChangeSet = changeSets.isEmpty() ? null : changeSets.get(changeSets.size() - 1);
+            lastChangeSetChangeCount = lastChangeSet == null ? 0 : lastChangeSet.getChanges().size();
+
+            for (ChangeSet changeSet : changeSets) {
+                if (ranChangeSets.shouldSkip(changeSet)) {
+                    continue;
+                }
+                for (Change change : changeSet.getChanges()) {
+                    if (change instanceof DdmArchiveAffectableChange
+                        && ((DdmArchiveAffectableChange) change).getTableName() != null) {
+                        firstChanges.putIfAbsent(((DdmArchiveAffectableChange) change).getTableName(), change);
+                    }
                 }
             }
         }
-        boolean shouldRun = (foundChangeSet == null || changeSet.shouldRunOnChange()
-            || changeSet.shouldAlwaysRun()) && !changeSet.isIgnore();
 
-        return !shouldRun;
+        boolean isFirst(DdmArchiveAffectableChange change) {
+            Change first = firstChanges.get(change.getTableName());
+            return first == null || first == change;
+        }
+
+        boolean isStale(DatabaseChangeLog changeLog) {
+            List<ChangeSet> changeSets = changeLog.getChangeSets();
+            if (changeSets.size() != changeSetCount) {
+                return true;
+            }
+            if (changeSets.isEmpty()) {
+                return false;
+            }
+            ChangeSet last = changeSets.get(changeSets.size() - 1);
+            return last != lastChangeSet || last.getChanges().size() != lastChangeSetChangeCount;
+        }
+    }
+
+    /**
+     * Weak identity key, so that the copy does not outlive its Database and is not shared between
+     * Database instances that use the same connection.
+     */
+    private static class DatabaseKey extends WeakReference<Database> {
+
+        private final int hash;
+
+        DatabaseKey(Database database) {
+            super(database);
+            this.hash = System.identityHashCode(database);
+        }
+
+        DatabaseKey(Database database, ReferenceQueue<Database> queue) {
+            super(database, queue);
+            this.hash = System.identityHashCode(database);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DatabaseKey)) {
+                return false;
+            }
+            Database database = get();
+            return database != null && database == ((DatabaseKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDropSearchConditionChange;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+
+/**
+ * Definitions and drops of the search conditions of a root ChangeLog in ChangeLog order, used to
+ * find the definition a change of a search condition refers to.
+ *
+ * The definitions are collected on first use and again when change sets are added to the ChangeLog
+ * or when changes are appended to its last change set. They are softly referenced because the
+ * changes point back to their ChangeLog.
+ */
+public class DdmSearchConditionDefinitions {
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmSearchConditionDefinitions>> definitions =
+        new WeakHashMap<>();
+
+    private final int changeSetCount;
+    private final ChangeSet lastChangeSet;
+    private final int lastChangeSetChangeCount;
+
+    private final Map<Change, Integer> positions = new IdentityHashMap<>();
+    // positions of the definitions of search conditions mapped to whether they are materialized, null for drops
+    private final Map<String, NavigableMap<Integer, Boolean>> searchConditions = new HashMap<>();
+
+    private DdmSearchConditionDefinitions(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        changeSetCount = changeSets.size();
+        lastChangeSet = changeSets.isEmpty() ? null : changeSets.get(changeSets.size() - 1);
+        lastChangeSetChangeCount = lastChangeSet == null ? 0 : lastChangeSet.getChanges().size();
+
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                int position = positions.size();
+                positions.put(change, position);
+                if (change instanceof DdmCreateSearchConditionChange) {
+                    DdmCreateSearchConditionChange scChange = (DdmCreateSearchConditionChange) change;
+                    searchConditions.computeIfAbsent(scChange.getName(), key -> new TreeMap<>())
+                        .put(position, Boolean.TRUE.equals(scChange.getMaterialized()));
+                } else if (change instanceof DdmDropSearchConditionChange) {
+                    searchConditions.computeIfAbsent(((DdmDropSearchConditionChange) change).getName(), key -> new TreeMap<>())
+                        .put(position, null);
+                }
+            }
+        }
+    }
+
+    public static DdmSearchConditionDefinitions getInstance(ChangeSet changeSet) {
+        return getInstance(changeSet.getChangeLog().getRootChangeLog());
+    }
+
+    public static DdmSearchConditionDefinitions getInstance(DatabaseChangeLog rootChangeLog) {
+        synchronized (definitions) {
+            SoftReference<DdmSearchConditionDefinitions> reference = definitions.get(rootChangeLog);
+            DdmSearchConditionDefinitions instance = reference == null ? null : reference.get();
+            if (instance == null || instance.isStale(rootChangeLog)) {
+                instance = new DdmSearchConditionDefinitions(rootChangeLog);
+                definitions.put(rootChangeLog, new SoftReference<>(instance));
+            }
+            return instance;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (definitions) {
+            definitions.remove(rootChangeLog);
+        }
+    }
+
+    private boolean isStale(DatabaseChangeLog changeLog) {
+        List<ChangeSet> changeSets = changeLog.getChangeSets();
+        if (changeSets.size() != changeSetCount) {
+            return true;
+        }
+        if (changeSets.isEmpty()) {
+            return false;
+        }
+        ChangeSet last = changeSets.get(changeSets.size() - 1);
+        return last != lastChangeSet || last.getChanges().size() != lastChangeSetChangeCount;
+    }
+
+    /**
+     * Returns true if the latest definition of the search condition before the change is
+     * materialized, null if the search condition is not defined before the change or is dropped
+     * since. A change outside of the ChangeLog sees the latest definition of the ChangeLog.
+     */
+    public Boolean isMaterialized(String name, Change change) {
+        NavigableMap<Integer, Boolean> nameDefinitions = searchConditions.get(name);
+        if (nameDefinitions == null) {
+            return null;
+        }
+        Integer position = positions.get(change);
+        Map.Entry<Integer, Boolean> definition = position == null
+            ? nameDefinitions.lastEntry() : nameDefinitions.lowerEntry(position);
+        return definition == null ? null : definition.getValue();
+    }
+}
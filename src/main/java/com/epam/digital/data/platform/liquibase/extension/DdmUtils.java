@@ -21,6 +21,7 @@ import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColu
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateMany2ManyChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +33,7 @@ import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateS
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSimpleSearchConditionChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDropSearchConditionChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmExposeSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmRefreshSearchConditionChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmGrantAllChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmGrantChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmRevokeAllChange;
@@ -40,14 +42,19 @@ import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateA
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateAnalyticsViewChange;
 import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDropAnalyticsViewChange;
 
-import java.util.stream.Collectors;
-
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import liquibase.change.AbstractChange;
+import liquibase.change.Change;
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.AddColumnChange;
+import liquibase.Scope;
 import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
 import liquibase.statement.core.RawSqlStatement;
 import liquibase.exception.ValidationErrors;
 
@@ -56,6 +63,7 @@ public class DdmUtils {
     private DdmUtils() {
     }
 
+    private static final String JDBC_EXECUTOR = "jdbc";
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final Set<Class<? extends AbstractChange>> masterChanges = new HashSet<>();
     private static final Set<Class<? extends AbstractChange>> replicaChanges = new HashSet<>();
@@ -72,6 +80,7 @@ public class DdmUtils {
         masterChanges.add(DdmCreateSimpleSearchConditionChange.class);
         masterChanges.add(DdmDropSearchConditionChange.class);
         masterChanges.add(DdmExposeSearchConditionChange.class);
+        masterChanges.add(DdmRefreshSearchConditionChange.class);
 
         replicaChanges.add(DdmCreateAnalyticsViewChange.class);
         replicaChanges.add(DdmCreateAnalyticsIndexChange.class);
@@ -98,6 +107,14 @@ public class DdmUtils {
     }
 
     public static RawSqlStatement insertMetadataSql(String changeType, String changeName, String attributeName, String attributeValue) {
+        return insertMetadataExpressionSql(changeType, changeName, attributeName, "'" + attributeValue + "'");
+    }
+
+    /**
+     * Same as {@link #insertMetadataSql(String, String, String, String)}, but the attribute value is
+     * an SQL expression evaluated by the database, e.g. now()::text.
+     */
+    public static RawSqlStatement insertMetadataExpressionSql(String changeType, String changeName, String attributeName, String attributeValueExpression) {
         return new RawSqlStatement("insert into " + DdmConstants.METADATA_TABLE + "(" +
             DdmConstants.METADATA_CHANGE_TYPE + ", " +
             DdmConstants.METADATA_CHANGE_NAME + ", " +
@@ -107,7 +124,7 @@ public class DdmUtils {
             "'" + changeType + "', " +
             "'" + changeName + "', " +
             "'" + attributeName + "', " +
-            "'" + attributeValue + "');\n\n");
+            attributeValueExpression + ");\n\n");
     }
 
     public static RawSqlStatement deleteMetadataSql(String changeType, String changeName) {
@@ -183,6 +200,14 @@ public class DdmUtils {
             new ValidationErrors().addError("historyFlag attribute is required and must be set as 'true'") : new ValidationErrors();
     }
 
+    public static ValidationErrors validateHistoryPartitioning(String partitioning) {
+        return !DdmConstants.PARTITIONING_DAY.equals(partitioning)
+            && !DdmConstants.PARTITIONING_MONTH.equals(partitioning)
+            && !DdmConstants.PARTITIONING_YEAR.equals(partitioning) ?
+            new ValidationErrors().addError("partitioning must be one of '" + DdmConstants.PARTITIONING_DAY + "', '"
+                + DdmConstants.PARTITIONING_MONTH + "', '" + DdmConstants.PARTITIONING_YEAR + "'") : new ValidationErrors();
+    }
+
     public static boolean isAnalyticsChangeSet(ChangeSet changeSet) {
         return changeSet.getChanges().stream()
             .allMatch(change -> replicaChanges.contains(change.getClass()));
@@ -202,33 +227,20 @@ public class DdmUtils {
     }
 
     public static List<DdmCreateTableChange> getCreateTableChangesFromChangeLog(ChangeSet changeSet, List<String> tableNames) {
-        return changeSet.getChangeLog().getRootChangeLog().getChangeSets().stream()
-            .flatMap(set -> set.getChanges().stream()).flatMap(change -> tableNames.stream()
-                .filter(tableName -> change instanceof DdmCreateTableChange &&
-                    ((DdmCreateTableChange) change).getTableName().equals(tableName))
-                .map(tableName -> (DdmCreateTableChange) change).collect(Collectors.toList()).stream())
-            .collect(Collectors.toList());
+        return DdmChangeLogIndex.getInstance(changeSet).getCreateTableChanges(tableNames);
     }
 
     public static List<DdmAddColumnChange> getAddColumnChangesFromChangeLog(ChangeSet changeSet, List<String> tableNames) {
-        return changeSet.getChangeLog().getRootChangeLog().getChangeSets().stream()
-                .flatMap(set -> set.getChanges().stream()).flatMap(change -> tableNames.stream()
-                        .filter(tableName -> change instanceof DdmAddColumnChange &&
-                                ((DdmAddColumnChange) change).getTableName().equals(tableName))
-                        .map(tableName -> (DdmAddColumnChange) change).collect(Collectors.toList()).stream())
-                .collect(Collectors.toList());
+        return DdmChangeLogIndex.getInstance(changeSet).getAddColumnChanges(tableNames);
     }
 
     public static DdmCreateMany2ManyChange getM2mChangeFromChangelogForNestedRead(
             ChangeSet changeSet, String tableName, String columnName) {
-        return changeSet.getChangeLog().getRootChangeLog().getChangeSets().stream()
-                .flatMap(set -> set.getChanges().stream())
-                .filter(DdmCreateMany2ManyChange.class::isInstance)
-                .map(DdmCreateMany2ManyChange.class::cast)
-                .filter(change -> change.getMainTableName().equals(tableName)
-                        && change.getReferenceKeysArray().equals(columnName))
-                .findFirst()
-                .orElse(null);
+        return DdmMany2ManyRelations.getInstance(changeSet).getMany2ManyChange(tableName, columnName);
+    }
+
+    public static ColumnConfig getColumnFromChangeLog(ChangeSet changeSet, String tableName, String columnName) {
+        return DdmChangeLogIndex.getInstance(changeSet).getColumn(tableName, columnName);
     }
 
     public static ValidationErrors validationForNestedReadColumn(ChangeSet changeSet, String tableName, ColumnConfig column) {
@@ -247,12 +259,35 @@ public class DdmUtils {
     }
 
     public static List<AddColumnChange> getColumnChangesFromChangeLog(ChangeSet changeSet, List<String> tableNames) {
-        return changeSet.getChangeLog().getRootChangeLog().getChangeSets().stream()
-            .flatMap(set -> set.getChanges().stream()).flatMap(change -> tableNames.stream()
-                .filter(tableName -> change instanceof AddColumnChange &&
-                    ((AddColumnChange) change).getTableName().equals(tableName))
-                .map(tableName -> (AddColumnChange) change).collect(Collectors.toList()).stream())
-            .collect(Collectors.toList());
+        return DdmChangeLogIndex.getInstance(changeSet).getColumnChanges(tableNames);
+    }
+
+    public static List<List<String>> getIndexedColumnsFromChangeLog(ChangeSet changeSet, String tableName) {
+        return DdmChangeLogIndex.getInstance(changeSet).getIndexedColumns(tableName);
+    }
+
+    public static List<String> getPrimaryKeyFromChangeLog(ChangeSet changeSet, String tableName) {
+        return DdmChangeLogIndex.getInstance(changeSet).getPrimaryKey(tableName);
+    }
+
+    public static boolean hasTableStorageInChangeLog(ChangeSet changeSet, String relationName) {
+        return DdmMany2ManyRelations.getInstance(changeSet).hasTableStorage(relationName);
+    }
+
+    public static boolean hasDistributionInChangeLog(ChangeSet changeSet) {
+        return DdmDistributionChanges.getInstance(changeSet).hasDistribution();
+    }
+
+    public static Map<String, DdmDistributionPlanner.Table> getDeclaredTablesInChangeLog(Change change) {
+        return DdmDistributionChanges.getInstance(change.getChangeSet()).getDeclaredTables(change);
+    }
+
+    public static boolean hasStatementIntegrityCheckInChangeLog(ChangeSet changeSet, String relationName) {
+        return DdmMany2ManyRelations.getInstance(changeSet).hasStatementIntegrityCheck(relationName);
+    }
+
+    public static Boolean isMaterializedSearchConditionInChangeLog(Change change, String name) {
+        return DdmSearchConditionDefinitions.getInstance(change.getChangeSet()).isMaterialized(name, change);
     }
 
     public static String mapLiquibaseSearchTypeToMetadataType(DdmColumnConfig column) {
@@ -265,12 +300,82 @@ public class DdmUtils {
                         .anyMatch(type -> type.getValue().equalsIgnoreCase(column.getType()));
     }
 
+    /**
+     * Returns true if indexes of the ChangeSet have to be built with CREATE INDEX CONCURRENTLY. It
+     * cannot run inside a transaction block, so only ChangeSets with runInTransaction="false" build
+     * indexes concurrently, others keep the regular blocking build.
+     */
+    public static boolean isConcurrentIndexes(ChangeSet changeSet) {
+        return Boolean.TRUE.equals(DdmConfiguration.CONCURRENT_INDEXES.getCurrentValue())
+            && changeSet != null && !changeSet.isRunInTransaction();
+    }
+
+    /**
+     * Returns true if the statements of the run are written to output instead of being executed
+     * (updateSQL, offline database).
+     */
+    public static boolean isOutputOnly(Database database) {
+        ExecutorService executorService = Scope.getCurrentScope().getSingleton(ExecutorService.class);
+        return executorService.executorExists(JDBC_EXECUTOR, database)
+            && executorService.getExecutor(JDBC_EXECUTOR, database) instanceof LoggingExecutor;
+    }
+
+    public static String createIndexSql(boolean concurrent) {
+        return concurrent ? "CREATE INDEX CONCURRENTLY " : "CREATE INDEX ";
+    }
+
+    /**
+     * Drops the index if it is left INVALID by a failed concurrent build, so that it can be built
+     * again.
+     */
+    public static String dropInvalidIndexSql(String indexName) {
+        return "DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass('" + indexName + "') "
+            + "AND NOT indisvalid) THEN DROP INDEX " + indexName + "; END IF; END$$;";
+    }
+
+    /**
+     * Drops the view if it is a materialized one, a plain view is left to CREATE OR REPLACE VIEW.
+     */
+    public static String dropMaterializedViewSql(String viewName) {
+        return "DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('" + viewName + "') "
+            + "AND relkind = 'm') THEN DROP MATERIALIZED VIEW " + viewName + "; END IF; END$$;";
+    }
+
+    /**
+     * Drops the view whether it is a plain or a materialized one, since DROP VIEW and DROP
+     * MATERIALIZED VIEW each fail on the other kind.
+     */
+    public static String dropViewSql(String viewName) {
+        return "DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('" + viewName + "') "
+            + "AND relkind = 'm') THEN DROP MATERIALIZED VIEW " + viewName + "; "
+            + "ELSE DROP VIEW IF EXISTS " + viewName + "; END IF; END$$;";
+    }
+
+    /**
+     * Returns the SQL of the buffer followed by the index builds, given as pairs of index name and
+     * CREATE INDEX statement. Regular builds are appended to the buffer. Concurrent builds become
+     * separate SQL, each preceded by the removal of its INVALID leftover, since SQL with several
+     * statements runs in an implicit transaction.
+     */
+    public static Sql[] withIndexSql(StringBuilder buffer, List<DdmPair> indexes, boolean concurrent) {
+        if (!concurrent) {
+            for (DdmPair index : indexes) {
+                buffer.append("\n\n").append(index.getValue());
+            }
+            return new Sql[] { new UnparsedSql(buffer.toString()) };
+        }
+
+        List<Sql> sqls = new ArrayList<>();
+        sqls.add(new UnparsedSql(buffer.toString()));
+        for (DdmPair index : indexes) {
+            sqls.add(new UnparsedSql(dropInvalidIndexSql(index.getKey())));
+            sqls.add(new UnparsedSql(index.getValue()));
+        }
+        return sqls.toArray(new Sql[0]);
+    }
+
   public static boolean tableExistsInChangeLog(ChangeSet baseChangeSet, String tableName) {
-    return baseChangeSet.getChangeLog().getRootChangeLog().getChangeSets().stream().anyMatch(
-        changeSet -> changeSet.getChanges().stream()
-            .filter(DdmCreateTableChange.class::isInstance)
-            .map(DdmCreateTableChange.class::cast)
-            .anyMatch(tableChange -> tableChange.getTableName().equals(tableName)));
+    return DdmChangeLogIndex.getInstance(baseChangeSet).tableExists(tableName);
   }
 
     public static String convertObjectToString(Object object) {
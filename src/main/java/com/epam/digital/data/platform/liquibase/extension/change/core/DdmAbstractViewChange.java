@@ -37,7 +37,9 @@ import liquibase.parser.core.ParsedNodeException;
 import liquibase.resource.ResourceAccessor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Describes a parent entity for search conditions and analytics views.
@@ -128,6 +130,24 @@ public abstract class DdmAbstractViewChange extends AbstractChange {
     }
   }
 
+  /**
+   * Returns the column lists of the indexes known from the ChangeLog for the tables of the view
+   * and of its CTEs.
+   */
+  public Map<String, List<List<String>>> getIndexedColumns() {
+    List<DdmTableConfig> allTables = new ArrayList<>(getTables());
+    getCtes().forEach(cte -> allTables.addAll(cte.getTables()));
+
+    Map<String, List<List<String>>> result = new HashMap<>();
+    for (DdmTableConfig table : allTables) {
+      List<List<String>> indexedColumns = DdmUtils.getIndexedColumnsFromChangeLog(getChangeSet(), table.getName());
+      if (!indexedColumns.isEmpty()) {
+        result.put(table.getName(), indexedColumns);
+      }
+    }
+    return result;
+  }
+
   public void updateColumnData() {
     List<String> tableNames = getTables().stream().map(DdmTableConfig::getName)
         .collect(Collectors.toList());
@@ -16,6 +16,7 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmCatalogCache;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
 import com.epam.digital.data.platform.liquibase.extension.DdmParameters;
 import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
@@ -31,6 +32,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -99,6 +101,11 @@ import liquibase.util.JdbcUtils;
  *     If the ChangeLog contains more than one DdmAddColumnChange (in different ChangeSets) and the
  *     first ChangeSet has already run before, then the first DdmAddColumnChange is skipped and the 
  *     second one is executed as if it were the first one (the _hst table is recreated)
+ *
+ *     With historyArchiving="inPlace" the _hst table is never moved into the archive schema. Every
+ *     change alters the _hst table the same way the non-first changes do and stores the moment the
+ *     column was added in the metadata table, so that older history rows can be told apart from
+ *     rows with an actual null value.
  */
 @DatabaseChange(name="addColumn", description = "Adds a new column to an existing table with history", priority = ChangeMetaData.PRIORITY_DEFAULT + 50, appliesTo = "table")
 public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAffectableChange {
@@ -107,8 +114,9 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
     private static final String ARCHIVE_SCHEMA = "archive";
     private static final String CHAR_TYPE = "bpchar";
     private Boolean historyFlag;
-    private final DdmParameters parameters = new DdmParameters();
-    private boolean isHistoryTable;
+    private String historyArchiving;
+    private final DdmParameters parameters = DdmParameters.getInstance();
+    private final ThreadLocal<Boolean> isHistoryTable = ThreadLocal.withInitial(() -> false);
     private final SnapshotGeneratorFactory snapshotGeneratorFactory;
 
     public DdmAddColumnChange() {
@@ -124,11 +132,21 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
         ValidationErrors validationErrors = new ValidationErrors();
         validationErrors.addAll(super.validate(database));
         validationErrors.addAll(DdmUtils.validateHistoryFlag(getHistoryFlag()));
+        if (historyArchiving != null
+            && !DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_ARCHIVE.equals(historyArchiving)
+            && !DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE.equals(historyArchiving)) {
+            validationErrors.addError("Unknown " + DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING + " value '" + historyArchiving
+                + "', expected '" + DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_ARCHIVE + "' or '"
+                + DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE + "'");
+        }
         validationErrors.addAll(validateConstraints());
         List<DdmAddColumnConfig> autoGenerated = getColumnsWithAutoGeneratedValues();
         validationErrors.addAll(validateColumnTypeForAutoGeneratedValues(autoGenerated));
         validationErrors.addAll(validateDateTimePatternsForAutoGeneratedValues(autoGenerated));
 
+        if (DdmRanChangeSetsKeeper.shouldSkipValidation(database, this)) {
+            return validationErrors;
+        }
         String version = getVersion(database);
         if (version != null) {
             Boolean tableAlreadyPresentInArchiveSchema =
@@ -212,7 +230,12 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
         Statement statement = null;
         ResultSet resultSet = null;
 
-        if (database.getConnection() instanceof JdbcConnection) {
+        DdmCatalogCache catalogCache = DdmCatalogCache.getInstance(database, getChangeSet());
+        Integer archiveTableCount = catalogCache == null ? null
+            : catalogCache.countArchiveTables(this, getTableName() + "__%");
+        if (archiveTableCount != null) {
+            version = "__" + archiveTableCount;
+        } else if (database.getConnection() instanceof JdbcConnection) {
             try {
                 statement = ((JdbcConnection) database.getConnection()).createStatement(
                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
@@ -237,31 +260,58 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
     }
 
     private Boolean isTablePresentInArchiveSchema(Database database, String version) {
+        DdmCatalogCache catalogCache = DdmCatalogCache.getInstance(database, getChangeSet());
         Boolean present = null;
         try {
-            isHistoryTable = true;
+            isHistoryTable.set(true);
+            present = catalogCache == null ? null : catalogCache.archiveTableExists(this, getTableName() + version);
+            if (present != null) {
+                return present;
+            }
             present = snapshotGeneratorFactory.createSnapshot(new Table(getCatalogName(), ARCHIVE_SCHEMA, getTableName() + version), database) != null;
         } catch (LiquibaseException e) {
             e.printStackTrace();
         } finally {
-            isHistoryTable = false;
+            isHistoryTable.set(false);
         }
         return present;
     }
+    /**
+     * Partitioned history tables are always altered in place, since archiving would recreate
+     * them as regular tables.
+     */
+    private boolean isHistoryTablePartitioned() {
+        if (getChangeSet() == null || getChangeSet().getChangeLog() == null) {
+            return false;
+        }
+        return DdmUtils.getCreateTableChangesFromChangeLog(getChangeSet(), Collections.singletonList(getTableName()))
+            .stream().anyMatch(change -> change.getHistoryPartitioning() != null);
+    }
+
     @Override
     public SqlStatement[] generateStatements(Database database) {
         List<SqlStatement> statements = new ArrayList<>(Arrays.asList(super.generateStatements(database)));
+        DdmCatalogCache catalogCache = DdmCatalogCache.getInstance(database, getChangeSet());
 
-        String version = getVersion(database);
         if (Boolean.TRUE.equals(historyFlag)) {
-            boolean firstChange = DdmRanChangeSetsKeeper.isChangeFirst(database, this);
+            boolean inPlace = DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE.equals(historyArchiving)
+                || isHistoryTablePartitioned();
+            // statements of executed change sets are generated for validation only, so the
+            // archiving that depends on the current state of the database is not planned for them
+            boolean firstChange = !inPlace && !DdmRanChangeSetsKeeper.shouldSkip(database, getChangeSet())
+                && DdmRanChangeSetsKeeper.isChangeFirst(database, this);
+            String version = firstChange ? getVersion(database) : null;
             
-            isHistoryTable = true;
+            isHistoryTable.set(true);
             
             if (!firstChange) {
-                AddColumnChange addHstColumn = recreateAddColumnChangeWithNotNullConstraint(this);
+                // an in place _hst table keeps its rows, so the column cannot be NOT NULL there
+                AddColumnChange addHstColumn = recreateAddColumnChange(this, !inPlace);
                 statements.addAll(Arrays.asList(addHstColumn.generateStatements(database)));
-                isHistoryTable = false;
+                if (inPlace) {
+                    statements.addAll(historyColumnMetadataStatements());
+                }
+                isHistoryTable.set(false);
                 statements.addAll(statementsForColumnsWithAutoGeneratedValues(getTableName(), getColumns()));
                 return statements.toArray(new SqlStatement[0]);
             }
@@ -269,8 +319,10 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
             String newTableName = getTableName() + version;
 
             Table snapshotTable = null;
+            Table example = new Table(getCatalogName(), getSchemaName(), getTableName());
             try {
-                snapshotTable = snapshotGeneratorFactory.createSnapshot(new Table(getCatalogName(), getSchemaName(), getTableName()), database);
+                snapshotTable = catalogCache != null && catalogCache.containsTable(this, example)
+                    ? catalogCache.getTable(example) : snapshotGeneratorFactory.createSnapshot(example, database);
             } catch (Exception e) {
                 Scope.getCurrentScope().getLog(database.getClass()).info("Cannot generate snapshot of table " + getTableName() + " on " + database.getShortName() + " database", e);
             }
@@ -321,13 +373,22 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
                 }
                 statements.add(new RawSqlStatement("ALTER TABLE " + newTableName + " SET SCHEMA " + ARCHIVE_SCHEMA + ";"));
             }
-            isHistoryTable = false;
+            isHistoryTable.set(false);
         }
 
         statements.addAll(statementsForColumnsWithAutoGeneratedValues(getTableName(), getColumns()));
         return statements.toArray(new SqlStatement[0]);
     }
 
+    private List<SqlStatement> historyColumnMetadataStatements() {
+        List<SqlStatement> result = new ArrayList<>();
+        for (AddColumnConfig column : getColumns()) {
+            result.add(DdmUtils.insertMetadataExpressionSql(DdmConstants.HISTORY_METADATA_CHANGE_TYPE_VALUE,
+                getTableName(), column.getName(), "now()::text"));
+        }
+        return result;
+    }
+
     public Boolean getHistoryFlag() {
         return historyFlag;
     }
@@ -336,15 +397,23 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
         this.historyFlag = historyFlag;
     }
 
+    public String getHistoryArchiving() {
+        return historyArchiving;
+    }
+
+    public void setHistoryArchiving(String historyArchiving) {
+        this.historyArchiving = historyArchiving;
+    }
+
     @Override
     public String getTableName() {
         if (Boolean.TRUE.equals(historyFlag)) {
-            return super.getTableName() + (isHistoryTable ? parameters.getHistoryTableSuffix() : "");
+            return super.getTableName() + (isHistoryTable.get() ? parameters.getHistoryTableSuffix() : "");
         }
         return super.getTableName();
     }
     
-    private AddColumnChange recreateAddColumnChangeWithNotNullConstraint(AddColumnChange origin) {
+    private AddColumnChange recreateAddColumnChange(AddColumnChange origin, boolean retainNotNullConstraint) {
         AddColumnChange result = new AddColumnChange();
         result.setTableName(origin.getTableName());
         result.setSchemaName(origin.getSchemaName());
@@ -353,7 +422,7 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
         
         result.setColumns(
             origin.getColumns().stream()
-                .map(this::retainNotNullConstraint)
+                .map(column -> retainNotNullConstraint ? retainNotNullConstraint(column) : new AddColumnConfig(new Column(column)))
                 .collect(Collectors.toList()));
         return result;
     }
@@ -568,12 +637,11 @@ public class DdmAddColumnChange extends AddColumnChange implements DdmArchiveAff
             return false;
         }
         DdmAddColumnChange that = (DdmAddColumnChange) o;
-        return isHistoryTable == that.isHistoryTable && Objects.equals(historyFlag,
-            that.historyFlag) && Objects.equals(parameters, that.parameters);
+        return Objects.equals(historyFlag, that.historyFlag) && Objects.equals(historyArchiving, that.historyArchiving);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), historyFlag, parameters, isHistoryTable);
+        return Objects.hash(super.hashCode(), historyFlag, historyArchiving);
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
 import liquibase.change.Change;
@@ -34,7 +35,7 @@ import java.util.List;
  * Creates a new analytics view.
  */
 @DatabaseChange(name="createAnalyticsView", description = "Create Analytics View", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class DdmCreateAnalyticsViewChange extends DdmAbstractViewChange {
+public class DdmCreateAnalyticsViewChange extends DdmAbstractViewChange implements DdmStatelessChange {
 
     public DdmCreateAnalyticsViewChange() {
         super();
@@ -56,10 +57,20 @@ public class DdmCreateAnalyticsViewChange extends DdmAbstractViewChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        if (DdmUtils.hasPubContext(this.getChangeSet())){
+            updateColumnData();
+            this.getChangeSet().setIgnore(true);
+            return new SqlStatement[0];
+        }
+
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
         updateColumnData();
 
         if (DdmUtils.hasPubContext(this.getChangeSet())){
-            this.getChangeSet().setIgnore(true);
             return new SqlStatement[0];
         }
 
@@ -69,6 +80,10 @@ public class DdmCreateAnalyticsViewChange extends DdmAbstractViewChange {
         statement.setTables(getTables());
         statement.setJoins(getJoins());
         statement.setIndexing(getIndexing());
+        statement.setConcurrentIndexes(DdmUtils.isConcurrentIndexes(getChangeSet()));
+        if (Boolean.TRUE.equals(getIndexing())) {
+            statement.setIndexedColumns(getIndexedColumns());
+        }
         statement.setLimit(getLimit());
         statement.setConditions(getConditions());
 
@@ -16,6 +16,7 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmDomainConstraintConfig;
 import liquibase.change.AbstractChange;
 import liquibase.change.Change;
@@ -38,7 +39,7 @@ import java.util.List;
  * Creates a new Domain.
  */
 @DatabaseChange(name="createDomain", description = "Create Domain", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class DdmCreateDomainChange extends AbstractChange {
+public class DdmCreateDomainChange extends AbstractChange implements DdmStatelessChange {
 
     private String name;
     private String type;
@@ -61,6 +62,11 @@ public class DdmCreateDomainChange extends AbstractChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
         DdmCreateDomainStatement statement = generateDdmCreateDomainStatement();
         statement.setNullable(getNullable());
         statement.setCollation(getCollation());
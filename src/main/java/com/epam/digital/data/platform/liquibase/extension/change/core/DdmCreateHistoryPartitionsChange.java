@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmParameters;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import liquibase.change.AbstractChange;
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.change.DatabaseChangeProperty;
+import java.util.Collections;
+import java.util.List;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Creates partitions of a range partitioned history table for the current and the next periods.
+ * Existing partitions are kept, so the change can be run with runAlways to keep partitions ahead
+ * of the data; the run fails if rows of a missing period already landed in the default partition.
+ */
+@DatabaseChange(name="createHistoryPartitions", description = "Create History Table Partitions", priority = ChangeMetaData.PRIORITY_DEFAULT)
+public class DdmCreateHistoryPartitionsChange extends AbstractChange {
+    private String tableName;
+    private String partitioning;
+    private Integer partitions;
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", getTableName());
+        if (validationErrors.hasErrors()) {
+            return validationErrors;
+        }
+        validationErrors.addAll(super.validate(database));
+
+        if (getChangeSet() != null && getChangeSet().getChangeLog() != null) {
+            List<DdmCreateTableChange> createTableChanges =
+                DdmUtils.getCreateTableChangesFromChangeLog(getChangeSet(), Collections.singletonList(getTableName()));
+            if (!createTableChanges.isEmpty()
+                && createTableChanges.stream().noneMatch(change -> change.getHistoryPartitioning() != null)) {
+                validationErrors.addError("History table of " + getTableName() + " is not partitioned");
+            }
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public SqlStatement[] generateStatements(Database database) {
+        return new SqlStatement[]{
+            new DdmCreateHistoryPartitionsStatement(
+                getTableName() + DdmParameters.getInstance().getHistoryTableSuffix(),
+                getPartitioning(),
+                getPartitions() == null ? DdmConstants.PARTITIONS_INITIAL : getPartitions())
+        };
+    }
+
+    @DatabaseChangeProperty()
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    @DatabaseChangeProperty()
+    public String getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(String partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    @DatabaseChangeProperty()
+    public Integer getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "History partitions for " + tableName + " created";
+    }
+}
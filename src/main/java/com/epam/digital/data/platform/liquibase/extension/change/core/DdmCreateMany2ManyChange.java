@@ -46,6 +46,8 @@ public class DdmCreateMany2ManyChange extends AbstractChange {
     private String mainTableKeyField;
     private String referenceTableName;
     private String referenceKeysArray;
+    private String storage;
+    private String integrityCheck;
     private List<DdmColumnConfig> mainTableColumns = new ArrayList<>();
     private List<DdmColumnConfig> referenceTableColumns = new ArrayList<>();
 
@@ -57,6 +59,15 @@ public class DdmCreateMany2ManyChange extends AbstractChange {
             validationErrors.addError("Table " + referenceTableName +
                 " or corresponding primary key column doesn't exist");
         }
+        if (getStorage() != null && !DdmConstants.M2M_STORAGE_VIEW.equals(getStorage()) && !isTableStorage()) {
+            validationErrors.addError("Storage of many to many relation " + getRelationName() + " must be '"
+                + DdmConstants.M2M_STORAGE_VIEW + "' or '" + DdmConstants.M2M_STORAGE_TABLE + "'");
+        }
+        if (getIntegrityCheck() != null && !DdmConstants.M2M_INTEGRITY_CHECK_ROW.equals(getIntegrityCheck())
+            && !isStatementIntegrityCheck()) {
+            validationErrors.addError("Integrity check of many to many relation " + getRelationName() + " must be '"
+                + DdmConstants.M2M_INTEGRITY_CHECK_ROW + "' or '" + DdmConstants.M2M_INTEGRITY_CHECK_STATEMENT + "'");
+        }
         return validationErrors;
     }
 
@@ -84,11 +95,25 @@ public class DdmCreateMany2ManyChange extends AbstractChange {
         statement.setReferenceKeysArray(getReferenceKeysArray());
         statement.setMainTableColumns(getMainTableColumns());
         statement.setReferenceTableColumns(getReferenceTableColumns());
+        statement.setConcurrentIndexes(DdmUtils.isConcurrentIndexes(getChangeSet()));
+        statement.setTableStorage(isTableStorage());
+        statement.setReplacesTable(!isTableStorage() && DdmUtils.hasTableStorageInChangeLog(getChangeSet(), getRelationName()));
+        statement.setStatementIntegrityCheck(isStatementIntegrityCheck());
+        statement.setReplacesStatementIntegrityCheck(!isStatementIntegrityCheck()
+            && DdmUtils.hasStatementIntegrityCheckInChangeLog(getChangeSet(), getRelationName()));
         statements.add(statement);
 
         return statements.toArray(new SqlStatement[0]);
     }
 
+    public boolean isTableStorage() {
+        return DdmConstants.M2M_STORAGE_TABLE.equals(getStorage());
+    }
+
+    public boolean isStatementIntegrityCheck() {
+        return DdmConstants.M2M_INTEGRITY_CHECK_STATEMENT.equals(getIntegrityCheck());
+    }
+
     public String getRelationName() {
         return mainTableName + "_" + referenceTableName + DdmConstants.SUFFIX_RELATION;
     }
@@ -146,6 +171,22 @@ public class DdmCreateMany2ManyChange extends AbstractChange {
         this.referenceKeysArray = referenceKeysArray;
     }
 
+    public String getStorage() {
+        return storage;
+    }
+
+    public void setStorage(String storage) {
+        this.storage = storage;
+    }
+
+    public String getIntegrityCheck() {
+        return integrityCheck;
+    }
+
+    public void setIntegrityCheck(String integrityCheck) {
+        this.integrityCheck = integrityCheck;
+    }
+
     public List<DdmColumnConfig> getMainTableColumns() {
         return mainTableColumns;
     }
@@ -16,7 +16,13 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmDistributionPlanner;
+import com.epam.digital.data.platform.liquibase.extension.DdmMetadataAccumulator;
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperatorConfig;
@@ -30,11 +36,13 @@ import liquibase.change.ChangeMetaData;
 import liquibase.change.DatabaseChange;
 import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
+import liquibase.exception.Warnings;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,9 +52,13 @@ import java.util.stream.Collectors;
  * Creates a new search condition.
  */
 @DatabaseChange(name = "createSearchCondition", description = "Create Search Condition", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
+public class DdmCreateSearchConditionChange extends DdmAbstractViewChange implements DdmStatelessChange {
 
     private String readMode;
+    private Boolean orderInView;
+    private Boolean materialized;
+    private String uniqueKey;
+    private String refreshSchedule;
 
     public DdmCreateSearchConditionChange() {
         super();
@@ -74,9 +86,217 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
                 validationErrors.addAll(validationForLogicOperatorsColumns(tableLogicOperator.getLogicOperators()));
             }
         }
+        validationErrors.addAll(validateKeysetPagination());
+        validationErrors.addAll(validateMaterialized());
+        if (Boolean.TRUE.equals(DdmConfiguration.STRICT_COLOCATION.getCurrentValue())
+            && !DdmRanChangeSetsKeeper.shouldSkipValidation(database, this)) {
+            getColocationWarnings().forEach(validationErrors::addError);
+        }
         return validationErrors;
     }
 
+    @Override
+    public Warnings warn(Database database) {
+        Warnings warnings = super.warn(database);
+        if (!Boolean.TRUE.equals(DdmConfiguration.STRICT_COLOCATION.getCurrentValue())) {
+            getColocationWarnings().forEach(warnings::addWarning);
+        }
+        return warnings;
+    }
+
+    /**
+     * Returns the joins of distributed tables that Citus cannot run on each shard, see
+     * {@link DdmDistributionPlanner#getJoinWarnings}, if the ChangeLog distributes any table.
+     */
+    private List<String> getColocationWarnings() {
+        if (getChangeSet() == null || getChangeSet().getChangeLog() == null
+            || !DdmUtils.hasDistributionInChangeLog(getChangeSet())) {
+            return Collections.emptyList();
+        }
+        return DdmDistributionPlanner.getJoinWarnings(this, DdmUtils.getDeclaredTablesInChangeLog(this));
+    }
+
+    private ValidationErrors validateMaterialized() {
+        ValidationErrors errors = new ValidationErrors();
+        if (!Boolean.TRUE.equals(getMaterialized())) {
+            if (getUniqueKey() != null || getRefreshSchedule() != null) {
+                errors.addError(String.format("uniqueKey and refreshSchedule of SC %s require materialized=\"true\"", getName()));
+            }
+            return errors;
+        }
+
+        List<String> key = getMaterializedUniqueKey();
+        if (key.isEmpty() && getUniqueKey() == null && hasOuterJoin()) {
+            errors.addError(String.format("Materialized SC %s requires uniqueKey, since it has outer joins whose rows "
+                + "cannot be identified by the primary keys of its tables", getName()));
+        } else if (key.isEmpty()) {
+            errors.addError(String.format("Materialized SC %s requires uniqueKey, since its rows cannot be identified "
+                + "by the primary keys of its tables", getName()));
+        }
+        if (getUniqueKey() != null) {
+            List<String> viewColumns = new ArrayList<>();
+            for (DdmTableConfig table : getTables()) {
+                getColumns(table).forEach(column -> viewColumns.add(column.getAliasOrName()));
+                table.getFunctions().forEach(function -> viewColumns.add(function.getAlias()));
+            }
+            for (String columnName : key) {
+                if (!viewColumns.contains(columnName)) {
+                    errors.addError(String.format("uniqueKey column %s is not a column of SC %s", columnName, getName()));
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Returns the columns of the view that identify its rows: the given unique key, or else the
+     * primary keys of the main table and the inner-joined tables, each of them has to be selected.
+     * An outer join can yield rows with NULL keys, so no key is derived then. An empty list is
+     * returned if neither is available.
+     */
+    private List<String> getMaterializedUniqueKey() {
+        List<String> key = new ArrayList<>();
+        if (getUniqueKey() != null) {
+            for (String columnName : getUniqueKey().split(",")) {
+                if (!columnName.trim().isEmpty()) {
+                    key.add(columnName.trim());
+                }
+            }
+            return key;
+        }
+        if (hasOuterJoin()) {
+            return Collections.emptyList();
+        }
+
+        for (DdmTableConfig table : getTables()) {
+            List<String> primaryKey = DdmUtils.getPrimaryKeyFromChangeLog(getChangeSet(), table.getName());
+            if (primaryKey.isEmpty()) {
+                return Collections.emptyList();
+            }
+            for (String columnName : primaryKey) {
+                DdmColumnConfig column = getColumn(table, columnName);
+                if (column == null) {
+                    return Collections.emptyList();
+                }
+                key.add(column.getAliasOrName());
+            }
+        }
+        return key;
+    }
+
+    private boolean hasOuterJoin() {
+        return getJoins().stream().anyMatch(join -> !"inner".equalsIgnoreCase(join.getType()));
+    }
+
+    private ValidationErrors validateKeysetPagination() {
+        ValidationErrors errors = new ValidationErrors();
+        if (!usesKeysetPagination()) {
+            if (Boolean.FALSE.equals(getOrderInView())) {
+                errors.addError(String.format("orderInView=\"false\" of SC %s requires pagination=\"%s\"",
+                    getName(), DdmConstants.PAGINATION_KEYSET));
+            }
+            return errors;
+        }
+        if (getTables().isEmpty()) {
+            return errors;
+        }
+
+        DdmTableConfig mainTable = getTables().get(0);
+        List<String> primaryKey = DdmUtils.getPrimaryKeyFromChangeLog(getChangeSet(), mainTable.getName());
+        if (primaryKey.isEmpty()) {
+            errors.addError(String.format("Keyset pagination of SC %s requires the primary key of table %s to be declared in the changelog",
+                getName(), mainTable.getName()));
+        }
+        for (String columnName : primaryKey) {
+            if (getColumn(mainTable, columnName) == null) {
+                errors.addError(String.format("Keyset pagination of SC %s requires the primary key column %s of table %s to be a column of the SC",
+                    getName(), columnName, mainTable.getName()));
+            }
+        }
+        return errors;
+    }
+
+    public boolean usesKeysetPagination() {
+        return DdmConstants.PAGINATION_KEYSET.equalsIgnoreCase(getPagination());
+    }
+
+    /**
+     * Fills the keyset index of the statement and returns the stable sort key of the view: the
+     * sorting columns in the order of ORDER BY followed by the primary key of the first table. The
+     * index is planned on the materialized view, or else only when every sorting column belongs to
+     * the first table, otherwise no single index can serve the sort order.
+     */
+    private List<Map<String, String>> addKeysetPagination(DdmCreateAbstractViewStatement statement) {
+        List<Map<String, String>> sortKey = new ArrayList<>();
+        if (getTables().isEmpty()) {
+            return sortKey;
+        }
+
+        DdmTableConfig mainTable = getTables().get(0);
+        boolean materialized = Boolean.TRUE.equals(getMaterialized());
+        List<DdmPair> keysetColumns = new ArrayList<>();
+        boolean indexable = true;
+        for (DdmTableConfig table : getTables()) {
+            for (DdmColumnConfig column : getColumns(table)) {
+                if (column.getSorting() == null) {
+                    continue;
+                }
+                String sorting = column.getSorting().equalsIgnoreCase(DdmConstants.ATTRIBUTE_DESC)
+                    ? DdmConstants.ATTRIBUTE_DESC : DdmConstants.ATTRIBUTE_ASC;
+                sortKey.add(sortKeyColumn(column.getAliasOrName(), sorting));
+                indexable = indexable && (materialized || table == mainTable);
+                keysetColumns.add(new DdmPair(materialized ? column.getAliasOrName() : column.getName(), sorting));
+            }
+        }
+
+        boolean hasSortingColumns = !keysetColumns.isEmpty();
+        for (String columnName : DdmUtils.getPrimaryKeyFromChangeLog(getChangeSet(), mainTable.getName())) {
+            DdmColumnConfig column = getColumn(mainTable, columnName);
+            String keysetColumnName = column == null || !materialized ? columnName : column.getAliasOrName();
+            if (column != null && keysetColumns.stream().noneMatch(pair -> pair.getKey().equals(keysetColumnName))) {
+                sortKey.add(sortKeyColumn(column.getAliasOrName(), DdmConstants.ATTRIBUTE_ASC));
+                keysetColumns.add(new DdmPair(keysetColumnName, DdmConstants.ATTRIBUTE_ASC));
+            }
+        }
+
+        // the primary key alone is served by its own index
+        if (indexable && hasSortingColumns) {
+            statement.setKeysetTableName(materialized ? statement.getViewName() : mainTable.getName());
+            statement.setKeysetColumns(keysetColumns);
+        }
+        return sortKey;
+    }
+
+    private static Map<String, String> sortKeyColumn(String columnName, String sorting) {
+        Map<String, String> column = new LinkedHashMap<>();
+        column.put(DdmConstants.ATTRIBUTE_COLUMN, columnName);
+        column.put(DdmConstants.ATTRIBUTE_SORTING, sorting);
+        return column;
+    }
+
+    private static DdmColumnConfig getColumn(DdmTableConfig table, String columnName) {
+        return getColumns(table).stream().filter(column -> column.getName().equals(columnName)).findFirst().orElse(null);
+    }
+
+    private static List<DdmColumnConfig> getColumns(DdmTableConfig table) {
+        List<DdmColumnConfig> columns = new ArrayList<>(table.getColumns());
+        if (Objects.nonNull(table.getTableLogicOperator())) {
+            addColumns(table.getTableLogicOperator().getLogicOperators(), columns);
+        }
+        return columns;
+    }
+
+    private static void addColumns(List<DdmLogicOperatorConfig> logicOperators, List<DdmColumnConfig> columns) {
+        if (Objects.nonNull(logicOperators)) {
+            for (DdmLogicOperatorConfig logicOperator : logicOperators) {
+                if (Objects.nonNull(logicOperator.getColumns())) {
+                    columns.addAll(logicOperator.getColumns());
+                }
+                addColumns(logicOperator.getLogicOperators(), columns);
+            }
+        }
+    }
+
     private ValidationErrors validationForLogicOperatorsColumns(List<DdmLogicOperatorConfig> logicOperators) {
         ValidationErrors errors = new ValidationErrors();
         if (Objects.nonNull(logicOperators)) {
@@ -98,10 +318,20 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        if (DdmUtils.hasSubContext(this.getChangeSet())) {
+            updateColumnData();
+            this.getChangeSet().setIgnore(true);
+            return new SqlStatement[0];
+        }
+
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
         updateColumnData();
 
         if (DdmUtils.hasSubContext(this.getChangeSet())) {
-            this.getChangeSet().setIgnore(true);
             return new SqlStatement[0];
         }
 
@@ -111,35 +341,63 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
         statement.setTables(getTables());
         statement.setJoins(getJoins());
         statement.setIndexing(getIndexing());
+        statement.setConcurrentIndexes(DdmUtils.isConcurrentIndexes(getChangeSet()));
+        if (Boolean.TRUE.equals(getIndexing())) {
+            statement.setIndexedColumns(getIndexedColumns());
+        }
+        statement.setChangeSet(getChangeSet());
         statement.setLimit(getLimit());
         statement.setConditions(getConditions());
+        if (Boolean.TRUE.equals(getMaterialized())) {
+            statement.setMaterialized(true);
+            statement.setUniqueKey(getMaterializedUniqueKey());
+        } else {
+            statement.setReplacesMaterialized(
+                Boolean.TRUE.equals(DdmUtils.isMaterializedSearchConditionInChangeLog(this, getName())));
+        }
+        List<Map<String, String>> keysetSortKey = Collections.emptyList();
+        if (usesKeysetPagination()) {
+            keysetSortKey = addKeysetPagination(statement);
+            statement.setOrderInView(getOrderInView());
+        }
 
         statements.add(statement);
         statements.add(new RawSqlStatement("GRANT SELECT ON " + statement.getViewName() + " TO application_role;"));
 
         //  create insert statements for metadata table
+        DdmMetadataAccumulator metadata = new DdmMetadataAccumulator();
         for (DdmTableConfig table : getTables()) {
-            table.getFunctions().stream().map(function ->
-                    DdmUtils.insertMetadataSql(getName(), table.getName(), function.getName(),
-                            function.getAlias())).forEach(statements::add);
-            addStatementForColumns(table.getColumns(), statements, table.getName());
+            table.getFunctions().forEach(function ->
+                    metadata.insertMetadata(getName(), table.getName(), function.getName(), function.getAlias()));
+            addMetadataForColumns(table.getColumns(), metadata, table.getName());
             if (Objects.nonNull(table.getTableLogicOperator())) {
-                addStatementForNestedColumnsFromLogicOperators(
-                        table.getTableLogicOperator().getLogicOperators(), table.getName(), statements);
+                addMetadataForNestedColumnsFromLogicOperators(
+                        table.getTableLogicOperator().getLogicOperators(), table.getName(), metadata);
             }
         }
 
         if (getLimit() != null && !getLimit().equalsIgnoreCase(DdmConstants.ATTRIBUTE_ALL)) {
-            statements.add(insertSearchConditionMetadata(DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_LIMIT, getLimit()));
+            insertSearchConditionMetadata(metadata, DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_LIMIT, getLimit());
         }
 
         if (getPagination() != null) {
-            statements.add(
-                    insertSearchConditionMetadata(DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_PAGINATION, getPagination()));
+            insertSearchConditionMetadata(metadata, DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_PAGINATION, getPagination());
+        }
+
+        if (!keysetSortKey.isEmpty()) {
+            insertSearchConditionMetadata(metadata, DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_KEYSET_SORT_KEY,
+                DdmUtils.convertObjectToString(keysetSortKey));
+        }
+
+        if (Boolean.TRUE.equals(getMaterialized())) {
+            insertSearchConditionMetadata(metadata, DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_MATERIALIZED, "true");
+            if (getRefreshSchedule() != null) {
+                insertSearchConditionMetadata(metadata, DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_REFRESH_SCHEDULE, getRefreshSchedule());
+            }
         }
 
         if (DdmConstants.ATTRIBUTE_ASYNC.equals(getReadMode())) {
-            statements.add(DdmUtils.insertMetadataSql(DdmConstants.READ_MODE_CHANGE_TYPE, createChangeMetaData().getName(), getName(), DdmConstants.ATTRIBUTE_ASYNC));
+            metadata.insertMetadata(DdmConstants.READ_MODE_CHANGE_TYPE, createChangeMetaData().getName(), getName(), DdmConstants.ATTRIBUTE_ASYNC);
         }
 
         List<DdmLogicOperatorTableConfig> tableLogicOperators = getTables().stream()
@@ -150,9 +408,10 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
         if (!tableLogicOperators.isEmpty()) {
             Map<String, List<DdmLogicOperatorTableSerializableConfig>> operations = Collections.singletonMap("operations", convertToSerializableTableLogicOperators(tableLogicOperators));
             String logicOperationsAsString = DdmUtils.convertObjectToString(operations);
-            statements.add(DdmUtils.insertMetadataSql(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(), DdmConstants.ATTRIBUTE_LOGIC_OPERATOR, logicOperationsAsString));
+            insertSearchConditionMetadata(metadata, DdmConstants.ATTRIBUTE_LOGIC_OPERATOR, logicOperationsAsString);
         }
 
+        statements.addAll(metadata.getStatements());
         return statements.toArray(new SqlStatement[0]);
     }
 
@@ -185,52 +444,50 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
         return serializableLogicOperators;
     }
 
-    private void addStatementForNestedColumnsFromLogicOperators(List<DdmLogicOperatorConfig> logicOperators, String tableName, List<SqlStatement> statements) {
+    private void addMetadataForNestedColumnsFromLogicOperators(List<DdmLogicOperatorConfig> logicOperators, String tableName, DdmMetadataAccumulator metadata) {
         for (DdmLogicOperatorConfig logicOperator : logicOperators) {
-            addStatementForColumns(logicOperator.getColumns(), statements, tableName);
+            addMetadataForColumns(logicOperator.getColumns(), metadata, tableName);
             if (Objects.nonNull(logicOperator.getLogicOperators()) && !logicOperator.getLogicOperators().isEmpty()) {
-                addStatementForNestedColumnsFromLogicOperators(logicOperator.getLogicOperators(), tableName, statements);
+                addMetadataForNestedColumnsFromLogicOperators(logicOperator.getLogicOperators(), tableName, metadata);
             }
         }
     }
 
-    private void addStatementForColumns(List<DdmColumnConfig> columns, List<SqlStatement> statements, String tableName) {
+    private void addMetadataForColumns(List<DdmColumnConfig> columns, DdmMetadataAccumulator metadata, String tableName) {
         for (DdmColumnConfig column : columns) {
-            statements.add(insertSearchConditionMetadata(DdmConstants.ATTRIBUTE_COLUMN, column.getAliasOrName()));
+            insertSearchConditionMetadata(metadata, DdmConstants.ATTRIBUTE_COLUMN, column.getAliasOrName());
             if (Boolean.TRUE.equals(column.getReturning())) {
-                statements.add(DdmUtils.insertMetadataSql(getName(), tableName, column.getName(), column.getAliasOrName()));
+                metadata.insertMetadata(getName(), tableName, column.getName(), column.getAliasOrName());
                 if (!Objects.isNull(column.getFetchType())) {
-                    statements.addAll(createStatementForColumnFetchType(tableName, column));
+                    addMetadataForColumnFetchType(metadata, tableName, column);
                 }
             }
             if (Objects.nonNull(column.getSearchType())) {
                 String metadataAttribute = DdmUtils.mapLiquibaseSearchTypeToMetadataType(column);
-                statements.add(insertSearchConditionMetadata(metadataAttribute, column.getAliasOrName()));
+                insertSearchConditionMetadata(metadata, metadataAttribute, column.getAliasOrName());
             }
             if (Boolean.TRUE.equals(column.getRequired())) {
-                statements.add(DdmUtils.insertMetadataSql(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(), DdmConstants.ATTRIBUTE_REQUIRED_COLUMN, column.getAliasOrName()));
+                insertSearchConditionMetadata(metadata, DdmConstants.ATTRIBUTE_REQUIRED_COLUMN, column.getAliasOrName());
             }
         }
     }
 
-    private RawSqlStatement insertSearchConditionMetadata(String attributeName, String attributeValue) {
-        return DdmUtils.insertMetadataSql(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(), attributeName, attributeValue);
+    private void insertSearchConditionMetadata(DdmMetadataAccumulator metadata, String attributeName, String attributeValue) {
+        metadata.insertMetadata(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(), attributeName, attributeValue);
     }
 
-    private List<RawSqlStatement> createStatementForColumnFetchType(String tableName, DdmColumnConfig column) {
-        List<RawSqlStatement> statements = new ArrayList<>();
+    private void addMetadataForColumnFetchType(DdmMetadataAccumulator metadata, String tableName, DdmColumnConfig column) {
         if (DdmConstants.ATTRIBUTE_FETCH_TYPE_ENTITY.equals(column.getFetchType())) {
             DdmCreateMany2ManyChange m2mChange = DdmUtils.getM2mChangeFromChangelogForNestedRead(
                     getChangeSet(), tableName, column.getName());
             if (m2mChange != null) {
-                statements.add(DdmUtils.insertMetadataSql(
-                        DdmConstants.SEARCH_METADATA_NESTED_READ, getName(), m2mChange.getReferenceTableName(), column.getAliasOrName()));
+                metadata.insertMetadata(
+                        DdmConstants.SEARCH_METADATA_NESTED_READ, getName(), m2mChange.getReferenceTableName(), column.getAliasOrName());
             } else if (column.getConstraints() != null && column.getConstraints().getForeignKeyName() != null) {
-                statements.add(DdmUtils.insertMetadataSql(
-                        DdmConstants.SEARCH_METADATA_NESTED_READ, getName(), column.getConstraints().getReferencedTableName(), column.getAliasOrName()));
+                metadata.insertMetadata(
+                        DdmConstants.SEARCH_METADATA_NESTED_READ, getName(), column.getConstraints().getReferencedTableName(), column.getAliasOrName());
             }
         }
-        return statements;
     }
 
     @Override
@@ -252,4 +509,36 @@ public class DdmCreateSearchConditionChange extends DdmAbstractViewChange {
     public void setReadMode(String readMode) {
         this.readMode = readMode;
     }
+
+    public Boolean getOrderInView() {
+        return orderInView;
+    }
+
+    public void setOrderInView(Boolean orderInView) {
+        this.orderInView = orderInView;
+    }
+
+    public Boolean getMaterialized() {
+        return materialized;
+    }
+
+    public void setMaterialized(Boolean materialized) {
+        this.materialized = materialized;
+    }
+
+    public String getUniqueKey() {
+        return uniqueKey;
+    }
+
+    public void setUniqueKey(String uniqueKey) {
+        this.uniqueKey = uniqueKey;
+    }
+
+    public String getRefreshSchedule() {
+        return refreshSchedule;
+    }
+
+    public void setRefreshSchedule(String refreshSchedule) {
+        this.refreshSchedule = refreshSchedule;
+    }
 }
@@ -17,6 +17,7 @@
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
@@ -40,7 +41,7 @@ import java.util.List;
  * Creates a new simple search condition.
  */
 @DatabaseChange(name="createSimpleSearchCondition", description = "Create Simple Search Condition", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class DdmCreateSimpleSearchConditionChange extends AbstractChange {
+public class DdmCreateSimpleSearchConditionChange extends AbstractChange implements DdmStatelessChange {
 
     private String name;
     private DdmTableConfig table;
@@ -83,6 +84,15 @@ public class DdmCreateSimpleSearchConditionChange extends AbstractChange {
             return new SqlStatement[0];
         }
 
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
+        if (DdmUtils.hasSubContext(this.getChangeSet())){
+            return new SqlStatement[0];
+        }
+
         updateColumnTypes();
 
         List<SqlStatement> statements = new ArrayList<>();
@@ -90,6 +100,8 @@ public class DdmCreateSimpleSearchConditionChange extends AbstractChange {
         statement.setTable(getTable());
         statement.setSearchColumn(getSearchColumn());
         statement.setIndexing(getIndexing());
+        statement.setConcurrentIndexes(DdmUtils.isConcurrentIndexes(getChangeSet()));
+        statement.setChangeSet(getChangeSet());
         statement.setLimit(getLimit());
 
         statements.add(statement);
@@ -16,7 +16,10 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreatePartitionedTableStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateSequenceStatement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -76,7 +79,7 @@ import java.util.stream.Collectors;
  */
 @DatabaseChange(name="createTable", description = "Create Table With History",
     priority = ChangeMetaData.PRIORITY_DEFAULT+50)
-public class DdmCreateTableChange extends CreateTableChange {
+public class DdmCreateTableChange extends CreateTableChange implements DdmStatelessChange {
 
     private static final String GRANT_USAGE_ON_SEQUENCE = "GRANT USAGE ON SEQUENCE %s_%s_seq TO %s;";
 
@@ -84,13 +87,13 @@ public class DdmCreateTableChange extends CreateTableChange {
     private String readMode;
     private Boolean bulkLoad;
     private Boolean isObject;
-    private final ThreadLocal<Boolean> historyTable = new ThreadLocal<>();
-    private final DdmParameters parameters = new DdmParameters();
+    private final ThreadLocal<Boolean> historyTable = ThreadLocal.withInitial(() -> false);
+    private final DdmParameters parameters = DdmParameters.getInstance();
     private String distribution;
+    private String historyPartitioning;
 
     public DdmCreateTableChange() {
         super();
-        historyTable.set(false);
     }
 
     @DatabaseChangeProperty(requiredForDatabase = "ddm")
@@ -126,6 +129,18 @@ public class DdmCreateTableChange extends CreateTableChange {
         this.distribution = distribution;
     }
 
+    public String getHistoryPartitioning() {
+        return historyPartitioning;
+    }
+
+    public void setHistoryPartitioning(String historyPartitioning) {
+        this.historyPartitioning = historyPartitioning;
+    }
+
+    private boolean isPartitionedHistoryTable() {
+        return getHistoryPartitioning() != null && Boolean.TRUE.equals(historyTable.get());
+    }
+
     private ValidationErrors validatePrimaryKey(Database database) {
         ValidationErrors validationErrors = new ValidationErrors();
 
@@ -215,9 +230,22 @@ public class DdmCreateTableChange extends CreateTableChange {
             || getDistribution().equals(DdmConstants.DISTRIBUTION_REFERENCE_HISTORY))) {
             validationErrors.addError("distribution cannot be applied since history flag is not enabled");
         }
+
+        if (getHistoryPartitioning() != null && !Boolean.TRUE.equals(getHistoryFlag())) {
+            validationErrors.addError("historyPartitioning cannot be applied since history flag is not enabled");
+        }
         return validationErrors;
     }
 
+    @Override
+    protected CreateTableStatement generateCreateTableStatement() {
+        if (isPartitionedHistoryTable()) {
+            return new DdmCreatePartitionedTableStatement(getCatalogName(), getSchemaName(), getTableName(), getRemarks(),
+                DdmConstants.PARTITION_COLUMN);
+        }
+        return super.generateCreateTableStatement();
+    }
+
     protected CreateTableStatement createStatement(Database database) {
         SqlStatement[] statements = super.generateStatements(database);
         CreateTableStatement statement = (CreateTableStatement) statements[0];
@@ -276,6 +304,17 @@ public class DdmCreateTableChange extends CreateTableChange {
             }
         }
 
+        if (isPartitionedHistoryTable()) {
+            // unique constraints of a partitioned table have to include the partition key
+            if (!uc.getColumns().contains(DdmConstants.PARTITION_COLUMN)) {
+                uc.addColumns(DdmConstants.PARTITION_COLUMN);
+            }
+            if (statement.getPrimaryKeyConstraint() != null
+                && !statement.getPrimaryKeyConstraint().getColumns().contains(DdmConstants.PARTITION_COLUMN)) {
+                statement.getPrimaryKeyConstraint().addColumns(DdmConstants.PARTITION_COLUMN);
+            }
+        }
+
         if (historyTable.get()) {
             statement.getUniqueConstraints().clear();
             statement.addColumnConstraint(uc);
@@ -317,6 +356,11 @@ public class DdmCreateTableChange extends CreateTableChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
         if (Boolean.TRUE.equals(getHistoryFlag())) {
             List<SqlStatement> statements = new ArrayList<>();
 
@@ -339,6 +383,13 @@ public class DdmCreateTableChange extends CreateTableChange {
 
             statements.add(new DropPrimaryKeyStatement(getCatalogName(), getSchemaName(), getTableName(), pkName));
 
+            if (getHistoryPartitioning() != null) {
+                // the ranges go first, so that they are not checked against the default partition
+                statements.add(new DdmCreateHistoryPartitionsStatement(getTableName(), getHistoryPartitioning(), DdmConstants.PARTITIONS_INITIAL));
+                statements.add(new RawSqlStatement("CREATE TABLE IF NOT EXISTS " + getTableName() + DdmConstants.SUFFIX_DEFAULT_PARTITION
+                    + " PARTITION OF " + getTableName() + " DEFAULT;"));
+            }
+
             if (getDistribution() != null) {
                 if (getDistribution().equals(DdmConstants.DISTRIBUTION_DISTRIBUTE_ALL) || getDistribution().equals(DdmConstants.DISTRIBUTION_DISTRIBUTE_HISTORY)) {
                     statements.add(new DdmDistributeTableStatement(getTableName(), statement.getPrimaryKeyConstraint().getColumns().get(0)));
@@ -355,12 +406,22 @@ public class DdmCreateTableChange extends CreateTableChange {
             statement = createStatement(database);
             statements.add(statement);
 
+            boolean concurrentIndexes = DdmUtils.isConcurrentIndexes(getChangeSet());
             for (ForeignKeyConstraint foreignKey : statement.getForeignKeyConstraints()) {
+                String indexName = DdmConstants.PREFIX_INDEX + getTableName() + "_" + foreignKey.getReferencedTableName() + "__" + foreignKey.getColumn();
+
+                if (concurrentIndexes) {
+                    statements.add(new RawSqlStatement(DdmUtils.dropInvalidIndexSql(indexName)));
+                    statements.add(new RawSqlStatement(DdmUtils.createIndexSql(true) + indexName +
+                        " ON " + getTableName() + "(" + foreignKey.getColumn() + ");"));
+                    continue;
+                }
+
                 AddColumnConfig column = new AddColumnConfig();
                 column.setName(foreignKey.getColumn());
 
                 statements.add(new CreateIndexStatement(
-                    DdmConstants.PREFIX_INDEX + getTableName() + "_" + foreignKey.getReferencedTableName() + "__" + foreignKey.getColumn(),
+                    indexName,
                     null,
                     null,
                     getTableName(),
@@ -17,6 +17,7 @@
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLabelConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTypeConfig;
@@ -37,7 +38,7 @@ import java.util.List;
  * Creates a new Enum type.
  */
 @DatabaseChange(name="createType", description = "Create Type", priority = ChangeMetaData.PRIORITY_DEFAULT)
-public class DdmCreateTypeChange extends AbstractChange {
+public class DdmCreateTypeChange extends AbstractChange implements DdmStatelessChange {
 
     private String name;
     private DdmTypeConfig asComposite;
@@ -56,6 +57,11 @@ public class DdmCreateTypeChange extends AbstractChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        return DdmParallelSqlGeneration.generateStatements(this, database);
+    }
+
+    @Override
+    public SqlStatement[] generateStatelessStatements(Database database) {
 
         DdmCreateTypeStatement statement = generateCreateTypeStatement();
         List<SqlStatement> statements = new ArrayList<>();
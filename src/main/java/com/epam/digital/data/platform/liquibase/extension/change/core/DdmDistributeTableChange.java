@@ -25,6 +25,7 @@ import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
 import liquibase.statement.SqlStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDistributeTableStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmTruncateLocalDataAfterDistributingTableStatement;
 import liquibase.util.StringUtil;
 
 import java.util.ArrayList;
@@ -32,6 +33,9 @@ import java.util.List;
 
 /**
  * Creates a new Distribute Table.
+ *
+ * With concurrent the table is distributed without blocking writes and its local data is truncated
+ * right after, so the change set must not run in a transaction.
  */
 @DatabaseChange(name="distributeTable", description = "Distribute Table", priority = ChangeMetaData.PRIORITY_DEFAULT)
 public class DdmDistributeTableChange extends AbstractChange {
@@ -40,6 +44,8 @@ public class DdmDistributeTableChange extends AbstractChange {
     private String distributionType;
     private String colocateWith;
     private String scope;
+    private Boolean concurrent;
+    private Integer shardCount;
 
     public DdmDistributeTableChange() {
         super();
@@ -49,6 +55,10 @@ public class DdmDistributeTableChange extends AbstractChange {
     public ValidationErrors validate(Database database) {
         ValidationErrors validationErrors = new ValidationErrors();
         validationErrors.addAll(super.validate(database));
+        if (Boolean.TRUE.equals(getConcurrent()) && getChangeSet() != null && getChangeSet().isRunInTransaction()) {
+            validationErrors.addError("Concurrent distribution of " + getTableName()
+                + " cannot run in a transaction, set runInTransaction=\"false\" on change set " + getChangeSet().getId());
+        }
         return validationErrors;
     }
 
@@ -59,21 +69,31 @@ public class DdmDistributeTableChange extends AbstractChange {
         if (StringUtil.isEmpty(getScope())
                 || DdmParameters.isAll(getScope())
                 || DdmParameters.isPrimary(getScope())) {
-            statements.add(generateDistributeTableStatement(getTableName()));
+            addDistributeTableStatements(statements, getTableName());
         }
 
         if (getScope() != null && (DdmParameters.isAll(getScope()) || DdmParameters.isHistory(getScope()))) {
-            DdmParameters parameters = new DdmParameters();
-            statements.add(generateDistributeTableStatement(getTableName() + parameters.getHistoryTableSuffix()));
+            DdmParameters parameters = DdmParameters.getInstance();
+            addDistributeTableStatements(statements, getTableName() + parameters.getHistoryTableSuffix());
         }
 
         return statements.toArray(new SqlStatement[0]);
     }
 
+    private void addDistributeTableStatements(List<SqlStatement> statements, String tableName) {
+        statements.add(generateDistributeTableStatement(tableName));
+        if (Boolean.TRUE.equals(getConcurrent())) {
+            // the copied local data is truncated as soon as the table is distributed, before the next table
+            statements.add(new DdmTruncateLocalDataAfterDistributingTableStatement(tableName));
+        }
+    }
+
     protected DdmDistributeTableStatement generateDistributeTableStatement(String tableName) {
         DdmDistributeTableStatement statement = new DdmDistributeTableStatement(tableName, getDistributionColumn());
         statement.setDistributionType(getDistributionType());
         statement.setColocateWith(getColocateWith());
+        statement.setConcurrent(getConcurrent());
+        statement.setShardCount(getShardCount());
         return statement;
     }
 
@@ -113,6 +133,24 @@ public class DdmDistributeTableChange extends AbstractChange {
         this.colocateWith = colocateWith;
     }
 
+    @DatabaseChangeProperty()
+    public Boolean getConcurrent() {
+        return concurrent;
+    }
+
+    public void setConcurrent(Boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    @DatabaseChangeProperty()
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+    }
+
     public String getScope() {
         return scope;
     }
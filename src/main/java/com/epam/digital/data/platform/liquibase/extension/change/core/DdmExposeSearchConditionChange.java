@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import liquibase.Scope;
 import liquibase.change.AbstractChange;
@@ -61,7 +62,8 @@ public class DdmExposeSearchConditionChange extends AbstractChange {
         Statement statement = null;
         ResultSet resultSet = null;
 
-        if ((!existsInChangeLog()) && (database.getConnection() instanceof JdbcConnection)) {
+        if ((!existsInChangeLog()) && (database.getConnection() instanceof JdbcConnection)
+            && !DdmRanChangeSetsKeeper.shouldSkipValidation(database, this)) {
             try {
                 statement = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
 
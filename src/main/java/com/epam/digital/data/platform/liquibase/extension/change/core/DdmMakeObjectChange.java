@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmCatalogCache;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
 import com.epam.digital.data.platform.liquibase.extension.DdmParameters;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
@@ -49,7 +50,7 @@ import liquibase.util.JdbcUtils;
 public class DdmMakeObjectChange extends AbstractChange {
 
     private List<DdmTableConfig> tables = new ArrayList<>();
-    private final DdmParameters parameters = new DdmParameters();
+    private final DdmParameters parameters = DdmParameters.getInstance();
     private final SnapshotGeneratorFactory snapshotGeneratorFactory;
 
     public DdmMakeObjectChange() {
@@ -61,6 +62,12 @@ public class DdmMakeObjectChange extends AbstractChange {
     }
 
     private boolean columnExists(Database database, String table, String column) {
+        DdmCatalogCache catalogCache = DdmCatalogCache.getInstance(database, getChangeSet());
+        Boolean cached = catalogCache == null ? null : catalogCache.columnExists(this, table, column);
+        if (cached != null) {
+            return cached;
+        }
+
         boolean exists = false;
 
         Statement statement = null;
@@ -37,7 +37,7 @@ import liquibase.statement.core.ModifyDataTypeStatement;
 public class DdmModifyDataTypeChange extends ModifyDataTypeChange {
 
     private Boolean historyFlag;
-    private final DdmParameters parameters = new DdmParameters();
+    private final DdmParameters parameters = DdmParameters.getInstance();
 
     @Override
     public ValidationErrors validate(Database database) {
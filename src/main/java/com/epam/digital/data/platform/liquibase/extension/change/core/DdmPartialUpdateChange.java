@@ -67,6 +67,7 @@ public class DdmPartialUpdateChange extends AbstractChange {
     public SqlStatement[] generateStatements(Database database) {
         DdmPartialUpdateStatement statement = new DdmPartialUpdateStatement(getName());
         statement.setTables(getTables());
+        statement.setChangeSet(getChangeSet());
         return new SqlStatement[]{ statement };
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmDistributionPlanner;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDistributeTableStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmReferenceTableStatement;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.change.AbstractChange;
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.change.DatabaseChangeProperty;
+import liquibase.database.Database;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Plans the distribution of the tables declared before it in the ChangeLog, see
+ * {@link DdmDistributionPlanner}, and reports the plan as its confirmation message, which is logged
+ * once the change is executed rather than on every validation. With apply the planned tables are distributed
+ * or made reference tables, the tables whose distribution the ChangeLog declares are left as they
+ * are.
+ */
+@DatabaseChange(name="planDistribution", description = "Plan Distribution", priority = ChangeMetaData.PRIORITY_DEFAULT)
+public class DdmPlanDistributionChange extends AbstractChange {
+
+    private Boolean apply;
+
+    @Override
+    public SqlStatement[] generateStatements(Database database) {
+        if (getChangeSet() == null) {
+            return new SqlStatement[0];
+        }
+        DdmDistributionPlanner planner = DdmDistributionPlanner.fromChangeLog(getChangeSet(), this);
+
+        List<SqlStatement> statements = new ArrayList<>();
+        if (Boolean.TRUE.equals(getApply())) {
+            for (DdmDistributionPlanner.Table table : planner.plan()) {
+                if (table.isPinned()) {
+                    continue;
+                }
+                if (table.isReference()) {
+                    statements.add(new DdmReferenceTableStatement(table.getTableName()));
+                } else {
+                    DdmDistributeTableStatement statement =
+                        new DdmDistributeTableStatement(table.getTableName(), table.getDistributionColumn());
+                    statement.setColocateWith(table.getColocateWith());
+                    statements.add(statement);
+                }
+            }
+        }
+        return statements.toArray(new SqlStatement[0]);
+    }
+
+    @DatabaseChangeProperty()
+    public Boolean getApply() {
+        return apply;
+    }
+
+    public void setApply(Boolean apply) {
+        this.apply = apply;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        if (getChangeSet() == null) {
+            return "Distribution planned";
+        }
+        return DdmDistributionPlanner.fromChangeLog(getChangeSet(), this).getReport();
+    }
+}
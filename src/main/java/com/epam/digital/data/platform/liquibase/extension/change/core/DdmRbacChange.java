@@ -18,16 +18,31 @@ package com.epam.digital.data.platform.liquibase.extension.change.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmMetadataAccumulator;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmRoleConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmSearchConditionConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.DdmPair;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import liquibase.Scope;
 import liquibase.change.AbstractChange;
 import liquibase.change.ChangeMetaData;
 import liquibase.change.DatabaseChange;
+import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.ValidationErrors;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
@@ -37,15 +52,24 @@ import liquibase.statement.SqlStatement;
 import java.util.ArrayList;
 import java.util.List;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.JdbcUtils;
 
 /**
  * Creates a new RBAC.
+ *
+ * By default all rows of ddm_role_permission are deleted and the declared permissions are
+ * inserted again. In incremental mode the current rows are read when the change is executed and
+ * only the difference to the declared permissions is deleted and inserted. Incremental mode falls
+ * back to the full rewrite when the rows read would not be the rows the change is applied to: when
+ * SQL is written to output instead of being executed, when an earlier rbac ChangeSet of the
+ * ChangeLog has not run yet, or when the rows cannot be read.
  */
 
 @DatabaseChange(name="rbac", description = "rbac - set permissions", priority = ChangeMetaData.PRIORITY_DEFAULT)
 public class DdmRbacChange extends AbstractChange {
 
     private List<DdmRoleConfig> roles;
+    private Boolean incremental;
 
     public DdmRbacChange() {
         super();
@@ -55,16 +79,14 @@ public class DdmRbacChange extends AbstractChange {
     private ValidationErrors validateConflicts() {
         ValidationErrors validationErrors = new ValidationErrors();
 
-        List<DdmPair> rolesTables = new ArrayList<>();
+        Set<DdmPair> rolesTables = new HashSet<>();
         for (DdmRoleConfig role : getRoles()) {
             for (DdmTableConfig table : role.getTables()) {
                 DdmPair roleTable = new DdmPair(role.getName(), table.getName());
 
-                if (rolesTables.contains(roleTable)) {
+                if (!rolesTables.add(roleTable)) {
                     validationErrors.addError("There are doubled values: role=" + role.getName() +
                         ", table=" + table.getName());
-                } else {
-                    rolesTables.add(roleTable);
                 }
 
                 for (DdmColumnConfig column : table.getColumns()) {
@@ -95,46 +117,153 @@ public class DdmRbacChange extends AbstractChange {
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        List<List<String>> declared = getDeclaredPermissions();
+        Map<List<String>, Integer> current = isIncrementalApplicable(database) ? readPermissions(database) : null;
+
         List<SqlStatement> statements = new ArrayList<>();
-        statements.add(new RawSqlStatement("DELETE FROM " + DdmConstants.ROLE_PERMISSION_TABLE));
+        DdmMetadataAccumulator permissions = new DdmMetadataAccumulator();
+
+        if (current == null) {
+            statements.add(new RawSqlStatement("DELETE FROM " + DdmConstants.ROLE_PERMISSION_TABLE));
+            declared.forEach(permission -> insertRolePermission(permissions, permission));
+        } else {
+            Set<List<String>> declaredSet = new LinkedHashSet<>(declared);
+            // duplicated rows are deleted and inserted once again
+            current.forEach((permission, count) -> {
+                if (count > 1 || !declaredSet.contains(permission)) {
+                    permissions.deleteRolePermission(permission.get(0), permission.get(1), permission.get(2),
+                        permission.get(3), permission.get(4));
+                }
+            });
+            for (List<String> permission : declaredSet) {
+                Integer count = current.get(permission);
+                if (count == null || count > 1) {
+                    insertRolePermission(permissions, permission);
+                }
+            }
+        }
+
+        statements.addAll(permissions.getStatements());
+        return statements.toArray(new SqlStatement[0]);
+    }
+
+    /**
+     * Incremental statements depend on the current rows of ddm_role_permission, so they are not
+     * generated for validation.
+     */
+    @Override
+    public boolean generateStatementsVolatile(Database database) {
+        return Boolean.TRUE.equals(getIncremental()) || super.generateStatementsVolatile(database);
+    }
+
+    private boolean isIncrementalApplicable(Database database) {
+        return Boolean.TRUE.equals(getIncremental())
+            && !DdmRanChangeSetsKeeper.shouldSkip(database, getChangeSet())
+            && !DdmUtils.isOutputOnly(database)
+            && !hasPendingRbacChangeSetBefore(database);
+    }
+
+    private boolean hasPendingRbacChangeSetBefore(Database database) {
+        if (getChangeSet() == null || getChangeSet().getChangeLog() == null) {
+            return false;
+        }
+        for (ChangeSet changeSet : getChangeSet().getChangeLog().getRootChangeLog().getChangeSets()) {
+            if (changeSet == getChangeSet()) {
+                return false;
+            }
+            if (changeSet.getChanges().stream().anyMatch(DdmRbacChange.class::isInstance)
+                && !DdmRanChangeSetsKeeper.shouldSkip(database, changeSet)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<List<String>> getDeclaredPermissions() {
+        List<List<String>> permissions = new ArrayList<>();
 
         for (DdmRoleConfig role : getRoles()) {
             for (DdmTableConfig table : role.getTables()) {
                 if (Boolean.TRUE.equals(table.getRoleCanInsert())) {
-                    statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), null, "I", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                    permissions.add(permission(role.getName(), table.getName(), null, "I", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                 }
 
                 if (Boolean.TRUE.equals(table.getRoleCanDelete())) {
-                    statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), null, "D", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                    permissions.add(permission(role.getName(), table.getName(), null, "D", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                 }
 
                 if (Boolean.TRUE.equals(table.getRoleCanRead())) {
-                    statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), null, "S", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                    permissions.add(permission(role.getName(), table.getName(), null, "S", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                 }
 
                 if (Boolean.TRUE.equals(table.getRoleCanUpdate())) {
-                    statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), null, "U", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                    permissions.add(permission(role.getName(), table.getName(), null, "U", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                 }
 
                 for (DdmColumnConfig column : table.getColumns()) {
                     if (Boolean.TRUE.equals(column.getRoleCanRead())) {
-                        statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), column.getName(), "S", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                        permissions.add(permission(role.getName(), table.getName(), column.getName(), "S", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                     }
 
                     if (Boolean.TRUE.equals(column.getRoleCanUpdate())) {
-                        statements.add(DdmUtils.insertRolePermissionSql(role.getName(), table.getName(), column.getName(), "U", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
+                        permissions.add(permission(role.getName(), table.getName(), column.getName(), "U", DdmConstants.ROLE_OBJECT_TABLE_TYPE));
                     }
                 }
             }
       Optional.ofNullable(role.getSearchConditions())
           .ifPresent(searchConditions -> {
                 for (DdmSearchConditionConfig searchCondition : searchConditions) {
-                  statements.add(DdmUtils.insertRolePermissionSql(role.getName(), searchCondition.getName(), null, "S", DdmConstants.ROLE_OBJECT_SEARCH_CONDITION_TYPE));
+                  permissions.add(permission(role.getName(), searchCondition.getName(), null, "S", DdmConstants.ROLE_OBJECT_SEARCH_CONDITION_TYPE));
                 }
               });
         }
+        return permissions;
+    }
 
-        return statements.toArray(new SqlStatement[0]);
+    /**
+     * Returns the number of occurrences of every row of ddm_role_permission, or null if the rows
+     * cannot be read.
+     */
+    private Map<List<String>, Integer> readPermissions(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+            String sql = "SELECT " + DdmConstants.ROLE_PERMISSION_ROLE_NAME + ", " +
+                DdmConstants.ROLE_PERMISSION_OBJECT_NAME + ", " +
+                DdmConstants.ROLE_PERMISSION_COLUMN_NAME + ", " +
+                DdmConstants.ROLE_PERMISSION_OPERATION + ", " +
+                DdmConstants.ROLE_PERMISSION_OBJECT_TYPE +
+                " FROM " + DdmConstants.ROLE_PERMISSION_TABLE + ";";
+
+            resultSet = statement.executeQuery(sql);
+
+            Map<List<String>, Integer> permissions = new HashMap<>();
+            while (resultSet.next()) {
+                permissions.merge(permission(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3),
+                    resultSet.getString(4), resultSet.getString(5)), 1, Integer::sum);
+            }
+            return permissions;
+        } catch (SQLException | DatabaseException e) {
+            Scope.getCurrentScope().getLog(database.getClass()).info("Cannot select role permissions, all of them are going to be rewritten", e);
+            return null;
+        } finally {
+            JdbcUtils.close(resultSet, statement);
+        }
+    }
+
+    private static List<String> permission(String role, String object, String column, String operation, String objectType) {
+        return Arrays.asList(role, object, column, operation, objectType);
+    }
+
+    private static void insertRolePermission(DdmMetadataAccumulator permissions, List<String> permission) {
+        permissions.insertRolePermission(permission.get(0), permission.get(1), permission.get(2),
+            permission.get(3), permission.get(4));
     }
 
     @Override
@@ -170,4 +299,12 @@ public class DdmRbacChange extends AbstractChange {
     public void addRole(DdmRoleConfig role) {
         this.roles.add(role);
     }
+
+    public Boolean getIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(Boolean incremental) {
+        this.incremental = incremental;
+    }
 }
\ No newline at end of file
@@ -60,7 +60,7 @@ public class DdmReferenceTableChange extends AbstractChange {
         }
 
         if (getScope() != null && (DdmParameters.isAll(getScope()) || DdmParameters.isHistory(getScope()))) {
-            DdmParameters parameters = new DdmParameters();
+            DdmParameters parameters = DdmParameters.getInstance();
             statements.add(generateReferenceTableStatement(getTableName() + parameters.getHistoryTableSuffix()));
         }
 
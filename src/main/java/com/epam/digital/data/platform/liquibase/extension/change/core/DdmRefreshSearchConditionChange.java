@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.change.AbstractChange;
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.change.DatabaseChangeProperty;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+
+/**
+ * Refreshes a materialized search condition, or replaces its refresh schedule when a schedule is
+ * given. The schedule is recorded in the metadata for the scheduler of the registry, an empty
+ * schedule removes it.
+ */
+@DatabaseChange(name="refreshSearchCondition", description = "Refresh Search Condition", priority = ChangeMetaData.PRIORITY_DEFAULT)
+public class DdmRefreshSearchConditionChange extends AbstractChange {
+
+    private String name;
+    private Boolean concurrently;
+    private String schedule;
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.addAll(super.validate(database));
+        if (!DdmUtils.isSearchConditionChangeSet(this.getChangeSet())){
+            validationErrors.addError(DdmUtils.printConsistencyChangeSetError(getChangeSet().getId()));
+        }
+        if (Boolean.FALSE.equals(DdmUtils.isMaterializedSearchConditionInChangeLog(this, getName()))) {
+            validationErrors.addError("Search Condition '" + getName() + "' is not materialized");
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public SqlStatement[] generateStatements(Database database) {
+        if (DdmUtils.hasSubContext(this.getChangeSet())){
+            this.getChangeSet().setIgnore(true);
+            return new SqlStatement[0];
+        }
+
+        List<SqlStatement> statements = new ArrayList<>();
+        if (getSchedule() != null) {
+            statements.add(DdmUtils.deleteMetadataByChangeTypeChangeNameAttrNameSql(
+                DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(), DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_REFRESH_SCHEDULE));
+            if (!getSchedule().trim().isEmpty()) {
+                statements.add(DdmUtils.insertMetadataSql(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE, getName(),
+                    DdmConstants.SEARCH_METADATA_ATTRIBUTE_NAME_REFRESH_SCHEDULE, getSchedule().trim()));
+            }
+        } else {
+            // CONCURRENTLY keeps the view readable during the refresh, at the cost of a slower refresh
+            statements.add(new RawSqlStatement("REFRESH MATERIALIZED VIEW "
+                + (Boolean.FALSE.equals(getConcurrently()) ? "" : "CONCURRENTLY ")
+                + getName() + DdmConstants.SUFFIX_VIEW + ";"));
+        }
+        return statements.toArray(new SqlStatement[0]);
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return getSchedule() == null ? "Search Condition " + getName() + " refreshed"
+            : "Refresh schedule of Search Condition " + getName() + " updated";
+    }
+
+    @Override
+    public String getSerializedObjectNamespace() {
+        return STANDARD_CHANGELOG_NAMESPACE;
+    }
+
+    @DatabaseChangeProperty(description = "Name of the materialized Search Condition to refresh", requiredForDatabase = "all")
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @DatabaseChangeProperty(description = "Whether to refresh without locking out reads, true by default")
+    public Boolean getConcurrently() {
+        return concurrently;
+    }
+
+    public void setConcurrently(Boolean concurrently) {
+        this.concurrently = concurrently;
+    }
+
+    @DatabaseChangeProperty(description = "Cron expression of scheduled refreshes, replaces the refresh instead of running it")
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+}
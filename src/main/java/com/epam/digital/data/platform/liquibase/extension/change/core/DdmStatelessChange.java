@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import liquibase.change.Change;
+import liquibase.database.Database;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Change whose statements depend only on the ChangeLog and DdmParameters, never on the state of
+ * the database, so they can be generated ahead of execution and rendered on any thread.
+ */
+public interface DdmStatelessChange extends Change {
+
+  SqlStatement[] generateStatelessStatements(Database database);
+}
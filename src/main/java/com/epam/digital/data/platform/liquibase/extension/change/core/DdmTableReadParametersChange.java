@@ -20,11 +20,9 @@ import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableReadParametersConfig;
 import liquibase.change.AbstractChange;
-import liquibase.change.AddColumnConfig;
 import liquibase.change.ChangeMetaData;
 import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChange;
-import liquibase.change.core.AddColumnChange;
 import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
 import liquibase.parser.core.ParsedNode;
@@ -33,9 +31,7 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.statement.SqlStatement;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Creates a new options for table reads.
@@ -51,12 +47,8 @@ public class DdmTableReadParametersChange extends AbstractChange {
         ValidationErrors validationErrors = new ValidationErrors();
         validationErrors.addAll(super.validate(database));
 
-        List<DdmCreateTableChange> createTableChanges =
-                DdmUtils.getCreateTableChangesFromChangeLog(getChangeSet(), Collections.singletonList(table));
-        List<AddColumnChange> columnChanges =
-                DdmUtils.getColumnChangesFromChangeLog(this.getChangeSet(), Collections.singletonList(table));
         for (DdmTableReadParametersConfig readParameter : readParameters) {
-            ColumnConfig columnConfig = findTableColumn(readParameter, createTableChanges, columnChanges);
+            ColumnConfig columnConfig = DdmUtils.getColumnFromChangeLog(getChangeSet(), table, readParameter.getName());
             if (columnConfig == null) {
                 validationErrors.addError("Column " + readParameter.getName() + "in table " + table + " doesn't exist");
             } else {
@@ -66,38 +58,12 @@ public class DdmTableReadParametersChange extends AbstractChange {
         return validationErrors;
     }
 
-    private ColumnConfig findTableColumn(DdmTableReadParametersConfig readParametersConfig,
-                                         List<DdmCreateTableChange> createTableChanges,
-                                         List<AddColumnChange> columnChanges) {
-
-        Optional<ColumnConfig> columnFromCreateTable =
-                createTableChanges
-                        .stream()
-                        .flatMap(tableChange -> tableChange.getColumns().stream())
-                        .filter(column -> column.getName().equals(readParametersConfig.getName()))
-                        .findFirst();
-        if (columnFromCreateTable.isPresent()) {
-            return columnFromCreateTable.get();
-        }
-        Optional<AddColumnConfig> columnFromAddColumn =
-                columnChanges
-                        .stream()
-                        .flatMap(tableChange -> tableChange.getColumns().stream())
-                        .filter(column -> column.getName().equals(readParametersConfig.getName()))
-                        .findFirst();
-        return columnFromAddColumn.orElse(null);
-    }
-
     @Override
     public SqlStatement[] generateStatements(Database database) {
         List<SqlStatement> statements = new ArrayList<>();
 
-        List<DdmCreateTableChange> createTableChanges =
-                DdmUtils.getCreateTableChangesFromChangeLog(getChangeSet(), Collections.singletonList(table));
-        List<AddColumnChange> columnChanges =
-                DdmUtils.getColumnChangesFromChangeLog(this.getChangeSet(), Collections.singletonList(table));
         for (DdmTableReadParametersConfig readParameter : readParameters) {
-            ColumnConfig columnConfig = findTableColumn(readParameter, createTableChanges, columnChanges);
+            ColumnConfig columnConfig = DdmUtils.getColumnFromChangeLog(getChangeSet(), table, readParameter.getName());
             if (columnConfig == null) {
                 continue;
             }
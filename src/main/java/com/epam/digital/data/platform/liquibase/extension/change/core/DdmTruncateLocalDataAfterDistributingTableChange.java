@@ -60,7 +60,7 @@ public class DdmTruncateLocalDataAfterDistributingTableChange extends AbstractCh
         }
 
         if (getScope() != null && (DdmParameters.isAll(getScope()) || DdmParameters.isHistory(getScope()))) {
-            DdmParameters parameters = new DdmParameters();
+            DdmParameters parameters = DdmParameters.getInstance();
             statements.add(generateTruncateLocalDataAfterDistributingTableStatement(getTableName() + parameters.getHistoryTableSuffix()));
         }
 
@@ -60,7 +60,7 @@ public class DdmUndistributeTableChange extends AbstractChange {
         }
 
         if (getScope() != null && (DdmParameters.isAll(getScope()) || DdmParameters.isHistory(getScope()))) {
-            DdmParameters parameters = new DdmParameters();
+            DdmParameters parameters = DdmParameters.getInstance();
             statements.add(generateUndistributeTableStatement(getTableName() + parameters.getHistoryTableSuffix()));
         }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.changelog.visitor;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler;
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler.ChangeProfile;
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmMetadataAccumulator;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import com.epam.digital.data.platform.liquibase.extension.executor.DdmProfilingExecutor;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSet.ExecType;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Change exec listener that attributes execution to changes for the {@link DdmChangeProfiler}
+ * of the run, set as changeExecListenerClass together with {@link DdmConfiguration#PROFILING}.
+ *
+ * With {@link DdmConfiguration#PROFILING_SUMMARY} the totals of each executed change set are
+ * stored in the DDM metadata table in the transaction that marks the change set as ran, so they
+ * can be compared across releases. The summary is written outside of the profiled execution.
+ */
+public class DdmProfilingChangeExecListener extends AbstractChangeExecListener {
+
+    private static final String EXECUTOR_NAME = "jdbc";
+
+    @Override
+    public void willRun(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+        DdmChangeProfiler profiler = DdmChangeProfiler.getInstance(database);
+        if (profiler != null) {
+            profiler.startChange(change, changeSet);
+        }
+    }
+
+    @Override
+    public void ran(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+        DdmChangeProfiler profiler = DdmChangeProfiler.getInstance(database);
+        if (profiler != null) {
+            profiler.finishChange();
+        }
+    }
+
+    @Override
+    public void runFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database,
+        Exception exception) {
+        DdmChangeProfiler profiler = DdmChangeProfiler.getInstance(database);
+        if (profiler != null) {
+            profiler.finishChange();
+        }
+    }
+
+    @Override
+    public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ExecType execType) {
+        DdmChangeProfiler profiler = DdmChangeProfiler.getInstance(database);
+        if (profiler == null || !Boolean.TRUE.equals(DdmConfiguration.PROFILING_SUMMARY.getCurrentValue())
+            || !execType.ran) {
+            return;
+        }
+        ChangeProfile changeSetProfile = profiler.getChangeSetProfile(changeSet);
+        if (changeSetProfile == null) {
+            return;
+        }
+
+        DdmMetadataAccumulator metadata = new DdmMetadataAccumulator();
+        metadata.insertMetadata(DdmConstants.PROFILE_METADATA_CHANGE_TYPE_VALUE, changeSetProfile.getChangeSet(),
+            DdmConstants.PROFILE_METADATA_ATTRIBUTE_NAME_SUMMARY,
+            DdmUtils.convertObjectToString(changeSetProfile.toMap()));
+        // the profiler comes from this executor, and the summary is not part of the change set it describes
+        DdmProfilingExecutor executor = (DdmProfilingExecutor) Scope.getCurrentScope().getSingleton(ExecutorService.class)
+            .getExecutor(EXECUTOR_NAME, database);
+        try {
+            for (SqlStatement statement : metadata.getStatements()) {
+                executor.executeUnprofiled(statement);
+            }
+        } catch (DatabaseException e) {
+            throw new UnexpectedLiquibaseException("Cannot store profiling summary of " + changeSetProfile.getChangeSet(), e);
+        }
+    }
+}
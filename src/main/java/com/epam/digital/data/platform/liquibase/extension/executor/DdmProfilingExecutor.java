@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.executor;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler;
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.UnlockDatabaseChangeLogStatement;
+
+/**
+ * JDBC executor that feeds the {@link DdmChangeProfiler} of the run with the SQL statements the
+ * changes execute and their execution time, used instead of the Liquibase JDBC executor when
+ * {@link DdmConfiguration#PROFILING} is on. Queries are not profiled.
+ *
+ * The report is written to {@link DdmConfiguration#PROFILING_REPORT} when the run releases the
+ * ChangeLog lock, which Liquibase does at the end of every run, successful or not. The profiler is
+ * reset then, as Liquibase keeps the executor for the next runs on the same Database.
+ */
+public class DdmProfilingExecutor extends JdbcExecutor {
+
+    private final DdmChangeProfiler profiler = new DdmChangeProfiler();
+    private boolean executing;
+
+    @Override
+    public int getPriority() {
+        return Boolean.TRUE.equals(DdmConfiguration.PROFILING.getCurrentValue())
+            ? PRIORITY_SPECIALIZED : PRIORITY_NOT_APPLICABLE;
+    }
+
+    public DdmChangeProfiler getProfiler() {
+        return profiler;
+    }
+
+    @Override
+    public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        long start = System.nanoTime();
+        executing = true;
+        try {
+            super.execute(sql, sqlVisitors);
+        } finally {
+            executing = false;
+            profiler.addExecute(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Executes the statement without recording it, for the statements of the profiling itself.
+     */
+    public void executeUnprofiled(SqlStatement sql) throws DatabaseException {
+        super.execute(sql, new ArrayList<>());
+    }
+
+    @Override
+    public int update(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        long start = System.nanoTime();
+        executing = true;
+        try {
+            return super.update(sql, sqlVisitors);
+        } finally {
+            executing = false;
+            profiler.addExecute(System.nanoTime() - start);
+            if (sql instanceof UnlockDatabaseChangeLogStatement) {
+                writeReport();
+                profiler.reset();
+            }
+        }
+    }
+
+    @Override
+    protected String[] applyVisitors(SqlStatement statement, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        String[] sqls = super.applyVisitors(statement, sqlVisitors);
+        if (executing) {
+            profiler.addSql(sqls);
+        }
+        return sqls;
+    }
+
+    private void writeReport() {
+        // a run with nothing to execute ends its validation here
+        profiler.finishValidation();
+        String path = DdmConfiguration.PROFILING_REPORT.getCurrentValue();
+        if (path != null && !path.isEmpty() && !profiler.isEmpty()) {
+            profiler.writeReport(path);
+        }
+    }
+}
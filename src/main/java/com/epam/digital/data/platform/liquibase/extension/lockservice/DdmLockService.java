@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension.lockservice;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmCatalogCache;
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler;
+import com.epam.digital.data.platform.liquibase.extension.DdmDistributionChanges;
+import com.epam.digital.data.platform.liquibase.extension.DdmMany2ManyRelations;
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeLogIndex;
+import com.epam.digital.data.platform.liquibase.extension.DdmParallelSqlGeneration;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
+import com.epam.digital.data.platform.liquibase.extension.DdmSearchConditionDefinitions;
+import com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core.DdmIndexRegistry;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.lockservice.StandardLockService;
+
+/**
+ * Lock service that drops the cached state of the extension when the ChangeLog lock is taken or
+ * released. Liquibase holds the lock for the whole update or rollback, so the executed ChangeSets,
+ * the catalog snapshot and the SQL generated from them are read again by the next run against the
+ * same Database and ChangeLog. Offline runs are handled by {@link DdmOfflineLockService}.
+ *
+ * Liquibase initializes the lock service last before it validates the ChangeLog, so the service
+ * also starts timing the validation for the {@link DdmChangeProfiler} of the run.
+ */
+public class DdmLockService extends StandardLockService {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public void init() throws DatabaseException {
+        super.init();
+        DdmChangeProfiler profiler = DdmChangeProfiler.getInstance(database);
+        if (profiler != null) {
+            profiler.startValidation();
+        }
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        boolean acquired = super.acquireLock();
+        if (acquired) {
+            invalidateCaches(database);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            invalidateCaches(database);
+        }
+    }
+
+    static void invalidateCaches(Database database) {
+        DatabaseChangeLog rootChangeLog = DdmRanChangeSetsKeeper.getRootChangeLog(database);
+        DdmRanChangeSetsKeeper.invalidate(database);
+        if (rootChangeLog != null) {
+            DdmChangeLogIndex.invalidate(rootChangeLog);
+            DdmSearchConditionDefinitions.invalidate(rootChangeLog);
+            DdmMany2ManyRelations.invalidate(rootChangeLog);
+            DdmDistributionChanges.invalidate(rootChangeLog);
+            DdmCatalogCache.invalidate(rootChangeLog);
+            DdmIndexRegistry.invalidate(rootChangeLog);
+            DdmParallelSqlGeneration.invalidate(rootChangeLog);
+        }
+    }
+}
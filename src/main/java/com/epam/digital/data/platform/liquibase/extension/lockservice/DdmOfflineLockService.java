@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.lockservice;
+
+import liquibase.database.Database;
+import liquibase.exception.LockException;
+import liquibase.lockservice.OfflineLockService;
+
+/**
+ * Lock service of offline runs, which drops the cached state of the extension when the ChangeLog
+ * lock is taken or released, the same way {@link DdmLockService} does for runs against a database.
+ * Liquibase picks OfflineLockService over any database lock service for offline connections, so
+ * offline runs need their own lock service to be separated from each other.
+ */
+public class DdmOfflineLockService extends OfflineLockService {
+
+    private Database database;
+
+    @Override
+    public int getPriority() {
+        return super.getPriority() + 1;
+    }
+
+    @Override
+    public void setDatabase(Database database) {
+        super.setDatabase(database);
+        this.database = database;
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        boolean acquired = super.acquireLock();
+        if (acquired) {
+            DdmLockService.invalidateCaches(database);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            DdmLockService.invalidateCaches(database);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
+import java.util.ArrayList;
+import java.util.List;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.core.AbstractSqlGenerator;
+
+public class DdmBatchInsertGenerator extends AbstractSqlGenerator<DdmBatchInsertStatement> {
+
+    @Override
+    public ValidationErrors validate(DdmBatchInsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+
+        if (statement.getChunkSize() < 1) {
+            validationErrors.addError("chunkSize must be positive, but is " + statement.getChunkSize());
+        }
+
+        for (List<String> row : statement.getRows()) {
+            if (row.size() != statement.getColumnNames().size()) {
+                validationErrors.addError("Row " + row + " does not match columns " + statement.getColumnNames());
+            }
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(DdmBatchInsertStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<Sql> sqls = new ArrayList<>();
+        List<List<String>> rows = statement.getRows();
+
+        for (int from = 0; from < rows.size(); from += statement.getChunkSize()) {
+            int to = Math.min(from + statement.getChunkSize(), rows.size());
+
+            StringBuilder buffer = new StringBuilder();
+            buffer.append("insert into ").append(statement.getTableName()).append("(");
+            buffer.append(String.join(", ", statement.getColumnNames()));
+            buffer.append(") values ");
+
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    buffer.append(", ");
+                }
+                appendRow(buffer, rows.get(i));
+            }
+            buffer.append(";");
+
+            sqls.add(new UnparsedSql(buffer.toString()));
+        }
+
+        return sqls.toArray(new Sql[0]);
+    }
+
+    private void appendRow(StringBuilder buffer, List<String> row) {
+        buffer.append("(");
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            String value = row.get(i);
+            if (value == null) {
+                buffer.append("null");
+            } else {
+                buffer.append("'").append(value).append("'");
+            }
+        }
+        buffer.append(")");
+    }
+}
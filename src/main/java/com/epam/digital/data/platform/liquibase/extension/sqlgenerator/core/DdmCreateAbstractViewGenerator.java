@@ -27,26 +27,48 @@ import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperatorConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCteColumnResolver;
 import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
+import liquibase.exception.Warnings;
 import liquibase.sql.Sql;
-import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.core.AbstractSqlGenerator;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCreateAbstractViewStatement> {
 
     public static final String EMPTY_STRING = "";
 
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+
+    private static final Map<String, String> COMPARISON_OPERATORS = new HashMap<>();
+    private static final Map<String, String> LIST_OPERATORS = new HashMap<>();
+
+    static {
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_EQ, " = ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_NE, " <> ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_GT, " > ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_GE, " >= ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_LT, " < ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_LE, " <= ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_SIMILAR, " ~ ");
+        COMPARISON_OPERATORS.put(DdmConstants.OPERATOR_LIKE, " LIKE ");
+
+        LIST_OPERATORS.put(DdmConstants.OPERATOR_IN, " IN (");
+        LIST_OPERATORS.put(DdmConstants.OPERATOR_NOT_IN, " NOT IN (");
+    }
+
     @Override
     public ValidationErrors validate(DdmCreateAbstractViewStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         ValidationErrors validationErrors = new ValidationErrors();
@@ -59,13 +81,31 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
         return validationErrors;
     }
 
+    @Override
+    public Warnings warn(DdmCreateAbstractViewStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        Warnings warnings = super.warn(statement, database, sqlGeneratorChain);
+        DdmIndexRegistry registry = DdmIndexRegistry.getInstance(statement.getChangeSet(), database);
+        if (registry != null) {
+            try {
+                warnings.addAll(registry.warn(statement.getChangeSet(), planIndexes(statement)));
+            } catch (RuntimeException e) {
+                // invalid CTEs are reported by validate
+            }
+        }
+        return warnings;
+    }
+
     private String getErrorMessageForCteValidator(DdmCreateAbstractViewStatement statement) {
         String result = null;
         try {
+            DdmCteColumnResolver cteColumnResolver = null;
             for (DdmTableConfig table : statement.getTables()) {
                 for (DdmColumnConfig column : table.getColumns()) {
                     if (column.getSearchType() != null) {
-                        getTableColumnPairForCteColumn(statement, table.getName(), column.getName());
+                        if (cteColumnResolver == null) {
+                            cteColumnResolver = statement.getCteColumnResolver();
+                        }
+                        cteColumnResolver.resolve(table.getName(), column.getName());
                     }
                 }
             }
@@ -75,112 +115,134 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
         return result;
     }
 
-    private String getUnusedTable(List<DdmTableConfig> tables, String leftAlias, String rightAlias) {
+    private String getUnusedTable(List<DdmTableConfig> tables, Set<DdmTableConfig> usedTables,
+                                  String leftAlias, String rightAlias) {
         for (DdmTableConfig table : tables) {
-            if (!table.getUsedInSQLClause() && (table.getAlias().equals(leftAlias) || table.getAlias().equals(rightAlias))) {
-                table.setUsedInSQLClause(true);
+            if (!usedTables.contains(table) && (table.getAlias().equals(leftAlias) || table.getAlias().equals(rightAlias))) {
+                usedTables.add(table);
                 return table.getName() + " AS " + table.getAlias();
             }
         }
         return EMPTY_STRING;
     }
 
-    private DdmPair getPair(Map<String, DdmCteConfig> ctes, String tableName, String columnName) {
-        if (ctes.containsKey(tableName)) {
-            for (DdmTableConfig cteTable : ctes.get(tableName).getTables()) {
-                for (DdmColumnConfig cteColumn : cteTable.getColumns()) {
-                    if (cteColumn.getAliasOrName().equalsIgnoreCase(columnName)) {
-                        tableName = cteTable.getName();
-                        columnName = cteColumn.getName();
-                        return getPair(ctes, tableName, columnName);
-                    }
-                }
-                for (DdmFunctionConfig cteFunction : cteTable.getFunctions()) {
-                    if (cteFunction.getAlias().equalsIgnoreCase(columnName)) {
-                        tableName = cteTable.getName();
-                        columnName = cteFunction.getColumnName();
-                        return getPair(ctes, tableName, columnName);
+    static List<DdmIndexPlanner.Index> planIndexes(DdmCreateAbstractViewStatement statement) {
+        DdmCteColumnResolver cteColumnResolver = statement.getCteColumnResolver();
+        Map<String, DdmIndexPlanner> planners = new LinkedHashMap<>();
+
+        boolean materialized = Boolean.TRUE.equals(statement.getMaterialized());
+        if (Boolean.TRUE.equals(statement.getIndexing())) {
+            for (DdmTableConfig table : statement.getTables()) {
+                for (DdmColumnConfig column : table.getColumns()) {
+                    if (column.getSearchType() != null || Boolean.TRUE.equals(column.getReturning())) {
+                        // a materialized view is searched by its own columns, the tables only serve refreshes
+                        DdmPair pair = materialized ? new DdmPair(statement.getViewName(), column.getAliasOrName())
+                            : cteColumnResolver.resolve(table.getName(), column.getName());
+                        planners.computeIfAbsent(pair.getKey(), DdmCreateAbstractViewGenerator::createIndexPlanner)
+                            .addColumn(pair.getValue(), column);
                     }
                 }
             }
-            throw new RuntimeException(columnName + " column was not found in the table " + tableName);
-        }
-        return new DdmPair(tableName, columnName);
-    }
 
-    private DdmPair getTableColumnPairForCteColumn(DdmCreateAbstractViewStatement statement, String tableName, String columnName) {
+            addJoinColumns(planners, cteColumnResolver, statement.getTables(), statement.getJoins());
+            for (DdmCteConfig cte : statement.getCtes()) {
+                addJoinColumns(planners, cteColumnResolver, cte.getTables(), cte.getJoins());
+            }
+        }
 
-        Map<String, DdmCteConfig> cteMap = statement.getCtes().stream()
-            .collect(Collectors.toMap(DdmCteConfig::getName, Function.identity()));
+        addKeysetColumns(planners, cteColumnResolver, statement.getKeysetTableName(), statement.getKeysetColumns());
 
-        return getPair(cteMap, tableName, columnName);
+        List<DdmIndexPlanner.Index> indexes = new ArrayList<>();
+        for (DdmIndexPlanner planner : planners.values()) {
+            planner.addIndexedColumns(statement.getIndexedColumns().getOrDefault(planner.getTableName(), Collections.emptyList()));
+            indexes.addAll(planner.plan());
+        }
+        return indexes;
     }
 
-    private StringBuilder generateIndexSql(DdmCreateAbstractViewStatement statement) {
-        StringBuilder buffer = new StringBuilder();
-
-        for (DdmTableConfig table : statement.getTables()) {
-            for (DdmColumnConfig column : table.getColumns()) {
-                if (column.getSearchType() != null) {
-                    DdmPair pair = getTableColumnPairForCteColumn(statement, table.getName(), column.getName());
-
-                    String tableName = pair.getKey();
-                    String columnName = pair.getValue();
-
-                    buffer.append("\n\n");
-                    buffer.append("CREATE INDEX IF NOT EXISTS ");
-                    buffer.append(DdmConstants.PREFIX_INDEX);
-                    buffer.append(tableName);
-                    buffer.append("__");
-                    buffer.append(columnName);
-
-                    buffer.append(" ON ");
-                    buffer.append(tableName);
+    private static void addJoinColumns(Map<String, DdmIndexPlanner> planners, DdmCteColumnResolver cteColumnResolver,
+                                       List<DdmTableConfig> tables, List<DdmJoinConfig> joins) {
+        for (DdmJoinConfig join : joins) {
+            addJoinColumns(planners, cteColumnResolver, tables, join.getLeftAlias(), join.getLeftColumns());
+            addJoinColumns(planners, cteColumnResolver, tables, join.getRightAlias(), join.getRightColumns());
+        }
+    }
 
-                    if (column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_CONTAINS)) {
-                        buffer.append(" USING GIN ");
-                    }
+    private static void addJoinColumns(Map<String, DdmIndexPlanner> planners, DdmCteColumnResolver cteColumnResolver,
+                                       List<DdmTableConfig> tables, String alias, List<String> columnNames) {
+        DdmTableConfig table = tables.stream().filter(t -> Objects.equals(t.getAlias(), alias)).findFirst().orElse(null);
+        if (table == null || columnNames.isEmpty()) {
+            return;
+        }
 
-                    buffer.append("(");
+        Map<String, List<String>> columnsByTable = new LinkedHashMap<>();
+        for (String columnName : columnNames) {
+            // join columns may refer to the aliases of the columns of the table
+            String tableColumnName = table.getColumns().stream()
+                .filter(column -> column.getAlias() != null && column.getAlias().equalsIgnoreCase(columnName))
+                .map(DdmColumnConfig::getName).findFirst().orElse(columnName);
+            DdmPair pair;
+            try {
+                pair = cteColumnResolver.resolve(table.getName(), tableColumnName);
+            } catch (RuntimeException e) {
+                // reported by the view itself
+                return;
+            }
+            columnsByTable.computeIfAbsent(pair.getKey(), key -> new ArrayList<>()).add(pair.getValue());
+        }
+        columnsByTable.forEach((tableName, tableColumns) -> planners.computeIfAbsent(tableName, DdmCreateAbstractViewGenerator::createIndexPlanner)
+            .addJoinColumns(tableColumns));
+    }
 
-                    boolean isColumnCastable = DdmUtils.isColumnAvailableForCasting(column);
-                    if (column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_CONTAINS)) {
-                        columnName += " gin_trgm_ops";
-                    } else if (column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH) ||
-                            column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH_ARRAY)) {
-                        columnName += " ";
+    private static void addKeysetColumns(Map<String, DdmIndexPlanner> planners, DdmCteColumnResolver cteColumnResolver,
+                                         String tableName, List<DdmPair> keysetColumns) {
+        if (tableName == null || keysetColumns.isEmpty()) {
+            return;
+        }
 
-                        if (column.getType().equalsIgnoreCase(DdmConstants.TYPE_CHAR)) {
-                            columnName += "bp";
-                        }
+        String resolvedTableName = null;
+        List<DdmPair> columns = new ArrayList<>();
+        for (DdmPair keysetColumn : keysetColumns) {
+            DdmPair pair;
+            try {
+                pair = cteColumnResolver.resolve(tableName, keysetColumn.getKey());
+            } catch (RuntimeException e) {
+                // reported by the view itself
+                return;
+            }
+            if (resolvedTableName != null && !resolvedTableName.equals(pair.getKey())) {
+                // the sort key spans several tables of a CTE, no single index serves it
+                return;
+            }
+            resolvedTableName = pair.getKey();
+            columns.add(new DdmPair(pair.getValue(), keysetColumn.getValue()));
+        }
+        planners.computeIfAbsent(resolvedTableName, DdmCreateAbstractViewGenerator::createIndexPlanner)
+            .setKeysetColumns(columns);
+    }
 
-                        columnName += column.getType().toLowerCase();
-                        columnName += "_pattern_ops";
-                    } else if (isColumnCastable) {
-                        buffer.append("lower(cast(");
-                    }
+    private static DdmIndexPlanner createIndexPlanner(String tableName) {
+        return new DdmIndexPlanner(tableName, DdmConstants.PREFIX_INDEX + tableName + "__", "__");
+    }
 
-                    buffer.append(columnName);
-                    if (isColumnCastable) {
-                        buffer.append(" as varchar))");
-                    }
-                    buffer.append(");");
-                }
+    private List<DdmPair> generateIndexSql(DdmCreateAbstractViewStatement statement, Database database, boolean concurrent) {
+        DdmIndexRegistry registry = DdmIndexRegistry.getInstance(statement.getChangeSet(), database);
+        List<DdmPair> indexes = new ArrayList<>();
+        for (DdmIndexPlanner.Index index : planIndexes(statement)) {
+            if (registry == null || !registry.isRedundant(statement.getChangeSet(), index)) {
+                indexes.add(index.toSql(concurrent, true));
             }
         }
-
-        return buffer;
+        return indexes;
     }
 
-    private StringBuilder generateSelectSql(List<DdmTableConfig> tables, List<DdmJoinConfig> joins, List<DdmConditionConfig> conditions) {
-        StringBuilder buffer = new StringBuilder();
-        List<String> viewResultColumns = new ArrayList<>();
-        List<String> orderColumns = new ArrayList<>();
-        List<String> groupColumns = new ArrayList<>();
+    private void generateSelectSql(StringBuilder buffer, List<DdmTableConfig> tables, List<DdmJoinConfig> joins,
+                                   List<DdmConditionConfig> conditions, boolean orderBy) {
+        SelectColumns viewResultColumns = new SelectColumns();
+        SelectColumns orderColumns = new SelectColumns();
+        SelectColumns groupColumns = new SelectColumns();
         boolean hasNonWindowFunctions = false;
 
-        buffer.append("SELECT ");
-
         for (DdmTableConfig table : tables) {
             String tableAlias = table.hasAlias() ? table.getAlias() + "." : "";
             processTableColumns(table.getColumns(), viewResultColumns, orderColumns, groupColumns, tableAlias);
@@ -191,33 +253,31 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
 
             for (DdmFunctionConfig function : table.getFunctions()) {
                 hasNonWindowFunctions = function.getWindow() == null;
+                String functionColumn = (function.hasTableAlias() ? function.getTableAlias() + "." : "") +
+                        function.getColumnName();
+
                 StringBuilder functionContent = new StringBuilder();
                 functionContent.append(function.getName().toUpperCase()).append("(");
                 if (!function.getName().equalsIgnoreCase(DdmConstants.ATTRIBUTE_FUNCTION_ROW_NUMBER)) {
-                    functionContent
-                        .append(function.hasTableAlias() ? function.getTableAlias() + "." : "")
-                        .append(function.getColumnName())
-                        .append(function.hasParameter() ? ", " + function.getParameter() : "");
+                    functionContent.append(functionColumn);
+                    if (function.hasParameter()) {
+                        functionContent.append(", ").append(function.getParameter());
+                    }
                 }
                 functionContent.append(") ");
                 if (function.getWindow() != null) {
-                    functionContent.append("OVER (");
-                    if (!function.getWindow().isEmpty()) {
-                        functionContent.append(function.getWindow());
-                    }
-                    functionContent.append(") ");
+                    functionContent.append("OVER (").append(function.getWindow()).append(") ");
                 }
-                viewResultColumns.add(functionContent + "AS " + function.getAlias());
-
-                groupColumns.remove((function.hasTableAlias() ? function.getTableAlias() + "." : "") +
-                        function.getColumnName());
+                functionContent.append("AS ").append(function.getAlias());
+                viewResultColumns.add(functionContent.toString());
 
-                viewResultColumns.remove((function.hasTableAlias() ? function.getTableAlias() + "." : "") +
-                        function.getColumnName());
+                groupColumns.remove(functionColumn);
+                viewResultColumns.remove(functionColumn);
             }
         }
 
-        buffer.append(String.join(", ", viewResultColumns));
+        buffer.append("SELECT ");
+        viewResultColumns.appendTo(buffer);
 
         DdmTableConfig firstTable = tables.get(0);
         buffer.append(" FROM ");
@@ -228,70 +288,69 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
             buffer.append(firstTable.getAlias());
         }
 
-        firstTable.setUsedInSQLClause(true);
+        Set<DdmTableConfig> usedTables = Collections.newSetFromMap(new IdentityHashMap<>());
+        usedTables.add(firstTable);
 
         for (DdmJoinConfig join : joins) {
             buffer.append(" ");
             buffer.append(join.getType().toUpperCase());
             buffer.append(" JOIN ");
-            buffer.append(getUnusedTable(tables, join.getLeftAlias(), join.getRightAlias()));
+            buffer.append(getUnusedTable(tables, usedTables, join.getLeftAlias(), join.getRightAlias()));
             buffer.append(" ON ");
 
-            ListIterator<String> columnIterator = join.getLeftColumns().listIterator();
-            while (columnIterator.hasNext()) {
-                String column = columnIterator.next();
+            List<String> leftColumns = join.getLeftColumns();
+            List<String> rightColumns = join.getRightColumns();
+            for (int i = 0; i < leftColumns.size(); i++) {
+                if (i > 0) {
+                    buffer.append(" AND ");
+                }
                 buffer.append("(");
                 buffer.append(join.getLeftAlias());
                 buffer.append(".");
-                buffer.append(column);
+                buffer.append(leftColumns.get(i));
                 buffer.append(" = ");
                 buffer.append(join.getRightAlias());
                 buffer.append(".");
-                buffer.append(join.getRightColumns().get(columnIterator.previousIndex()));
+                buffer.append(rightColumns.get(i));
                 buffer.append(")");
-
-                if (columnIterator.hasNext()) {
-                    buffer.append(" AND ");
-                }
             }
 
-            buffer.append(generateConditionSql(join.getConditions(), false));
+            generateConditionSql(buffer, join.getConditions(), false);
         }
 
         if (conditions != null && !conditions.isEmpty()) {
             buffer.append(" WHERE ");
-            buffer.append(generateConditionSql(conditions, false));
+            generateConditionSql(buffer, conditions, false);
         }
 
         if (!groupColumns.isEmpty() && hasNonWindowFunctions) {
             buffer.append(" GROUP BY ");
-            buffer.append(String.join(", ", groupColumns));
+            groupColumns.appendTo(buffer);
         }
 
-        if (!orderColumns.isEmpty()) {
+        if (orderBy && !orderColumns.isEmpty()) {
             buffer.append(" ORDER BY ");
-            buffer.append(String.join(", ", orderColumns));
+            orderColumns.appendTo(buffer);
         }
-
-        return buffer;
     }
 
-    private void processTableColumns(List<DdmColumnConfig> columnObjects, List<String> viewResultColumns,
-                                     List<String> orderColumns, List<String> groupColumns, String tableAlias) {
+    private void processTableColumns(List<DdmColumnConfig> columnObjects, SelectColumns viewResultColumns,
+                                     SelectColumns orderColumns, SelectColumns groupColumns, String tableAlias) {
         for (DdmColumnConfig column : columnObjects) {
-            viewResultColumns.add(tableAlias + column.getName() + (column.hasAlias() ? " AS " + column.getAlias() : ""));
-            groupColumns.add(tableAlias + column.getName());
+            String columnName = tableAlias + column.getName();
+            viewResultColumns.add(column.hasAlias() ? columnName + " AS " + column.getAlias() : columnName);
+            groupColumns.add(columnName);
 
             if (column.getSorting() != null) {
-                orderColumns.add(tableAlias + column.getName() +
-                        (column.getSorting().equalsIgnoreCase(DdmConstants.ATTRIBUTE_DESC) ? " " + column.getSorting().toUpperCase() : ""));
+                orderColumns.add(column.getSorting().equalsIgnoreCase(DdmConstants.ATTRIBUTE_DESC) ?
+                        columnName + " " + column.getSorting().toUpperCase() : columnName);
             }
         }
     }
 
     private void processNestedColumnsFromLogicOperators(List<DdmLogicOperatorConfig> logicOperators,
-                                                        List<String> viewResultColumns, List<String> orderColumns,
-                                                        List<String> groupColumns, String tableAlias) {
+                                                        SelectColumns viewResultColumns, SelectColumns orderColumns,
+                                                        SelectColumns groupColumns, String tableAlias) {
         for (DdmLogicOperatorConfig logicOperator : logicOperators) {
             processTableColumns(logicOperator.getColumns(), viewResultColumns, orderColumns, groupColumns, tableAlias);
             if (Objects.nonNull(logicOperator.getLogicOperators()) && !logicOperator.getLogicOperators().isEmpty()) {
@@ -302,37 +361,57 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
 
     @Override
     public Sql[] generateSql(DdmCreateAbstractViewStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
-        StringBuilder buffer = new StringBuilder();
+        StringBuilder buffer = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+        boolean materialized = Boolean.TRUE.equals(statement.getMaterialized());
 
-        buffer.append("CREATE OR REPLACE VIEW ");
+        if (materialized) {
+            buffer.append(DdmUtils.dropViewSql(statement.getViewName())).append("\n\n");
+        } else if (Boolean.TRUE.equals(statement.getReplacesMaterialized())) {
+            buffer.append(DdmUtils.dropMaterializedViewSql(statement.getViewName())).append("\n\n");
+        }
+        buffer.append(materialized ? "CREATE MATERIALIZED VIEW " : "CREATE OR REPLACE VIEW ");
         buffer.append(statement.getViewName());
         buffer.append(" AS ");
 
         if (!statement.getCtes().isEmpty()) {
             buffer.append("WITH ");
 
-            String cteSelectSql = statement.getCtes().stream().map(cte -> cte.getName() + " AS (" +
-                    generateSelectSql(cte.getTables(), cte.getJoins(), cte.getConditions()) + ")")
-                .collect(Collectors.joining(", "));
+            boolean firstCte = true;
+            for (DdmCteConfig cte : statement.getCtes()) {
+                if (!firstCte) {
+                    buffer.append(", ");
+                }
+                firstCte = false;
+                buffer.append(cte.getName()).append(" AS (");
+                generateSelectSql(buffer, cte.getTables(), cte.getJoins(), cte.getConditions(), true);
+                buffer.append(")");
+            }
 
-            buffer.append(cteSelectSql).append(" ");
+            buffer.append(" ");
         }
 
-        buffer.append(generateSelectSql(statement.getTables(), statement.getJoins(), statement.getConditions()));
+        // keyset pagination may leave ordering to the paging query, which orders by the full sort key
+        generateSelectSql(buffer, statement.getTables(), statement.getJoins(), statement.getConditions(),
+            !Boolean.FALSE.equals(statement.getOrderInView()));
         buffer.append(";");
 
-        if (Boolean.TRUE.equals(statement.getIndexing())) {
-            buffer.append(generateIndexSql(statement));
+        if (materialized) {
+            // required by REFRESH MATERIALIZED VIEW CONCURRENTLY, built along with the view it indexes
+            buffer.append("\n\n").append("CREATE UNIQUE INDEX ").append(DdmConstants.PREFIX_UNIQUE_INDEX)
+                .append(statement.getViewName()).append(" ON ").append(statement.getViewName())
+                .append("(").append(String.join(", ", statement.getUniqueKey())).append(");");
         }
 
-        return new Sql[]{ new UnparsedSql(buffer.toString()) };
-    }
+        boolean concurrent = Boolean.TRUE.equals(statement.getConcurrentIndexes());
+        List<DdmPair> indexes = Boolean.TRUE.equals(statement.getIndexing()) || !statement.getKeysetColumns().isEmpty()
+            ? generateIndexSql(statement, database, concurrent) : Collections.emptyList();
 
-    private StringBuilder generateConditionSql(List<DdmConditionConfig> conditions, boolean hasInternalParenthesis) {
-        StringBuilder buffer = new StringBuilder();
+        return DdmUtils.withIndexSql(buffer, indexes, concurrent);
+    }
 
+    private void generateConditionSql(StringBuilder buffer, List<DdmConditionConfig> conditions, boolean hasInternalParenthesis) {
         if (conditions == null) {
-            return buffer;
+            return;
         }
 
         boolean firstCondition = true;
@@ -362,60 +441,32 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
 
             buffer.append(condition.getColumnName());
 
-            switch (condition.getOperator()) {
-                case DdmConstants.OPERATOR_EQ:
-                    buffer.append(" = ");
-                    break;
-                case DdmConstants.OPERATOR_NE:
-                    buffer.append(" <> ");
-                    break;
-                case DdmConstants.OPERATOR_GT:
-                    buffer.append(" > ");
-                    break;
-                case DdmConstants.OPERATOR_GE:
-                    buffer.append(" >= ");
-                    break;
-                case DdmConstants.OPERATOR_LT:
-                    buffer.append(" < ");
-                    break;
-                case DdmConstants.OPERATOR_LE:
-                    buffer.append(" <= ");
-                    break;
-                case DdmConstants.OPERATOR_IN:
-                    buffer.append(" IN (");
-                    buffer.append(condition.getValue());
-                    buffer.append(")");
-                    break;
-                case DdmConstants.OPERATOR_NOT_IN:
-                    buffer.append(" NOT IN (");
-                    buffer.append(condition.getValue());
-                    buffer.append(")");
-                    break;
-                case DdmConstants.OPERATOR_IS_NULL:
-                    buffer.append(" IS");
-
-                    if (condition.getValue().equals(DdmConstants.ATTRIBUTE_FALSE)) {
-                        buffer.append(" NOT");
-                    }
+            String operator = condition.getOperator();
+            String listOperator = LIST_OPERATORS.get(operator);
+            if (listOperator != null) {
+                buffer.append(listOperator);
+                buffer.append(condition.getValue());
+                buffer.append(")");
+            } else if (DdmConstants.OPERATOR_IS_NULL.equals(operator)) {
+                buffer.append(" IS");
 
-                    buffer.append(" NULL");
-                    break;
-                case DdmConstants.OPERATOR_SIMILAR:
-                    buffer.append(" ~ ");
-                    break;
-                case DdmConstants.OPERATOR_LIKE:
-                    buffer.append(" LIKE ");
-                    break;
-            }
+                if (condition.getValue().equals(DdmConstants.ATTRIBUTE_FALSE)) {
+                    buffer.append(" NOT");
+                }
 
-            if (!Arrays.asList(DdmConstants.OPERATOR_IS_NULL, DdmConstants.OPERATOR_IN, DdmConstants.OPERATOR_NOT_IN).contains(condition.getOperator())) {
+                buffer.append(" NULL");
+            } else {
+                String comparisonOperator = COMPARISON_OPERATORS.get(operator);
+                if (comparisonOperator != null) {
+                    buffer.append(comparisonOperator);
+                }
                 buffer.append(condition.getValue());
             }
 
             buffer.append(")");
 
             boolean needParenthesis = (condition.getConditions() != null && condition.getConditions().size() > 1);
-            buffer.append(generateConditionSql(condition.getConditions(), needParenthesis));
+            generateConditionSql(buffer, condition.getConditions(), needParenthesis);
 
             if (hasExternalParenthesis) {
                 buffer.append(")");
@@ -426,7 +477,46 @@ public class DdmCreateAbstractViewGenerator extends AbstractSqlGenerator<DdmCrea
         if (hasInternalParenthesis) {
             buffer.append(")");
         }
+    }
 
-        return buffer;
+    /**
+     * Select list in the order of addition. Duplicates are kept, and remove drops the first
+     * remaining occurrence like {@link List#remove(Object)} without shifting the list.
+     */
+    private static class SelectColumns {
+        private final List<String> columns = new ArrayList<>();
+        private final Map<String, ArrayDeque<Integer>> positions = new HashMap<>();
+        private int size;
+
+        void add(String column) {
+            positions.computeIfAbsent(column, key -> new ArrayDeque<>()).addLast(columns.size());
+            columns.add(column);
+            size++;
+        }
+
+        void remove(String column) {
+            ArrayDeque<Integer> columnPositions = positions.get(column);
+            if (columnPositions != null && !columnPositions.isEmpty()) {
+                columns.set(columnPositions.pollFirst(), null);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void appendTo(StringBuilder buffer) {
+            boolean first = true;
+            for (String column : columns) {
+                if (column != null) {
+                    if (!first) {
+                        buffer.append(", ");
+                    }
+                    first = false;
+                    buffer.append(column);
+                }
+            }
+        }
     }
 }
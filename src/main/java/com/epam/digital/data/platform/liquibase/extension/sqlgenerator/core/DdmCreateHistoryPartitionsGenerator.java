@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.core.AbstractSqlGenerator;
+
+/**
+ * Creates the partitions of the current and the next periods that do not exist yet. Periods are
+ * taken from now() in UTC when the statement runs, so the bounds do not depend on the session
+ * time zone and the same statement can be executed repeatedly.
+ *
+ * Partitions are meant to be created ahead of time, so that the default partition stays empty.
+ * Rows are never moved out of the default partition: if it already holds rows of a range to
+ * create, the statement fails and the rows have to be moved by hand.
+ */
+public class DdmCreateHistoryPartitionsGenerator extends AbstractSqlGenerator<DdmCreateHistoryPartitionsStatement> {
+
+    private static final String TEMPLATE = "DO $$\n" +
+        "DECLARE\n" +
+        "    v_start timestamp := date_trunc('%2$s', now() AT TIME ZONE 'UTC');\n" +
+        "    v_default regclass := to_regclass('%6$s');\n" +
+        "    v_name text;\n" +
+        "    v_from timestamptz;\n" +
+        "    v_to timestamptz;\n" +
+        "    v_found boolean;\n" +
+        "BEGIN\n" +
+        "    FOR i IN 0..%3$d LOOP\n" +
+        "        v_name := '%1$s_' || to_char(v_start + i * interval '1 %2$s', '%4$s');\n" +
+        "        CONTINUE WHEN to_regclass(v_name) IS NOT NULL;\n" +
+        "        v_from := (v_start + i * interval '1 %2$s') AT TIME ZONE 'UTC';\n" +
+        "        v_to := (v_start + (i + 1) * interval '1 %2$s') AT TIME ZONE 'UTC';\n" +
+        "        IF v_default IS NOT NULL THEN\n" +
+        "            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %%s WHERE %%I >= %%L AND %%I < %%L)',\n" +
+        "                v_default, '%5$s', v_from, '%5$s', v_to) INTO v_found;\n" +
+        "            IF v_found THEN\n" +
+        "                RAISE EXCEPTION 'Default partition %% holds rows from %% to %%, move them out before creating partition %%',\n" +
+        "                    v_default, v_from, v_to, v_name;\n" +
+        "            END IF;\n" +
+        "        END IF;\n" +
+        "        EXECUTE format('CREATE TABLE IF NOT EXISTS %%I PARTITION OF %%I FOR VALUES FROM (%%L) TO (%%L)',\n" +
+        "            v_name, '%1$s', v_from, v_to);\n" +
+        "    END LOOP;\n" +
+        "END $$;";
+
+    @Override
+    public ValidationErrors validate(DdmCreateHistoryPartitionsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.addAll(DdmUtils.validateHistoryPartitioning(statement.getPartitioning()));
+        if (statement.getPartitions() < 1) {
+            validationErrors.addError("Number of partitions must be positive");
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(DdmCreateHistoryPartitionsStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String sql = String.format(TEMPLATE, statement.getTableName(), statement.getPartitioning(),
+            statement.getPartitions() - 1, getPartitionNameFormat(statement.getPartitioning()),
+            DdmConstants.PARTITION_COLUMN, statement.getTableName() + DdmConstants.SUFFIX_DEFAULT_PARTITION);
+
+        return new Sql[]{new UnparsedSql(sql)};
+    }
+
+    private String getPartitionNameFormat(String partitioning) {
+        if (DdmConstants.PARTITIONING_DAY.equals(partitioning)) {
+            return "YYYYMMDD";
+        }
+        if (DdmConstants.PARTITIONING_MONTH.equals(partitioning)) {
+            return "YYYYMM";
+        }
+        if (DdmConstants.PARTITIONING_YEAR.equals(partitioning)) {
+            return "YYYY";
+        }
+        return null;
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateMany2ManyStatement;
 import liquibase.database.Database;
@@ -29,8 +30,59 @@ import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.core.AbstractSqlGenerator;
 
+/**
+ * Creates the view of a many to many relation kept in an array of reference keys of the main table.
+ *
+ * By default the view unnests the array on every read. With table storage the relation is kept in
+ * a junction table of (main key, reference key) pairs indexed both ways, and the view only joins
+ * it. The junction table is kept in sync by statement-level triggers of the main table, which apply
+ * the changed rows of a statement from its transition tables at once. The triggers are created and
+ * the junction table is filled under a lock of the main table that blocks its writes, in one SQL,
+ * so that no write can fall between the fill and the triggers.
+ *
+ * References to deleted or updated rows of the reference table are checked by a row-level trigger,
+ * or, with the statement integrity check, by statement-level triggers that look up all the removed
+ * keys of a statement in one query answered by the GIN index of the reference keys array.
+ */
 public class DdmCreateMany2ManyGenerator extends AbstractSqlGenerator<DdmCreateMany2ManyStatement> {
 
+    private static final String OLD_ROWS = "old_rows";
+    private static final String NEW_ROWS = "new_rows";
+
+    // transition tables of the trigger are available only in the branch of its own event
+    private static final String SYNC_FUNCTION_TEMPLATE = "CREATE OR REPLACE FUNCTION %1$s() RETURNS trigger AS $$\n" +
+        "BEGIN\n" +
+        "    IF TG_OP = 'INSERT' THEN\n" +
+        "        %5$s ON CONFLICT DO NOTHING;\n" +
+        "    ELSIF TG_OP = 'UPDATE' THEN\n" +
+        "        DELETE FROM %2$s USING old_rows o WHERE %2$s.%3$s = o.%3$s\n" +
+        "            AND NOT EXISTS (SELECT 1 FROM new_rows n WHERE n.%3$s = o.%3$s AND n.%4$s IS NOT DISTINCT FROM o.%4$s);\n" +
+        "        %5$s\n" +
+        "            AND NOT EXISTS (SELECT 1 FROM old_rows o WHERE o.%3$s = n.%3$s AND o.%4$s IS NOT DISTINCT FROM n.%4$s)\n" +
+        "            ON CONFLICT DO NOTHING;\n" +
+        "    ELSIF TG_OP = 'DELETE' THEN\n" +
+        "        DELETE FROM %2$s USING old_rows o WHERE %2$s.%3$s = o.%3$s;\n" +
+        "    ELSE\n" +
+        "        DELETE FROM %2$s;\n" +
+        "    END IF;\n" +
+        "    RETURN NULL;\n" +
+        "END $$ LANGUAGE plpgsql;";
+
+    // keys that are kept by an update of the reference table cannot break a reference
+    private static final String INTEGRITY_FUNCTION_TEMPLATE = "CREATE OR REPLACE FUNCTION %1$s() RETURNS trigger AS $$\n" +
+        "BEGIN\n" +
+        "    IF TG_OP = 'UPDATE' THEN\n" +
+        "        PERFORM 1 FROM %3$s WHERE %3$s.%4$s && ARRAY(SELECT o.%2$s FROM old_rows o\n" +
+        "            WHERE NOT EXISTS (SELECT 1 FROM new_rows n WHERE n.%2$s = o.%2$s)) LIMIT 1;\n" +
+        "    ELSE\n" +
+        "        PERFORM 1 FROM %3$s WHERE %3$s.%4$s && ARRAY(SELECT o.%2$s FROM old_rows o) LIMIT 1;\n" +
+        "    END IF;\n" +
+        "    IF FOUND THEN\n" +
+        "        RAISE EXCEPTION 'Keys of %% are still referenced by %3$s.%4$s', TG_TABLE_NAME USING ERRCODE = 'foreign_key_violation';\n" +
+        "    END IF;\n" +
+        "    RETURN NULL;\n" +
+        "END $$ LANGUAGE plpgsql;";
+
     @Override
     public ValidationErrors validate(DdmCreateMany2ManyStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         ValidationErrors validationErrors = new ValidationErrors();
@@ -78,16 +130,29 @@ public class DdmCreateMany2ManyGenerator extends AbstractSqlGenerator<DdmCreateM
         return buffer;
     }
 
+    private String getIntegrityTriggerName(DdmCreateMany2ManyStatement statement) {
+        return "trg_" + statement.getReferenceTableName() + "_integrity_" + statement.getMainTableName()
+            + "_" + statement.getReferenceKeysArray();
+    }
+
+    private String getIntegrityFunctionName(DdmCreateMany2ManyStatement statement) {
+        return "f_" + getIntegrityTriggerName(statement);
+    }
+
     private StringBuilder getTriggerSql(DdmCreateMany2ManyStatement statement) {
+        if (statement.isStatementIntegrityCheck()) {
+            return getStatementIntegrityTriggerSql(statement);
+        }
+
         StringBuilder buffer = new StringBuilder();
 
+        if (statement.isReplacesStatementIntegrityCheck()) {
+            buffer.append(getDropStatementIntegrityTriggerSql(statement));
+            buffer.append("\n\n");
+        }
+
         buffer.append("CREATE TRIGGER ");
-        buffer.append("trg_")
-            .append(statement.getReferenceTableName())
-            .append("_integrity_")
-            .append(statement.getMainTableName())
-            .append("_")
-            .append(statement.getReferenceKeysArray());
+        buffer.append(getIntegrityTriggerName(statement));
         buffer.append(" BEFORE UPDATE OR DELETE ON ")
             .append(statement.getReferenceTableName());
         buffer.append(" FOR EACH ROW");
@@ -102,13 +167,55 @@ public class DdmCreateMany2ManyGenerator extends AbstractSqlGenerator<DdmCreateM
         return buffer;
     }
 
-    private StringBuilder getIndexSql(DdmCreateMany2ManyStatement statement) {
+    private StringBuilder getStatementIntegrityTriggerSql(DdmCreateMany2ManyStatement statement) {
+        StringBuilder buffer = new StringBuilder();
+
+        // the row-level trigger of an earlier definition
+        buffer.append("DROP TRIGGER IF EXISTS ").append(getIntegrityTriggerName(statement))
+            .append(" ON ").append(statement.getReferenceTableName()).append(";");
+        buffer.append("\n\n");
+        buffer.append(String.format(INTEGRITY_FUNCTION_TEMPLATE, getIntegrityFunctionName(statement),
+            statement.getReferenceColumnName(), statement.getMainTableName(), statement.getReferenceKeysArray()));
+
+        String[][] events = {
+            {"update", "UPDATE", "REFERENCING OLD TABLE AS " + OLD_ROWS + " NEW TABLE AS " + NEW_ROWS},
+            {"delete", "DELETE", "REFERENCING OLD TABLE AS " + OLD_ROWS}
+        };
+        for (String[] event : events) {
+            String triggerName = getIntegrityTriggerName(statement) + "_" + event[0];
+            buffer.append("\n\n");
+            buffer.append("DROP TRIGGER IF EXISTS ").append(triggerName)
+                .append(" ON ").append(statement.getReferenceTableName()).append(";");
+            buffer.append("\n\n");
+            buffer.append("CREATE TRIGGER ").append(triggerName)
+                .append(" AFTER ").append(event[1]).append(" ON ").append(statement.getReferenceTableName())
+                .append(" ").append(event[2]).append(" FOR EACH STATEMENT EXECUTE FUNCTION ")
+                .append(getIntegrityFunctionName(statement)).append("();");
+        }
+
+        return buffer;
+    }
+
+    private StringBuilder getDropStatementIntegrityTriggerSql(DdmCreateMany2ManyStatement statement) {
+        StringBuilder buffer = new StringBuilder();
+        for (String event : new String[]{"update", "delete"}) {
+            buffer.append("DROP TRIGGER IF EXISTS ").append(getIntegrityTriggerName(statement)).append("_").append(event)
+                .append(" ON ").append(statement.getReferenceTableName()).append(";");
+            buffer.append("\n\n");
+        }
+        buffer.append("DROP FUNCTION IF EXISTS ").append(getIntegrityFunctionName(statement)).append("();");
+        return buffer;
+    }
+
+    private String getIndexName(DdmCreateMany2ManyStatement statement) {
+        return DdmConstants.PREFIX_INDEX + statement.getName() + DdmConstants.SUFFIX_M2M;
+    }
+
+    private StringBuilder getIndexSql(DdmCreateMany2ManyStatement statement, boolean concurrent) {
         StringBuilder buffer = new StringBuilder();
 
-        buffer.append("CREATE INDEX ");
-        buffer.append(DdmConstants.PREFIX_INDEX)
-            .append(statement.getName())
-            .append(DdmConstants.SUFFIX_M2M);
+        buffer.append(DdmUtils.createIndexSql(concurrent));
+        buffer.append(getIndexName(statement));
         buffer.append(" ON ");
         buffer.append(statement.getMainTableName());
         buffer.append(" USING gin(")
@@ -118,15 +225,145 @@ public class DdmCreateMany2ManyGenerator extends AbstractSqlGenerator<DdmCreateM
         return buffer;
     }
 
+    /**
+     * Returns the distinct (main key, reference key) pairs of the rows of the source, the main table
+     * or a transition table.
+     */
+    private String getPairsSql(DdmCreateMany2ManyStatement statement, String source, String alias) {
+        return "SELECT DISTINCT " + alias + "." + statement.getMainTableKeyField() + ", u." + statement.getReferenceColumnName() +
+            " FROM " + source + (source.equals(alias) ? "" : " " + alias) +
+            ", UNNEST(" + alias + "." + statement.getReferenceKeysArray() + ") AS u(" + statement.getReferenceColumnName() + ")" +
+            " WHERE u." + statement.getReferenceColumnName() + " IS NOT NULL";
+    }
+
+    private String getInsertPairsSql(DdmCreateMany2ManyStatement statement, String source, String alias) {
+        return "INSERT INTO " + statement.getRelationName() +
+            " (" + statement.getMainTableKeyField() + ", " + statement.getReferenceColumnName() + ") " +
+            getPairsSql(statement, source, alias);
+    }
+
+    private StringBuilder getJunctionTableSql(DdmCreateMany2ManyStatement statement) {
+        StringBuilder buffer = new StringBuilder();
+        String relationName = statement.getRelationName();
+        String keys = statement.getMainTableKeyField() + ", " + statement.getReferenceColumnName();
+
+        buffer.append("CREATE TABLE IF NOT EXISTS ").append(relationName).append(" AS ")
+            .append(getPairsSql(statement, statement.getMainTableName(), statement.getMainTableName()))
+            .append(" WITH NO DATA;");
+        // held until the end of the transaction, writes of the main table wait for the fill
+        buffer.append("\n\n");
+        buffer.append("LOCK TABLE ").append(statement.getMainTableName()).append(" IN SHARE ROW EXCLUSIVE MODE;");
+        buffer.append("\n\n");
+        buffer.append(getSyncTriggerSql(statement));
+        // refilled on every run, so that a redefinition starts from the current main table
+        buffer.append("\n\n");
+        buffer.append("TRUNCATE ").append(relationName).append(";");
+        buffer.append("\n\n");
+        buffer.append(getInsertPairsSql(statement, statement.getMainTableName(), statement.getMainTableName())).append(";");
+        buffer.append("\n\n");
+        buffer.append("CREATE UNIQUE INDEX IF NOT EXISTS ").append(DdmConstants.PREFIX_UNIQUE_INDEX).append(relationName)
+            .append(" ON ").append(relationName).append("(").append(keys).append(");");
+        buffer.append("\n\n");
+        buffer.append("CREATE INDEX IF NOT EXISTS ").append(DdmConstants.PREFIX_INDEX).append(relationName)
+            .append("__").append(statement.getReferenceColumnName())
+            .append(" ON ").append(relationName).append("(").append(statement.getReferenceColumnName())
+            .append(", ").append(statement.getMainTableKeyField()).append(");");
+
+        return buffer;
+    }
+
+    private String getSyncFunctionName(DdmCreateMany2ManyStatement statement) {
+        return "f_trg_" + statement.getRelationName() + "_sync";
+    }
+
+    private StringBuilder getSyncTriggerSql(DdmCreateMany2ManyStatement statement) {
+        StringBuilder buffer = new StringBuilder();
+
+        buffer.append(String.format(SYNC_FUNCTION_TEMPLATE, getSyncFunctionName(statement), statement.getRelationName(),
+            statement.getMainTableKeyField(), statement.getReferenceKeysArray(), getInsertPairsSql(statement, NEW_ROWS, "n")));
+
+        String[][] events = {
+            {"insert", "INSERT", "REFERENCING NEW TABLE AS " + NEW_ROWS + " "},
+            {"update", "UPDATE", "REFERENCING OLD TABLE AS " + OLD_ROWS + " NEW TABLE AS " + NEW_ROWS + " "},
+            {"delete", "DELETE", "REFERENCING OLD TABLE AS " + OLD_ROWS + " "},
+            {"truncate", "TRUNCATE", ""}
+        };
+        for (String[] event : events) {
+            String triggerName = getSyncTriggerName(statement, event[0]);
+            buffer.append("\n\n");
+            buffer.append("DROP TRIGGER IF EXISTS ").append(triggerName).append(" ON ").append(statement.getMainTableName()).append(";");
+            buffer.append("\n\n");
+            buffer.append("CREATE TRIGGER ").append(triggerName)
+                .append(" AFTER ").append(event[1]).append(" ON ").append(statement.getMainTableName())
+                .append(" ").append(event[2]).append("FOR EACH STATEMENT EXECUTE FUNCTION ")
+                .append(getSyncFunctionName(statement)).append("();");
+        }
+
+        return buffer;
+    }
+
+    private String getSyncTriggerName(DdmCreateMany2ManyStatement statement, String event) {
+        return "trg_" + statement.getRelationName() + "_sync_" + event;
+    }
+
+    private StringBuilder getDropJunctionTableSql(DdmCreateMany2ManyStatement statement) {
+        StringBuilder buffer = new StringBuilder();
+        for (String event : new String[]{"insert", "update", "delete", "truncate"}) {
+            buffer.append("\n\n");
+            buffer.append("DROP TRIGGER IF EXISTS ").append(getSyncTriggerName(statement, event))
+                .append(" ON ").append(statement.getMainTableName()).append(";");
+        }
+        buffer.append("\n\n");
+        buffer.append("DROP FUNCTION IF EXISTS ").append(getSyncFunctionName(statement)).append("();");
+        buffer.append("\n\n");
+        buffer.append("DROP TABLE IF EXISTS ").append(statement.getRelationName()).append(";");
+        return buffer;
+    }
+
+    private void appendJunctionViewSql(StringBuilder buffer, DdmCreateMany2ManyStatement statement) {
+        String relationName = statement.getRelationName();
+
+        buffer.append("SELECT ");
+        buffer.append(relationName).append(".").append(statement.getMainTableKeyField());
+        buffer.append(", ");
+        buffer.append(relationName).append(".").append(statement.getReferenceColumnName());
+        if (!statement.getMainTableColumns().isEmpty()) {
+            buffer.append(", ");
+            buffer.append(getListOfColumns(statement.getMainTableName(), statement.getMainTableColumns()));
+        }
+        if (!statement.getReferenceTableColumns().isEmpty()) {
+            buffer.append(", ");
+            buffer.append(getListOfColumns(statement.getReferenceTableName(), statement.getReferenceTableColumns()));
+        }
+
+        buffer.append(" FROM ").append(relationName);
+        if (!statement.getMainTableColumns().isEmpty()) {
+            buffer.append(" JOIN ").append(statement.getMainTableName())
+                .append(" ON ").append(statement.getMainTableName()).append(".").append(statement.getMainTableKeyField())
+                .append(" = ").append(relationName).append(".").append(statement.getMainTableKeyField());
+        }
+        if (!statement.getReferenceTableColumns().isEmpty()) {
+            buffer.append(" JOIN ").append(statement.getReferenceTableName())
+                .append(" USING (").append(statement.getReferenceColumnName()).append(")");
+        }
+    }
+
     @Override
     public Sql[] generateSql(DdmCreateMany2ManyStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         StringBuilder buffer = new StringBuilder();
 
+        if (statement.isTableStorage()) {
+            buffer.append(getJunctionTableSql(statement));
+            buffer.append("\n\n");
+        }
+
         buffer.append("CREATE OR REPLACE VIEW ");
         buffer.append(statement.getViewName());
         buffer.append(" AS ");
 
-        if (!statement.getReferenceTableColumns().isEmpty()) {
+        if (statement.isTableStorage()) {
+            appendJunctionViewSql(buffer, statement);
+        } else if (!statement.getReferenceTableColumns().isEmpty()) {
             buffer.append("WITH main_cte as (");
             buffer.append(getMainSql(statement));
             buffer.append(") ");
@@ -155,11 +392,28 @@ public class DdmCreateMany2ManyGenerator extends AbstractSqlGenerator<DdmCreateM
 
         buffer.append(";");
 
+        if (statement.isReplacesTable()) {
+            // dropped once the view no longer reads it
+            buffer.append(getDropJunctionTableSql(statement));
+        }
+
+        StringBuilder triggerSql = getTriggerSql(statement);
+
+        if (Boolean.TRUE.equals(statement.getConcurrentIndexes())) {
+            // the concurrent build cannot share SQL with the view and the trigger, see DdmUtils.withIndexSql
+            return new Sql[]{
+                new UnparsedSql(buffer.toString()),
+                new UnparsedSql(DdmUtils.dropInvalidIndexSql(getIndexName(statement))),
+                new UnparsedSql(getIndexSql(statement, true).toString()),
+                new UnparsedSql(triggerSql.toString())
+            };
+        }
+
         buffer.append("\n\n");
-        buffer.append(getIndexSql(statement));
+        buffer.append(getIndexSql(statement, false));
 
         buffer.append("\n\n");
-        buffer.append(getTriggerSql(statement));
+        buffer.append(triggerSql);
 
         return new Sql[]{ new UnparsedSql(buffer.toString()) };
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreatePartitionedTableStatement;
+import liquibase.database.Database;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.core.CreateTableGenerator;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Adds PARTITION BY RANGE to the CREATE TABLE generated by the core generator.
+ */
+public class DdmCreatePartitionedTableGenerator extends CreateTableGenerator {
+
+    private static final String TABLESPACE = " TABLESPACE ";
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateTableStatement statement, Database database) {
+        return statement instanceof DdmCreatePartitionedTableStatement;
+    }
+
+    @Override
+    public Sql[] generateSql(CreateTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        Sql[] sqls = super.generateSql(statement, database, sqlGeneratorChain);
+
+        String partitionBy = " PARTITION BY RANGE (" + database.escapeColumnName(statement.getCatalogName(),
+            statement.getSchemaName(), statement.getTableName(),
+            ((DdmCreatePartitionedTableStatement) statement).getPartitionColumn()) + ")";
+        String sql = sqls[0].toSql();
+        int tablespace = statement.getTablespace() == null ? -1 : sql.lastIndexOf(TABLESPACE);
+        sql = tablespace < 0 ? sql + partitionBy : sql.substring(0, tablespace) + partitionBy + sql.substring(tablespace);
+
+        sqls[0] = new UnparsedSql(sql, sqls[0].getEndDelimiter(),
+            sqls[0].getAffectedDatabaseObjects().toArray(new DatabaseObject[0]));
+        return sqls;
+    }
+}
@@ -17,12 +17,16 @@
 package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateSimpleSearchConditionStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
+import liquibase.exception.Warnings;
 import liquibase.sql.Sql;
-import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.core.AbstractSqlGenerator;
 
@@ -35,50 +39,34 @@ public class DdmCreateSimpleSearchConditionGenerator extends AbstractSqlGenerato
         return validationErrors;
     }
 
-    private StringBuilder generateIndexSql(DdmCreateSimpleSearchConditionStatement statement, String searchType, boolean changeName) {
-        StringBuilder buffer = new StringBuilder();
-
-        buffer.append("CREATE INDEX ");
-        buffer.append(DdmConstants.PREFIX_INDEX);
-        buffer.append(statement.getName());
-        buffer.append("_");
-        buffer.append(statement.getTable().getName());
-        buffer.append("_");
-        buffer.append(statement.getSearchColumn().getName());
-
-        if (changeName) {
-            buffer.append("_");
-            buffer.append(searchType);
-        }
-
-        buffer.append(" ON ");
-        buffer.append(statement.getTable().getName());
-        buffer.append("(");
-        boolean isColumnCastable = DdmUtils.isColumnAvailableForCasting(statement.getSearchColumn());
-        if (isColumnCastable) {
-            buffer.append("lower(cast(");
-        }
-        buffer.append(statement.getSearchColumn().getName());
-        if (isColumnCastable) {
-            buffer.append(" as varchar))");
+    @Override
+    public Warnings warn(DdmCreateSimpleSearchConditionStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        Warnings warnings = super.warn(statement, database, sqlGeneratorChain);
+        DdmIndexRegistry registry = DdmIndexRegistry.getInstance(statement.getChangeSet(), database);
+        if (registry != null) {
+            warnings.addAll(registry.warn(statement.getChangeSet(), planIndexes(statement)));
         }
+        return warnings;
+    }
 
-        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_CONTAINS) ||
-                searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH) ||
-                searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH_ARRAY)) {
-            buffer.append(" ");
+    static List<DdmIndexPlanner.Index> planIndexes(DdmCreateSimpleSearchConditionStatement statement) {
+        String tableName = statement.getTable().getName();
+        DdmIndexPlanner planner = new DdmIndexPlanner(tableName,
+            DdmConstants.PREFIX_INDEX + statement.getName() + "_" + tableName + "_", "_");
+        planner.addColumn(statement.getSearchColumn().getName(), statement.getSearchColumn());
+        return planner.plan();
+    }
 
-            if (statement.getSearchColumn().getType().equalsIgnoreCase(DdmConstants.TYPE_CHAR)) {
-                buffer.append("bp");
+    private List<DdmPair> generateIndexSql(DdmCreateSimpleSearchConditionStatement statement, Database database,
+                                           boolean concurrent) {
+        DdmIndexRegistry registry = DdmIndexRegistry.getInstance(statement.getChangeSet(), database);
+        List<DdmPair> indexes = new ArrayList<>();
+        for (DdmIndexPlanner.Index index : planIndexes(statement)) {
+            if (registry == null || !registry.isRedundant(statement.getChangeSet(), index)) {
+                indexes.add(index.toSql(concurrent, false));
             }
-
-            buffer.append(statement.getSearchColumn().getType().toLowerCase());
-            buffer.append("_pattern_ops");
         }
-
-        buffer.append(");");
-
-        return buffer;
+        return indexes;
     }
 
     @Override
@@ -99,12 +87,12 @@ public class DdmCreateSimpleSearchConditionGenerator extends AbstractSqlGenerato
 
         buffer.append(";");
 
-        if (Boolean.TRUE.equals(statement.getIndexing())) {
-            buffer.append("\n\n");
-            buffer.append(generateIndexSql(statement, statement.getSearchColumn().getSearchType(), false));
-        }
+        boolean concurrent = Boolean.TRUE.equals(statement.getConcurrentIndexes());
+        List<DdmPair> indexes = Boolean.TRUE.equals(statement.getIndexing())
+            ? generateIndexSql(statement, database, concurrent)
+            : Collections.emptyList();
 
-        return new Sql[] { new UnparsedSql(buffer.toString()) };
+        return DdmUtils.withIndexSql(buffer, indexes, concurrent);
     }
 
 }
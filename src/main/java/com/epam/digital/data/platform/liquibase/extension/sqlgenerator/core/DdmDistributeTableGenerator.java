@@ -24,13 +24,32 @@ import liquibase.sql.UnparsedSql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.core.AbstractSqlGenerator;
 
+/**
+ * Distributes a table by create_distributed_table, or by create_distributed_table_concurrently,
+ * which supports only hash distribution.
+ */
 public class DdmDistributeTableGenerator extends AbstractSqlGenerator<DdmDistributeTableStatement> {
 
+    private static final String DISTRIBUTION_TYPE_HASH = "hash";
+    private static final String COLOCATE_WITH_DEFAULT = "default";
+    private static final String COLOCATE_WITH_NONE = "none";
+
     @Override
     public ValidationErrors validate(DdmDistributeTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         ValidationErrors validationErrors = new ValidationErrors();
         validationErrors.checkRequiredField("tableName", statement.getTableName());
         validationErrors.checkRequiredField("distributionColumn", statement.getDistributionColumn());
+        if (statement.getShardCount() != null && statement.getShardCount() < 1) {
+            validationErrors.addError("shardCount must be positive");
+        }
+        if (statement.getShardCount() != null && statement.getColocateWith() != null
+            && !COLOCATE_WITH_DEFAULT.equals(statement.getColocateWith()) && !COLOCATE_WITH_NONE.equals(statement.getColocateWith())) {
+            validationErrors.addError("shardCount cannot be combined with colocateWith, the table gets the shards of " + statement.getColocateWith());
+        }
+        if (Boolean.TRUE.equals(statement.getConcurrent()) && statement.getDistributionType() != null
+            && !DISTRIBUTION_TYPE_HASH.equals(statement.getDistributionType())) {
+            validationErrors.addError("Concurrent distribution supports only " + DISTRIBUTION_TYPE_HASH + " distribution");
+        }
         return validationErrors;
     }
 
@@ -38,7 +57,8 @@ public class DdmDistributeTableGenerator extends AbstractSqlGenerator<DdmDistrib
     public Sql[] generateSql(DdmDistributeTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
 
         StringBuilder buffer = new StringBuilder();
-        buffer.append("SELECT create_distributed_table('");
+        buffer.append(Boolean.TRUE.equals(statement.getConcurrent())
+            ? "SELECT create_distributed_table_concurrently('" : "SELECT create_distributed_table('");
         buffer.append(statement.getTableName());
         buffer.append("', '");
         buffer.append(statement.getDistributionColumn());
@@ -56,6 +76,11 @@ public class DdmDistributeTableGenerator extends AbstractSqlGenerator<DdmDistrib
             buffer.append("'");
         }
 
+        if (statement.getShardCount() != null) {
+            buffer.append(", shard_count=>");
+            buffer.append(statement.getShardCount());
+        }
+
         buffer.append(")");
 
         return new Sql[]{ new UnparsedSql(buffer.toString()) };
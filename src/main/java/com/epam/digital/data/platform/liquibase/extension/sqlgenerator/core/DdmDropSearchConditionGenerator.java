@@ -17,6 +17,7 @@
 package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDropSearchConditionStatement;
 import liquibase.database.Database;
 import liquibase.exception.ValidationErrors;
@@ -37,7 +38,7 @@ public class DdmDropSearchConditionGenerator extends AbstractSqlGenerator<DdmDro
     @Override
     public Sql[] generateSql(DdmDropSearchConditionStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
         StringBuilder buffer = new StringBuilder();
-        buffer.append("drop view if exists ").append(statement.getName()).append(DdmConstants.SUFFIX_VIEW).append(";");
+        buffer.append(DdmUtils.dropViewSql(statement.getName() + DdmConstants.SUFFIX_VIEW));
         buffer.append("\n\n");
         buffer.append("delete from ").append(DdmConstants.METADATA_TABLE);
         buffer.append(" where (").append(DdmConstants.METADATA_CHANGE_TYPE).append(" = '").append(DdmConstants.SEARCH_METADATA_CHANGE_TYPE_VALUE).append("') and (");
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
+import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Plans the indexes of the searchable columns of one table of a search condition.
+ *
+ * The access method and the key of each index follow the search type of the column:
+ * <ul>
+ *     <li>contains - GIN with trigram operator class, the only one that serves %value% patterns;</li>
+ *     <li>startsWith, startsWithArray - btree with pattern operator class;</li>
+ *     <li>equal - btree, or hash when {@link DdmConfiguration#HASH_INDEXES} is set;</li>
+ *     <li>in, between - btree;</li>
+ *     <li>notEqual, notIn - no index, since an index does not help to filter out a few values.</li>
+ * </ul>
+ * Columns of text castable types are compared case-insensitively and are indexed by
+ * lower(cast(column as varchar)). Two or more required equal or in columns are indexed together by
+ * one composite btree index instead of an index per column. Join columns get a btree index unless
+ * an index of the ChangeLog or a planned index starts with them. When {@link DdmConfiguration#COVERING_INDEXES}
+ * is set, the returned columns of the table are added to btree indexes as INCLUDE columns. The sort
+ * key of keyset pagination gets a btree index in the sort order, so pages are read by an index scan.
+ */
+public class DdmIndexPlanner {
+
+    public static final String METHOD_BTREE = "BTREE";
+    public static final String METHOD_GIN = "GIN";
+    public static final String METHOD_HASH = "HASH";
+    public static final String SUFFIX_JOIN_INDEX = "_join";
+    public static final String SUFFIX_KEYSET_INDEX = "_keyset";
+
+    private final String tableName;
+    private final String indexNamePrefix;
+    private final String indexNameSeparator;
+    private final List<DdmPair> searchColumns = new ArrayList<>();
+    private final List<DdmColumnConfig> searchColumnConfigs = new ArrayList<>();
+    private final List<String> returningColumns = new ArrayList<>();
+    private final List<List<String>> joinColumns = new ArrayList<>();
+    private final List<List<String>> indexedColumns = new ArrayList<>();
+    private final List<DdmPair> keysetColumns = new ArrayList<>();
+
+    public DdmIndexPlanner(String tableName, String indexNamePrefix, String indexNameSeparator) {
+        this.tableName = tableName;
+        this.indexNamePrefix = indexNamePrefix;
+        this.indexNameSeparator = indexNameSeparator;
+    }
+
+    /**
+     * Adds a column of the table, the column name may differ from the column config name when the
+     * column is resolved through a CTE.
+     */
+    public void addColumn(String columnName, DdmColumnConfig column) {
+        if (column.getSearchType() != null && !containsSearchColumn(columnName, column.getSearchType())) {
+            searchColumns.add(new DdmPair(columnName, column.getSearchType()));
+            searchColumnConfigs.add(column);
+        }
+        if (Boolean.TRUE.equals(column.getReturning()) && !returningColumns.contains(columnName)) {
+            returningColumns.add(columnName);
+        }
+    }
+
+    /**
+     * Adds the columns of the table a join compares.
+     */
+    public void addJoinColumns(List<String> columnNames) {
+        if (!columnNames.isEmpty() && !joinColumns.contains(columnNames)) {
+            joinColumns.add(columnNames);
+        }
+    }
+
+    /**
+     * Adds the column lists of the existing indexes of the table.
+     */
+    public void addIndexedColumns(List<List<String>> columnNames) {
+        indexedColumns.addAll(columnNames);
+    }
+
+    /**
+     * Sets the sort key of keyset pagination of the table, pairs of column name and sorting.
+     */
+    public void setKeysetColumns(List<DdmPair> columns) {
+        keysetColumns.clear();
+        keysetColumns.addAll(columns);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<Index> plan() {
+        List<Index> indexes = new ArrayList<>();
+        List<Integer> compositeColumns = getCompositeColumns();
+        List<String> keyColumns = new ArrayList<>();
+
+        if (compositeColumns.size() > 1) {
+            List<String> names = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (int i : compositeColumns) {
+                names.add(searchColumns.get(i).getKey());
+                keys.add(getKey(searchColumns.get(i).getKey(), searchColumnConfigs.get(i)));
+            }
+            keyColumns.addAll(names);
+            indexes.add(new Index(getIndexName(names), tableName, METHOD_BTREE, keys));
+        }
+
+        for (int i = 0; i < searchColumns.size(); i++) {
+            if (compositeColumns.size() > 1 && compositeColumns.contains(i)) {
+                continue;
+            }
+            String columnName = searchColumns.get(i).getKey();
+            DdmColumnConfig column = searchColumnConfigs.get(i);
+            String method = getMethod(column.getSearchType());
+            if (method != null) {
+                keyColumns.add(columnName);
+                indexes.add(new Index(getIndexName(Collections.singletonList(columnName)), tableName, method,
+                    Collections.singletonList(getKey(columnName, column))));
+            }
+        }
+
+        for (List<String> columnNames : joinColumns) {
+            if (!isCovered(columnNames, indexes)) {
+                keyColumns.addAll(columnNames);
+                indexes.add(new Index(getIndexName(columnNames) + SUFFIX_JOIN_INDEX, tableName, METHOD_BTREE,
+                    new ArrayList<>(columnNames)));
+            }
+        }
+
+        if (!keysetColumns.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (DdmPair column : keysetColumns) {
+                names.add(column.getKey());
+                keys.add(DdmConstants.ATTRIBUTE_DESC.equalsIgnoreCase(column.getValue())
+                    ? column.getKey() + " DESC" : column.getKey());
+            }
+            keyColumns.addAll(names);
+            indexes.add(new Index(getIndexName(names) + SUFFIX_KEYSET_INDEX, tableName, METHOD_BTREE, keys));
+        }
+
+        if (Boolean.TRUE.equals(DdmConfiguration.COVERING_INDEXES.getCurrentValue())) {
+            for (Index index : indexes) {
+                if (METHOD_BTREE.equals(index.getMethod())) {
+                    for (String returningColumn : returningColumns) {
+                        if (!keyColumns.contains(returningColumn)) {
+                            index.getInclude().add(returningColumn);
+                        }
+                    }
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private boolean containsSearchColumn(String columnName, String searchType) {
+        return searchColumns.contains(new DdmPair(columnName, searchType));
+    }
+
+    private boolean isCovered(List<String> columnNames, List<Index> plannedIndexes) {
+        for (List<String> indexColumns : indexedColumns) {
+            if (startsWith(indexColumns, columnNames)) {
+                return true;
+            }
+        }
+        for (Index index : plannedIndexes) {
+            if (METHOD_BTREE.equals(index.getMethod()) && startsWith(index.getKeys(), columnNames)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(List<String> indexColumns, List<String> columnNames) {
+        return indexColumns.size() >= columnNames.size()
+            && new HashSet<>(indexColumns.subList(0, columnNames.size())).equals(new HashSet<>(columnNames));
+    }
+
+    private List<Integer> getCompositeColumns() {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < searchColumns.size(); i++) {
+            DdmColumnConfig column = searchColumnConfigs.get(i);
+            if (Boolean.TRUE.equals(column.getRequired())
+                && (column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_EQUAL)
+                || column.getSearchType().equalsIgnoreCase(DdmConstants.ATTRIBUTE_IN))) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private String getIndexName(List<String> columnNames) {
+        return indexNamePrefix + String.join(indexNameSeparator, columnNames);
+    }
+
+    static String getMethod(String searchType) {
+        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_NOT_EQUAL)
+            || searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_NOT_IN)) {
+            return null;
+        }
+        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_CONTAINS)) {
+            return METHOD_GIN;
+        }
+        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_EQUAL)
+            && Boolean.TRUE.equals(DdmConfiguration.HASH_INDEXES.getCurrentValue())) {
+            return METHOD_HASH;
+        }
+        return METHOD_BTREE;
+    }
+
+    static String getKey(String columnName, DdmColumnConfig column) {
+        String searchType = column.getSearchType();
+        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_CONTAINS)) {
+            return columnName + " gin_trgm_ops";
+        }
+        if (searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH)
+            || searchType.equalsIgnoreCase(DdmConstants.ATTRIBUTE_STARTS_WITH_ARRAY)) {
+            String type = column.getType() == null ? DdmConstants.TYPE_TEXT : column.getType().toLowerCase();
+            return columnName + " " + (type.equalsIgnoreCase(DdmConstants.TYPE_CHAR) ? "bp" : "") + type + "_pattern_ops";
+        }
+        if (DdmUtils.isColumnAvailableForCasting(column)) {
+            return "lower(cast(" + columnName + " as varchar))";
+        }
+        return columnName;
+    }
+
+    /**
+     * Index planned for a table.
+     */
+    public static class Index {
+
+        private final String name;
+        private final String tableName;
+        private final String method;
+        private final List<String> keys;
+        private final List<String> include = new ArrayList<>();
+
+        public Index(String name, String tableName, String method, List<String> keys) {
+            this.name = name;
+            this.tableName = tableName;
+            this.method = method;
+            this.keys = keys;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        public List<String> getInclude() {
+            return include;
+        }
+
+        /**
+         * Returns the definition of the index without its name and INCLUDE columns, equal for
+         * indexes that serve the same searches.
+         */
+        public String getDefinition() {
+            return tableName + " USING " + method + " (" + String.join(", ", keys) + ")";
+        }
+
+        /**
+         * Returns the pair of the index name and the CREATE INDEX statement of the index.
+         */
+        public DdmPair toSql(boolean concurrent, boolean ifNotExists) {
+            StringBuilder buffer = new StringBuilder();
+            buffer.append(DdmUtils.createIndexSql(concurrent));
+            if (ifNotExists) {
+                buffer.append("IF NOT EXISTS ");
+            }
+            buffer.append(name);
+            buffer.append(" ON ");
+            buffer.append(tableName);
+            if (!METHOD_BTREE.equals(method)) {
+                buffer.append(" USING ").append(method).append(" ");
+            }
+            buffer.append("(").append(String.join(", ", keys)).append(")");
+            if (!include.isEmpty()) {
+                buffer.append(" INCLUDE (").append(String.join(", ", include)).append(")");
+            }
+            buffer.append(";");
+            return new DdmPair(name, buffer.toString());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSimpleSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDropSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmStatelessChange;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateSimpleSearchConditionStatement;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.changelog.filter.DbmsChangeSetFilter;
+import liquibase.changelog.filter.LabelChangeSetFilter;
+import liquibase.database.Database;
+import liquibase.exception.Warnings;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Definitions of the indexes of the search conditions of a root ChangeLog, used to skip indexes
+ * equivalent to an index of an earlier search condition, i.e. with the same table, key expressions,
+ * operator classes and access method but another name.
+ *
+ * The registry is built on first use by planning the indexes of every search condition with
+ * indexing="true" in ChangeLog order, so an index is owned by its first definition whatever the
+ * order the statements are rendered in. Only ChangeSets that already ran or are going to run in
+ * the current contexts, labels and dbms are taken into account, and a dropped search condition
+ * passes the ownership of its indexes to the next search condition that defines them. Analytics
+ * views are not registered, since their indexes are built on the replica. Skipped indexes are
+ * reported as warnings of the search condition, logged and kept in {@link #getSkippedIndexes()}.
+ *
+ * Enabled by {@link DdmConfiguration#INDEX_DEDUPLICATION}.
+ */
+public class DdmIndexRegistry {
+
+    private static final Map<DatabaseChangeLog, SoftReference<DdmIndexRegistry>> registries = new WeakHashMap<>();
+
+    private final WeakReference<Database> database;
+    private final int changeSetCount;
+    // index definitions mapped to the names of their owners, as seen by each ChangeSet
+    private final Map<ChangeSet, Map<String, String>> indexNames = new IdentityHashMap<>();
+    private final Map<String, String> skippedIndexes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private DdmIndexRegistry(DatabaseChangeLog rootChangeLog, Database database) {
+        this.database = new WeakReference<>(database);
+        this.changeSetCount = rootChangeLog.getChangeSets().size();
+
+        Map<String, Owner> owners = new HashMap<>();
+        for (ChangeSet changeSet : rootChangeLog.getChangeSets()) {
+            if (!isApplied(changeSet, database)) {
+                continue;
+            }
+            for (Change change : changeSet.getChanges()) {
+                if (change instanceof DdmDropSearchConditionChange) {
+                    String name = ((DdmDropSearchConditionChange) change).getName();
+                    owners.values().removeIf(owner -> Objects.equals(owner.searchCondition, name));
+                } else if (isIndexing(change)) {
+                    register((DdmStatelessChange) change, database, owners);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the registry of the ChangeLog of the change set, or null if deduplication is disabled
+     * or the change set does not belong to a ChangeLog.
+     */
+    public static DdmIndexRegistry getInstance(ChangeSet changeSet, Database database) {
+        if (!Boolean.TRUE.equals(DdmConfiguration.INDEX_DEDUPLICATION.getCurrentValue())
+            || changeSet == null || changeSet.getChangeLog() == null) {
+            return null;
+        }
+
+        DatabaseChangeLog rootChangeLog = changeSet.getChangeLog().getRootChangeLog();
+        synchronized (registries) {
+            SoftReference<DdmIndexRegistry> reference = registries.get(rootChangeLog);
+            DdmIndexRegistry registry = reference == null ? null : reference.get();
+            if (registry == null || registry.isStale(rootChangeLog, database)) {
+                registry = new DdmIndexRegistry(rootChangeLog, database);
+                registries.put(rootChangeLog, new SoftReference<>(registry));
+            }
+            return registry;
+        }
+    }
+
+    public static void invalidate(DatabaseChangeLog rootChangeLog) {
+        synchronized (registries) {
+            registries.remove(rootChangeLog);
+        }
+    }
+
+    /**
+     * Returns true if the ChangeSet already ran or is going to run, i.e. is not ignored and matches
+     * the contexts, labels and dbms of the run.
+     */
+    private static boolean isApplied(ChangeSet changeSet, Database database) {
+        if (DdmRanChangeSetsKeeper.hasRan(database, changeSet)) {
+            return true;
+        }
+        if (changeSet.isIgnore() || !new DbmsChangeSetFilter(database).accepts(changeSet).isAccepted()) {
+            return false;
+        }
+        ChangeLogParameters parameters = changeSet.getChangeLog().getChangeLogParameters();
+        return parameters == null
+            || new ContextChangeSetFilter(parameters.getContexts()).accepts(changeSet).isAccepted()
+            && new LabelChangeSetFilter(parameters.getLabels()).accepts(changeSet).isAccepted();
+    }
+
+    private static boolean isIndexing(Change change) {
+        if (change instanceof DdmCreateSearchConditionChange) {
+            DdmCreateSearchConditionChange searchCondition = (DdmCreateSearchConditionChange) change;
+            return Boolean.TRUE.equals(searchCondition.getIndexing()) || searchCondition.usesKeysetPagination();
+        }
+        if (change instanceof DdmCreateSimpleSearchConditionChange) {
+            return Boolean.TRUE.equals(((DdmCreateSimpleSearchConditionChange) change).getIndexing());
+        }
+        return false;
+    }
+
+    private static String getSearchConditionName(Change change) {
+        return change instanceof DdmCreateSearchConditionChange
+            ? ((DdmCreateSearchConditionChange) change).getName()
+            : ((DdmCreateSimpleSearchConditionChange) change).getName();
+    }
+
+    private void register(DdmStatelessChange change, Database database, Map<String, Owner> owners) {
+        // statements of search conditions are stateless, generating them ahead only resolves the
+        // column types from the ChangeLog, which the change does again when it runs
+        SqlStatement[] statements;
+        try {
+            statements = change.generateStatelessStatements(database);
+        } catch (RuntimeException e) {
+            // an invalid change is reported when it runs, its indexes are never skipped
+            return;
+        }
+        Map<String, String> changeSetIndexNames = indexNames.computeIfAbsent(change.getChangeSet(), key -> new HashMap<>());
+        for (SqlStatement statement : statements) {
+            List<DdmIndexPlanner.Index> indexes;
+            if (statement instanceof DdmCreateAbstractViewStatement) {
+                indexes = DdmCreateAbstractViewGenerator.planIndexes((DdmCreateAbstractViewStatement) statement);
+            } else if (statement instanceof DdmCreateSimpleSearchConditionStatement) {
+                indexes = DdmCreateSimpleSearchConditionGenerator.planIndexes((DdmCreateSimpleSearchConditionStatement) statement);
+            } else {
+                continue;
+            }
+            for (DdmIndexPlanner.Index index : indexes) {
+                Owner owner = owners.computeIfAbsent(index.getDefinition(),
+                    key -> new Owner(index.getName(), getSearchConditionName(change)));
+                changeSetIndexNames.putIfAbsent(index.getDefinition(), owner.indexName);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the equivalent index of an earlier search condition that the index of
+     * the ChangeSet is skipped for, or null if the index has to be created.
+     */
+    public String getEquivalentIndex(ChangeSet changeSet, DdmIndexPlanner.Index index) {
+        Map<String, String> changeSetIndexNames = indexNames.get(changeSet);
+        String indexName = changeSetIndexNames == null ? null : changeSetIndexNames.get(index.getDefinition());
+        return indexName == null || indexName.equals(index.getName()) ? null : indexName;
+    }
+
+    /**
+     * Returns true if an earlier search condition defines an equivalent index with another name.
+     * The skipped index is logged and recorded.
+     */
+    public boolean isRedundant(ChangeSet changeSet, DdmIndexPlanner.Index index) {
+        String indexName = getEquivalentIndex(changeSet, index);
+        if (indexName == null) {
+            return false;
+        }
+        if (skippedIndexes.put(index.getName(), indexName) == null) {
+            Scope.getCurrentScope().getLog(DdmIndexRegistry.class)
+                .info("Index " + index.getName() + " is skipped, equivalent index " + indexName + " exists");
+        }
+        return true;
+    }
+
+    /**
+     * Returns a warning for every index of the ChangeSet that is skipped for an equivalent index.
+     */
+    public Warnings warn(ChangeSet changeSet, List<DdmIndexPlanner.Index> indexes) {
+        Warnings warnings = new Warnings();
+        for (DdmIndexPlanner.Index index : indexes) {
+            String indexName = getEquivalentIndex(changeSet, index);
+            if (indexName != null) {
+                warnings.addWarning("Index " + index.getName() + " is not created, equivalent index "
+                    + indexName + " of an earlier search condition exists");
+            }
+        }
+        return warnings;
+    }
+
+    /**
+     * Returns the names of the skipped indexes mapped to the names of their equivalent indexes.
+     */
+    public Map<String, String> getSkippedIndexes() {
+        synchronized (skippedIndexes) {
+            return new LinkedHashMap<>(skippedIndexes);
+        }
+    }
+
+    private boolean isStale(DatabaseChangeLog rootChangeLog, Database database) {
+        return this.database.get() != database || rootChangeLog.getChangeSets().size() != changeSetCount;
+    }
+
+    private static class Owner {
+        private final String indexName;
+        private final String searchCondition;
+
+        Owner(String indexName, String searchCondition) {
+            this.indexName = indexName;
+            this.searchCondition = searchCondition;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
 
 import java.util.stream.Collectors;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmCatalogCache;
 import com.epam.digital.data.platform.liquibase.extension.DdmUtils;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmPartialUpdateStatement;
@@ -48,11 +49,14 @@ public class DdmPartialUpdateGenerator extends AbstractSqlGenerator<DdmPartialUp
 
     @Override
     public Sql[] generateSql(DdmPartialUpdateStatement statement, Database database, SqlGeneratorChain<DdmPartialUpdateStatement> sqlGeneratorChain) {
+        DdmCatalogCache catalogCache = DdmCatalogCache.getInstance(database, statement.getChangeSet());
         for (DdmTableConfig table : statement.getTables()) {
             Table snapshotTable = null;
+            Table example = new Table(null, table.getSchemaName(), table.getName());
 
             try {
-                snapshotTable = snapshotGeneratorFactory.createSnapshot(new Table(null, table.getSchemaName(), table.getName()), database);
+                snapshotTable = catalogCache != null && catalogCache.containsTable(statement.getChangeSet(), example)
+                    ? catalogCache.getTable(example) : snapshotGeneratorFactory.createSnapshot(example, database);
             } catch (DatabaseException | InvalidExampleException e) {
                 Scope.getCurrentScope().getLog(database.getClass()).info("Cannot create snapshotTable", e);
             }
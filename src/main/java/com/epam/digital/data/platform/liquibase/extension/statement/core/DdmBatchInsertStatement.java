@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.statement.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import liquibase.statement.AbstractSqlStatement;
+
+public class DdmBatchInsertStatement extends AbstractSqlStatement {
+
+    private final String tableName;
+    private final List<String> columnNames;
+    private final List<List<String>> rows = new ArrayList<>();
+    private final int chunkSize;
+
+    public DdmBatchInsertStatement(String tableName, int chunkSize, String... columnNames) {
+        this.tableName = tableName;
+        this.chunkSize = chunkSize;
+        this.columnNames = Collections.unmodifiableList(Arrays.asList(columnNames));
+    }
+
+    public void addRow(String... values) {
+        rows.add(Arrays.asList(values));
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public List<List<String>> getRows() {
+        return rows;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
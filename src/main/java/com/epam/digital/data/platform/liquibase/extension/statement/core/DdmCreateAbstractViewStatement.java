@@ -17,15 +17,19 @@
 package com.epam.digital.data.platform.liquibase.extension.statement.core;
 
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmConditionConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmCteConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import liquibase.changelog.ChangeSet;
 import liquibase.statement.AbstractSqlStatement;
 import liquibase.statement.CompoundStatement;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DdmCreateAbstractViewStatement extends AbstractSqlStatement implements CompoundStatement {
 
@@ -34,8 +38,18 @@ public class DdmCreateAbstractViewStatement extends AbstractSqlStatement impleme
     private List<DdmJoinConfig> joins;
     private String name;
     private Boolean indexing;
+    private Boolean concurrentIndexes;
+    private ChangeSet changeSet;
+    private Map<String, List<List<String>>> indexedColumns;
+    private String keysetTableName;
+    private List<DdmPair> keysetColumns;
+    private Boolean orderInView;
+    private Boolean materialized;
+    private List<String> uniqueKey;
+    private Boolean replacesMaterialized;
     private String limit;
     private List<DdmConditionConfig> conditions;
+    private DdmCteColumnResolver cteColumnResolver;
 
     public DdmCreateAbstractViewStatement(String name) {
         super();
@@ -43,6 +57,9 @@ public class DdmCreateAbstractViewStatement extends AbstractSqlStatement impleme
         this.ctes = new ArrayList<>();
         this.tables = new ArrayList<>();
         this.joins = new ArrayList<>();
+        this.indexedColumns = new HashMap<>();
+        this.keysetColumns = new ArrayList<>();
+        this.uniqueKey = new ArrayList<>();
     }
 
     public String getViewName() {
@@ -55,6 +72,18 @@ public class DdmCreateAbstractViewStatement extends AbstractSqlStatement impleme
 
     public void setCtes(List<DdmCteConfig> ctes) {
         this.ctes = ctes;
+        this.cteColumnResolver = null;
+    }
+
+    /**
+     * Returns the resolver of the CTE columns, built on first use and shared by the validation and
+     * the index planning of the statement.
+     */
+    public synchronized DdmCteColumnResolver getCteColumnResolver() {
+        if (cteColumnResolver == null) {
+            cteColumnResolver = new DdmCteColumnResolver(ctes);
+        }
+        return cteColumnResolver;
     }
 
     public List<DdmTableConfig> getTables() {
@@ -97,6 +126,93 @@ public class DdmCreateAbstractViewStatement extends AbstractSqlStatement impleme
         this.indexing = indexing;
     }
 
+    public Boolean getConcurrentIndexes() {
+        return concurrentIndexes;
+    }
+
+    public void setConcurrentIndexes(Boolean concurrentIndexes) {
+        this.concurrentIndexes = concurrentIndexes;
+    }
+
+    public ChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public void setChangeSet(ChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
+
+    /**
+     * Returns the column lists of the indexes known from the ChangeLog, by table name.
+     */
+    public Map<String, List<List<String>>> getIndexedColumns() {
+        return indexedColumns;
+    }
+
+    public void setIndexedColumns(Map<String, List<List<String>>> indexedColumns) {
+        this.indexedColumns = indexedColumns;
+    }
+
+    public String getKeysetTableName() {
+        return keysetTableName;
+    }
+
+    public void setKeysetTableName(String keysetTableName) {
+        this.keysetTableName = keysetTableName;
+    }
+
+    /**
+     * Returns the columns of the keyset pagination index of the view, paired with their sort
+     * direction.
+     */
+    public List<DdmPair> getKeysetColumns() {
+        return keysetColumns;
+    }
+
+    public void setKeysetColumns(List<DdmPair> keysetColumns) {
+        this.keysetColumns = keysetColumns;
+    }
+
+    public Boolean getOrderInView() {
+        return orderInView;
+    }
+
+    public void setOrderInView(Boolean orderInView) {
+        this.orderInView = orderInView;
+    }
+
+    public Boolean getMaterialized() {
+        return materialized;
+    }
+
+    public void setMaterialized(Boolean materialized) {
+        this.materialized = materialized;
+    }
+
+    /**
+     * Returns the columns of the materialized view that identify its rows, indexed by the unique
+     * index REFRESH MATERIALIZED VIEW CONCURRENTLY requires.
+     */
+    public List<String> getUniqueKey() {
+        return uniqueKey;
+    }
+
+    public void setUniqueKey(List<String> uniqueKey) {
+        this.uniqueKey = uniqueKey;
+    }
+
+    /**
+     * Returns true if the view of the statement may exist as a materialized view created by an
+     * earlier definition, which CREATE OR REPLACE VIEW cannot replace.
+     */
+    public Boolean getReplacesMaterialized() {
+        return replacesMaterialized;
+    }
+
+    public void setReplacesMaterialized(Boolean replacesMaterialized) {
+        this.replacesMaterialized = replacesMaterialized;
+    }
+
     public String getLimit() {
         return limit;
     }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+public class DdmCreateHistoryPartitionsStatement extends AbstractSqlStatement {
+    private final String tableName;
+    private final String partitioning;
+    private final int partitions;
+
+    public DdmCreateHistoryPartitionsStatement(String tableName, String partitioning, int partitions) {
+        this.tableName = tableName;
+        this.partitioning = partitioning;
+        this.partitions = partitions;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getPartitioning() {
+        return partitioning;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+}
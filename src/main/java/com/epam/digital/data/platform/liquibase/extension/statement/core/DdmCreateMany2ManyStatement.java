@@ -33,6 +33,11 @@ public class DdmCreateMany2ManyStatement extends AbstractSqlStatement implements
     private String referenceKeysArray;
     private List<DdmColumnConfig> mainTableColumns = new ArrayList<>();
     private List<DdmColumnConfig> referenceTableColumns = new ArrayList<>();
+    private Boolean concurrentIndexes;
+    private boolean tableStorage;
+    private boolean replacesTable;
+    private boolean statementIntegrityCheck;
+    private boolean replacesStatementIntegrityCheck;
 
 
     public DdmCreateMany2ManyStatement() {
@@ -107,4 +112,60 @@ public class DdmCreateMany2ManyStatement extends AbstractSqlStatement implements
     public void setReferenceColumnName(String referenceColumnName) {
         this.referenceColumnName = referenceColumnName;
     }
+
+    public Boolean getConcurrentIndexes() {
+        return concurrentIndexes;
+    }
+
+    public void setConcurrentIndexes(Boolean concurrentIndexes) {
+        this.concurrentIndexes = concurrentIndexes;
+    }
+
+    /**
+     * Returns true if the relation is kept in the junction table named after the relation, the view
+     * then reads the junction table instead of unnesting the reference keys array.
+     */
+    public boolean isTableStorage() {
+        return tableStorage;
+    }
+
+    public void setTableStorage(boolean tableStorage) {
+        this.tableStorage = tableStorage;
+    }
+
+    /**
+     * Returns true if an earlier definition of the relation may have left a junction table to
+     * remove.
+     */
+    public boolean isReplacesTable() {
+        return replacesTable;
+    }
+
+    public void setReplacesTable(boolean replacesTable) {
+        this.replacesTable = replacesTable;
+    }
+
+    /**
+     * Returns true if references to deleted or updated rows of the reference table are checked once
+     * per statement over its transition tables instead of once per row.
+     */
+    public boolean isStatementIntegrityCheck() {
+        return statementIntegrityCheck;
+    }
+
+    public void setStatementIntegrityCheck(boolean statementIntegrityCheck) {
+        this.statementIntegrityCheck = statementIntegrityCheck;
+    }
+
+    /**
+     * Returns true if an earlier definition of the relation may have left statement-level integrity
+     * triggers to remove.
+     */
+    public boolean isReplacesStatementIntegrityCheck() {
+        return replacesStatementIntegrityCheck;
+    }
+
+    public void setReplacesStatementIntegrityCheck(boolean replacesStatementIntegrityCheck) {
+        this.replacesStatementIntegrityCheck = replacesStatementIntegrityCheck;
+    }
 }
@@ -18,6 +18,7 @@ package com.epam.digital.data.platform.liquibase.extension.statement.core;
 
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import liquibase.changelog.ChangeSet;
 import liquibase.statement.AbstractSqlStatement;
 import liquibase.statement.CompoundStatement;
 
@@ -27,6 +28,8 @@ public class DdmCreateSimpleSearchConditionStatement extends AbstractSqlStatemen
     private DdmTableConfig table;
     private DdmColumnConfig searchColumn;
     private Boolean indexing;
+    private Boolean concurrentIndexes;
+    private ChangeSet changeSet;
     private String limit;
 
     public DdmCreateSimpleSearchConditionStatement(String name) {
@@ -58,6 +61,22 @@ public class DdmCreateSimpleSearchConditionStatement extends AbstractSqlStatemen
         this.indexing = indexing;
     }
 
+    public Boolean getConcurrentIndexes() {
+        return concurrentIndexes;
+    }
+
+    public void setConcurrentIndexes(Boolean concurrentIndexes) {
+        this.concurrentIndexes = concurrentIndexes;
+    }
+
+    public ChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public void setChangeSet(ChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
+
     public DdmColumnConfig getSearchColumn() {
         return searchColumn;
     }
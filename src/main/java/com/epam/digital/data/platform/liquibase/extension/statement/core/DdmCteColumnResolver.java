@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.statement.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmCteConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmFunctionConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves columns of CTEs to the columns of the tables they are selected from. The columns
+ * and function aliases of every CTE are indexed once, resolved pairs are memoized.
+ */
+public class DdmCteColumnResolver {
+    private final Map<String, Map<String, DdmPair>> cteColumns = new HashMap<>();
+    private final Map<DdmPair, DdmPair> resolved = new HashMap<>();
+
+    public DdmCteColumnResolver(List<DdmCteConfig> ctes) {
+        for (DdmCteConfig cte : ctes) {
+            if (cteColumns.containsKey(cte.getName())) {
+                throw new RuntimeException("CTE " + cte.getName() + " is defined more than once");
+            }
+            Map<String, DdmPair> columns = new HashMap<>();
+            for (DdmTableConfig cteTable : cte.getTables()) {
+                for (DdmColumnConfig cteColumn : cteTable.getColumns()) {
+                    columns.putIfAbsent(cteColumn.getAliasOrName().toLowerCase(),
+                        new DdmPair(cteTable.getName(), cteColumn.getName()));
+                }
+                for (DdmFunctionConfig cteFunction : cteTable.getFunctions()) {
+                    columns.putIfAbsent(cteFunction.getAlias().toLowerCase(),
+                        new DdmPair(cteTable.getName(), cteFunction.getColumnName()));
+                }
+            }
+            cteColumns.put(cte.getName(), columns);
+        }
+    }
+
+    public synchronized DdmPair resolve(String tableName, String columnName) {
+        DdmPair pair = new DdmPair(tableName, columnName);
+        if (!cteColumns.containsKey(tableName)) {
+            return pair;
+        }
+        DdmPair result = resolved.get(pair);
+        if (result != null) {
+            return result;
+        }
+
+        Set<DdmPair> path = new LinkedHashSet<>();
+        DdmPair current = pair;
+        while (cteColumns.containsKey(current.getKey())) {
+            DdmPair cached = resolved.get(current);
+            if (cached != null) {
+                current = cached;
+                break;
+            }
+            if (!path.add(current)) {
+                throw new RuntimeException("cyclic reference " + path.stream()
+                    .map(step -> step.getKey() + "." + step.getValue())
+                    .collect(Collectors.joining(" -> ")) + " -> " + current.getKey() + "." + current.getValue());
+            }
+            DdmPair next = cteColumns.get(current.getKey()).get(current.getValue().toLowerCase());
+            if (next == null) {
+                throw new RuntimeException(current.getValue() + " column was not found in the table " + current.getKey());
+            }
+            current = next;
+        }
+
+        for (DdmPair step : path) {
+            resolved.put(step, current);
+        }
+        return current;
+    }
+}
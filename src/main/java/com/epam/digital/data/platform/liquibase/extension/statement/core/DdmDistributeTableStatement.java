@@ -24,6 +24,8 @@ public class DdmDistributeTableStatement extends AbstractSqlStatement implements
     private final String distributionColumn;
     private String distributionType;
     private String colocateWith;
+    private Boolean concurrent;
+    private Integer shardCount;
 
     public DdmDistributeTableStatement(String tableName, String distributionColumn) {
         this.tableName = tableName;
@@ -53,4 +55,24 @@ public class DdmDistributeTableStatement extends AbstractSqlStatement implements
     public void setColocateWith(String colocateWith) {
         this.colocateWith = colocateWith;
     }
+
+    /**
+     * Returns true if the table is distributed by create_distributed_table_concurrently, which
+     * does not block writes while the local data is copied into shards.
+     */
+    public Boolean getConcurrent() {
+        return concurrent;
+    }
+
+    public void setConcurrent(Boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+    }
 }
@@ -20,11 +20,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import liquibase.changelog.ChangeSet;
 import liquibase.statement.AbstractSqlStatement;
 
 public class DdmPartialUpdateStatement extends AbstractSqlStatement {
     private List<DdmTableConfig> tables;
     private String name;
+    private ChangeSet changeSet;
 
     public DdmPartialUpdateStatement(String name) {
         this.tables = new ArrayList<>();
@@ -50,4 +52,12 @@ public class DdmPartialUpdateStatement extends AbstractSqlStatement {
     public void setTables(List<DdmTableConfig> tables) {
         this.tables = tables;
     }
+
+    public ChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public void setChangeSet(ChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
 }
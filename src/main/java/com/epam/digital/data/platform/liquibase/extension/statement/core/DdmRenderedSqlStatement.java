@@ -0,0 +1,36 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.statement.core;
+
+import liquibase.sql.Sql;
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * SQL a statement has already been rendered to, served as is, with the end delimiters and affected
+ * database objects of the rendered SQL.
+ */
+public class DdmRenderedSqlStatement extends AbstractSqlStatement {
+    private final Sql[] sqls;
+
+    public DdmRenderedSqlStatement(Sql[] sqls) {
+        this.sqls = sqls;
+    }
+
+    public Sql[] getSqls() {
+        return sqls;
+    }
+}
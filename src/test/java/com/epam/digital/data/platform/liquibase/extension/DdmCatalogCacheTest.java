@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmMakeObjectChange;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.core.RawSQLChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DdmCatalogCacheTest {
+
+    private RanDatabase database;
+    private Statement statement;
+    private DatabaseChangeLog changeLog;
+    private DdmMakeObjectChange makeObject;
+    private DdmAddColumnChange addColumn;
+    private DdmAddColumnChange historyAddColumn;
+
+    @BeforeEach
+    void setUp() throws SQLException, DatabaseException {
+        statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.contains("information_schema.columns")) {
+                return resultSet(Arrays.asList("table1", "column1"), Arrays.asList("table2", "column2"));
+            }
+            if (sql.contains("pg_tables")) {
+                return resultSet(Collections.singletonList("table1_hst__0"), Collections.singletonList("table1_hst__1"),
+                    Collections.singletonList("table12_hst__0"), Collections.singletonList("table2_hst__0"));
+            }
+            return resultSet();
+        });
+        JdbcConnection connection = mock(JdbcConnection.class);
+        when(connection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+
+        database = new RanDatabase();
+        database.setConnection(connection);
+
+        changeLog = new DatabaseChangeLog("path/changelog.xml");
+
+        makeObject = new DdmMakeObjectChange();
+        makeObject.addTable(new DdmTableConfig("table1"));
+        makeObject.addTable(new DdmTableConfig("table2"));
+        addChangeSet("id1").addChange(makeObject);
+
+        addColumn = addColumn("table1");
+        addChangeSet("id2").addChange(addColumn);
+
+        historyAddColumn = addColumn("table3");
+        historyAddColumn.setHistoryFlag(true);
+        addChangeSet("id3").addChange(historyAddColumn);
+    }
+
+    @Test
+    void shouldServeColumnsAndArchiveTablesFromFewQueries() throws SQLException {
+        DdmCatalogCache cache = DdmCatalogCache.getInstance(database, makeObject.getChangeSet());
+
+        assertTrue(cache.columnExists(makeObject, "table1", "column1"));
+        assertTrue(cache.columnExists(makeObject, "table2", "column2"));
+        assertFalse(cache.columnExists(makeObject, "table2", "column1"));
+        assertEquals(3, cache.countArchiveTables(makeObject, "table1__%"));
+        assertEquals(1, cache.countArchiveTables(makeObject, "table2__%"));
+        assertTrue(cache.archiveTableExists(makeObject, "table1_hst__1"));
+        assertFalse(cache.archiveTableExists(makeObject, "table1_hst__2"));
+
+        assertSame(cache, DdmCatalogCache.getInstance(database, addColumn.getChangeSet()));
+        verify(statement, times(2)).executeQuery(anyString());
+    }
+
+    @Test
+    void shouldNotServeTablesAlteredByEarlierChanges() {
+        DdmCatalogCache cache = DdmCatalogCache.getInstance(database, makeObject.getChangeSet());
+
+        assertNull(cache.columnExists(addColumn, "table1", "column1"));
+        assertNull(cache.columnExists(historyAddColumn, "table1", "column1"));
+        assertNull(cache.countArchiveTables(addColumn, "table1__%"));
+        assertNull(cache.archiveTableExists(historyAddColumn, "table1_hst__1"));
+    }
+
+    @Test
+    void shouldNotServeChangesThatFollowRawSql() {
+        ChangeSet changeSet = addChangeSet("id4");
+        changeSet.addChange(new RawSQLChange("select 1"));
+        DdmMakeObjectChange lateMakeObject = new DdmMakeObjectChange();
+        lateMakeObject.addTable(new DdmTableConfig("table2"));
+        changeSet.addChange(lateMakeObject);
+
+        DdmCatalogCache cache = DdmCatalogCache.getInstance(database, makeObject.getChangeSet());
+
+        assertTrue(cache.columnExists(makeObject, "table2", "column2"));
+        assertNull(cache.columnExists(lateMakeObject, "table2", "column2"));
+    }
+
+    @Test
+    void shouldSkipChangeSetsThatRan() throws SQLException {
+        database.ranChangeSets.add(new RanChangeSet(makeObject.getChangeSet()));
+
+        DdmCatalogCache cache = DdmCatalogCache.getInstance(database, addColumn.getChangeSet());
+
+        assertEquals(3, cache.countArchiveTables(addColumn, "table1__%"));
+        assertNull(cache.columnExists(addColumn, "table1", "column1"));
+        verify(statement, times(1)).executeQuery(anyString());
+    }
+
+    @Test
+    void shouldNotCacheWithoutJdbcConnection() {
+        assertNull(DdmCatalogCache.getInstance(new MockDatabase(), makeObject.getChangeSet()));
+    }
+
+    @Test
+    void shouldTranslateLikePatterns() {
+        assertTrue(DdmCatalogCache.toRegex("table__%").matcher("table_hst__0").matches());
+        assertTrue(DdmCatalogCache.toRegex("table\\_%").matcher("table_hst").matches());
+        assertFalse(DdmCatalogCache.toRegex("table\\_%").matcher("tablehst").matches());
+        assertFalse(DdmCatalogCache.toRegex("table__%").matcher("table1").matches());
+        assertTrue(DdmCatalogCache.toRegex("t.b%").matcher("t.ble").matches());
+        assertFalse(DdmCatalogCache.toRegex("t.b%").matcher("txble").matches());
+    }
+
+    private ChangeSet addChangeSet(String id) {
+        ChangeSet changeSet = new ChangeSet(id, "author", false, false, "path/changelog.xml", null, null, changeLog);
+        changeLog.addChangeSet(changeSet);
+        return changeSet;
+    }
+
+    private DdmAddColumnChange addColumn(String tableName) {
+        DdmAddColumnChange change = new DdmAddColumnChange();
+        change.setTableName(tableName);
+        AddColumnConfig column = new AddColumnConfig();
+        column.setName("column3");
+        column.setType("text");
+        change.addColumn(column);
+        return change;
+    }
+
+    @SafeVarargs
+    private static ResultSet resultSet(List<String>... rows) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] row = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++row[0] < rows.length);
+        when(resultSet.getString(anyInt())).thenAnswer(
+            invocation -> rows[row[0]].get((Integer) invocation.getArgument(0) - 1));
+        return resultSet;
+    }
+
+    private static class RanDatabase extends MockDatabase {
+
+        private final List<RanChangeSet> ranChangeSets = new ArrayList<>();
+
+        @Override
+        public List<RanChangeSet> getRanChangeSetList() {
+            return ranChangeSets;
+        }
+    }
+}
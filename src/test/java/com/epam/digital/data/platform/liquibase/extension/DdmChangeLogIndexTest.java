@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.AddUniqueConstraintChange;
+import liquibase.change.core.CreateIndexChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DdmChangeLogIndexTest {
+
+    private DatabaseChangeLog changeLog;
+    private ChangeSet changeSet1;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new DatabaseChangeLog("path");
+        changeSet1 = new ChangeSet("id1", "author", false, false, "path", null, null, changeLog);
+        changeLog.addChangeSet(changeSet1);
+    }
+
+    @Test
+    void shouldReturnChangesInChangeLogOrder() {
+        DdmCreateTableChange table2 = createTable("table2");
+        DdmCreateTableChange table1 = createTable("table1");
+        changeSet1.addChange(table2);
+        changeSet1.addChange(table1);
+
+        List<DdmCreateTableChange> changes =
+            DdmUtils.getCreateTableChangesFromChangeLog(changeSet1, Arrays.asList("table1", "table2"));
+
+        assertEquals(Arrays.asList(table2, table1), changes);
+        assertTrue(DdmUtils.tableExistsInChangeLog(changeSet1, "table1"));
+        assertFalse(DdmUtils.tableExistsInChangeLog(changeSet1, "table3"));
+    }
+
+    @Test
+    void shouldRebuildIndexWhenChangeSetIsAdded() {
+        changeSet1.addChange(createTable("table1"));
+        assertFalse(DdmUtils.tableExistsInChangeLog(changeSet1, "table2"));
+
+        ChangeSet changeSet2 = new ChangeSet("id2", "author", false, false, "path", null, null, changeLog);
+        changeSet2.addChange(createTable("table2"));
+        changeLog.addChangeSet(changeSet2);
+
+        assertTrue(DdmUtils.tableExistsInChangeLog(changeSet1, "table2"));
+    }
+
+    @Test
+    void shouldFindColumns() {
+        DdmCreateTableChange table = createTable("table1");
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column1");
+        table.addColumn(column);
+
+        DdmAddColumnChange addColumn = new DdmAddColumnChange();
+        addColumn.setTableName("table1");
+        AddColumnConfig addedColumn = new AddColumnConfig();
+        addedColumn.setName("column2");
+        addColumn.addColumn(addedColumn);
+
+        changeSet1.addChange(table);
+        changeSet1.addChange(addColumn);
+
+        assertSame(column, DdmUtils.getColumnFromChangeLog(changeSet1, "table1", "column1"));
+        assertSame(addedColumn, DdmUtils.getColumnFromChangeLog(changeSet1, "table1", "column2"));
+        assertNull(DdmUtils.getColumnFromChangeLog(changeSet1, "table1", "column3"));
+        assertEquals(Collections.singletonList(addColumn),
+            DdmUtils.getAddColumnChangesFromChangeLog(changeSet1, Collections.singletonList("table1")));
+    }
+
+    @Test
+    void shouldCollectIndexedColumns() {
+        DdmCreateTableChange table = createTable("table1");
+        table.setHistoryFlag(true);
+        table.addColumn(column("id", constraints -> constraints.setPrimaryKey(true)));
+        table.addColumn(column("code", constraints -> constraints.setUnique(true)));
+        table.addColumn(column("parent_id", constraints -> constraints.setReferencedTableName("table2")));
+        table.addColumn(column("name", null));
+
+        DdmCreateTableChange table2 = createTable("table2");
+        table2.addColumn(column("table1_id", constraints -> constraints.setReferencedTableName("table1")));
+
+        AddUniqueConstraintChange unique = new AddUniqueConstraintChange();
+        unique.setTableName("table2");
+        unique.setColumnNames("column1, column2");
+
+        CreateIndexChange index = new CreateIndexChange();
+        index.setTableName("table2");
+        AddColumnConfig indexColumn = new AddColumnConfig();
+        indexColumn.setName("column3");
+        index.addColumn(indexColumn);
+
+        changeSet1.addChange(table);
+        changeSet1.addChange(table2);
+        changeSet1.addChange(unique);
+        changeSet1.addChange(index);
+
+        assertEquals(Arrays.asList(Collections.singletonList("code"), Collections.singletonList("parent_id"),
+                Collections.singletonList("id")),
+            DdmUtils.getIndexedColumnsFromChangeLog(changeSet1, "table1"));
+        assertEquals(Arrays.asList(Arrays.asList("column1", "column2"), Collections.singletonList("column3")),
+            DdmUtils.getIndexedColumnsFromChangeLog(changeSet1, "table2"));
+        assertTrue(DdmUtils.getIndexedColumnsFromChangeLog(changeSet1, "table3").isEmpty());
+
+        assertEquals(Collections.singletonList("id"), DdmUtils.getPrimaryKeyFromChangeLog(changeSet1, "table1"));
+        assertTrue(DdmUtils.getPrimaryKeyFromChangeLog(changeSet1, "table2").isEmpty());
+    }
+
+    private DdmColumnConfig column(String name, Consumer<ConstraintsConfig> constraints) {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName(name);
+        if (constraints != null) {
+            column.setConstraints(new ConstraintsConfig());
+            constraints.accept(column.getConstraints());
+        }
+        return column;
+    }
+
+    private DdmCreateTableChange createTable(String name) {
+        DdmCreateTableChange change = new DdmCreateTableChange();
+        change.setTableName(name);
+        return change;
+    }
+}
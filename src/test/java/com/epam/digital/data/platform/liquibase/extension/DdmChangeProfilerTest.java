@@ -0,0 +1,220 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTypeChange;
+import com.epam.digital.data.platform.liquibase.extension.executor.DdmProfilingExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.executor.ExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DdmChangeProfilerTest {
+
+    private DdmChangeProfiler profiler;
+    private ChangeSet changeSet1;
+    private ChangeSet changeSet2;
+    private DdmAddColumnChange addColumn1;
+    private DdmAddColumnChange addColumn2;
+    private DdmCreateTypeChange createType;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeSet1 = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        changeSet2 = new ChangeSet("id,2", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        addColumn1 = new DdmAddColumnChange();
+        createType = new DdmCreateTypeChange();
+        changeSet1.addChange(addColumn1);
+        changeSet1.addChange(createType);
+        addColumn2 = new DdmAddColumnChange();
+        changeSet2.addChange(addColumn2);
+
+        profiler = new DdmChangeProfiler();
+        profiler.startValidation();
+        profiler.startChange(addColumn1, changeSet1);
+        profiler.addSql(new String[] {"alter table t add column c text", "insert into m values (1)"});
+        profiler.addExecute(3_000_000);
+        profiler.finishChange();
+        profiler.startChange(createType, changeSet1);
+        profiler.addSql(new String[] {"create type t"});
+        profiler.finishChange();
+        profiler.startChange(addColumn2, changeSet2);
+        profiler.addSql(new String[] {"alter table t add column d text"});
+        profiler.addExecute(5_000_000);
+        profiler.finishChange();
+        profiler.addSql(new String[] {"insert into databasechangelog values (1)"});
+        profiler.addExecute(7_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    @DisplayName("Statements and time are attributed to the running change")
+    void shouldProfileChanges() {
+        List<DdmChangeProfiler.ChangeProfile> profiles = profiler.getChangeProfiles();
+
+        assertEquals(3, profiles.size());
+        DdmChangeProfiler.ChangeProfile profile = profiles.get(0);
+        assertEquals("path/changelog.xml::id1::author", profile.getChangeSet());
+        assertEquals("addColumn", profile.getChangeType());
+        assertNull(profile.getValidateNanos());
+        assertEquals(3_000_000, profile.getExecuteNanos());
+        assertTrue(profile.getGenerateNanos() >= 0);
+        assertEquals(2, profile.getStatements());
+        assertEquals("alter table t add column c text".length() + "insert into m values (1)".length(),
+            profile.getSqlSize());
+        assertEquals("createType", profiles.get(1).getChangeType());
+        assertEquals(0, profiles.get(1).getExecuteNanos());
+    }
+
+    @Test
+    @DisplayName("Change types are totalled, the most expensive first")
+    void shouldTotalChangeTypes() {
+        List<DdmChangeProfiler.ChangeProfile> changeTypes = profiler.getChangeTypeProfiles();
+
+        assertEquals(Arrays.asList("addColumn", "createType"),
+            changeTypes.stream().map(DdmChangeProfiler.ChangeProfile::getChangeType).collect(Collectors.toList()));
+        assertEquals(2, changeTypes.get(0).getChanges());
+        assertEquals(8_000_000, changeTypes.get(0).getExecuteNanos());
+        assertEquals(3, changeTypes.get(0).getStatements());
+    }
+
+    @Test
+    @DisplayName("Change sets are totalled")
+    void shouldTotalChangeSet() {
+        DdmChangeProfiler.ChangeProfile changeSetProfile = profiler.getChangeSetProfile(changeSet1);
+
+        assertEquals("path/changelog.xml::id1::author", changeSetProfile.getChangeSet());
+        assertEquals(2, changeSetProfile.getChanges());
+        assertEquals(3, changeSetProfile.getStatements());
+        assertNull(profiler.getChangeSetProfile(new ChangeSet("id3", "author", false, false, "path", null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Run is totalled with the validation time")
+    void shouldTotalRun() {
+        DdmChangeProfiler.ChangeProfile runProfile = profiler.getRunProfile();
+
+        assertNull(runProfile.getChangeSet());
+        assertNull(runProfile.getChangeType());
+        assertEquals(3, runProfile.getChanges());
+        assertEquals(8_000_000, runProfile.getExecuteNanos());
+        assertEquals(4, runProfile.getStatements());
+        assertNotNull(runProfile.getValidateNanos());
+    }
+
+    @Test
+    @DisplayName("Validation is timed until the first change starts")
+    void shouldTimeValidation() {
+        DdmChangeProfiler runProfiler = new DdmChangeProfiler();
+        assertTrue(runProfiler.isEmpty());
+
+        runProfiler.startValidation();
+        runProfiler.startValidation();
+        runProfiler.finishValidation();
+        long validateNanos = runProfiler.getRunProfile().getValidateNanos();
+        runProfiler.finishValidation();
+        runProfiler.startChange(addColumn1, changeSet1);
+
+        assertTrue(validateNanos >= 0);
+        assertEquals(validateNanos, runProfiler.getRunProfile().getValidateNanos());
+        assertFalse(runProfiler.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reset drops the figures of the run")
+    void shouldReset() {
+        profiler.reset();
+
+        assertTrue(profiler.isEmpty());
+        assertTrue(profiler.getChangeProfiles().isEmpty());
+        assertEquals(0, profiler.getRunProfile().getValidateNanos());
+        assertNull(profiler.getChangeSetProfile(changeSet1));
+
+        profiler.addSql(new String[] {"insert into databasechangelog values (2)"});
+        assertTrue(profiler.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Report is written as JSON or CSV")
+    void shouldWriteReport(@TempDir Path directory) throws Exception {
+        Path json = directory.resolve("profile.json");
+        Path csv = directory.resolve("profile.csv");
+
+        profiler.writeReport(json.toString());
+        profiler.writeReport(csv.toString());
+
+        JsonNode report = new ObjectMapper().readTree(json.toFile());
+        assertEquals("addColumn", report.get("changeTypes").get(0).get("changeType").asText());
+        assertEquals(3.0, report.get("changes").get(0).get("executeMs").asDouble());
+        assertEquals(3, report.get("changes").size());
+        assertEquals(3, report.get("run").get("changes").asInt());
+        assertTrue(report.get("run").has("validateMs"));
+        assertFalse(report.get("changes").get(0).has("validateMs"));
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals("level,changeSet,changeType,changes,validateMs,generateMs,executeMs,statements,sqlSize",
+            lines.get(0));
+        assertEquals(7, lines.size());
+        assertTrue(lines.get(1).startsWith("run,,,3,"));
+        assertTrue(lines.get(2).startsWith("changeType,,addColumn,2,,"));
+        assertTrue(lines.get(6).startsWith("change,\"path/changelog.xml::id,2::author\",addColumn,1,,"));
+    }
+
+    @Test
+    @DisplayName("Profiler of the run is kept by the profiling executor")
+    void shouldGetProfilerOfRun() throws Exception {
+        MockDatabase database = new MockDatabase();
+
+        assertNull(DdmChangeProfiler.getInstance(database));
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.PROFILING.getKey(), true), () -> {
+            DdmChangeProfiler runProfiler = DdmChangeProfiler.getInstance(database);
+            assertNotNull(runProfiler);
+            assertSame(runProfiler, ((DdmProfilingExecutor) Scope.getCurrentScope()
+                .getSingleton(ExecutorService.class).getExecutor("jdbc", database)).getProfiler());
+            assertSame(runProfiler, DdmChangeProfiler.getInstance(database));
+        });
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDistributeTableChange;
+import java.util.Collections;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import org.junit.jupiter.api.Test;
+
+class DdmDistributionChangesTest {
+
+    @Test
+    void shouldShareDeclaredTablesBetweenDeclarations() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        ChangeSet changeSet = new ChangeSet("id1", "author", false, false, "path", null, null, changeLog);
+        changeLog.addChangeSet(changeSet);
+        DdmCreateTableChange createTable = new DdmCreateTableChange();
+        createTable.setTableName("table1");
+        DdmCreateSearchConditionChange searchCondition1 = new DdmCreateSearchConditionChange("sc1");
+        DdmDistributeTableChange distributeChange = new DdmDistributeTableChange();
+        distributeChange.setTableName("table1");
+        distributeChange.setDistributionColumn("id");
+        DdmCreateSearchConditionChange searchCondition2 = new DdmCreateSearchConditionChange("sc2");
+        DdmCreateSearchConditionChange searchCondition3 = new DdmCreateSearchConditionChange("sc3");
+        changeSet.addChange(createTable);
+        changeSet.addChange(searchCondition1);
+        changeSet.addChange(distributeChange);
+        changeSet.addChange(searchCondition2);
+        changeSet.addChange(searchCondition3);
+
+        DdmDistributionChanges distributionChanges = DdmDistributionChanges.getInstance(changeLog);
+
+        assertTrue(distributionChanges.hasDistribution());
+        assertTrue(distributionChanges.getDeclaredTables(searchCondition1).isEmpty());
+        assertEquals(Collections.singleton("table1"), distributionChanges.getDeclaredTables(searchCondition2).keySet());
+        assertSame(distributionChanges.getDeclaredTables(searchCondition2),
+            distributionChanges.getDeclaredTables(searchCondition3));
+        assertTrue(distributionChanges.getDistributionPlanner(searchCondition1).getDeclaredTables().isEmpty());
+        assertEquals(1, distributionChanges.getDistributionPlanner(searchCondition3).plan().size());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateMany2ManyChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDistributeTableChange;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmDistributionPlannerTest {
+
+    private DdmDistributionPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new DdmDistributionPlanner();
+        planner.addChange(createTable("country", "code"));
+        planner.addChange(createTable("company", "id", "country_code:country(code)"));
+        planner.addChange(createTable("customer", "company_id,id", "company_id:company(id)"));
+        planner.addChange(createTable("tag", "id"));
+        planner.addChange(createTable("orders", "company_id,id", "company_id:company(id)"));
+
+        DdmCreateMany2ManyChange m2mChange = new DdmCreateMany2ManyChange();
+        m2mChange.setMainTableName("orders");
+        m2mChange.setReferenceTableName("tag");
+        m2mChange.setReferenceKeysArray("tag_ids");
+        planner.addChange(m2mChange);
+    }
+
+    @Test
+    @DisplayName("Lookup and many to many reference tables, tables co-located by foreign keys")
+    void shouldPlanFromForeignKeys() {
+        List<DdmDistributionPlanner.Table> plan = planner.plan();
+
+        assertEquals(Arrays.asList(
+            "country: reference table (lookup table)",
+            "tag: reference table (referenced by the keys array of many to many relation with orders)",
+            "company: distributed by id (primary key)",
+            "customer: distributed by company_id, co-located with company (foreign key company_id to company)",
+            "orders: distributed by company_id, co-located with company (foreign key company_id to company)"),
+            plan.stream().map(DdmDistributionPlanner.Table::toString).collect(Collectors.toList()));
+        assertEquals(Collections.emptyList(), planner.getWarnings(plan));
+    }
+
+    @Test
+    @DisplayName("Tenant is not a lookup table")
+    void shouldKeepTenantDistributed() {
+        DdmDistributionPlanner.Table company = planner.plan().stream()
+            .filter(table -> table.getTableName().equals("company")).findFirst().orElse(null);
+
+        assertEquals("id", company.getDistributionColumn());
+        assertEquals(null, company.getColocateWith());
+    }
+
+    @Test
+    @DisplayName("Table referenced from another co-location group becomes a reference table")
+    void shouldMakeReferenceTable() {
+        planner.addChange(createTable("status", "id", "country_code:country(code)"));
+        planner.addChange(createTable("invoice", "company_id,id", "company_id:company(id)", "status_id:status(id)"));
+
+        List<DdmDistributionPlanner.Table> plan = planner.plan();
+
+        assertEquals("status: reference table (referenced by invoice from another co-location group)",
+            plan.stream().filter(table -> table.getTableName().equals("status")).findFirst().get().toString());
+        assertEquals("invoice: distributed by company_id, co-located with company (foreign key company_id to company)",
+            plan.stream().filter(table -> table.getTableName().equals("invoice")).findFirst().get().toString());
+        assertEquals(Collections.emptyList(), planner.getWarnings(plan));
+    }
+
+    @Test
+    @DisplayName("Foreign key by a column out of the primary key does not co-locate the table")
+    void shouldDistributeByPrimaryKeyWithoutPrimaryKeyForeignKey() {
+        planner.addChange(createTable("payment", "id", "company_id:company(id)"));
+
+        List<DdmDistributionPlanner.Table> plan = planner.plan();
+
+        assertEquals("payment: distributed by id (primary key)",
+            plan.stream().filter(table -> table.getTableName().equals("payment")).findFirst().get().toString());
+        assertEquals(Collections.singletonList("Foreign key payment.company_id to company is not co-located"),
+            planner.getWarnings(plan));
+    }
+
+    @Test
+    @DisplayName("Declared distribution is kept")
+    void shouldKeepDeclaredDistribution() {
+        planner.addChange(distributeTable("company", "country_code", null));
+
+        List<DdmDistributionPlanner.Table> plan = planner.plan();
+
+        assertEquals("company: distributed by country_code (declared by distributeTable)",
+            plan.stream().filter(table -> table.getTableName().equals("company")).findFirst().get().toString());
+        assertEquals(Arrays.asList(
+            "Foreign key customer.company_id to company is not co-located",
+            "Foreign key orders.company_id to company is not co-located"), planner.getWarnings(plan));
+    }
+
+    @Test
+    @DisplayName("Tables distributed by the same column type and shard count are co-located by default")
+    void shouldColocateByDefault() {
+        planner.addChange(distributeTable("orders", "company_id", null));
+        planner.addChange(distributeTable("customer", "company_id", null));
+        planner.addChange(searchCondition("sc_default", "company_id", "company_id"));
+
+        assertEquals(Collections.emptyList(), planner.getWarnings(planner.plan()));
+
+        DdmDistributeTableChange customer = distributeTable("customer", "company_id", null);
+        customer.setShardCount(16);
+        planner.addChange(customer);
+
+        assertEquals(Collections.singletonList(
+            "Join of orders and customer in sc_default is not on the distribution columns of co-located tables"),
+            planner.getWarnings(planner.plan()));
+    }
+
+    @Test
+    @DisplayName("Joins of search conditions that are not co-located are reported")
+    void shouldReportJoins() {
+        planner.addChange(searchCondition("sc_colocated", "company_id", "company_id"));
+        planner.addChange(searchCondition("sc_repartition", "company_id", "id"));
+
+        String report = planner.getReport();
+
+        assertTrue(report.startsWith("Distribution plan of 5 tables\n  country: reference table"));
+        assertTrue(report.endsWith("\nWarnings\n  Join of orders and customer in sc_repartition is not on the distribution columns of co-located tables"));
+    }
+
+    @Test
+    @DisplayName("Table without primary key is reported")
+    void shouldReportTableWithoutPrimaryKey() {
+        planner.addChange(createTable("log", ""));
+
+        assertEquals(Collections.singletonList("Table log has no primary key and is not planned"),
+            planner.getWarnings(planner.plan()));
+    }
+
+    private static DdmCreateTableChange createTable(String tableName, String primaryKey, String... foreignKeys) {
+        DdmCreateTableChange change = new DdmCreateTableChange();
+        change.setTableName(tableName);
+        for (String columnName : primaryKey.split(",")) {
+            if (!columnName.isEmpty()) {
+                ConstraintsConfig constraints = new ConstraintsConfig();
+                constraints.setPrimaryKey(true);
+                change.addColumn(column(columnName, constraints));
+            }
+        }
+        for (String foreignKey : foreignKeys) {
+            String[] parts = foreignKey.split(":");
+            ColumnConfig primaryKeyColumn = change.getColumns().stream()
+                .filter(column -> column.getName().equals(parts[0])).findFirst().orElse(null);
+            if (primaryKeyColumn != null) {
+                primaryKeyColumn.getConstraints().setReferences(parts[1]);
+            } else {
+                ConstraintsConfig constraints = new ConstraintsConfig();
+                constraints.setReferences(parts[1]);
+                change.addColumn(column(parts[0], constraints));
+            }
+        }
+        return change;
+    }
+
+    private static DdmDistributeTableChange distributeTable(String tableName, String distributionColumn, String colocateWith) {
+        DdmDistributeTableChange change = new DdmDistributeTableChange();
+        change.setTableName(tableName);
+        change.setDistributionColumn(distributionColumn);
+        change.setColocateWith(colocateWith);
+        return change;
+    }
+
+    private static DdmColumnConfig column(String name, ConstraintsConfig constraints) {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName(name);
+        column.setType("uuid");
+        column.setConstraints(constraints);
+        return column;
+    }
+
+    private static DdmCreateSearchConditionChange searchCondition(String name, String leftColumn, String rightColumn) {
+        DdmCreateSearchConditionChange change = new DdmCreateSearchConditionChange(name);
+        DdmTableConfig orders = new DdmTableConfig("orders");
+        orders.setAlias("o");
+        change.addTable(orders);
+        DdmTableConfig customer = new DdmTableConfig("customer");
+        customer.setAlias("c");
+        change.addTable(customer);
+        DdmJoinConfig join = new DdmJoinConfig();
+        join.setType("inner");
+        join.setLeftAlias("o");
+        join.addLeftColumn(leftColumn);
+        join.setRightAlias("c");
+        join.addRightColumn(rightColumn);
+        change.addJoin(join);
+        return change;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateMany2ManyChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import org.junit.jupiter.api.Test;
+
+class DdmMany2ManyRelationsTest {
+
+    @Test
+    void shouldFindRelationsOfChangeLog() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        ChangeSet changeSet = new ChangeSet("id1", "author", false, false, "path", null, null, changeLog);
+        changeLog.addChangeSet(changeSet);
+        DdmCreateMany2ManyChange m2m1 = createMany2Many("table1", "column1", DdmConstants.M2M_STORAGE_TABLE, null);
+        DdmCreateMany2ManyChange m2m2 = createMany2Many("table1", "column1", null, DdmConstants.M2M_INTEGRITY_CHECK_STATEMENT);
+        DdmCreateMany2ManyChange m2m3 = createMany2Many("table2", "column2", null, null);
+        changeSet.addChange(m2m1);
+        changeSet.addChange(m2m2);
+        changeSet.addChange(m2m3);
+
+        assertSame(m2m1, DdmUtils.getM2mChangeFromChangelogForNestedRead(changeSet, "table1", "column1"));
+        assertNull(DdmUtils.getM2mChangeFromChangelogForNestedRead(changeSet, "table1", "column2"));
+        assertTrue(DdmUtils.hasTableStorageInChangeLog(changeSet, m2m1.getRelationName()));
+        assertTrue(DdmUtils.hasStatementIntegrityCheckInChangeLog(changeSet, m2m1.getRelationName()));
+        assertFalse(DdmUtils.hasTableStorageInChangeLog(changeSet, m2m3.getRelationName()));
+        assertFalse(DdmUtils.hasStatementIntegrityCheckInChangeLog(changeSet, m2m3.getRelationName()));
+    }
+
+    private DdmCreateMany2ManyChange createMany2Many(String mainTableName, String referenceKeysArray, String storage,
+        String integrityCheck) {
+        DdmCreateMany2ManyChange change = new DdmCreateMany2ManyChange();
+        change.setMainTableName(mainTableName);
+        change.setReferenceTableName(mainTableName + "_ref");
+        change.setReferenceKeysArray(referenceKeysArray);
+        change.setStorage(storage);
+        change.setIntegrityCheck(integrityCheck);
+        return change;
+    }
+}
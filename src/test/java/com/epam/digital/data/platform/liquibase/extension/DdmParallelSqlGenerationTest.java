@@ -0,0 +1,248 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmLabelConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTypeConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTypeChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmStatelessChange;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmRenderedSqlStatement;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import liquibase.Scope;
+import liquibase.change.AbstractChange;
+import liquibase.change.Change;
+import liquibase.change.ConstraintsConfig;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.Database;
+import liquibase.database.core.MockDatabase;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateProcedureStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmParallelSqlGenerationTest {
+
+    private RanDatabase database;
+    private ChangeSet ranChangeSet;
+    private DdmCreateTypeChange ranChange;
+    private ProcedureChange procedure;
+    private List<Change> changes;
+
+    @BeforeEach
+    void setUp() {
+        database = new RanDatabase();
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeLog.setChangeLogParameters(new ChangeLogParameters());
+
+        ranChangeSet = new ChangeSet("id0", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        ranChange = createType("ran_type");
+        ranChangeSet.addChange(ranChange);
+        changeLog.addChangeSet(ranChangeSet);
+
+        ChangeSet tableChangeSet = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        DdmCreateTableChange table = new DdmCreateTableChange();
+        table.setTableName("table1");
+        DdmColumnConfig id = new DdmColumnConfig();
+        id.setName("id");
+        id.setType("uuid");
+        ConstraintsConfig constraints = new ConstraintsConfig();
+        constraints.setPrimaryKey(true);
+        id.setConstraints(constraints);
+        table.addColumn(id);
+        tableChangeSet.addChange(table);
+        tableChangeSet.addChange(createType("type1"));
+        changeLog.addChangeSet(tableChangeSet);
+
+        ChangeSet searchConditionChangeSet = new ChangeSet("id2", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        DdmCreateSearchConditionChange searchCondition = new DdmCreateSearchConditionChange("sc1");
+        DdmTableConfig scTable = new DdmTableConfig("table1");
+        scTable.setAlias("t1");
+        DdmColumnConfig scColumn = new DdmColumnConfig();
+        scColumn.setName("id");
+        scColumn.setReturning(true);
+        scTable.addColumn(scColumn);
+        searchCondition.addTable(scTable);
+        searchConditionChangeSet.addChange(searchCondition);
+        changeLog.addChangeSet(searchConditionChangeSet);
+
+        ChangeSet procedureChangeSet = new ChangeSet("id3", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        procedure = new ProcedureChange();
+        procedureChangeSet.addChange(procedure);
+        changeLog.addChangeSet(procedureChangeSet);
+
+        changes = Arrays.asList(table, tableChangeSet.getChanges().get(1), searchCondition, procedure);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    @DisplayName("Parallel generation is disabled by default")
+    void shouldGenerateStatementsWhenDisabled() {
+        setLoggingExecutor();
+
+        for (Change change : changes) {
+            assertFalse(Arrays.stream(change.generateStatements(database))
+                .allMatch(statement -> statement instanceof DdmRenderedSqlStatement));
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel generation renders the same SQL as sequential generation")
+    void shouldRenderTheSameSql() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (Change change : changes) {
+            expected.addAll(render(change.generateStatements(database)));
+        }
+
+        setLoggingExecutor();
+        List<String> actual = new ArrayList<>();
+        Scope.child(Collections.singletonMap(DdmConfiguration.PARALLEL_GENERATION.getKey(), true), () -> {
+            for (Change change : changes) {
+                SqlStatement[] statements = change.generateStatements(database);
+                assertTrue(Arrays.stream(statements).allMatch(statement -> statement instanceof DdmRenderedSqlStatement));
+                actual.addAll(render(statements));
+            }
+        });
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Parallel generation applies only to SQL output")
+    void shouldGenerateStatementsWhenExecuting() throws Exception {
+        Scope.child(Collections.singletonMap(DdmConfiguration.PARALLEL_GENERATION.getKey(), true), () -> {
+            for (Change change : changes) {
+                assertFalse(Arrays.stream(change.generateStatements(database))
+                    .allMatch(statement -> statement instanceof DdmRenderedSqlStatement));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Change sets that already ran are not generated ahead")
+    void shouldSkipChangeSetsThatRan() throws Exception {
+        database.ranChangeSets.add(new RanChangeSet(ranChangeSet));
+
+        setLoggingExecutor();
+        Scope.child(Collections.singletonMap(DdmConfiguration.PARALLEL_GENERATION.getKey(), true), () -> {
+            assertTrue(Arrays.stream(changes.get(1).generateStatements(database))
+                .allMatch(statement -> statement instanceof DdmRenderedSqlStatement));
+            assertFalse(Arrays.stream(ranChange.generateStatements(database))
+                .allMatch(statement -> statement instanceof DdmRenderedSqlStatement));
+        });
+    }
+
+    @Test
+    @DisplayName("Parallel generation keeps the end delimiter and affected objects of the SQL")
+    void shouldKeepEndDelimiterAndAffectedObjects() throws Exception {
+        Sql[] expected = SqlGeneratorFactory.getInstance().generateSql(procedure.generateStatements(database), database);
+
+        setLoggingExecutor();
+        Scope.child(Collections.singletonMap(DdmConfiguration.PARALLEL_GENERATION.getKey(), true), () -> {
+            Sql[] actual = SqlGeneratorFactory.getInstance().generateSql(procedure.generateStatements(database), database);
+
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals("\n/", actual[i].getEndDelimiter());
+                assertEquals(expected[i].toSql(), actual[i].toSql());
+                assertEquals(expected[i].getEndDelimiter(), actual[i].getEndDelimiter());
+                assertEquals(expected[i].getAffectedDatabaseObjects().toString(),
+                    actual[i].getAffectedDatabaseObjects().toString());
+            }
+        });
+    }
+
+    private void setLoggingExecutor() {
+        Scope.getCurrentScope().getSingleton(ExecutorService.class)
+            .setExecutor("jdbc", database, new LoggingExecutor(null, new StringWriter(), database));
+    }
+
+    private List<String> render(SqlStatement[] statements) {
+        List<String> result = new ArrayList<>();
+        for (SqlStatement statement : statements) {
+            for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, database)) {
+                result.add(sql.toSql());
+            }
+        }
+        return result;
+    }
+
+    private DdmCreateTypeChange createType(String name) {
+        DdmCreateTypeChange change = new DdmCreateTypeChange();
+        change.setName(name);
+        DdmTypeConfig asEnum = new DdmTypeConfig();
+        DdmLabelConfig label = new DdmLabelConfig();
+        label.setLabel("label1");
+        label.setTranslation("translation1");
+        asEnum.setLabels(Collections.singletonList(label));
+        change.setAsEnum(asEnum);
+        return change;
+    }
+
+    private static class RanDatabase extends MockDatabase {
+
+        private final List<RanChangeSet> ranChangeSets = new ArrayList<>();
+
+        @Override
+        public List<RanChangeSet> getRanChangeSetList() {
+            return ranChangeSets;
+        }
+    }
+
+    private static class ProcedureChange extends AbstractChange implements DdmStatelessChange {
+
+        @Override
+        public SqlStatement[] generateStatements(Database database) {
+            return DdmParallelSqlGeneration.generateStatements(this, database);
+        }
+
+        @Override
+        public SqlStatement[] generateStatelessStatements(Database database) {
+            return new SqlStatement[]{new CreateProcedureStatement(null, null, "proc1",
+                "CREATE FUNCTION proc1() RETURNS void AS $$ BEGIN END; $$ LANGUAGE plpgsql", "\n/")};
+        }
+
+        @Override
+        public String getConfirmationMessage() {
+            return "Procedure created";
+        }
+    }
+}
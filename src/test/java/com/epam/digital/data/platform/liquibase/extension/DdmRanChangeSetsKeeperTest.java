@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.core.MockDatabase;
+import liquibase.logging.core.BufferedLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DdmRanChangeSetsKeeperTest {
+
+    private ChangeSet changeSet1;
+    private DdmAddColumnChange change;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeSet1 = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        changeSet1.addChange(addColumn());
+        ChangeSet changeSet2 = new ChangeSet("id2", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        change = addColumn();
+        changeSet2.addChange(change);
+        changeLog.addChangeSet(changeSet1);
+        changeLog.addChangeSet(changeSet2);
+    }
+
+    @Test
+    void shouldSkipChangeSetsThatAlreadyRanRegardlessOfCaseAndPathFormat() {
+        RanDatabase database = new RanDatabase();
+        database.ranChangeSets.add(new RanChangeSet(
+            new ChangeSet("ID1", "Author", false, false, "classpath:path\\changelog.xml", null, null, null)));
+
+        assertTrue(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+    }
+
+    @Test
+    void shouldKeepRanChangeSetsPerDatabaseUntilInvalidated() {
+        RanDatabase database = new RanDatabase();
+        RanDatabase otherDatabase = new RanDatabase();
+        otherDatabase.ranChangeSets.add(new RanChangeSet(changeSet1));
+
+        assertFalse(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+        assertTrue(DdmRanChangeSetsKeeper.isChangeFirst(otherDatabase, change));
+
+        database.ranChangeSets.add(new RanChangeSet(changeSet1));
+        assertFalse(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+
+        DdmRanChangeSetsKeeper.invalidate(database);
+        assertTrue(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+    }
+
+    @Test
+    void shouldTreatOnlyTheFirstChangeOfTableAsFirst() {
+        RanDatabase database = new RanDatabase();
+        DdmAddColumnChange otherTableChange = addColumn();
+        otherTableChange.setTableName("other_table");
+        change.getChangeSet().addChange(otherTableChange);
+
+        assertTrue(DdmRanChangeSetsKeeper.isChangeFirst(database, (DdmAddColumnChange) changeSet1.getChanges().get(0)));
+        assertFalse(DdmRanChangeSetsKeeper.isChangeFirst(database, change));
+        assertTrue(DdmRanChangeSetsKeeper.isChangeFirst(database, otherTableChange));
+    }
+
+    @Test
+    void shouldSkipValidationOfChangeSetsThatRanAndCountIt() throws Exception {
+        RanDatabase database = new RanDatabase();
+        database.ranChangeSets.add(new RanChangeSet(changeSet1));
+        DdmAddColumnChange ranChange = (DdmAddColumnChange) changeSet1.getChanges().get(0);
+
+        assertTrue(DdmRanChangeSetsKeeper.shouldSkipValidation(database, ranChange));
+        assertFalse(DdmRanChangeSetsKeeper.shouldSkipValidation(database, change));
+        assertFalse(DdmRanChangeSetsKeeper.shouldSkipValidation(database, addColumn()));
+        assertTrue(DdmRanChangeSetsKeeper.shouldSkipValidation(database, ranChange));
+        assertEquals(2, DdmRanChangeSetsKeeper.getSkippedValidationCount(database));
+
+        BufferedLogService logService = new BufferedLogService();
+        Scope.child(Scope.Attr.logService.name(), logService, () -> DdmRanChangeSetsKeeper.invalidate(database));
+        assertEquals(0, DdmRanChangeSetsKeeper.getSkippedValidationCount(database));
+        assertTrue(logService.getLogAsString(Level.INFO)
+            .contains("Skipped database validation of 2 changes of executed change sets"));
+    }
+
+    private DdmAddColumnChange addColumn() {
+        DdmAddColumnChange addColumn = new DdmAddColumnChange();
+        addColumn.setTableName("table");
+        return addColumn;
+    }
+
+    private static class RanDatabase extends MockDatabase {
+
+        private final List<RanChangeSet> ranChangeSets = new ArrayList<>();
+
+        @Override
+        public List<RanChangeSet> getRanChangeSetList() {
+            return ranChangeSets;
+        }
+    }
+}
@@ -20,11 +20,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
 import com.epam.digital.data.platform.liquibase.extension.DdmMockSnapshotGeneratorFactory;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmAddColumnConfig;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -37,9 +42,11 @@ import liquibase.change.ConstraintsConfig;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
 import liquibase.database.core.MockDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.statement.NotNullConstraint;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.AddColumnStatement;
 import liquibase.statement.core.CreateTableStatement;
@@ -50,6 +57,8 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Index;
 import liquibase.structure.core.Table;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -62,6 +71,17 @@ class DdmAddColumnChangeTest {
     private ChangeSet changeSet1;
     private ChangeSet changeSet2;
         
+    @BeforeAll
+    static void disableCatalogCache() {
+        // JDBC mocks below answer the per-object catalog probes
+        System.setProperty(DdmConfiguration.CATALOG_CACHE.getKey(), "false");
+    }
+
+    @AfterAll
+    static void enableCatalogCache() {
+        System.clearProperty(DdmConfiguration.CATALOG_CACHE.getKey());
+    }
+
     @BeforeEach
     void setUp() {
         changeLog = new DatabaseChangeLog("path");
@@ -243,6 +263,30 @@ class DdmAddColumnChangeTest {
             assertEquals(0, errorMessages.size());
         }
 
+        @Test
+        void skipDatabaseValidationWhenChangeSetAlreadyRan() throws SQLException, DatabaseException {
+            // given
+            changeLog.addChangeSet(changeSet1);
+            changeSet1.addChange(snapshotChange);
+            snapshotChange.addColumn(mockColumn());
+            JdbcConnection connection = mockJdbcConnection("1.0.0");
+            MockDatabase database = new MockDatabase() {
+                @Override
+                public List<RanChangeSet> getRanChangeSetList() {
+                    return Collections.singletonList(new RanChangeSet(changeSet1));
+                }
+            };
+            database.setConnection(connection);
+
+            // when
+            List<String> errorMessages = snapshotChange.validate(database).getErrorMessages();
+
+            // then
+            assertEquals(0, errorMessages.size());
+            verify(connection, never()).createStatement(anyInt(), anyInt());
+            assertEquals(1, DdmRanChangeSetsKeeper.getSkippedValidationCount(database));
+        }
+
         @Test
         void moveHstTableToArchiveForTheFirstChangeAndAlterHstTablesForOtherChangesInTheSameChangeSet() throws SQLException, DatabaseException {
             // given
@@ -321,6 +365,74 @@ class DdmAddColumnChangeTest {
             // then
             checkRecreatingAndMovingToArchiveHstTable(statements);
         }
+
+        @Test
+        @DisplayName("Should alter hst table in place without archiving")
+        void alterHstTableInPlaceForTheFirstChange() throws SQLException, DatabaseException {
+            // given
+            changeLog.addChangeSet(changeSet1);
+            changeSet1.addChange(snapshotChange);
+            snapshotChange.setHistoryArchiving(DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE);
+            snapshotChange.addColumn(mockColumn());
+
+            // when
+            SqlStatement[] statements = snapshotChange.generateStatements(mockDatabaseWithVersion("1.0.0"));
+
+            // then
+            assertEquals(3, statements.length);
+            assertEquals("table", ((AddColumnStatement) statements[0]).getTableName());
+            assertEquals("table_hst", ((AddColumnStatement) statements[1]).getTableName());
+            assertEquals("insert into ddm_liquibase_metadata(change_type, change_name, attribute_name, attribute_value) "
+                    + "values ('historyColumn', 'table_hst', 'column', now()::text);\n\n",
+                ((RawSqlStatement) statements[2]).getSql());
+        }
+
+        @Test
+        @DisplayName("Should add not null column to in place hst table as nullable")
+        void addNotNullColumnToInPlaceHstTableAsNullable() throws SQLException, DatabaseException {
+            // given
+            changeLog.addChangeSet(changeSet1);
+            changeSet1.addChange(snapshotChange);
+            snapshotChange.setHistoryArchiving(DdmConstants.ATTRIBUTE_HISTORY_ARCHIVING_IN_PLACE);
+            snapshotChange.addColumn(mockColumn(new ConstraintsConfig().setNullable(false)));
+
+            // when
+            SqlStatement[] statements = snapshotChange.generateStatements(mockDatabaseWithVersion("1.0.0"));
+
+            // then
+            AddColumnStatement table = (AddColumnStatement) statements[0];
+            AddColumnStatement hstTable = (AddColumnStatement) statements[1];
+            assertEquals("table_hst", hstTable.getTableName());
+            assertTrue(table.getConstraints().stream().anyMatch(NotNullConstraint.class::isInstance));
+            assertTrue(hstTable.getConstraints().stream().noneMatch(NotNullConstraint.class::isInstance));
+        }
+    }
+
+    @Test
+    @DisplayName("Should alter partitioned hst table in place")
+    void alterPartitionedHstTableInPlace() throws SQLException, DatabaseException {
+        DdmCreateTableChange createTable = new DdmCreateTableChange();
+        createTable.setTableName("table");
+        createTable.setHistoryPartitioning(DdmConstants.PARTITIONING_MONTH);
+        changeLog.addChangeSet(changeSet1);
+        changeSet1.addChange(createTable);
+        changeSet1.addChange(snapshotChange);
+        snapshotChange.addColumn(mockColumn());
+
+        SqlStatement[] statements = snapshotChange.generateStatements(mockDatabaseWithVersion("1.0.0"));
+
+        assertEquals(3, statements.length);
+        assertEquals("table_hst", ((AddColumnStatement) statements[1]).getTableName());
+        assertTrue(statements[2] instanceof RawSqlStatement);
+    }
+
+    @Test
+    void validateHistoryArchiving() throws SQLException, DatabaseException {
+        change.setChangeSet(changeSet2);
+        change.addColumn(mockColumn());
+        change.setHistoryArchiving("partition");
+
+        assertEquals(1, change.validate(mockDatabaseWithVersion(null)).getErrorMessages().size());
     }
     
     @Test
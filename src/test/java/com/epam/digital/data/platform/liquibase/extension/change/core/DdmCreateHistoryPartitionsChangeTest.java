@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeLogIndex;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.statement.SqlStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmCreateHistoryPartitionsChangeTest {
+    private DdmCreateHistoryPartitionsChange change;
+
+    @BeforeEach
+    void setUp() {
+        change = new DdmCreateHistoryPartitionsChange();
+        change.setTableName("table");
+        change.setPartitioning("day");
+    }
+
+    @Test
+    @DisplayName("Check statements")
+    public void checkStatements() {
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(1, statements.length);
+        DdmCreateHistoryPartitionsStatement statement = (DdmCreateHistoryPartitionsStatement) statements[0];
+        Assertions.assertEquals("table_hst", statement.getTableName());
+        Assertions.assertEquals(3, statement.getPartitions());
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - partitioning and partitions")
+    public void validateChangeErrors() {
+        change.setPartitioning("week");
+        change.setPartitions(0);
+        Assertions.assertEquals(2, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - table name")
+    public void validateChangeWithoutTableName() {
+        change.setTableName(null);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - not partitioned history table")
+    public void validateChangeNotPartitionedTable() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        ChangeSet changeSet = new ChangeSet("id", "author", false, false, "path", null, null, changeLog);
+        DdmCreateTableChange createTable = new DdmCreateTableChange();
+        createTable.setTableName("table");
+        changeSet.addChange(createTable);
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        createTable.setHistoryPartitioning("month");
+        DdmChangeLogIndex.invalidate(changeLog);
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+}
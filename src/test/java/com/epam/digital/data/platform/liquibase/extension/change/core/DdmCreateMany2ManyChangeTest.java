@@ -131,6 +131,77 @@ class DdmCreateMany2ManyChangeTest {
         Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
     }
 
+    @Test
+    @DisplayName("Validate change - storage must be view or table")
+    public void validateChangeStorage() {
+        change.setMainTableName("mainTable");
+        change.setMainTableKeyField("keyField");
+        change.setReferenceTableName("referenceTable");
+        change.setReferenceKeysArray("keysArray");
+        change.setStorage("index");
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+        change.setStorage("table");
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Check statements - table storage")
+    public void checkStatementsTableStorage() {
+        change.setStorage("table");
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertTrue(((DdmCreateMany2ManyStatement) statements[0]).isTableStorage());
+        Assertions.assertFalse(((DdmCreateMany2ManyStatement) statements[0]).isReplacesTable());
+    }
+
+    @Test
+    @DisplayName("Check statements - table storage replaced by view")
+    public void checkStatementsReplacesTable() {
+        change.setMainTableName("mainTable");
+        change.setReferenceTableName("referenceTable");
+        DdmCreateMany2ManyChange tableStorageChange = new DdmCreateMany2ManyChange();
+        tableStorageChange.setMainTableName("mainTable");
+        tableStorageChange.setReferenceTableName("referenceTable");
+        tableStorageChange.setStorage("table");
+        ChangeSet changeSet = new ChangeSet(change.getChangeSet().getChangeLog());
+        changeSet.addChange(tableStorageChange);
+        change.getChangeSet().getChangeLog().getChangeSets().add(0, changeSet);
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertFalse(((DdmCreateMany2ManyStatement) statements[0]).isTableStorage());
+        Assertions.assertTrue(((DdmCreateMany2ManyStatement) statements[0]).isReplacesTable());
+    }
+
+    @Test
+    @DisplayName("Validate change - integrity check must be row or statement")
+    public void validateChangeIntegrityCheck() {
+        change.setMainTableName("mainTable");
+        change.setMainTableKeyField("keyField");
+        change.setReferenceTableName("referenceTable");
+        change.setReferenceKeysArray("keysArray");
+        change.setIntegrityCheck("none");
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+        change.setIntegrityCheck("statement");
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Check statements - statement integrity check replaced by row integrity check")
+    public void checkStatementsReplacesStatementIntegrityCheck() {
+        change.setMainTableName("mainTable");
+        change.setReferenceTableName("referenceTable");
+        DdmCreateMany2ManyChange statementCheckChange = new DdmCreateMany2ManyChange();
+        statementCheckChange.setMainTableName("mainTable");
+        statementCheckChange.setReferenceTableName("referenceTable");
+        statementCheckChange.setIntegrityCheck("statement");
+        ChangeSet changeSet = new ChangeSet(change.getChangeSet().getChangeLog());
+        changeSet.addChange(statementCheckChange);
+        change.getChangeSet().getChangeLog().getChangeSets().add(0, changeSet);
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertFalse(((DdmCreateMany2ManyStatement) statements[0]).isStatementIntegrityCheck());
+        Assertions.assertTrue(((DdmCreateMany2ManyStatement) statements[0]).isReplacesStatementIntegrityCheck());
+    }
+
     @Test
     @DisplayName("Check load")
     public void checkLoad() throws Exception {
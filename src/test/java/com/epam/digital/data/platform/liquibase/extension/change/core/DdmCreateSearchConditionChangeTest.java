@@ -18,6 +18,8 @@ package com.epam.digital.data.platform.liquibase.extension.change.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
 import com.epam.digital.data.platform.liquibase.extension.DdmResourceAccessor;
 import com.epam.digital.data.platform.liquibase.extension.DdmTest;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
@@ -26,6 +28,7 @@ import com.epam.digital.data.platform.liquibase.extension.change.DdmJoinConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperatorConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperatorTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
 
 import java.util.ArrayList;
@@ -37,6 +40,7 @@ import java.util.Set;
 import liquibase.Contexts;
 import liquibase.LabelExpression;
 import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
 import liquibase.change.AddColumnConfig;
 import liquibase.change.Change;
 import liquibase.change.ConstraintsConfig;
@@ -44,6 +48,7 @@ import liquibase.changelog.ChangeLogIterator;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
@@ -96,7 +101,8 @@ class DdmCreateSearchConditionChangeTest {
         assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  readMode metadata
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(1, getMetadataRows(statements).size());
     }
 
     @Test
@@ -182,12 +188,11 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  searchType
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
     }
 
     @Test
@@ -204,16 +209,13 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  searchType
-        assertEquals("insert into ddm_liquibase_metadata" +
-                "(change_type, change_name, attribute_name, attribute_value) values " +
-                "('searchCondition', 'change', 'inColumn', 'column');\n\n",
-                ((RawSqlStatement) statements[4]).getSql());
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
+        assertEquals(Arrays.asList("searchCondition", "change", "inColumn", "column"),
+                getMetadataRows(statements).get(2));
     }
 
     @Test
@@ -230,16 +232,13 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  searchType
-        assertEquals("insert into ddm_liquibase_metadata" +
-                "(change_type, change_name, attribute_name, attribute_value) values " +
-                "('searchCondition', 'change', 'notInColumn', 'column');\n\n",
-            ((RawSqlStatement) statements[4]).getSql());
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
+        assertEquals(Arrays.asList("searchCondition", "change", "notInColumn", "column"),
+                getMetadataRows(statements).get(2));
     }
 
     @Test
@@ -256,16 +255,13 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  searchType
-        assertEquals("insert into ddm_liquibase_metadata" +
-                "(change_type, change_name, attribute_name, attribute_value) values " +
-                "('searchCondition', 'change', 'notEqualColumn', 'column');\n\n",
-            ((RawSqlStatement) statements[4]).getSql());
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
+        assertEquals(Arrays.asList("searchCondition", "change", "notEqualColumn", "column"),
+                getMetadataRows(statements).get(2));
     }
 
     @Test
@@ -288,16 +284,13 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  nestedRead
-        assertEquals("insert into ddm_liquibase_metadata" +
-                        "(change_type, change_name, attribute_name, attribute_value) values " +
-                        "('nestedRead', 'change', 'ref_table', 'alias');\n\n",
-                ((RawSqlStatement) statements[4]).getSql());
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
+        assertEquals(Arrays.asList("nestedRead", "change", "ref_table", "alias"),
+                getMetadataRows(statements).get(2));
     }
 
     @Test
@@ -318,16 +311,13 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  nestedRead
-        assertEquals("insert into ddm_liquibase_metadata" +
-                        "(change_type, change_name, attribute_name, attribute_value) values " +
-                        "('nestedRead', 'change', 'ref_table', 'column');\n\n",
-                ((RawSqlStatement) statements[4]).getSql());
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
+        assertEquals(Arrays.asList("nestedRead", "change", "ref_table", "column"),
+                getMetadataRows(statements).get(2));
     }
 
     @Test
@@ -349,13 +339,11 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(6, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  function
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[5] instanceof RawSqlStatement);  //  searchType
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(4, getMetadataRows(statements).size());
     }
 
     @Test
@@ -371,13 +359,11 @@ class DdmCreateSearchConditionChangeTest {
         change.setLimit("20");
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(6, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  searchType
-        Assertions.assertTrue(statements[5] instanceof RawSqlStatement);  //  limit
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(4, getMetadataRows(statements).size());
     }
 
     @Test
@@ -528,12 +514,11 @@ class DdmCreateSearchConditionChangeTest {
         change.setPagination("page");
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(5, statements.length);
+        assertEquals(3, statements.length);
         Assertions.assertTrue(statements[0] instanceof DdmCreateAbstractViewStatement);
         Assertions.assertTrue(statements[1] instanceof RawSqlStatement);  //  grant select to view
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);  //  column or alias
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);  //  mapping column
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);  //  pagination
+        Assertions.assertTrue(statements[2] instanceof DdmBatchInsertStatement);  //  metadata
+        assertEquals(3, getMetadataRows(statements).size());
     }
 
     @Test
@@ -678,11 +663,9 @@ class DdmCreateSearchConditionChangeTest {
         change.addTable(table);
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        assertEquals(18, statements.length);
-        assertEquals("insert into ddm_liquibase_metadata"
-                        + "(change_type, change_name, attribute_name, attribute_value) values "
-                        + "('searchCondition', 'searchconditionlogicoperator', 'logicOperator', "
-                        + "'{\"operations\":[{"
+        assertEquals(3, statements.length);
+        assertEquals(Arrays.asList("searchCondition", "searchconditionlogicoperator", "logicOperator",
+                "{\"operations\":[{"
                         +          "\"tableName\":\"users\","
                         +          "\"logicOperators\":["
                         +             "{"
@@ -692,8 +675,301 @@ class DdmCreateSearchConditionChangeTest {
                         +                   "{"
                         +                      "\"type\":\"and\","
                         +                      "\"columns\":[\"status\",\"email\"],"
-                        +                      "\"logicOperators\":[]}]}]}]}');\n\n",
-                ((RawSqlStatement) statements[17]).getSql());
+                        +                      "\"logicOperators\":[]}]}]}]}"),
+                getMetadataRows(statements).get(15));
+    }
+
+    @Test
+    @DisplayName("Check statements - keyset pagination")
+    public void checkStatementsKeysetPagination() {
+        addTableWithPrimaryKey("table", "id");
+        change.setName("change");
+        change.setPagination("keyset");
+        change.setOrderInView(false);
+        DdmTableConfig table = new DdmTableConfig("table");
+        DdmColumnConfig id = prepareColumn("id", null, null);
+        DdmColumnConfig created = prepareColumn("created", "created_at", null);
+        created.setSorting("desc");
+        table.setColumns(Arrays.asList(id, created));
+        change.addTable(table);
+
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        DdmCreateAbstractViewStatement statement = (DdmCreateAbstractViewStatement) statements[0];
+        assertEquals("table", statement.getKeysetTableName());
+        assertEquals(Arrays.asList(new DdmPair("created", "desc"), new DdmPair("id", "asc")),
+            statement.getKeysetColumns());
+        assertEquals(Boolean.FALSE, statement.getOrderInView());
+        Assertions.assertTrue(getMetadataRows(statements).contains(Arrays.asList("searchCondition", "change",
+            "keysetSortKey", "[{\"column\":\"created_at\",\"sorting\":\"desc\"},{\"column\":\"id\",\"sorting\":\"asc\"}]")));
+    }
+
+    @Test
+    @DisplayName("Check statements - missing metadata value is stored as 'null'")
+    public void checkStatementsMetadataNullValue() {
+        change.setName("change");
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.addColumn(prepareColumn("column", null, null));
+        DdmFunctionConfig function = new DdmFunctionConfig();
+        function.setName("count");
+        function.setColumnName("column");
+        table.addFunction(function);
+        change.addTable(table);
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertTrue(getMetadataRows(statements).contains(Arrays.asList("change", "table", "count", "null")));
+    }
+
+    @Test
+    @DisplayName("Check statements - keyset pagination by primary key")
+    public void checkStatementsKeysetPaginationByPrimaryKey() {
+        addTableWithPrimaryKey("table", "id");
+        change.setName("change");
+        change.setPagination("keyset");
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.addColumn(prepareColumn("id", null, null));
+        change.addTable(table);
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        DdmCreateAbstractViewStatement statement = (DdmCreateAbstractViewStatement) statements[0];
+        Assertions.assertNull(statement.getKeysetTableName());
+        Assertions.assertTrue(statement.getKeysetColumns().isEmpty());
+        Assertions.assertTrue(getMetadataRows(statements).contains(Arrays.asList("searchCondition", "change",
+            "keysetSortKey", "[{\"column\":\"id\",\"sorting\":\"asc\"}]")));
+    }
+
+    @Test
+    @DisplayName("Validate change - keyset pagination requires primary key")
+    public void validateChangeKeysetPagination() {
+        change.setName("change");
+        change.setPagination("keyset");
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.addColumn(prepareColumn("column", null, null));
+        change.addTable(table);
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        addTableWithPrimaryKey("table", "id");
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        table.addColumn(prepareColumn("id", null, null));
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - orderInView requires keyset pagination")
+    public void validateChangeOrderInView() {
+        change.setName("change");
+        change.setOrderInView(false);
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Check statements - materialized")
+    public void checkStatementsMaterialized() {
+        addTableWithPrimaryKey("table", "id");
+        change.setName("change");
+        change.setMaterialized(true);
+        change.setRefreshSchedule("*/15 * * * *");
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.addColumn(prepareColumn("id", "table_id", null));
+        change.addTable(table);
+
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        DdmCreateAbstractViewStatement statement = (DdmCreateAbstractViewStatement) statements[0];
+        assertEquals(Boolean.TRUE, statement.getMaterialized());
+        assertEquals(Collections.singletonList("table_id"), statement.getUniqueKey());
+        Assertions.assertTrue(getMetadataRows(statements).contains(
+            Arrays.asList("searchCondition", "change", "materialized", "true")));
+        Assertions.assertTrue(getMetadataRows(statements).contains(
+            Arrays.asList("searchCondition", "change", "refreshSchedule", "*/15 * * * *")));
+    }
+
+    @Test
+    @DisplayName("Check statements - replaces materialized")
+    public void checkStatementsReplacesMaterialized() {
+        DdmCreateSearchConditionChange materializedChange = new DdmCreateSearchConditionChange("change");
+        materializedChange.setMaterialized(true);
+        ChangeSet materializedChangeSet = new ChangeSet(changeSet.getChangeLog());
+        materializedChangeSet.addChange(materializedChange);
+        changeSet.getChangeLog().getChangeSets().add(0, materializedChangeSet);
+        change.setName("change");
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        assertEquals(Boolean.TRUE, ((DdmCreateAbstractViewStatement) statements[0]).getReplacesMaterialized());
+    }
+
+    @Test
+    @DisplayName("Validate change - materialized requires unique key")
+    public void validateChangeMaterialized() {
+        change.setName("change");
+        change.setMaterialized(true);
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.addColumn(prepareColumn("column", null, null));
+        change.addTable(table);
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        change.setUniqueKey("column, other");
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        change.setUniqueKey("column");
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        change.setMaterialized(null);
+        assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - materialized unique key of outer joins")
+    public void validateChangeMaterializedOuterJoin() {
+        addTableWithPrimaryKey("orders", "id");
+        addTableWithPrimaryKey("customer", "id");
+        change.setName("change");
+        change.setMaterialized(true);
+        for (String tableName : Arrays.asList("orders", "customer")) {
+            DdmTableConfig table = new DdmTableConfig(tableName);
+            table.setAlias(tableName.substring(0, 2));
+            table.addColumn(prepareColumn("id", tableName + "_id", null));
+            change.addTable(table);
+        }
+        DdmJoinConfig join = join("or", "customer_id", "cu", "id");
+        change.addJoin(join);
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        join.setType("left");
+        assertEquals(Collections.singletonList("Materialized SC change requires uniqueKey, since it has outer joins "
+                + "whose rows cannot be identified by the primary keys of its tables"),
+            change.validate(new MockDatabase()).getErrorMessages());
+
+        change.setUniqueKey("orders_id");
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Warn change - joins of distributed tables that are not co-located")
+    public void warnChangeColocation() {
+        addChangeBefore(distributeTable("orders", "company_id", null));
+        addChangeBefore(distributeTable("customer", "id", null));
+        addChangeBefore(distributeTable("item", "company_id", "orders"));
+        addColocationJoins();
+
+        assertEquals(Arrays.asList(
+            "Join of orders and customer in change is not on the distribution columns of co-located tables",
+            "Join of orders and country in change joins distributed table orders with local table country"),
+            change.warn(new MockDatabase()).getMessages());
+        assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Warn change - joins of reference tables are co-located")
+    public void warnChangeColocationReferenceTable() {
+        addChangeBefore(distributeTable("orders", "company_id", null));
+        addChangeBefore(distributeTable("item", "company_id", "orders"));
+        DdmReferenceTableChange customer = new DdmReferenceTableChange();
+        customer.setTableName("customer");
+        addChangeBefore(customer);
+        DdmReferenceTableChange country = new DdmReferenceTableChange();
+        country.setTableName("country");
+        addChangeBefore(country);
+        addColocationJoins();
+
+        assertEquals(Collections.emptyList(), change.warn(new MockDatabase()).getMessages());
+    }
+
+    @Test
+    @DisplayName("Warn change - joins are not checked without distributed tables")
+    public void warnChangeColocationWithoutDistribution() {
+        addColocationJoins();
+
+        assertEquals(Collections.emptyList(), change.warn(new MockDatabase()).getMessages());
+    }
+
+    @Test
+    @DisplayName("Validate change - strict co-location")
+    public void validateChangeStrictColocation() throws Exception {
+        addChangeBefore(distributeTable("orders", "company_id", null));
+        addChangeBefore(distributeTable("customer", "id", null));
+        addChangeBefore(distributeTable("item", "company_id", "orders"));
+        addColocationJoins();
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.STRICT_COLOCATION.getKey(), true), () -> {
+            assertEquals(2, change.validate(new MockDatabase()).getErrorMessages().size());
+            assertEquals(Collections.emptyList(), change.warn(new MockDatabase()).getMessages());
+        });
+    }
+
+    @Test
+    @DisplayName("Validate change - strict co-location is not checked for executed change sets")
+    public void validateChangeStrictColocationExecuted() throws Exception {
+        addChangeBefore(distributeTable("orders", "company_id", null));
+        addChangeBefore(distributeTable("customer", "id", null));
+        addChangeBefore(distributeTable("item", "company_id", "orders"));
+        addColocationJoins();
+        MockDatabase database = new MockDatabase() {
+            @Override
+            public List<RanChangeSet> getRanChangeSetList() {
+                return Collections.singletonList(new RanChangeSet(changeSet));
+            }
+        };
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.STRICT_COLOCATION.getKey(), true), () ->
+            assertEquals(0, change.validate(database).getErrorMessages().size()));
+    }
+
+    private void addColocationJoins() {
+        change.setName("change");
+        for (String tableName : Arrays.asList("orders", "customer", "item", "country")) {
+            DdmTableConfig table = new DdmTableConfig(tableName);
+            table.setAlias(tableName.substring(0, 2));
+            table.addColumn(prepareColumn("id", tableName + "_id", null));
+            change.addTable(table);
+        }
+        change.addJoin(join("or", "customer_id", "cu", "id"));
+        change.addJoin(join("or", "company_id", "it", "company_id"));
+        change.addJoin(join("or", "country_code", "co", "code"));
+    }
+
+    private DdmJoinConfig join(String leftAlias, String leftColumn, String rightAlias, String rightColumn) {
+        DdmJoinConfig join = new DdmJoinConfig();
+        join.setType("inner");
+        join.setLeftAlias(leftAlias);
+        join.addLeftColumn(leftColumn);
+        join.setRightAlias(rightAlias);
+        join.addRightColumn(rightColumn);
+        return join;
+    }
+
+    private DdmDistributeTableChange distributeTable(String tableName, String distributionColumn, String colocateWith) {
+        DdmDistributeTableChange distributeChange = new DdmDistributeTableChange();
+        distributeChange.setTableName(tableName);
+        distributeChange.setDistributionColumn(distributionColumn);
+        distributeChange.setColocateWith(colocateWith);
+        return distributeChange;
+    }
+
+    private void addChangeBefore(Change change) {
+        ChangeSet beforeChangeSet = new ChangeSet(changeSet.getChangeLog());
+        beforeChangeSet.addChange(change);
+        changeSet.getChangeLog().getChangeSets().add(changeSet.getChangeLog().getChangeSets().size() - 1,
+            beforeChangeSet);
+    }
+
+    private void addTableWithPrimaryKey(String tableName, String columnName) {
+        DdmCreateTableChange tableChange = new DdmCreateTableChange();
+        tableChange.setTableName(tableName);
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName(columnName);
+        column.setType("uuid");
+        ConstraintsConfig constraints = new ConstraintsConfig();
+        constraints.setPrimaryKey(true);
+        column.setConstraints(constraints);
+        tableChange.addColumn(column);
+
+        ChangeSet tableChangeSet = new ChangeSet(changeSet.getChangeLog());
+        tableChangeSet.addChange(tableChange);
+        changeSet.getChangeLog().getChangeSets().add(0, tableChangeSet);
     }
 
     private DdmColumnConfig prepareColumn(String name, String alias, String searchType) {
@@ -704,4 +980,8 @@ class DdmCreateSearchConditionChangeTest {
         column.setSearchType(searchType);
         return column;
     }
-}
\ No newline at end of file
+
+    private List<List<String>> getMetadataRows(SqlStatement[] statements) {
+        return ((DdmBatchInsertStatement) statements[statements.length - 1]).getRows();
+    }
+}
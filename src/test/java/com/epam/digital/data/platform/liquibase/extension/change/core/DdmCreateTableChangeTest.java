@@ -16,18 +16,23 @@
 
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
 import com.epam.digital.data.platform.liquibase.extension.DdmResourceAccessor;
 import com.epam.digital.data.platform.liquibase.extension.DdmTest;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreatePartitionedTableStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateSequenceStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDistributeTableStatement;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmReferenceTableStatement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import liquibase.Contexts;
+import liquibase.Scope;
 import liquibase.LabelExpression;
 import liquibase.RuntimeEnvironment;
 import liquibase.change.Change;
@@ -359,6 +364,40 @@ class DdmCreateTableChangeTest {
         Assertions.assertTrue(statements[5] instanceof RawSqlStatement);
     }
 
+    @Test
+    @DisplayName("Check statements - isObject with concurrent indexes")
+    public void checkStatementsIsObjectConcurrentIndexes() throws Exception {
+        change.setHistoryFlag(true);
+        change.setIsObject(true);
+        ChangeSet changeSet = new ChangeSet("id", "author", false, false, "path", null, null, false,
+            change.getChangeSet().getChangeLog());
+        change.setChangeSet(changeSet);
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.CONCURRENT_INDEXES.getKey(), true), () -> {
+            SqlStatement[] statements = change.generateStatements(new MockDatabase());
+            Assertions.assertEquals(7, statements.length);
+            Assertions.assertTrue(statements[3] instanceof CreateTableStatement);
+            Assertions.assertTrue(((RawSqlStatement) statements[4]).getSql().startsWith("DO $$BEGIN IF EXISTS"));
+            Assertions.assertTrue(((RawSqlStatement) statements[5]).getSql().startsWith("CREATE INDEX CONCURRENTLY ix_table_"));
+        });
+    }
+
+    @Test
+    @DisplayName("Check statements - concurrent indexes need runInTransaction false")
+    public void checkStatementsConcurrentIndexesInTransaction() throws Exception {
+        change.setHistoryFlag(true);
+        change.setIsObject(true);
+        ChangeSet changeSet = new ChangeSet("id", "author", false, false, "path", null, null, true,
+            change.getChangeSet().getChangeLog());
+        change.setChangeSet(changeSet);
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.CONCURRENT_INDEXES.getKey(), true), () -> {
+            SqlStatement[] statements = change.generateStatements(new MockDatabase());
+            Assertions.assertEquals(6, statements.length);
+            Assertions.assertTrue(statements[4] instanceof CreateIndexStatement);
+        });
+    }
+
     @Test
     @DisplayName("Check statements - read mode")
     public void checkStatementsAsyncReadMode() {
@@ -390,6 +429,38 @@ class DdmCreateTableChangeTest {
         Assertions.assertTrue(statements[4] instanceof RawSqlStatement);
     }
 
+    @Test
+    @DisplayName("Check statements - historyPartitioning")
+    public void checkStatementsHistoryPartitioning() {
+        change.setHistoryFlag(true);
+        change.setHistoryPartitioning("month");
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(7, statements.length);
+        Assertions.assertTrue(statements[0] instanceof DdmCreatePartitionedTableStatement);
+        Assertions.assertTrue(statements[1] instanceof DropPrimaryKeyStatement);
+        Assertions.assertTrue(statements[2] instanceof DdmCreateHistoryPartitionsStatement);
+        Assertions.assertEquals("CREATE TABLE IF NOT EXISTS table_hst_default PARTITION OF table_hst DEFAULT;",
+            ((RawSqlStatement) statements[3]).getSql());
+        Assertions.assertFalse(statements[5] instanceof DdmCreatePartitionedTableStatement);
+
+        CreateTableStatement hstStatement = (CreateTableStatement) statements[0];
+        Assertions.assertEquals("ddm_created_at", ((DdmCreatePartitionedTableStatement) hstStatement).getPartitionColumn());
+        Assertions.assertTrue(hstStatement.getPrimaryKeyConstraint().getColumns().contains("ddm_created_at"));
+        Assertions.assertTrue(hstStatement.getUniqueConstraints().iterator().next().getColumns().contains("ddm_created_at"));
+    }
+
+    @Test
+    @DisplayName("Validate change - historyPartitioning")
+    public void validateChangeHistoryPartitioning() {
+        change.setHistoryFlag(true);
+        change.setHistoryPartitioning("week");
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+        change.setHistoryFlag(false);
+        change.setHistoryPartitioning("month");
+        Assertions.assertEquals(2, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
     @Test
     @DisplayName("Check statements - distributeAll")
     public void checkStatementsDistributeAll() {
@@ -17,6 +17,9 @@
 package com.epam.digital.data.platform.liquibase.extension.change.core;
 
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDistributeTableStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmTruncateLocalDataAfterDistributingTableStatement;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.core.MockDatabase;
 import liquibase.statement.SqlStatement;
 import org.junit.jupiter.api.Assertions;
@@ -85,4 +88,39 @@ class DdmDistributeTableChangeTest {
         Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Check statements - concurrent")
+    public void checkStatementsConcurrent() {
+        change.setScope("all");
+        change.setTableName("name");
+        change.setDistributionColumn("column");
+        change.setConcurrent(true);
+        change.setShardCount(64);
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(4, statements.length);
+        Assertions.assertEquals("name", ((DdmDistributeTableStatement) statements[0]).getTableName());
+        Assertions.assertTrue(((DdmDistributeTableStatement) statements[0]).getConcurrent());
+        Assertions.assertEquals(64, ((DdmDistributeTableStatement) statements[0]).getShardCount());
+        Assertions.assertEquals("name", ((DdmTruncateLocalDataAfterDistributingTableStatement) statements[1]).getTableName());
+        Assertions.assertTrue(statements[2] instanceof DdmDistributeTableStatement);
+        Assertions.assertTrue(statements[3] instanceof DdmTruncateLocalDataAfterDistributingTableStatement);
+    }
+
+    @Test
+    @DisplayName("Validate change - concurrent requires runInTransaction=false")
+    public void validateChangeConcurrent() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        ChangeSet changeSet = new ChangeSet("id", "author", false, false, "path", null, null, true, null, changeLog);
+        changeSet.addChange(change);
+        change.setScope("primary");
+        change.setTableName("name");
+        change.setDistributionColumn("column");
+        change.setConcurrent(true);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+
+        changeSet = new ChangeSet("id", "author", false, false, "path", null, null, false, null, changeLog);
+        changeSet.addChange(change);
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+}
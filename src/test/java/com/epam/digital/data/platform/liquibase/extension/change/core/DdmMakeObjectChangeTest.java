@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
 import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -57,7 +58,9 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Index;
 import liquibase.structure.core.Table;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -66,6 +69,17 @@ class DdmMakeObjectChangeTest {
     private DdmMakeObjectChange change;
     private DdmMakeObjectChange snapshotChange;
 
+    @BeforeAll
+    static void disableCatalogCache() {
+        // JDBC mocks below answer the per-object catalog probes
+        System.setProperty(DdmConfiguration.CATALOG_CACHE.getKey(), "false");
+    }
+
+    @AfterAll
+    static void enableCatalogCache() {
+        System.clearProperty(DdmConfiguration.CATALOG_CACHE.getKey());
+    }
+
     @BeforeEach
     void setUp() {
         DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
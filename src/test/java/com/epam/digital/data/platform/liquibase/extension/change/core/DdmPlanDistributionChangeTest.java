@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmDistributeTableStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmReferenceTableStatement;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.statement.SqlStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmPlanDistributionChangeTest {
+    private DatabaseChangeLog changeLog;
+    private DdmPlanDistributionChange change;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new DatabaseChangeLog("path");
+        changeLog.setChangeLogParameters(new ChangeLogParameters());
+
+        ChangeSet tableChangeSet = new ChangeSet("id1", "author", false, false, "path", null, null, changeLog);
+        tableChangeSet.addChange(createTable("country", "code", null));
+        tableChangeSet.addChange(createTable("company", "id", "country_code:country(code)"));
+        tableChangeSet.addChange(createTable("orders", "company_id,id", "company_id:company(id)"));
+        changeLog.addChangeSet(tableChangeSet);
+
+        ChangeSet changeSet = new ChangeSet("id2", "author", false, false, "path", null, null, changeLog);
+        change = new DdmPlanDistributionChange();
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+    }
+
+    @Test
+    @DisplayName("Check statements - plan only")
+    public void checkStatementsPlanOnly() {
+        Assertions.assertEquals(0, change.generateStatements(new MockDatabase()).length);
+    }
+
+    @Test
+    @DisplayName("Check statements - apply")
+    public void checkStatementsApply() {
+        change.setApply(true);
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(3, statements.length);
+        Assertions.assertEquals("country", ((DdmReferenceTableStatement) statements[0]).getTableName());
+        DdmDistributeTableStatement company = (DdmDistributeTableStatement) statements[1];
+        Assertions.assertEquals("company", company.getTableName());
+        Assertions.assertEquals("id", company.getDistributionColumn());
+        Assertions.assertNull(company.getColocateWith());
+        DdmDistributeTableStatement orders = (DdmDistributeTableStatement) statements[2];
+        Assertions.assertEquals("orders", orders.getTableName());
+        Assertions.assertEquals("company_id", orders.getDistributionColumn());
+        Assertions.assertEquals("company", orders.getColocateWith());
+    }
+
+    @Test
+    @DisplayName("Check statements - tables of an applied plan are not planned again")
+    public void checkStatementsAppliedPlan() {
+        change.setApply(true);
+        ChangeSet changeSet = new ChangeSet("id3", "author", false, false, "path", null, null, changeLog);
+        changeSet.addChange(createTable("invoice", "company_id,id", "company_id:company(id)"));
+        DdmPlanDistributionChange nextChange = new DdmPlanDistributionChange();
+        nextChange.setApply(true);
+        changeSet.addChange(nextChange);
+        changeLog.addChangeSet(changeSet);
+
+        SqlStatement[] statements = nextChange.generateStatements(new MockDatabase());
+        Assertions.assertEquals(1, statements.length);
+        Assertions.assertEquals("invoice", ((DdmDistributeTableStatement) statements[0]).getTableName());
+        Assertions.assertEquals("company", ((DdmDistributeTableStatement) statements[0]).getColocateWith());
+    }
+
+    @Test
+    @DisplayName("Check confirmation message - plan report")
+    public void checkConfirmationMessage() {
+        Assertions.assertTrue(change.getConfirmationMessage().startsWith("Distribution plan of 3 tables\n  country: reference table"));
+        Assertions.assertEquals("Distribution planned", new DdmPlanDistributionChange().getConfirmationMessage());
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    private static DdmCreateTableChange createTable(String tableName, String primaryKey, String foreignKey) {
+        DdmCreateTableChange change = new DdmCreateTableChange();
+        change.setTableName(tableName);
+        for (String columnName : primaryKey.split(",")) {
+            ConstraintsConfig primaryKeyConstraints = new ConstraintsConfig();
+            primaryKeyConstraints.setPrimaryKey(true);
+            change.addColumn(column(columnName, primaryKeyConstraints));
+        }
+        if (foreignKey != null) {
+            String[] parts = foreignKey.split(":");
+            ColumnConfig foreignKeyColumn = change.getColumns().stream()
+                .filter(column -> column.getName().equals(parts[0])).findFirst().orElse(null);
+            if (foreignKeyColumn != null) {
+                foreignKeyColumn.getConstraints().setReferences(parts[1]);
+            } else {
+                ConstraintsConfig foreignKeyConstraints = new ConstraintsConfig();
+                foreignKeyConstraints.setReferences(parts[1]);
+                change.addColumn(column(parts[0], foreignKeyConstraints));
+            }
+        }
+        return change;
+    }
+
+    private static DdmColumnConfig column(String name, ConstraintsConfig constraints) {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName(name);
+        column.setType("uuid");
+        column.setConstraints(constraints);
+        return column;
+    }
+}
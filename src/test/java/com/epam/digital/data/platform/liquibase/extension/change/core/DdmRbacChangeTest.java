@@ -23,21 +23,34 @@ import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig
 import com.epam.digital.data.platform.liquibase.extension.change.DdmRoleConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmSearchConditionConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchDeleteStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import liquibase.Contexts;
 import liquibase.LabelExpression;
 import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
 import liquibase.changelog.ChangeLogIterator;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.changelog.visitor.ChangeSetVisitor;
 import liquibase.database.Database;
 import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
 import liquibase.parser.core.xml.XMLChangeLogSAXParser;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
 import org.junit.jupiter.api.Assertions;
@@ -49,6 +62,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 class DdmRbacChangeTest {
     private DdmRbacChange change;
 
@@ -86,12 +106,10 @@ class DdmRbacChangeTest {
         Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        Assertions.assertEquals(5, statements.length);
+        Assertions.assertEquals(2, statements.length);
         Assertions.assertTrue(statements[0] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[1] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[3] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[4] instanceof RawSqlStatement);
+        Assertions.assertTrue(statements[1] instanceof DdmBatchInsertStatement);
+        Assertions.assertEquals(4, ((DdmBatchInsertStatement) statements[1]).getRows().size());
     }
 
     @Test
@@ -111,10 +129,10 @@ class DdmRbacChangeTest {
         Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
 
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
-        Assertions.assertEquals(3, statements.length);
+        Assertions.assertEquals(2, statements.length);
         Assertions.assertTrue(statements[0] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[1] instanceof RawSqlStatement);
-        Assertions.assertTrue(statements[2] instanceof RawSqlStatement);
+        Assertions.assertTrue(statements[1] instanceof DdmBatchInsertStatement);
+        Assertions.assertEquals(2, ((DdmBatchInsertStatement) statements[1]).getRows().size());
     }
 
     @Test
@@ -142,7 +160,7 @@ class DdmRbacChangeTest {
             "null" + ", " +
             "'" + "S" + "', " +
             "'" + "search_condition" +
-            "');\n\n";
+            "');";
 
         change.addRole(roleConfig);
 
@@ -151,7 +169,8 @@ class DdmRbacChangeTest {
         SqlStatement[] statements = change.generateStatements(new MockDatabase());
         Assertions.assertEquals(2, statements.length);
         Assertions.assertEquals(statements[0].toString(), expectedDeleteQuery);
-        Assertions.assertEquals(statements[1].toString(), expectedInsertQuery);
+        Assertions.assertEquals(expectedInsertQuery,
+            SqlGeneratorFactory.getInstance().generateSql(statements[1], new MockDatabase())[0].toSql());
     }
 
     @Test
@@ -183,6 +202,140 @@ class DdmRbacChangeTest {
         Assertions.assertEquals(3, change.validate(new MockDatabase()).getErrorMessages().size());
     }
 
+    @Test
+    @DisplayName("Validate - incremental mode deletes and inserts only the difference")
+    public void validateIncremental() throws SQLException, DatabaseException {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setRoleCanInsert(true);
+        table.setRoleCanDelete(true);
+        table.setRoleCanRead(true);
+        DdmRoleConfig role = new DdmRoleConfig();
+        role.setName("name");
+        role.addTable(table);
+        change.addRole(role);
+        change.setIncremental(true);
+
+        MockDatabase database = new MockDatabase();
+        database.setConnection(mockJdbcConnection(
+            new String[] {"name", "table", null, "I", "table"},
+            new String[] {"name", "table", null, "S", "table"},
+            new String[] {"name", "table", null, "S", "table"},
+            new String[] {"old_name", "table", null, "D", "table"}));
+
+        SqlStatement[] statements = change.generateStatements(database);
+        Assertions.assertEquals(2, statements.length);
+        Assertions.assertTrue(statements[0] instanceof DdmBatchDeleteStatement);
+        Assertions.assertEquals(2, ((DdmBatchDeleteStatement) statements[0]).getRows().size());
+        Assertions.assertTrue(((DdmBatchDeleteStatement) statements[0]).getRows()
+            .contains(Arrays.asList("old_name", "table", null, "D", "table")));
+        Assertions.assertTrue(((DdmBatchDeleteStatement) statements[0]).getRows()
+            .contains(Arrays.asList("name", "table", null, "S", "table")));
+        Assertions.assertTrue(statements[1] instanceof DdmBatchInsertStatement);
+        Assertions.assertEquals(Arrays.asList(
+                Arrays.asList("name", "table", null, "D", "table"),
+                Arrays.asList("name", "table", null, "S", "table")),
+            ((DdmBatchInsertStatement) statements[1]).getRows());
+    }
+
+    @Test
+    @DisplayName("Validate - incremental mode without changes")
+    public void validateIncrementalWithoutChanges() throws SQLException, DatabaseException {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setRoleCanRead(true);
+        DdmRoleConfig role = new DdmRoleConfig();
+        role.setName("name");
+        role.addTable(table);
+        change.addRole(role);
+        change.setIncremental(true);
+
+        MockDatabase database = new MockDatabase();
+        database.setConnection(mockJdbcConnection(new String[] {"name", "table", null, "S", "table"}));
+
+        Assertions.assertEquals(0, change.generateStatements(database).length);
+    }
+
+    @Test
+    @DisplayName("Validate - incremental mode rewrites permissions without connection")
+    public void validateIncrementalWithoutConnection() {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setRoleCanRead(true);
+        DdmRoleConfig role = new DdmRoleConfig();
+        role.setName("name");
+        role.addTable(table);
+        change.addRole(role);
+        change.setIncremental(true);
+
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(2, statements.length);
+        Assertions.assertEquals("DELETE FROM ddm_role_permission", statements[0].toString());
+        Assertions.assertTrue(statements[1] instanceof DdmBatchInsertStatement);
+    }
+
+    @Test
+    @DisplayName("Validate - incremental mode does not read permissions")
+    public void validateIncrementalDoesNotReadPermissions() throws SQLException, DatabaseException {
+        incrementalRole();
+        MockDatabase database = new MockDatabase();
+        JdbcConnection connection = mockJdbcConnection(new String[] {"name", "table", null, "S", "table"});
+        database.setConnection(connection);
+
+        change.validate(database);
+
+        verify(connection, never()).createStatement(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Validate - incremental mode rewrites permissions when SQL is written to output")
+    public void validateIncrementalWithLoggingExecutor() throws SQLException, DatabaseException {
+        incrementalRole();
+        MockDatabase database = new MockDatabase();
+        database.setConnection(mockJdbcConnection(new String[] {"name", "table", null, "S", "table"}));
+        ExecutorService executorService = Scope.getCurrentScope().getSingleton(ExecutorService.class);
+        executorService.setExecutor("jdbc", database, new LoggingExecutor(null, new StringWriter(), database));
+        try {
+            SqlStatement[] statements = change.generateStatements(database);
+            Assertions.assertEquals(2, statements.length);
+            Assertions.assertEquals("DELETE FROM ddm_role_permission", statements[0].toString());
+        } finally {
+            executorService.clearExecutor("jdbc", database);
+        }
+    }
+
+    @Test
+    @DisplayName("Validate - incremental mode rewrites permissions after a pending rbac change set")
+    public void validateIncrementalAfterPendingRbacChangeSet() throws SQLException, DatabaseException {
+        incrementalRole();
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        ChangeSet changeSet1 = new ChangeSet("id1", "author", false, false, "path", null, null, changeLog);
+        changeSet1.addChange(new DdmRbacChange());
+        ChangeSet changeSet2 = new ChangeSet("id2", "author", false, false, "path", null, null, changeLog);
+        changeSet2.addChange(change);
+        changeLog.addChangeSet(changeSet1);
+        changeLog.addChangeSet(changeSet2);
+
+        MockDatabase database = new MockDatabase() {
+            @Override
+            public List<RanChangeSet> getRanChangeSetList() {
+                return new ArrayList<>();
+            }
+        };
+        database.setConnection(mockJdbcConnection(new String[] {"name", "table", null, "S", "table"}));
+
+        SqlStatement[] statements = change.generateStatements(database);
+        Assertions.assertEquals(2, statements.length);
+        Assertions.assertEquals("DELETE FROM ddm_role_permission", statements[0].toString());
+    }
+
+    private void incrementalRole() {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setRoleCanRead(true);
+        DdmRoleConfig role = new DdmRoleConfig();
+        role.setName("name");
+        role.addTable(table);
+        change.addRole(role);
+        change.setIncremental(true);
+    }
+
     @Test
     @DisplayName("Check load rbac")
     public void checkLoad() throws ChangeLogParseException, Exception {
@@ -207,4 +360,17 @@ class DdmRbacChangeTest {
 
         Assertions.assertEquals(1, changeSets.size());
     }
-}
\ No newline at end of file
+
+    private JdbcConnection mockJdbcConnection(String[]... rows) throws SQLException, DatabaseException {
+        ResultSet resultSet = mock(ResultSet.class);
+        int[] row = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++row[0] < rows.length);
+        when(resultSet.getString(anyInt())).thenAnswer(
+            invocation -> rows[row[0]][(Integer) invocation.getArgument(0) - 1]);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        JdbcConnection connection = mock(JdbcConnection.class);
+        when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+        return connection;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.change.core;
+
+import liquibase.Contexts;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmRefreshSearchConditionChangeTest {
+    private DdmRefreshSearchConditionChange change;
+    private ChangeLogParameters changeLogParameters;
+    private ChangeSet changeSet;
+
+    @BeforeEach
+    void setUp() {
+        change = new DdmRefreshSearchConditionChange();
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path");
+        changeSet = new ChangeSet(changeLog);
+        change.setChangeSet(changeSet);
+        changeLog.addChangeSet(changeSet);
+
+        changeLogParameters = new ChangeLogParameters();
+        changeLog.setChangeLogParameters(changeLogParameters);
+    }
+
+    @Test
+    @DisplayName("Check ignore")
+    public void checkIgnoreChangeSetForContextSub() {
+        Contexts contexts = new Contexts();
+        contexts.add("sub");
+        changeLogParameters.setContexts(contexts);
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(0, statements.length);
+        Assertions.assertTrue(change.getChangeSet().isIgnore());
+    }
+
+    @Test
+    @DisplayName("Check statements")
+    public void checkStatements() {
+        change.setName("sc_name");
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(1, statements.length);
+        Assertions.assertEquals("REFRESH MATERIALIZED VIEW CONCURRENTLY sc_name_v;", ((RawSqlStatement) statements[0]).getSql());
+
+        change.setConcurrently(false);
+        statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals("REFRESH MATERIALIZED VIEW sc_name_v;", ((RawSqlStatement) statements[0]).getSql());
+        Assertions.assertEquals("Search Condition sc_name refreshed", change.getConfirmationMessage());
+    }
+
+    @Test
+    @DisplayName("Check statements - schedule")
+    public void checkStatementsSchedule() {
+        change.setName("sc_name");
+        change.setSchedule("0 * * * *");
+        SqlStatement[] statements = change.generateStatements(new MockDatabase());
+        Assertions.assertEquals(2, statements.length);
+        Assertions.assertEquals("delete from ddm_liquibase_metadata where change_type = 'searchCondition' and "
+            + "change_name = 'sc_name' and attribute_name = 'refreshSchedule';\n\n", ((RawSqlStatement) statements[0]).getSql());
+        Assertions.assertEquals("insert into ddm_liquibase_metadata(change_type, change_name, attribute_name, attribute_value) "
+            + "values ('searchCondition', 'sc_name', 'refreshSchedule', '0 * * * *');\n\n", ((RawSqlStatement) statements[1]).getSql());
+
+        change.setSchedule("");
+        Assertions.assertEquals(1, change.generateStatements(new MockDatabase()).length);
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        change.setName("name");
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+        Assertions.assertEquals("http://www.liquibase.org/xml/ns/dbchangelog", change.getSerializedObjectNamespace());
+    }
+
+    @Test
+    @DisplayName("Validate change - name is required")
+    public void validateChangeName() {
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - search condition is materialized")
+    public void validateChangeMaterialized() {
+        change.setName("name");
+        addSearchCondition("name", true);
+        Assertions.assertEquals(0, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - search condition is not materialized")
+    public void validateChangeNotMaterialized() {
+        change.setName("name");
+        addSearchCondition("name", null);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - latest definition is not materialized")
+    public void validateChangeRedefinedNotMaterialized() {
+        change.setName("name");
+        changeSet.addChange(change);
+        addSearchCondition("name", null);
+        addSearchCondition("name", true);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - definitions after the change are not taken into account")
+    public void validateChangeMaterializedLater() {
+        change.setName("name");
+        changeSet.addChange(change);
+        addSearchCondition("name", null);
+        DdmCreateSearchConditionChange searchCondition = new DdmCreateSearchConditionChange("name");
+        searchCondition.setMaterialized(true);
+        ChangeSet laterChangeSet = new ChangeSet(changeSet.getChangeLog());
+        laterChangeSet.addChange(searchCondition);
+        changeSet.getChangeLog().addChangeSet(laterChangeSet);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - only search condition tags allowed")
+    public void validateAllowedTags() {
+        change.setName("name");
+        changeSet.addChange(new DdmCreateAnalyticsViewChange());
+        changeSet.addChange(change);
+        Assertions.assertEquals(1, change.validate(new MockDatabase()).getErrorMessages().size());
+    }
+
+    private void addSearchCondition(String name, Boolean materialized) {
+        DdmCreateSearchConditionChange searchCondition = new DdmCreateSearchConditionChange(name);
+        searchCondition.setMaterialized(materialized);
+        ChangeSet searchConditionChangeSet = new ChangeSet(changeSet.getChangeLog());
+        searchConditionChangeSet.addChange(searchCondition);
+        changeSet.getChangeLog().getChangeSets().add(0, searchConditionChangeSet);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.changelog.visitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler;
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.DdmConstants;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTypeChange;
+import com.epam.digital.data.platform.liquibase.extension.executor.DdmProfilingExecutor;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.executor.ExecutorService;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmProfilingChangeExecListenerTest {
+
+    private MockDatabase database;
+    private RecordingExecutor executor;
+    private DatabaseChangeLog changeLog;
+    private ChangeSet changeSet;
+    private DdmCreateTypeChange change;
+    private DdmProfilingChangeExecListener listener;
+
+    @BeforeEach
+    void setUp() {
+        database = new MockDatabase();
+        executor = new RecordingExecutor();
+        executor.setDatabase(database);
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).setExecutor("jdbc", database, executor);
+
+        changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeSet = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        change = new DdmCreateTypeChange();
+        changeSet.addChange(change);
+        listener = new DdmProfilingChangeExecListener();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    @DisplayName("Changes are profiled only with profiling")
+    void shouldProfileChanges() throws Exception {
+        listener.willRun(change, changeSet, changeLog, database);
+        listener.ran(change, changeSet, changeLog, database);
+        assertTrue(executor.getProfiler().isEmpty());
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.PROFILING.getKey(), true), () -> {
+            listener.willRun(change, changeSet, changeLog, database);
+            executor.getProfiler().addSql(new String[] {"create type type1"});
+            listener.ran(change, changeSet, changeLog, database);
+            executor.getProfiler().addSql(new String[] {"insert into databasechangelog values (1)"});
+
+            List<DdmChangeProfiler.ChangeProfile> profiles = executor.getProfiler().getChangeProfiles();
+            assertEquals(1, profiles.size());
+            assertEquals(1, profiles.get(0).getStatements());
+        });
+    }
+
+    @Test
+    @DisplayName("Change set summary is stored in the metadata table")
+    void shouldStoreChangeSetSummary() throws Exception {
+        Map<String, Object> scopeValues = new HashMap<>();
+        scopeValues.put(DdmConfiguration.PROFILING.getKey(), true);
+        scopeValues.put(DdmConfiguration.PROFILING_SUMMARY.getKey(), true);
+        Scope.child(scopeValues, () -> {
+            listener.ran(changeSet, changeLog, database, ChangeSet.ExecType.EXECUTED);
+            assertTrue(executor.statements.isEmpty());
+
+            listener.willRun(change, changeSet, changeLog, database);
+            listener.ran(change, changeSet, changeLog, database);
+            listener.ran(changeSet, changeLog, database, ChangeSet.ExecType.SKIPPED);
+            assertTrue(executor.statements.isEmpty());
+
+            listener.ran(changeSet, changeLog, database, ChangeSet.ExecType.EXECUTED);
+            assertEquals(1, executor.statements.size());
+            DdmBatchInsertStatement statement = (DdmBatchInsertStatement) executor.statements.get(0);
+            assertEquals(DdmConstants.METADATA_TABLE, statement.getTableName());
+            List<String> row = statement.getRows().get(0);
+            assertEquals(DdmConstants.PROFILE_METADATA_CHANGE_TYPE_VALUE, row.get(0));
+            assertEquals("path/changelog.xml::id1::author", row.get(1));
+            assertEquals(DdmConstants.PROFILE_METADATA_ATTRIBUTE_NAME_SUMMARY, row.get(2));
+            assertTrue(row.get(3).startsWith("{\"changeSet\":\"path/changelog.xml::id1::author\",\"changes\":1,"));
+        });
+    }
+
+    private static class RecordingExecutor extends DdmProfilingExecutor {
+
+        private final List<SqlStatement> statements = new ArrayList<>();
+
+        @Override
+        public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) {
+            throw new IllegalStateException("Profiled execution of " + sql);
+        }
+
+        @Override
+        public void executeUnprofiled(SqlStatement sql) {
+            statements.add(sql);
+        }
+    }
+}
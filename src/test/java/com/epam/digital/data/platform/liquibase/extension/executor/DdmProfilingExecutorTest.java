@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeProfiler;
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTypeChange;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.core.MockDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.statement.core.UnlockDatabaseChangeLogStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DdmProfilingExecutorTest {
+
+    private MockDatabase database;
+    private DdmProfilingExecutor executor;
+
+    @BeforeEach
+    void setUp() throws SQLException, DatabaseException {
+        Statement statement = mock(Statement.class);
+        when(statement.executeUpdate(anyString())).thenReturn(1);
+        when(statement.getUpdateCount()).thenReturn(-1);
+        Connection jdbcConnection = mock(Connection.class);
+        when(jdbcConnection.createStatement()).thenReturn(statement);
+        JdbcConnection connection = mock(JdbcConnection.class);
+        when(connection.getUnderlyingConnection()).thenReturn(jdbcConnection);
+
+        database = new MockDatabase();
+        database.setConnection(connection);
+        executor = new DdmProfilingExecutor();
+        executor.setDatabase(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+    }
+
+    @Test
+    @DisplayName("Profiling executor is used only with profiling")
+    void shouldReplaceJdbcExecutorWithProfiling() throws Exception {
+        assertFalse(Scope.getCurrentScope().getSingleton(ExecutorService.class)
+            .getExecutor("jdbc", new MockDatabase()) instanceof DdmProfilingExecutor);
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).reset();
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.PROFILING.getKey(), true), () -> {
+            assertTrue(executor.getPriority() > new JdbcExecutor().getPriority());
+            assertTrue(Scope.getCurrentScope().getSingleton(ExecutorService.class)
+                .getExecutor("jdbc", new MockDatabase()) instanceof DdmProfilingExecutor);
+        });
+    }
+
+    @Test
+    @DisplayName("Statements of the running change are profiled")
+    void shouldProfileStatements() throws DatabaseException {
+        DdmCreateTypeChange change = new DdmCreateTypeChange();
+        DdmChangeProfiler profiler = executor.getProfiler();
+
+        executor.execute(new RawSqlStatement("select 1"));
+        profiler.startChange(change, new ChangeSet("id1", "author", false, false, "path", null, null, null));
+        executor.execute(new RawSqlStatement("create type type1 as enum ('label1')"));
+        executor.update(new RawSqlStatement("update table1 set column1 = 1"));
+        profiler.finishChange();
+
+        DdmChangeProfiler.ChangeProfile profile = profiler.getChangeProfiles().get(0);
+        assertEquals(1, profiler.getChangeProfiles().size());
+        assertEquals(2, profile.getStatements());
+        assertEquals("create type type1 as enum ('label1')".length() + "update table1 set column1 = 1".length(),
+            profile.getSqlSize());
+        assertTrue(profile.getExecuteNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Statements of the profiling itself are not profiled")
+    void shouldNotProfileUnprofiledStatements() throws DatabaseException {
+        DdmChangeProfiler profiler = executor.getProfiler();
+
+        profiler.startChange(new DdmCreateTypeChange(), new ChangeSet("id1", "author", false, false, "path", null, null, null));
+        executor.executeUnprofiled(new RawSqlStatement("insert into table1 values (1)"));
+        profiler.finishChange();
+
+        DdmChangeProfiler.ChangeProfile profile = profiler.getChangeProfiles().get(0);
+        assertEquals(0, profile.getStatements());
+        assertEquals(0, profile.getExecuteNanos());
+    }
+
+    @Test
+    @DisplayName("Report is written and the profiler is reset when the ChangeLog lock is released")
+    void shouldWriteReportOnUnlock(@TempDir Path directory) throws Exception {
+        Path report = directory.resolve("profile.csv");
+        executor.getProfiler().startChange(new DdmCreateTypeChange(),
+            new ChangeSet("id1", "author", false, false, "path", null, null, null));
+        executor.getProfiler().finishChange();
+
+        Map<String, Object> scopeValues = new HashMap<>();
+        scopeValues.put(DdmConfiguration.PROFILING.getKey(), true);
+        scopeValues.put(DdmConfiguration.PROFILING_REPORT.getKey(), report.toString());
+        Scope.child(scopeValues, () -> {
+            executor.update(new RawSqlStatement("update table1 set column1 = 1"));
+            assertFalse(Files.exists(report));
+
+            executor.update(new UnlockDatabaseChangeLogStatement());
+            assertTrue(Files.readAllLines(report).get(2).startsWith("changeType,,createType,1,"));
+            assertTrue(executor.getProfiler().isEmpty());
+        });
+    }
+}
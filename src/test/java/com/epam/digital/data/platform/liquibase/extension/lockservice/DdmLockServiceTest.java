@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.liquibase.extension.lockservice;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmChangeLogIndex;
+import com.epam.digital.data.platform.liquibase.extension.DdmRanChangeSetsKeeper;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmAddColumnChange;
+import java.util.Collections;
+import java.util.List;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.MockDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.Test;
+
+class DdmLockServiceTest {
+
+    @Test
+    void shouldBeUsedForOnlineDatabases() {
+        PostgresDatabase database = new PostgresDatabase();
+        try {
+            assertTrue(LockServiceFactory.getInstance().getLockService(database) instanceof DdmLockService);
+        } finally {
+            LockServiceFactory.getInstance().resetAll();
+        }
+    }
+
+    @Test
+    void shouldBeUsedForOfflineDatabases() {
+        PostgresDatabase database = new PostgresDatabase();
+        database.setConnection(new OfflineConnection("offline:postgresql", new ClassLoaderResourceAccessor()));
+        try {
+            assertTrue(LockServiceFactory.getInstance().getLockService(database) instanceof DdmOfflineLockService);
+        } finally {
+            LockServiceFactory.getInstance().resetAll();
+        }
+    }
+
+    @Test
+    void shouldInvalidateCachesOfOfflineRuns() throws Exception {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        ChangeSet changeSet = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        changeLog.addChangeSet(changeSet);
+        MockDatabase database = new MockDatabase() {
+            @Override
+            public List<RanChangeSet> getRanChangeSetList() {
+                return Collections.emptyList();
+            }
+        };
+        DdmOfflineLockService lockService = new DdmOfflineLockService();
+        lockService.setDatabase(database);
+
+        DdmRanChangeSetsKeeper.shouldSkip(database, changeSet);
+        assertTrue(lockService.acquireLock());
+        assertNull(DdmRanChangeSetsKeeper.getRootChangeLog(database));
+
+        DdmRanChangeSetsKeeper.shouldSkip(database, changeSet);
+        lockService.releaseLock();
+        assertNull(DdmRanChangeSetsKeeper.getRootChangeLog(database));
+    }
+
+    @Test
+    void shouldInvalidateCachesOfTheLastRun() {
+        DatabaseChangeLog changeLog = new DatabaseChangeLog("path/changelog.xml");
+        ChangeSet changeSet = new ChangeSet("id1", "author", false, false, "path/changelog.xml", null, null, changeLog);
+        DdmAddColumnChange change = new DdmAddColumnChange();
+        change.setTableName("table");
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+        MockDatabase database = new MockDatabase() {
+            @Override
+            public List<RanChangeSet> getRanChangeSetList() {
+                return Collections.emptyList();
+            }
+        };
+
+        DdmRanChangeSetsKeeper.shouldSkip(database, changeSet);
+        DdmChangeLogIndex index = DdmChangeLogIndex.getInstance(changeLog);
+        assertSame(changeLog, DdmRanChangeSetsKeeper.getRootChangeLog(database));
+        assertSame(index, DdmChangeLogIndex.getInstance(changeLog));
+
+        DdmLockService.invalidateCaches(database);
+
+        assertNull(DdmRanChangeSetsKeeper.getRootChangeLog(database));
+        assertNotSame(index, DdmChangeLogIndex.getInstance(changeLog));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchDeleteStatement;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdmBatchDeleteGeneratorTest {
+    private DdmBatchDeleteGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new DdmBatchDeleteGenerator();
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        DdmBatchDeleteStatement statement = new DdmBatchDeleteStatement("table", 2, "column1", "column2");
+        statement.addRow("value1", "value2");
+        Assertions.assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - row width and chunk size")
+    public void validateChangeRowWidthAndChunkSize() {
+        DdmBatchDeleteStatement statement = new DdmBatchDeleteStatement("table", 0, "column1", "column2");
+        statement.addRow("value1");
+        Assertions.assertEquals(2, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate SQL")
+    public void validateSQL() {
+        DdmBatchDeleteStatement statement = new DdmBatchDeleteStatement("table", 2, "column1", "column2");
+        statement.addRow("value1", "value2");
+        statement.addRow("value3", null);
+        statement.addRow("value5", "value6");
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(2, sqls.length);
+        assertEquals("delete from table using (values ('value1', 'value2'), ('value3', null::text)) as d(column1, column2) "
+            + "where table.column1 is not distinct from d.column1 and table.column2 is not distinct from d.column2;", sqls[0].toSql());
+        assertEquals("delete from table using (values ('value5', 'value6')) as d(column1, column2) "
+            + "where table.column1 is not distinct from d.column1 and table.column2 is not distinct from d.column2;", sqls[1].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - no rows")
+    public void validateSQLNoRows() {
+        Sql[] sqls = generator.generateSql(new DdmBatchDeleteStatement("table", 2, "column1"), new MockDatabase(), null);
+        assertEquals(0, sqls.length);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmBatchInsertStatement;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdmBatchInsertGeneratorTest {
+    private DdmBatchInsertGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new DdmBatchInsertGenerator();
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        DdmBatchInsertStatement statement = new DdmBatchInsertStatement("table", 2, "column1", "column2");
+        statement.addRow("value1", "value2");
+        Assertions.assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - row width and chunk size")
+    public void validateChangeRowWidthAndChunkSize() {
+        DdmBatchInsertStatement statement = new DdmBatchInsertStatement("table", 0, "column1", "column2");
+        statement.addRow("value1");
+        Assertions.assertEquals(2, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate SQL")
+    public void validateSQL() {
+        DdmBatchInsertStatement statement = new DdmBatchInsertStatement("table", 2, "column1", "column2");
+        statement.addRow("value1", "value2");
+        statement.addRow("value3", null);
+        statement.addRow("value5", "value6");
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(2, sqls.length);
+        assertEquals("insert into table(column1, column2) values ('value1', 'value2'), ('value3', null);", sqls[0].toSql());
+        assertEquals("insert into table(column1, column2) values ('value5', 'value6');", sqls[1].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - no rows")
+    public void validateSQLNoRows() {
+        Sql[] sqls = generator.generateSql(new DdmBatchInsertStatement("table", 2, "column1"), new MockDatabase(), null);
+        assertEquals(0, sqls.length);
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import com.epam.digital.data.platform.liquibase.extension.DdmPair;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmConditionConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmCteConfig;
@@ -29,6 +30,7 @@ import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperato
 import com.epam.digital.data.platform.liquibase.extension.change.DdmLogicOperatorTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
 import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateAbstractViewStatement;
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCteColumnResolver;
 import liquibase.database.core.MockDatabase;
 import liquibase.sql.Sql;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +40,10 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DdmCreateAbstractViewGeneratorTest {
     private DdmCreateAbstractViewGenerator generator;
@@ -239,6 +245,32 @@ class DdmCreateAbstractViewGeneratorTest {
                 "FROM table1 AS t1 INNER JOIN table2 AS t2 ON (t1.column11 = t2.column21) AND (t1.column12 = t2.column22);", sqls[0].toSql());
     }
 
+    @Test
+    @DisplayName("Validate SQL - join is generated again for the same statement")
+    public void validateSQLJoinRepeated() {
+        table = new DdmTableConfig("table2");
+        table.setAlias("t2");
+        column = new DdmColumnConfig();
+        column.setName("column21");
+        column.setReturning(true);
+        table.addColumn(column);
+        statement.addTable(table);
+
+        DdmJoinConfig join = new DdmJoinConfig();
+        join.setType("inner");
+        join.setLeftAlias("t1");
+        join.addLeftColumn("column11");
+        join.setRightAlias("t2");
+        join.addRightColumn("column21");
+        statement.addJoin(join);
+
+        Sql[] first = generator.generateSql(statement, new MockDatabase(), null);
+        Sql[] second = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t2.column21 " +
+                "FROM table1 AS t1 INNER JOIN table2 AS t2 ON (t1.column11 = t2.column21);", second[0].toSql());
+        assertEquals(first[0].toSql(), second[0].toSql());
+    }
+
     @Test
     @DisplayName("Validate SQL - join left")
     public void validateSQLJoinLeft() {
@@ -324,7 +356,119 @@ class DdmCreateAbstractViewGeneratorTest {
                 "\n\n" +
                 "CREATE INDEX IF NOT EXISTS ix_table1__column12 ON table1(column12);" +
                 "\n\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22);", sqls[0].toSql());
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
+    }
+
+    @Test
+    void shouldCreateIndexForNestedCteColumn() {
+        DdmCteConfig innerCte = createCte("inner_cte", "t1_name", "c1_name", "inner_alias");
+        DdmCteConfig outerCte = createCte("outer_cte", "inner_cte", "INNER_ALIAS", "outer_alias");
+
+        DdmColumnConfig searchColumn = new DdmColumnConfig();
+        searchColumn.setName("outer_alias");
+        searchColumn.setSearchType("equal");
+        DdmTableConfig cteTable = new DdmTableConfig("outer_cte");
+        cteTable.addColumn(searchColumn);
+
+        statement.setCtes(Arrays.asList(innerCte, outerCte));
+        statement.setTables(Collections.singletonList(cteTable));
+        statement.setIndexing(true);
+
+        assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertTrue(sqls[0].toSql().endsWith("CREATE INDEX IF NOT EXISTS ix_t1_name__c1_name ON t1_name(c1_name);"));
+    }
+
+    @Test
+    void shouldCreateIndexesConcurrentlyAsSeparateSql() {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column1");
+        column.setSearchType("equal");
+        DdmTableConfig table = new DdmTableConfig("table1");
+        table.addColumn(column);
+        statement.addTable(table);
+        statement.setIndexing(true);
+        statement.setConcurrentIndexes(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(3, sqls.length);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, column1 FROM table1 AS t1;", sqls[0].toSql());
+        assertEquals("DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass('ix_table1__column1') " +
+            "AND NOT indisvalid) THEN DROP INDEX ix_table1__column1; END IF; END$$;", sqls[1].toSql());
+        assertEquals("CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_table1__column1 ON table1(column1);", sqls[2].toSql());
+    }
+
+    @Test
+    void shouldFailValidationForCyclicCteColumns() {
+        DdmCteConfig cte1 = createCte("cte1", "cte2", "column2", "column1");
+        DdmCteConfig cte2 = createCte("cte2", "cte1", "column1", "column2");
+
+        DdmColumnConfig searchColumn = new DdmColumnConfig();
+        searchColumn.setName("column1");
+        searchColumn.setSearchType("equal");
+        DdmTableConfig cteTable = new DdmTableConfig("cte1");
+        cteTable.addColumn(searchColumn);
+
+        statement.setCtes(Arrays.asList(cte1, cte2));
+        statement.setTables(Collections.singletonList(cteTable));
+
+        List<String> errors = generator.validate(statement, new MockDatabase(), null).getErrorMessages();
+        assertEquals(Collections.singletonList(
+            "CTE has incorrect format: cyclic reference cte1.column1 -> cte2.column2 -> cte1.column1"), errors);
+    }
+
+    @Test
+    void shouldResolveCteChains() {
+        statement.setCtes(Arrays.asList(
+            createCte("cte1", "table1", "column1", "alias1"),
+            createCte("cte2", "cte1", "ALIAS1", "alias2"),
+            createCte("cte3", "cte2", "alias2", "alias3"),
+            createCte("cte4", "cte5", "alias5", "alias4"),
+            createCte("cte5", "cte4", "alias4", "alias5")));
+
+        DdmCteColumnResolver resolver = statement.getCteColumnResolver();
+        assertSame(resolver, statement.getCteColumnResolver());
+        assertEquals(new DdmPair("table1", "column1"), resolver.resolve("cte3", "alias3"));
+        assertEquals(new DdmPair("table1", "column1"), resolver.resolve("cte2", "ALIAS2"));
+        assertEquals(new DdmPair("table2", "column2"), resolver.resolve("table2", "column2"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> resolver.resolve("cte4", "alias4"));
+        assertEquals("cyclic reference cte4.alias4 -> cte5.alias5 -> cte4.alias4", e.getMessage());
+        assertEquals(new DdmPair("table1", "column1"), resolver.resolve("cte1", "alias1"));
+
+        statement.setCtes(Collections.emptyList());
+        assertNotSame(resolver, statement.getCteColumnResolver());
+        assertEquals(new DdmPair("cte3", "alias3"), statement.getCteColumnResolver().resolve("cte3", "alias3"));
+    }
+
+    @Test
+    void shouldFailValidationForUnknownCteColumn() {
+        DdmColumnConfig searchColumn = new DdmColumnConfig();
+        searchColumn.setName("column2");
+        searchColumn.setSearchType("equal");
+        DdmTableConfig cteTable = new DdmTableConfig("cte1");
+        cteTable.addColumn(searchColumn);
+
+        statement.setCtes(Collections.singletonList(createCte("cte1", "table1", "column1", "column1")));
+        statement.setTables(Collections.singletonList(cteTable));
+
+        List<String> errors = generator.validate(statement, new MockDatabase(), null).getErrorMessages();
+        assertEquals(Collections.singletonList(
+            "CTE has incorrect format: column2 column was not found in the table cte1"), errors);
+    }
+
+    private DdmCteConfig createCte(String name, String tableName, String columnName, String alias) {
+        DdmColumnConfig cteColumn = new DdmColumnConfig();
+        cteColumn.setName(columnName);
+        cteColumn.setAlias(alias);
+        DdmTableConfig cteTable = new DdmTableConfig(tableName);
+        cteTable.addColumn(cteColumn);
+        DdmCteConfig cte = new DdmCteConfig();
+        cte.setName(name);
+        cte.addTable(cteTable);
+        return cte;
     }
 
     @Test
@@ -410,11 +554,15 @@ class DdmCreateAbstractViewGeneratorTest {
                 + "AS t2_alias INNER JOIN cteName AS t3_alias " 
                 + "ON (t3_alias.cte_column_alias = t2_alias.c2_alias);\n"
                 + "\n"
+                + "CREATE INDEX IF NOT EXISTS ix_t2_name__c2_name_join ON t2_name(c2_name);\n"
+                + "\n"
                 + "CREATE INDEX IF NOT EXISTS ix_t1_name__c11_name " 
                 + "ON t1_name USING GIN (c11_name gin_trgm_ops);\n"
                 + "\n"
                 + "CREATE INDEX IF NOT EXISTS ix_t1_name__c12_name " 
-                + "ON t1_name USING GIN (c12_name gin_trgm_ops);",
+                + "ON t1_name USING GIN (c12_name gin_trgm_ops);\n"
+                + "\n"
+                + "CREATE INDEX IF NOT EXISTS ix_t1_name__c11_name_join ON t1_name(c11_name);",
             sqls[0].toSql());
     }
     
@@ -456,6 +604,57 @@ class DdmCreateAbstractViewGeneratorTest {
 
         statement.setIndexing(true);
 
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t1.column12, t2.column21, t2.column22 " +
+                "FROM table1 AS t1 INNER JOIN table2 AS t2 ON (t1.column11 = t2.column21);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1(column11);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - join columns covered by an index of the changelog")
+    public void validateSQLIndexingJoinCoveredByChangeLogIndex() {
+        DdmJoinConfig join;
+
+        column.setSearchType("equal");
+
+        column = new DdmColumnConfig();
+        column.setName("column12");
+        column.setReturning(true);
+        table.addColumn(column);
+
+        table = new DdmTableConfig("table2");
+        table.setAlias("t2");
+
+        column = new DdmColumnConfig();
+        column.setName("column21");
+        column.setReturning(true);
+        table.addColumn(column);
+
+        column = new DdmColumnConfig();
+        column.setName("column22");
+        column.setReturning(true);
+        column.setSearchType("equal");
+        table.addColumn(column);
+
+        statement.addTable(table);
+
+        join = new DdmJoinConfig();
+        join.setType("inner");
+        join.setLeftAlias("t1");
+        join.addLeftColumn("column11");
+        join.setRightAlias("t2");
+        join.addRightColumn("column21");
+        statement.addJoin(join);
+
+        statement.setIndexing(true);
+        statement.setIndexedColumns(Collections.singletonMap("table2",
+            Collections.singletonList(Arrays.asList("column21", "column22"))));
+
         Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
         assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t1.column12, t2.column21, t2.column22 " +
                 "FROM table1 AS t1 INNER JOIN table2 AS t2 ON (t1.column11 = t2.column21);" +
@@ -465,6 +664,63 @@ class DdmCreateAbstractViewGeneratorTest {
                 "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22);", sqls[0].toSql());
     }
 
+    @Test
+    @DisplayName("Validate SQL - keyset pagination")
+    public void validateSQLKeysetPagination() {
+        column.setSorting("desc");
+        column = new DdmColumnConfig();
+        column.setName("id");
+        column.setReturning(true);
+        table.addColumn(column);
+
+        statement.setKeysetTableName("table1");
+        statement.setKeysetColumns(Arrays.asList(new DdmPair("column11", "desc"), new DdmPair("id", "asc")));
+        statement.setOrderInView(false);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t1.id FROM table1 AS t1;" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11__id_keyset ON table1(column11 DESC, id);", sqls[0].toSql());
+
+        statement.setOrderInView(null);
+        sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t1.id FROM table1 AS t1 ORDER BY t1.column11 DESC;" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11__id_keyset ON table1(column11 DESC, id);", sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - materialized")
+    public void validateSQLMaterialized() {
+        column.setAlias("alias11");
+        column.setSearchType("equal");
+        statement.setIndexing(true);
+        statement.setMaterialized(true);
+        statement.setUniqueKey(Collections.singletonList("alias11"));
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('name_v') AND relkind = 'm') " +
+                "THEN DROP MATERIALIZED VIEW name_v; ELSE DROP VIEW IF EXISTS name_v; END IF; END$$;" +
+                "\n\n" +
+                "CREATE MATERIALIZED VIEW name_v AS SELECT t1.column11 AS alias11 FROM table1 AS t1;" +
+                "\n\n" +
+                "CREATE UNIQUE INDEX ui_name_v ON name_v(alias11);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_name_v__alias11 ON name_v(alias11);", sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - replaces materialized")
+    public void validateSQLReplacesMaterialized() {
+        statement.setReplacesMaterialized(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('name_v') AND relkind = 'm') " +
+                "THEN DROP MATERIALIZED VIEW name_v; END IF; END$$;" +
+                "\n\n" +
+                "CREATE OR REPLACE VIEW name_v AS SELECT t1.column11 FROM table1 AS t1;", sqls[0].toSql());
+    }
+
     @Test
     public void validateSQLIndexingEqualsWithDifferentColumnTypes() {
         column.setSearchType("equal");
@@ -533,7 +789,11 @@ class DdmCreateAbstractViewGeneratorTest {
                 "\n\n" +
                 "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1 USING GIN (column11 gin_trgm_ops);" +
                 "\n\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2 USING GIN (column22 gin_trgm_ops);", sqls[0].toSql());
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11_join ON table1(column11);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2 USING GIN (column22 gin_trgm_ops);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
     }
 
     @Test
@@ -582,7 +842,11 @@ class DdmCreateAbstractViewGeneratorTest {
                 "\n\n" +
                 "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1 USING GIN (column11 gin_trgm_ops);" +
                 "\n\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2 USING GIN (column22 gin_trgm_ops);", sqls[0].toSql());
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11_join ON table1(column11);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2 USING GIN (column22 gin_trgm_ops);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
     }
 
     @Test
@@ -631,7 +895,11 @@ class DdmCreateAbstractViewGeneratorTest {
                 "\n\n" +
                 "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1(column11 text_pattern_ops);" +
                 "\n\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22 text_pattern_ops);", sqls[0].toSql());
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11_join ON table1(column11);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22 text_pattern_ops);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
     }
 
     @Test
@@ -678,9 +946,13 @@ class DdmCreateAbstractViewGeneratorTest {
         assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column11, t1.column12, t2.column21, t2.column22 " +
                 "FROM table1 AS t1 INNER JOIN table2 AS t2 ON (t1.column11 = t2.column21);" +
                 "\n\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1(column11 bpchar_pattern_ops);\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11 ON table1(column11 bpchar_pattern_ops);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table1__column11_join ON table1(column11);\n" +
                 "\n" +
-                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22 varchar_pattern_ops);", sqls[0].toSql());
+                "CREATE INDEX IF NOT EXISTS ix_table2__column22 ON table2(column22 varchar_pattern_ops);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_table2__column21_join ON table2(column21);", sqls[0].toSql());
     }
 
     @Test
@@ -1408,6 +1680,29 @@ class DdmCreateAbstractViewGeneratorTest {
                 "(t1.column11 LIKE 'name%');", sqls[0].toSql());
     }
 
+    @Test
+    @DisplayName("Validate SQL - functions over a repeated column")
+    public void validateSQLFunctionsRepeatedColumn() {
+        column = new DdmColumnConfig();
+        column.setName("column2");
+        table.addColumn(column);
+
+        column = new DdmColumnConfig();
+        column.setName("column11");
+        table.addColumn(column);
+
+        DdmFunctionConfig function = new DdmFunctionConfig();
+        function.setTableAlias("t1");
+        function.setColumnName("column11");
+        function.setName("count");
+        function.setAlias("cnt");
+        table.addFunction(function);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT t1.column2, t1.column11, COUNT(t1.column11) AS cnt " +
+                "FROM table1 AS t1 GROUP BY t1.column2, t1.column11;", sqls[0].toSql());
+    }
+
     @Test
     @DisplayName("Validate SQL - functions")
     public void validateSQLFunctions() {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreateHistoryPartitionsStatement;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdmCreateHistoryPartitionsGeneratorTest {
+    private DdmCreateHistoryPartitionsGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new DdmCreateHistoryPartitionsGenerator();
+    }
+
+    @Test
+    @DisplayName("Validate change")
+    public void validateChange() {
+        DdmCreateHistoryPartitionsStatement statement = new DdmCreateHistoryPartitionsStatement("table_hst", "month", 3);
+        assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - partitioning and partitions")
+    public void validateChangeErrors() {
+        DdmCreateHistoryPartitionsStatement statement = new DdmCreateHistoryPartitionsStatement("table_hst", "week", 0);
+        assertEquals(2, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate SQL")
+    public void validateSQL() {
+        DdmCreateHistoryPartitionsStatement statement = new DdmCreateHistoryPartitionsStatement("table_hst", "month", 3);
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("DO $$\n" +
+            "DECLARE\n" +
+            "    v_start timestamp := date_trunc('month', now() AT TIME ZONE 'UTC');\n" +
+            "    v_default regclass := to_regclass('table_hst_default');\n" +
+            "    v_name text;\n" +
+            "    v_from timestamptz;\n" +
+            "    v_to timestamptz;\n" +
+            "    v_found boolean;\n" +
+            "BEGIN\n" +
+            "    FOR i IN 0..2 LOOP\n" +
+            "        v_name := 'table_hst_' || to_char(v_start + i * interval '1 month', 'YYYYMM');\n" +
+            "        CONTINUE WHEN to_regclass(v_name) IS NOT NULL;\n" +
+            "        v_from := (v_start + i * interval '1 month') AT TIME ZONE 'UTC';\n" +
+            "        v_to := (v_start + (i + 1) * interval '1 month') AT TIME ZONE 'UTC';\n" +
+            "        IF v_default IS NOT NULL THEN\n" +
+            "            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s WHERE %I >= %L AND %I < %L)',\n" +
+            "                v_default, 'ddm_created_at', v_from, 'ddm_created_at', v_to) INTO v_found;\n" +
+            "            IF v_found THEN\n" +
+            "                RAISE EXCEPTION 'Default partition % holds rows from % to %, move them out before creating partition %',\n" +
+            "                    v_default, v_from, v_to, v_name;\n" +
+            "            END IF;\n" +
+            "        END IF;\n" +
+            "        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',\n" +
+            "            v_name, 'table_hst', v_from, v_to);\n" +
+            "    END LOOP;\n" +
+            "END $$;", sqls[0].toSql());
+    }
+
+}
@@ -106,6 +106,25 @@ class DdmCreateMany2ManyGeneratorTest {
             , sqls[0].toSql());
     }
 
+    @Test
+    @DisplayName("Validate SQL - index built concurrently")
+    public void validateSQLConcurrentIndex() {
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setConcurrentIndexes(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(4, sqls.length);
+        assertEquals("CREATE OR REPLACE VIEW mainTable_referenceTable_rel_v AS SELECT mainTable.keyField, UNNEST(mainTable.keysArray) AS ref_id FROM mainTable;",
+            sqls[0].toSql());
+        assertTrue(sqls[1].toSql().startsWith("DO $$BEGIN IF EXISTS"));
+        assertEquals("CREATE INDEX CONCURRENTLY ix_mainTable_referenceTable_m2m ON mainTable USING gin(keysArray);", sqls[2].toSql());
+        assertTrue(sqls[3].toSql().startsWith("CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray"));
+    }
+
     @Test
     @DisplayName("Validate SQL - additional columns from mainTable")
     public void validateSQLMain() {
@@ -163,4 +182,186 @@ class DdmCreateMany2ManyGeneratorTest {
                 "CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray BEFORE UPDATE OR DELETE ON referenceTable FOR EACH ROW EXECUTE FUNCTION f_trg_check_m2m_integrity('ref_id', 'mainTable', 'keysArray');"
             , sqls[0].toSql());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Validate SQL - junction table")
+    public void validateSQLTableStorage() {
+        List<DdmColumnConfig> columns = new ArrayList<>();
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("Column1");
+        columns.add(column);
+
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setReferenceTableColumns(columns);
+        statement.setTableStorage(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE TABLE IF NOT EXISTS mainTable_referenceTable_rel AS SELECT DISTINCT mainTable.keyField, u.ref_id FROM mainTable, UNNEST(mainTable.keysArray) AS u(ref_id) WHERE u.ref_id IS NOT NULL WITH NO DATA;" +
+                "\n\n" +
+                "LOCK TABLE mainTable IN SHARE ROW EXCLUSIVE MODE;" +
+                "\n\n" +
+                "CREATE OR REPLACE FUNCTION f_trg_mainTable_referenceTable_rel_sync() RETURNS trigger AS $$\n" +
+                "BEGIN\n" +
+                "    IF TG_OP = 'INSERT' THEN\n" +
+                "        INSERT INTO mainTable_referenceTable_rel (keyField, ref_id) SELECT DISTINCT n.keyField, u.ref_id FROM new_rows n, UNNEST(n.keysArray) AS u(ref_id) WHERE u.ref_id IS NOT NULL ON CONFLICT DO NOTHING;\n" +
+                "    ELSIF TG_OP = 'UPDATE' THEN\n" +
+                "        DELETE FROM mainTable_referenceTable_rel USING old_rows o WHERE mainTable_referenceTable_rel.keyField = o.keyField\n" +
+                "            AND NOT EXISTS (SELECT 1 FROM new_rows n WHERE n.keyField = o.keyField AND n.keysArray IS NOT DISTINCT FROM o.keysArray);\n" +
+                "        INSERT INTO mainTable_referenceTable_rel (keyField, ref_id) SELECT DISTINCT n.keyField, u.ref_id FROM new_rows n, UNNEST(n.keysArray) AS u(ref_id) WHERE u.ref_id IS NOT NULL\n" +
+                "            AND NOT EXISTS (SELECT 1 FROM old_rows o WHERE o.keyField = n.keyField AND o.keysArray IS NOT DISTINCT FROM n.keysArray)\n" +
+                "            ON CONFLICT DO NOTHING;\n" +
+                "    ELSIF TG_OP = 'DELETE' THEN\n" +
+                "        DELETE FROM mainTable_referenceTable_rel USING old_rows o WHERE mainTable_referenceTable_rel.keyField = o.keyField;\n" +
+                "    ELSE\n" +
+                "        DELETE FROM mainTable_referenceTable_rel;\n" +
+                "    END IF;\n" +
+                "    RETURN NULL;\n" +
+                "END $$ LANGUAGE plpgsql;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_insert ON mainTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_insert AFTER INSERT ON mainTable REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION f_trg_mainTable_referenceTable_rel_sync();" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_update ON mainTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_update AFTER UPDATE ON mainTable REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION f_trg_mainTable_referenceTable_rel_sync();" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_delete ON mainTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_delete AFTER DELETE ON mainTable REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION f_trg_mainTable_referenceTable_rel_sync();" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_truncate ON mainTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_truncate AFTER TRUNCATE ON mainTable FOR EACH STATEMENT EXECUTE FUNCTION f_trg_mainTable_referenceTable_rel_sync();" +
+                "\n\n" +
+                "TRUNCATE mainTable_referenceTable_rel;" +
+                "\n\n" +
+                "INSERT INTO mainTable_referenceTable_rel (keyField, ref_id) SELECT DISTINCT mainTable.keyField, u.ref_id FROM mainTable, UNNEST(mainTable.keysArray) AS u(ref_id) WHERE u.ref_id IS NOT NULL;" +
+                "\n\n" +
+                "CREATE UNIQUE INDEX IF NOT EXISTS ui_mainTable_referenceTable_rel ON mainTable_referenceTable_rel(keyField, ref_id);" +
+                "\n\n" +
+                "CREATE INDEX IF NOT EXISTS ix_mainTable_referenceTable_rel__ref_id ON mainTable_referenceTable_rel(ref_id, keyField);" +
+                "\n\n" +
+                "CREATE OR REPLACE VIEW mainTable_referenceTable_rel_v AS SELECT mainTable_referenceTable_rel.keyField, mainTable_referenceTable_rel.ref_id, referenceTable.Column1 FROM mainTable_referenceTable_rel JOIN referenceTable USING (ref_id);" +
+                "\n\n" +
+                "CREATE INDEX ix_mainTable_referenceTable_m2m ON mainTable USING gin(keysArray);" +
+                "\n\n" +
+                "CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray BEFORE UPDATE OR DELETE ON referenceTable FOR EACH ROW EXECUTE FUNCTION f_trg_check_m2m_integrity('ref_id', 'mainTable', 'keysArray');"
+            , sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - junction table filled with the sync triggers when the index is built concurrently")
+    public void validateSQLTableStorageConcurrentIndex() {
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setTableStorage(true);
+        statement.setConcurrentIndexes(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(4, sqls.length);
+        String sql = sqls[0].toSql();
+        assertTrue(sql.indexOf("LOCK TABLE mainTable IN SHARE ROW EXCLUSIVE MODE;") < sql.indexOf("CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_insert"));
+        assertTrue(sql.indexOf("CREATE TRIGGER trg_mainTable_referenceTable_rel_sync_truncate") < sql.indexOf("TRUNCATE mainTable_referenceTable_rel;"));
+        assertTrue(sql.indexOf("TRUNCATE mainTable_referenceTable_rel;") < sql.lastIndexOf("INSERT INTO mainTable_referenceTable_rel"));
+        assertFalse(sqls[3].toSql().contains("_sync"));
+    }
+
+    @Test
+    @DisplayName("Validate SQL - junction table replaced by view")
+    public void validateSQLReplacesTable() {
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setReplacesTable(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertTrue(sqls[0].toSql().startsWith("CREATE OR REPLACE VIEW mainTable_referenceTable_rel_v AS SELECT mainTable.keyField, UNNEST(mainTable.keysArray) AS ref_id FROM mainTable;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_insert ON mainTable;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_update ON mainTable;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_delete ON mainTable;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_mainTable_referenceTable_rel_sync_truncate ON mainTable;" +
+                "\n\n" +
+                "DROP FUNCTION IF EXISTS f_trg_mainTable_referenceTable_rel_sync();" +
+                "\n\n" +
+                "DROP TABLE IF EXISTS mainTable_referenceTable_rel;" +
+                "\n\n" +
+                "CREATE INDEX ix_mainTable_referenceTable_m2m"));
+    }
+
+    @Test
+    @DisplayName("Validate SQL - statement integrity check")
+    public void validateSQLStatementIntegrityCheck() {
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setStatementIntegrityCheck(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("CREATE OR REPLACE VIEW mainTable_referenceTable_rel_v AS SELECT mainTable.keyField, UNNEST(mainTable.keysArray) AS ref_id FROM mainTable;" +
+                "\n\n" +
+                "CREATE INDEX ix_mainTable_referenceTable_m2m ON mainTable USING gin(keysArray);" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_referenceTable_integrity_mainTable_keysArray ON referenceTable;" +
+                "\n\n" +
+                "CREATE OR REPLACE FUNCTION f_trg_referenceTable_integrity_mainTable_keysArray() RETURNS trigger AS $$\n" +
+                "BEGIN\n" +
+                "    IF TG_OP = 'UPDATE' THEN\n" +
+                "        PERFORM 1 FROM mainTable WHERE mainTable.keysArray && ARRAY(SELECT o.ref_id FROM old_rows o\n" +
+                "            WHERE NOT EXISTS (SELECT 1 FROM new_rows n WHERE n.ref_id = o.ref_id)) LIMIT 1;\n" +
+                "    ELSE\n" +
+                "        PERFORM 1 FROM mainTable WHERE mainTable.keysArray && ARRAY(SELECT o.ref_id FROM old_rows o) LIMIT 1;\n" +
+                "    END IF;\n" +
+                "    IF FOUND THEN\n" +
+                "        RAISE EXCEPTION 'Keys of % are still referenced by mainTable.keysArray', TG_TABLE_NAME USING ERRCODE = 'foreign_key_violation';\n" +
+                "    END IF;\n" +
+                "    RETURN NULL;\n" +
+                "END $$ LANGUAGE plpgsql;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_referenceTable_integrity_mainTable_keysArray_update ON referenceTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray_update AFTER UPDATE ON referenceTable REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION f_trg_referenceTable_integrity_mainTable_keysArray();" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_referenceTable_integrity_mainTable_keysArray_delete ON referenceTable;" +
+                "\n\n" +
+                "CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray_delete AFTER DELETE ON referenceTable REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION f_trg_referenceTable_integrity_mainTable_keysArray();"
+            , sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - statement integrity check replaced by row integrity check")
+    public void validateSQLReplacesStatementIntegrityCheck() {
+        statement.setMainTableName("mainTable");
+        statement.setMainTableKeyField("keyField");
+        statement.setReferenceTableName("referenceTable");
+        statement.setReferenceColumnName("ref_id");
+        statement.setReferenceKeysArray("keysArray");
+        statement.setReplacesStatementIntegrityCheck(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertTrue(sqls[0].toSql().endsWith("CREATE INDEX ix_mainTable_referenceTable_m2m ON mainTable USING gin(keysArray);" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_referenceTable_integrity_mainTable_keysArray_update ON referenceTable;" +
+                "\n\n" +
+                "DROP TRIGGER IF EXISTS trg_referenceTable_integrity_mainTable_keysArray_delete ON referenceTable;" +
+                "\n\n" +
+                "DROP FUNCTION IF EXISTS f_trg_referenceTable_integrity_mainTable_keysArray();" +
+                "\n\n" +
+                "CREATE TRIGGER trg_referenceTable_integrity_mainTable_keysArray BEFORE UPDATE OR DELETE ON referenceTable FOR EACH ROW EXECUTE FUNCTION f_trg_check_m2m_integrity('ref_id', 'mainTable', 'keysArray');"));
+    }
+}
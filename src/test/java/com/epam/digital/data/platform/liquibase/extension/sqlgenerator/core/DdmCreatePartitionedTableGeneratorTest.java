@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import com.epam.digital.data.platform.liquibase.extension.statement.core.DdmCreatePartitionedTableStatement;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.datatype.core.IntType;
+import liquibase.datatype.core.TimestampType;
+import liquibase.sql.Sql;
+import liquibase.statement.core.CreateTableStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdmCreatePartitionedTableGeneratorTest {
+    private DdmCreatePartitionedTableGenerator generator;
+    private DdmCreatePartitionedTableStatement statement;
+
+    @BeforeEach
+    void setUp() {
+        generator = new DdmCreatePartitionedTableGenerator();
+        statement = new DdmCreatePartitionedTableStatement(null, null, "table_hst", null, "ddm_created_at");
+        statement.addColumn("id", new IntType());
+        statement.addColumn("ddm_created_at", new TimestampType());
+    }
+
+    @Test
+    @DisplayName("Check supports")
+    public void checkSupports() {
+        assertTrue(generator.supports(statement, new PostgresDatabase()));
+        assertFalse(generator.supports(new CreateTableStatement(null, null, "table"), new PostgresDatabase()));
+    }
+
+    @Test
+    @DisplayName("Validate SQL")
+    public void validateSQL() {
+        Sql[] sqls = generator.generateSql(statement, new PostgresDatabase(), null);
+        assertTrue(sqls[0].toSql().startsWith("CREATE TABLE table_hst ("));
+        assertTrue(sqls[0].toSql().endsWith(") PARTITION BY RANGE (ddm_created_at)"));
+    }
+
+    @Test
+    @DisplayName("Validate SQL - tablespace")
+    public void validateSQLTablespace() {
+        statement.setTablespace("space");
+        Sql[] sqls = generator.generateSql(statement, new PostgresDatabase(), null);
+        assertTrue(sqls[0].toSql().endsWith(") PARTITION BY RANGE (ddm_created_at) TABLESPACE space"));
+    }
+
+}
@@ -153,7 +153,31 @@ class DdmCreateSimpleSearchConditionGeneratorTest {
         Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
         assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT alias.* FROM table AS alias;" +
                 "\n\n" +
-                "CREATE INDEX ix_name_table_column ON table(column text_pattern_ops);", sqls[0].toSql());
+                "CREATE INDEX ix_name_table_column ON table USING GIN (column gin_trgm_ops);", sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - indexing concurrently")
+    public void validateSQLIndexingConcurrently() {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setAlias("alias");
+        statement.setTable(table);
+
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column");
+        column.setType("text");
+        column.setSearchType("equal");
+        statement.setSearchColumn(column);
+
+        statement.setIndexing(true);
+        statement.setConcurrentIndexes(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(3, sqls.length);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT alias.* FROM table AS alias;", sqls[0].toSql());
+        assertEquals("DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass('ix_name_table_column') " +
+            "AND NOT indisvalid) THEN DROP INDEX ix_name_table_column; END IF; END$$;", sqls[1].toSql());
+        assertEquals("CREATE INDEX CONCURRENTLY ix_name_table_column ON table(lower(cast(column as varchar)));", sqls[2].toSql());
     }
 
     @Test
@@ -174,7 +198,7 @@ class DdmCreateSimpleSearchConditionGeneratorTest {
         Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
         assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT alias.* FROM table AS alias;" +
                 "\n\n" +
-                "CREATE INDEX ix_name_table_column ON table(column bpchar_pattern_ops);", sqls[0].toSql());
+                "CREATE INDEX ix_name_table_column ON table USING GIN (column gin_trgm_ops);", sqls[0].toSql());
     }
 
     @Test
@@ -195,7 +219,7 @@ class DdmCreateSimpleSearchConditionGeneratorTest {
         Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
         assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT alias.* FROM table AS alias;" +
                 "\n\n" +
-                "CREATE INDEX ix_name_table_column ON table(column varchar_pattern_ops);", sqls[0].toSql());
+                "CREATE INDEX ix_name_table_column ON table USING GIN (column gin_trgm_ops);", sqls[0].toSql());
     }
 
     @Test
@@ -261,4 +285,24 @@ class DdmCreateSimpleSearchConditionGeneratorTest {
                 "CREATE INDEX ix_name_table_column ON table(column varchar_pattern_ops);", sqls[0].toSql());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Validate SQL - no index for notEqual")
+    public void validateSQLIndexingNotEqual() {
+        DdmTableConfig table = new DdmTableConfig("table");
+        table.setAlias("alias");
+        statement.setTable(table);
+
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column");
+        column.setType("text");
+        column.setSearchType("notEqual");
+        statement.setSearchColumn(column);
+
+        statement.setIndexing(true);
+
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals(1, sqls.length);
+        assertEquals("CREATE OR REPLACE VIEW name_v AS SELECT alias.* FROM table AS alias;", sqls[0].toSql());
+    }
+
+}
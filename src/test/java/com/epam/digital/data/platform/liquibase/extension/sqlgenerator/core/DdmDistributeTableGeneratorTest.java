@@ -73,4 +73,48 @@ class DdmDistributeTableGeneratorTest {
         assertEquals("SELECT create_distributed_table('name', 'column', 'hash', colocate_with=>'table')", sqls[0].toSql());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Validate SQL - concurrent")
+    public void validateSQLConcurrent() {
+        statement.setConcurrent(true);
+        statement.setColocateWith("table");
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("SELECT create_distributed_table_concurrently('name', 'column', colocate_with=>'table')", sqls[0].toSql());
+    }
+
+    @Test
+    @DisplayName("Validate SQL - shardCount")
+    public void validateSQLShardCount() {
+        statement.setConcurrent(true);
+        statement.setShardCount(64);
+        Sql[] sqls = generator.generateSql(statement, new MockDatabase(), null);
+        assertEquals("SELECT create_distributed_table_concurrently('name', 'column', shard_count=>64)", sqls[0].toSql());
+        assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - shardCount must be positive")
+    public void validateChangeShardCount() {
+        statement.setShardCount(0);
+        assertEquals(1, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - shardCount cannot be combined with colocateWith")
+    public void validateChangeShardCountColocateWith() {
+        statement.setShardCount(32);
+        statement.setColocateWith("table");
+        assertEquals(1, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+        statement.setColocateWith("none");
+        assertEquals(0, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+    @Test
+    @DisplayName("Validate change - concurrent distribution is hash distribution")
+    public void validateChangeConcurrentDistributionType() {
+        statement.setConcurrent(true);
+        statement.setDistributionType("append");
+        assertEquals(1, generator.validate(statement, new MockDatabase(), null).getErrorMessages().size());
+    }
+
+}
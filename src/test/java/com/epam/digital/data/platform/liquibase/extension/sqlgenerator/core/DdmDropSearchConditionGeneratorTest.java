@@ -43,7 +43,8 @@ class DdmDropSearchConditionGeneratorTest {
     @DisplayName("Validate SQL")
     public void validateSQL() {
         Sql[] sqls = generator.generateSql(new DdmDropSearchConditionStatement("name"), new MockDatabase(), null);
-        assertEquals("drop view if exists name_v;" +
+        assertEquals("DO $$BEGIN IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('name_v') AND relkind = 'm') " +
+                "THEN DROP MATERIALIZED VIEW name_v; ELSE DROP VIEW IF EXISTS name_v; END IF; END$$;" +
                 "\n\n" +
                 "delete from ddm_liquibase_metadata where (change_type = 'searchCondition') and (change_name = 'name');" +
                 "\n\n" +
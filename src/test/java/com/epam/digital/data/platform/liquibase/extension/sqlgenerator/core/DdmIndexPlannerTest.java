@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import liquibase.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmIndexPlannerTest {
+
+    private DdmIndexPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new DdmIndexPlanner("table", "ix_table__", "__");
+    }
+
+    @Test
+    @DisplayName("Index method follows search type")
+    void shouldChooseMethodBySearchType() {
+        planner.addColumn("c1", column("c1", "text", "equal"));
+        planner.addColumn("c2", column("c2", "text", "contains"));
+        planner.addColumn("c3", column("c3", "char", "startsWith"));
+        planner.addColumn("c4", column("c4", "date", "between"));
+        planner.addColumn("c5", column("c5", "text", "in"));
+        planner.addColumn("c6", column("c6", "text", "notEqual"));
+        planner.addColumn("c7", column("c7", "text", "notIn"));
+
+        assertEquals(Arrays.asList(
+                "CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(lower(cast(c1 as varchar)));",
+                "CREATE INDEX IF NOT EXISTS ix_table__c2 ON table USING GIN (c2 gin_trgm_ops);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c3 ON table(c3 bpchar_pattern_ops);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c4 ON table(c4);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c5 ON table(lower(cast(c5 as varchar)));"),
+            plan());
+    }
+
+    @Test
+    @DisplayName("Required equality columns share a composite index")
+    void shouldPlanCompositeIndex() {
+        DdmColumnConfig c1 = column("c1", "text", "equal");
+        c1.setRequired(true);
+        DdmColumnConfig c2 = column("c2", "integer", "in");
+        c2.setRequired(true);
+        DdmColumnConfig c3 = column("c3", "text", "contains");
+        c3.setRequired(true);
+        planner.addColumn("c1", c1);
+        planner.addColumn("c2", c2);
+        planner.addColumn("c3", c3);
+
+        assertEquals(Arrays.asList(
+                "CREATE INDEX IF NOT EXISTS ix_table__c1__c2 ON table(lower(cast(c1 as varchar)), c2);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c3 ON table USING GIN (c3 gin_trgm_ops);"),
+            plan());
+    }
+
+    @Test
+    @DisplayName("Single required equality column gets its own index")
+    void shouldNotPlanCompositeIndexForOneColumn() {
+        DdmColumnConfig c1 = column("c1", "uuid", "equal");
+        c1.setRequired(true);
+        planner.addColumn("c1", c1);
+
+        assertEquals(Collections.singletonList("CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(c1);"), plan());
+    }
+
+    @Test
+    @DisplayName("Hash indexes for equal columns")
+    void shouldPlanHashIndex() throws Exception {
+        planner.addColumn("c1", column("c1", "text", "equal"));
+        planner.addColumn("c2", column("c2", "text", "in"));
+
+        Scope.child(Collections.singletonMap(DdmConfiguration.HASH_INDEXES.getKey(), true), () ->
+            assertEquals(Arrays.asList(
+                    "CREATE INDEX IF NOT EXISTS ix_table__c1 ON table USING HASH (lower(cast(c1 as varchar)));",
+                    "CREATE INDEX IF NOT EXISTS ix_table__c2 ON table(lower(cast(c2 as varchar)));"),
+                plan()));
+    }
+
+    @Test
+    @DisplayName("Returned columns are included in btree indexes")
+    void shouldPlanCoveringIndexes() throws Exception {
+        DdmColumnConfig c1 = column("c1", "uuid", "equal");
+        c1.setReturning(true);
+        DdmColumnConfig c2 = column("c2", "text", "contains");
+        c2.setReturning(true);
+        DdmColumnConfig c3 = column("c3", "text", null);
+        c3.setReturning(true);
+        planner.addColumn("c1", c1);
+        planner.addColumn("c2", c2);
+        planner.addColumn("c3", c3);
+
+        assertEquals(Arrays.asList(
+                "CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(c1);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c2 ON table USING GIN (c2 gin_trgm_ops);"),
+            plan());
+        Scope.child(Collections.singletonMap(DdmConfiguration.COVERING_INDEXES.getKey(), true), () ->
+            assertEquals(Arrays.asList(
+                    "CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(c1) INCLUDE (c3);",
+                    "CREATE INDEX IF NOT EXISTS ix_table__c2 ON table USING GIN (c2 gin_trgm_ops);"),
+                plan()));
+    }
+
+    @Test
+    @DisplayName("Column repeated under several aliases is indexed once")
+    void shouldNotPlanDuplicateIndexes() {
+        planner.addColumn("c1", column("c1", "text", "equal"));
+        planner.addColumn("c1", column("c1_alias", "text", "equal"));
+
+        assertEquals(Collections.singletonList("CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(lower(cast(c1 as varchar)));"),
+            plan());
+    }
+
+    @Test
+    @DisplayName("Join columns are indexed unless an index starts with them")
+    void shouldPlanJoinIndexes() {
+        planner.addColumn("c1", column("c1", "uuid", "equal"));
+        planner.addJoinColumns(Collections.singletonList("c1"));
+        planner.addJoinColumns(Arrays.asList("c2", "c3"));
+        planner.addJoinColumns(Collections.singletonList("c4"));
+        planner.addJoinColumns(Collections.singletonList("c5"));
+        planner.addIndexedColumns(Collections.singletonList(Arrays.asList("c3", "c2", "c6")));
+        planner.addIndexedColumns(Collections.singletonList(Arrays.asList("c6", "c4")));
+
+        assertEquals(Arrays.asList(
+                "CREATE INDEX IF NOT EXISTS ix_table__c1 ON table(c1);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c4_join ON table(c4);",
+                "CREATE INDEX IF NOT EXISTS ix_table__c5_join ON table(c5);"),
+            plan());
+    }
+
+    private List<String> plan() {
+        return planner.plan().stream().map(index -> index.toSql(false, true).getValue()).collect(Collectors.toList());
+    }
+
+    private static DdmColumnConfig column(String name, String type, String searchType) {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName(name);
+        column.setType(type);
+        column.setSearchType(searchType);
+        return column;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.liquibase.extension.sqlgenerator.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.digital.data.platform.liquibase.extension.DdmConfiguration;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmColumnConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.DdmTableConfig;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateSimpleSearchConditionChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmCreateTableChange;
+import com.epam.digital.data.platform.liquibase.extension.change.core.DdmDropSearchConditionChange;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import liquibase.Contexts;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.core.MockDatabase;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmIndexRegistryTest {
+
+    private MockDatabase database;
+    private DatabaseChangeLog changeLog;
+    private DdmCreateSimpleSearchConditionChange sc1;
+    private DdmCreateSimpleSearchConditionChange sc2;
+    private DdmCreateSearchConditionChange sc3;
+
+    @BeforeEach
+    void setUp() {
+        database = new MockDatabase();
+        changeLog = new DatabaseChangeLog("path/changelog.xml");
+        changeLog.setChangeLogParameters(new ChangeLogParameters());
+
+        DdmCreateTableChange table = new DdmCreateTableChange();
+        table.setTableName("table1");
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column1");
+        column.setType("text");
+        table.addColumn(column);
+        addChangeSet("id0", table);
+
+        sc1 = simpleSearchCondition("sc1");
+        addChangeSet("id1", sc1);
+        sc2 = simpleSearchCondition("sc2");
+        addChangeSet("id2", sc2);
+
+        sc3 = new DdmCreateSearchConditionChange("sc3");
+        sc3.setIndexing(true);
+        DdmTableConfig scTable = new DdmTableConfig("table1");
+        scTable.setAlias("t1");
+        scTable.addColumn(searchColumn());
+        sc3.addTable(scTable);
+        addChangeSet("id3", sc3);
+    }
+
+    @Test
+    @DisplayName("Equivalent indexes of later search conditions are skipped")
+    void shouldSkipRedundantIndexes() {
+        assertEquals(Collections.singletonList(
+                "CREATE OR REPLACE VIEW sc1_v AS SELECT t1.* FROM table1 AS t1;\n\n" +
+                "CREATE INDEX ix_sc1_table1_column1 ON table1(lower(cast(column1 as varchar)));"),
+            render(sc1));
+        assertEquals(Collections.singletonList("CREATE OR REPLACE VIEW sc2_v AS SELECT t1.* FROM table1 AS t1;"),
+            render(sc2));
+        assertTrue(render(sc3).stream().noneMatch(sql -> sql.contains("CREATE INDEX")));
+
+        DdmIndexRegistry registry = DdmIndexRegistry.getInstance(sc1.getChangeSet(), database);
+        assertEquals("ix_sc1_table1_column1", registry.getSkippedIndexes().get("ix_sc2_table1_column1"));
+        assertEquals("ix_sc1_table1_column1", registry.getSkippedIndexes().get("ix_table1__column1"));
+    }
+
+    @Test
+    @DisplayName("Indexes are owned by the first definition in ChangeLog order")
+    void shouldKeepFirstDefinitionWhateverTheRenderOrder() {
+        assertEquals(1, render(sc2).size());
+        assertTrue(render(sc1).get(0).contains("CREATE INDEX ix_sc1_table1_column1"));
+    }
+
+    @Test
+    @DisplayName("Indexes of another search type are not redundant")
+    void shouldNotSkipIndexesOfAnotherSearchType() {
+        sc2.getSearchColumn().setSearchType("contains");
+
+        assertTrue(render(sc2).get(0).contains("CREATE INDEX ix_sc2_table1_column1 ON table1 USING GIN (column1 gin_trgm_ops);"));
+    }
+
+    @Test
+    @DisplayName("Search conditions that are not going to run do not own indexes")
+    void shouldNotRegisterChangeSetsThatAreNotGoingToRun() {
+        changeLog.getChangeLogParameters().setContexts(new Contexts("test"));
+        DdmCreateSimpleSearchConditionChange sc0 = simpleSearchCondition("sc0");
+        ChangeSet changeSet = new ChangeSet("id00", "author", false, false, "path/changelog.xml", "other", null, changeLog);
+        changeSet.addChange(sc0);
+        changeLog.getChangeSets().add(1, changeSet);
+        sc2.getChangeSet().setIgnore(true);
+
+        assertTrue(render(sc1).get(0).contains("CREATE INDEX ix_sc1_table1_column1"));
+        assertTrue(render(sc3).stream().noneMatch(sql -> sql.contains("CREATE INDEX")));
+    }
+
+    @Test
+    @DisplayName("Ownership of the indexes of a dropped search condition passes to the next definition")
+    void shouldReassignIndexesOfDroppedSearchCondition() {
+        DdmDropSearchConditionChange drop = new DdmDropSearchConditionChange();
+        drop.setName("sc1");
+        addChangeSet("id4", drop);
+        DdmCreateSimpleSearchConditionChange sc4 = simpleSearchCondition("sc4");
+        addChangeSet("id5", sc4);
+        DdmCreateSimpleSearchConditionChange sc5 = simpleSearchCondition("sc5");
+        addChangeSet("id6", sc5);
+
+        assertEquals(1, render(sc2).size());
+        assertTrue(render(sc4).get(0).contains("CREATE INDEX ix_sc4_table1_column1"));
+        assertEquals(1, render(sc5).size());
+    }
+
+    @Test
+    @DisplayName("Skipped indexes are reported as warnings")
+    void shouldWarnAboutSkippedIndexes() {
+        assertEquals(Collections.singletonList("Index ix_sc2_table1_column1 is not created, "
+                + "equivalent index ix_sc1_table1_column1 of an earlier search condition exists"),
+            sc2.warn(database).getMessages());
+        assertFalse(sc1.warn(database).hasWarnings());
+    }
+
+    @Test
+    @DisplayName("Deduplication can be disabled")
+    void shouldNotSkipWhenDisabled() throws Exception {
+        Scope.child(Collections.singletonMap(DdmConfiguration.INDEX_DEDUPLICATION.getKey(), false), () -> {
+            assertNull(DdmIndexRegistry.getInstance(sc1.getChangeSet(), database));
+            assertTrue(render(sc2).get(0).contains("CREATE INDEX ix_sc2_table1_column1"));
+        });
+    }
+
+    private void addChangeSet(String id, Change change) {
+        ChangeSet changeSet = new ChangeSet(id, "author", false, false, "path/changelog.xml", null, null, changeLog);
+        changeSet.addChange(change);
+        changeLog.addChangeSet(changeSet);
+    }
+
+    private DdmCreateSimpleSearchConditionChange simpleSearchCondition(String name) {
+        DdmCreateSimpleSearchConditionChange change = new DdmCreateSimpleSearchConditionChange(name);
+        DdmTableConfig table = new DdmTableConfig("table1");
+        table.setAlias("t1");
+        change.setTable(table);
+        change.setSearchColumn(searchColumn());
+        change.setIndexing(true);
+        return change;
+    }
+
+    private DdmColumnConfig searchColumn() {
+        DdmColumnConfig column = new DdmColumnConfig();
+        column.setName("column1");
+        column.setSearchType("equal");
+        return column;
+    }
+
+    private List<String> render(Change change) {
+        List<String> result = new ArrayList<>();
+        for (SqlStatement statement : change.generateStatements(database)) {
+            for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(statement, database)) {
+                if (sql.toSql().startsWith("CREATE")) {
+                    result.add(sql.toSql());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.liquibase.extension.statement.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DdmBatchDeleteStatementTest {
+    @Test
+    @DisplayName("Check statement")
+    public void check() {
+        DdmBatchDeleteStatement statement = new DdmBatchDeleteStatement("table", 10, "column1", "column2");
+        statement.addRow("value1", null);
+        Assertions.assertEquals(1, statement.getRows().size());
+        Assertions.assertEquals(2, statement.getColumnNames().size());
+    }
+
+}